@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * Throughput of deserializing block, receipt and log responses built from the recorded fixtures in
+ * the test resources. The fixture's transactions and logs are repeated to reach the given count, so
+ * responses of the size seen on mainnet are measured as well as the fixtures themselves.
+ *
+ * <p>Run with {@code ./gradlew :core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializationBenchmark {
+
+    @Param({"3", "200"})
+    private int count;
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private byte[] block;
+    private byte[] receipt;
+    private byte[] logs;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonNode blockResponse = readFixture("block-full-transactions.json");
+        repeat((ArrayNode) blockResponse.get("result").get("transactions"), count);
+        block = objectMapper.writeValueAsBytes(blockResponse);
+
+        JsonNode receiptResponse = readFixture("transaction-receipt.json");
+        receipt = objectMapper.writeValueAsBytes(receiptResponse);
+
+        ArrayNode logArray = objectMapper.createArrayNode();
+        logArray.addAll((ArrayNode) receiptResponse.get("result").get("logs"));
+        repeat(logArray, count);
+        ObjectNode logResponse = objectMapper.createObjectNode();
+        logResponse.put("jsonrpc", "2.0").put("id", 1).set("result", logArray);
+        logs = objectMapper.writeValueAsBytes(logResponse);
+    }
+
+    @Benchmark
+    public List<EthBlock.TransactionResult> block() throws IOException {
+        return objectMapper.readValue(block, EthBlock.class).getBlock().getTransactions();
+    }
+
+    @Benchmark
+    public TransactionReceipt receipt() throws IOException {
+        return objectMapper
+                .readValue(receipt, EthGetTransactionReceipt.class)
+                .getTransactionReceipt()
+                .get();
+    }
+
+    @Benchmark
+    public List<EthLog.LogResult> logs() throws IOException {
+        return objectMapper.readValue(logs, EthLog.class).getLogs();
+    }
+
+    private static void repeat(ArrayNode array, int count) {
+        int size = array.size();
+        for (int i = size; i < count; i++) {
+            array.add(array.get(i % size).deepCopy());
+        }
+        while (array.size() > count) {
+            array.remove(array.size() - 1);
+        }
+    }
+
+    private JsonNode readFixture(String name) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/fixtures/" + name)) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+}
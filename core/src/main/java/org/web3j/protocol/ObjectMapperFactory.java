@@ -23,11 +23,24 @@ import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.deserializer.HexStringPool;
 import org.web3j.protocol.deserializer.RawResponseDeserializer;
 
 /** Factory for managing our ObjectMapper instances. */
 public class ObjectMapperFactory {
 
+    /**
+     * Deserialization attribute which, when set to {@link Boolean#TRUE}, keeps the transactions of
+     * a block as raw JSON until they are accessed.
+     */
+    public static final String LAZY_BLOCK_TRANSACTIONS = "org.web3j.lazyBlockTransactions";
+
+    /**
+     * Deserialization attribute holding the {@link HexStringPool} used to canonicalize addresses
+     * and hashes, if any.
+     */
+    public static final String HEX_STRING_POOL = "org.web3j.hexStringPool";
+
     private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper();
 
     static {
@@ -46,6 +59,50 @@ public class ObjectMapperFactory {
         return configureObjectMapper(new ObjectMapper(), true);
     }
 
+    /**
+     * Returns a copy of the given object mapper which defers decoding the transactions of blocks,
+     * such as those returned by eth_getBlockByNumber with full transaction objects, until they are
+     * accessed. The given mapper is not changed, pass the copy to a service to use it for a single
+     * {@link org.web3j.protocol.Web3j} instance, see {@link
+     * org.web3j.protocol.http.HttpService#HttpService(String, okhttp3.OkHttpClient, boolean,
+     * ObjectMapper)}.
+     *
+     * <p>The raw JSON of the transactions is held by the block instead, which can be searched by
+     * transaction index or field value without decoding the other transactions, see {@link
+     * org.web3j.protocol.core.methods.response.EthBlock.Block#findTransactions}.
+     *
+     * @param objectMapper object mapper to copy
+     * @param lazy true to decode transactions on first access
+     * @return the configured copy
+     */
+    public static ObjectMapper withLazyBlockTransactions(ObjectMapper objectMapper, boolean lazy) {
+        ObjectMapper copy = objectMapper.copy();
+        copy.setConfig(
+                copy.getDeserializationConfig().withAttribute(LAZY_BLOCK_TRANSACTIONS, lazy));
+        return copy;
+    }
+
+    /**
+     * Returns a copy of the given object mapper which shares a single instance of each distinct
+     * address and hash read in logs and transactions, using the given pool. This reduces the memory
+     * held by applications which buffer large numbers of logs. The given mapper is not changed, see
+     * {@link #withLazyBlockTransactions(ObjectMapper, boolean)} for using the copy with a single
+     * {@link org.web3j.protocol.Web3j} instance.
+     *
+     * @param objectMapper object mapper to copy
+     * @param pool pool of canonical values, or null to disable pooling
+     * @return the configured copy
+     */
+    public static ObjectMapper withHexStringPool(ObjectMapper objectMapper, HexStringPool pool) {
+        ObjectMapper copy = objectMapper.copy();
+        DeserializationConfig config = copy.getDeserializationConfig();
+        copy.setConfig(
+                pool != null
+                        ? config.withAttribute(HEX_STRING_POOL, pool)
+                        : config.withoutAttribute(HEX_STRING_POOL));
+        return copy;
+    }
+
     public static ObjectReader getObjectReader() {
         return DEFAULT_OBJECT_MAPPER.reader();
     }
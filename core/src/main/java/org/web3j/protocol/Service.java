@@ -36,7 +36,17 @@ public abstract class Service implements Web3jService {
     protected final ObjectMapper objectMapper;
 
     public Service(boolean includeRawResponses) {
-        objectMapper = ObjectMapperFactory.getObjectMapper(includeRawResponses);
+        this(ObjectMapperFactory.getObjectMapper(includeRawResponses));
+    }
+
+    /**
+     * Create a service which reads responses with the given object mapper, such as one returned by
+     * {@link ObjectMapperFactory#withLazyBlockTransactions(ObjectMapper, boolean)}.
+     *
+     * @param objectMapper object mapper for this service
+     */
+    protected Service(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
     }
 
     protected abstract InputStream performIO(String payload) throws IOException;
@@ -40,7 +40,9 @@ public interface Web3j extends Ethereum, Web3jRx, Batcher {
      * Construct a new Web3j instance.
      *
      * @param web3jService web3j service instance - i.e. HTTP or IPC
-     * @param pollingInterval polling interval for responses from network nodes
+     * @param pollingInterval polling interval for responses from network nodes, or {@link
+     *     org.web3j.protocol.core.chain.AdaptivePollingScheduler#ADAPTIVE} to poll just after each
+     *     block is expected
      * @param scheduledExecutorService executor service to use for scheduled tasks. <strong>You are
      *     responsible for terminating this thread pool</strong>
      * @return new Web3j instance
@@ -52,6 +54,26 @@ public interface Web3j extends Ethereum, Web3jRx, Batcher {
         return new JsonRpc2_0Web3j(web3jService, pollingInterval, scheduledExecutorService);
     }
 
+    /**
+     * Construct a new Web3j instance.
+     *
+     * @param web3jService web3j service instance - i.e. HTTP or IPC
+     * @param pollingInterval polling interval for responses from network nodes
+     * @param scheduledExecutorService executor service to use for scheduled tasks. <strong>You are
+     *     responsible for terminating this thread pool</strong>
+     * @param multiplexLogPolling if true, log flowables share a single eth_getLogs poll of the
+     *     node instead of each installing and polling its own filter
+     * @return new Web3j instance
+     */
+    static Web3j build(
+            Web3jService web3jService,
+            long pollingInterval,
+            ScheduledExecutorService scheduledExecutorService,
+            boolean multiplexLogPolling) {
+        return new JsonRpc2_0Web3j(
+                web3jService, pollingInterval, scheduledExecutorService, multiplexLogPolling);
+    }
+
     /** Shutdowns a Web3j instance and closes opened resources. */
     void shutdown();
 }
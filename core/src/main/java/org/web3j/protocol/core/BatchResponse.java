@@ -12,7 +12,11 @@
  */
 package org.web3j.protocol.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BatchResponse {
 
@@ -34,4 +38,45 @@ public class BatchResponse {
     public List<Request<?, ? extends Response<?>>> getRequests() {
         return requests;
     }
+
+    /**
+     * Returns the responses in the order of the given requests. As the order of a batch response is
+     * not guaranteed, responses are matched to the requests by id. If any response does not match a
+     * distinct request, as when a node does not echo the ids back, all of the responses are taken
+     * in the order they were received instead.
+     *
+     * @param requests the requests of the batch, in the order they were added
+     * @param <T> the response type of the requests
+     * @return a list with a response for each request, holding null where a response is missing
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Response<?>> List<T> orderedByRequest(
+            List<? extends Request<?, ? extends T>> requests) {
+        Map<Long, Integer> positions = new HashMap<>(requests.size() * 2);
+        for (Request<?, ? extends T> request : requests) {
+            positions.put(request.getId(), positions.size());
+        }
+
+        List<? extends Response<?>> responses =
+                this.responses != null ? this.responses : Collections.emptyList();
+        List<T> ordered = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        for (Response<?> response : responses) {
+            Integer position = positions.get(response.getId());
+            if (position == null || ordered.get(position) != null) {
+                return inReceivedOrder(requests.size(), responses);
+            }
+            ordered.set(position, (T) response);
+        }
+        return ordered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Response<?>> List<T> inReceivedOrder(
+            int size, List<? extends Response<?>> responses) {
+        List<T> ordered = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ordered.add(i < responses.size() ? (T) responses.get(i) : null);
+        }
+        return ordered;
+    }
 }
@@ -38,13 +38,16 @@ import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.EthBlockNumber;
 import org.web3j.protocol.core.methods.response.EthChainId;
 import org.web3j.protocol.core.methods.response.EthCoinbase;
+import org.web3j.protocol.core.methods.response.EthCompactLog;
 import org.web3j.protocol.core.methods.response.EthCompileLLL;
 import org.web3j.protocol.core.methods.response.EthCompileSerpent;
 import org.web3j.protocol.core.methods.response.EthCompileSolidity;
 import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
 import org.web3j.protocol.core.methods.response.EthFilter;
 import org.web3j.protocol.core.methods.response.EthGasPrice;
 import org.web3j.protocol.core.methods.response.EthGetBalance;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
 import org.web3j.protocol.core.methods.response.EthGetBlockTransactionCountByHash;
 import org.web3j.protocol.core.methods.response.EthGetBlockTransactionCountByNumber;
 import org.web3j.protocol.core.methods.response.EthGetCode;
@@ -57,6 +60,7 @@ import org.web3j.protocol.core.methods.response.EthGetUncleCountByBlockNumber;
 import org.web3j.protocol.core.methods.response.EthGetWork;
 import org.web3j.protocol.core.methods.response.EthHashrate;
 import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthMaxPriorityFeePerGas;
 import org.web3j.protocol.core.methods.response.EthMining;
 import org.web3j.protocol.core.methods.response.EthProtocolVersion;
 import org.web3j.protocol.core.methods.response.EthSign;
@@ -84,6 +88,7 @@ import org.web3j.protocol.core.methods.response.Web3Sha3;
 import org.web3j.protocol.core.methods.response.admin.AdminDataDir;
 import org.web3j.protocol.core.methods.response.admin.AdminNodeInfo;
 import org.web3j.protocol.core.methods.response.admin.AdminPeers;
+import org.web3j.protocol.rx.BlockWithReceipts;
 import org.web3j.protocol.rx.JsonRpc2_0Rx;
 import org.web3j.protocol.websocket.events.LogNotification;
 import org.web3j.protocol.websocket.events.NewHeadsNotification;
@@ -99,6 +104,7 @@ public class JsonRpc2_0Web3j implements Web3j {
     private final JsonRpc2_0Rx web3jRx;
     private final long blockTime;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final boolean multiplexLogPolling;
 
     public JsonRpc2_0Web3j(Web3jService web3jService) {
         this(web3jService, DEFAULT_BLOCK_TIME, Async.defaultExecutorService());
@@ -108,10 +114,37 @@ public class JsonRpc2_0Web3j implements Web3j {
             Web3jService web3jService,
             long pollingInterval,
             ScheduledExecutorService scheduledExecutorService) {
+        this(web3jService, pollingInterval, scheduledExecutorService, false);
+    }
+
+    public JsonRpc2_0Web3j(
+            Web3jService web3jService,
+            long pollingInterval,
+            ScheduledExecutorService scheduledExecutorService,
+            boolean multiplexLogPolling) {
+        this(
+                web3jService,
+                pollingInterval,
+                scheduledExecutorService,
+                multiplexLogPolling,
+                JsonRpc2_0Rx.DEFAULT_REPLAY_BATCH_SIZE,
+                JsonRpc2_0Rx.DEFAULT_REPLAY_CONCURRENCY);
+    }
+
+    public JsonRpc2_0Web3j(
+            Web3jService web3jService,
+            long pollingInterval,
+            ScheduledExecutorService scheduledExecutorService,
+            boolean multiplexLogPolling,
+            int replayBatchSize,
+            int replayConcurrency) {
         this.web3jService = web3jService;
-        this.web3jRx = new JsonRpc2_0Rx(this, scheduledExecutorService);
+        this.web3jRx =
+                new JsonRpc2_0Rx(
+                        this, scheduledExecutorService, replayBatchSize, replayConcurrency);
         this.blockTime = pollingInterval;
         this.scheduledExecutorService = scheduledExecutorService;
+        this.multiplexLogPolling = multiplexLogPolling;
     }
 
     @Override
@@ -221,6 +254,28 @@ public class JsonRpc2_0Web3j implements Web3j {
                 "eth_gasPrice", Collections.<String>emptyList(), web3jService, EthGasPrice.class);
     }
 
+    @Override
+    public Request<?, EthMaxPriorityFeePerGas> ethMaxPriorityFeePerGas() {
+        return new Request<>(
+                "eth_maxPriorityFeePerGas",
+                Collections.<String>emptyList(),
+                web3jService,
+                EthMaxPriorityFeePerGas.class);
+    }
+
+    @Override
+    public Request<?, EthFeeHistory> ethFeeHistory(
+            int blockCount, DefaultBlockParameter newestBlock, List<Double> rewardPercentiles) {
+        return new Request<>(
+                "eth_feeHistory",
+                Arrays.asList(
+                        Numeric.encodeQuantity(BigInteger.valueOf(blockCount)),
+                        newestBlock.getValue(),
+                        rewardPercentiles),
+                web3jService,
+                EthFeeHistory.class);
+    }
+
     @Override
     public Request<?, EthAccounts> ethAccounts() {
         return new Request<>(
@@ -422,6 +477,16 @@ public class JsonRpc2_0Web3j implements Web3j {
                 EthGetTransactionReceipt.class);
     }
 
+    @Override
+    public Request<?, EthGetBlockReceipts> ethGetBlockReceipts(
+            DefaultBlockParameter defaultBlockParameter) {
+        return new Request<>(
+                "eth_getBlockReceipts",
+                Arrays.asList(defaultBlockParameter.getValue()),
+                web3jService,
+                EthGetBlockReceipts.class);
+    }
+
     @Override
     public Request<?, EthBlock> ethGetUncleByBlockHashAndIndex(
             String blockHash, BigInteger transactionIndex) {
@@ -533,6 +598,13 @@ public class JsonRpc2_0Web3j implements Web3j {
         return new Request<>("eth_getLogs", Arrays.asList(ethFilter), web3jService, EthLog.class);
     }
 
+    @Override
+    public Request<?, EthCompactLog> ethGetCompactLogs(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return new Request<>(
+                "eth_getLogs", Arrays.asList(ethFilter), web3jService, EthCompactLog.class);
+    }
+
     @Override
     public Request<?, EthGetWork> ethGetWork() {
         return new Request<>(
@@ -731,9 +803,24 @@ public class JsonRpc2_0Web3j implements Web3j {
     @Override
     public Flowable<Log> ethLogFlowable(
             org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        if (multiplexLogPolling) {
+            return web3jRx.multiplexedLogFlowable(ethFilter, blockTime);
+        }
         return web3jRx.ethLogFlowable(ethFilter, blockTime);
     }
 
+    @Override
+    public Flowable<Log> blockRangeLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return web3jRx.blockRangeLogFlowable(ethFilter, blockTime);
+    }
+
+    @Override
+    public Flowable<Log> blockRangeLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter, int confirmationBlocks) {
+        return web3jRx.blockRangeLogFlowable(ethFilter, blockTime, confirmationBlocks);
+    }
+
     @Override
     public Flowable<org.web3j.protocol.core.methods.response.Transaction> transactionFlowable() {
         return web3jRx.transactionFlowable(blockTime);
@@ -750,6 +837,11 @@ public class JsonRpc2_0Web3j implements Web3j {
         return web3jRx.blockFlowable(fullTransactionObjects, blockTime);
     }
 
+    @Override
+    public Flowable<BlockWithReceipts> blockWithReceiptsFlowable() {
+        return web3jRx.blockWithReceiptsFlowable(blockTime);
+    }
+
     @Override
     public Flowable<EthBlock> replayPastBlocksFlowable(
             DefaultBlockParameter startBlock,
@@ -758,6 +850,12 @@ public class JsonRpc2_0Web3j implements Web3j {
         return web3jRx.replayBlocksFlowable(startBlock, endBlock, fullTransactionObjects);
     }
 
+    @Override
+    public Flowable<BlockWithReceipts> replayBlocksWithReceiptsFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock) {
+        return web3jRx.replayBlocksWithReceiptsFlowable(startBlock, endBlock);
+    }
+
     @Override
     public Flowable<EthBlock> replayPastBlocksFlowable(
             DefaultBlockParameter startBlock,
@@ -14,6 +14,7 @@ package org.web3j.protocol.core;
 
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import io.reactivex.Flowable;
 
@@ -27,11 +28,22 @@ import org.web3j.utils.Async;
 public class RemoteCall<T> {
 
     private Callable<T> callable;
+    private Supplier<CompletableFuture<T>> asyncCallable;
 
     public RemoteCall(Callable<T> callable) {
         this.callable = callable;
     }
 
+    /**
+     * @param callable the function performing the request synchronously
+     * @param asyncCallable the function performing the request without blocking the calling
+     *     thread, used by {@link #sendAsync()}
+     */
+    public RemoteCall(Callable<T> callable, Supplier<CompletableFuture<T>> asyncCallable) {
+        this.callable = callable;
+        this.asyncCallable = asyncCallable;
+    }
+
     /**
      * Perform request synchronously.
      *
@@ -48,6 +60,15 @@ public class RemoteCall<T> {
      * @return a future containing our function
      */
     public CompletableFuture<T> sendAsync() {
+        if (asyncCallable != null) {
+            try {
+                return asyncCallable.get();
+            } catch (RuntimeException e) {
+                CompletableFuture<T> result = new CompletableFuture<>();
+                result.completeExceptionally(e);
+                return result;
+            }
+        }
         return Async.run(this::send);
     }
 
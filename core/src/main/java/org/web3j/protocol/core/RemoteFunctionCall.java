@@ -14,6 +14,8 @@ package org.web3j.protocol.core;
 
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.web3j.abi.FunctionEncoder;
 import org.web3j.abi.FunctionReturnDecoder;
@@ -34,6 +36,14 @@ public class RemoteFunctionCall<T> extends RemoteCall<T> {
         this.function = function;
     }
 
+    public RemoteFunctionCall(
+            Function function,
+            Callable<T> callable,
+            Supplier<CompletableFuture<T>> asyncCallable) {
+        super(callable, asyncCallable);
+        this.function = function;
+    }
+
     /**
      * return an encoded function, so it can be manually signed and transmitted
      *
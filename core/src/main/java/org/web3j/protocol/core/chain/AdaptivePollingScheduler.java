@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.chain;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+
+/**
+ * Schedules polling tasks according to the {@link BlockTimingModel} of a {@link Web3j} instance,
+ * instead of at a fixed rate. Each poll is made just after the next block is expected, and polls
+ * which find nothing new back off to up to several block intervals.
+ *
+ * <p>Adaptive polling is selected by passing {@link #ADAPTIVE} wherever a polling interval is
+ * accepted, such as to {@link Web3j#build(org.web3j.protocol.Web3jService, long,
+ * ScheduledExecutorService)} or to the transaction receipt processors.
+ */
+public class AdaptivePollingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePollingScheduler.class);
+
+    /** Polling interval selecting adaptive polling. */
+    public static final long ADAPTIVE = 0;
+
+    /** A polling task, which reports whether it found any results. */
+    public interface PollingTask {
+        boolean poll();
+    }
+
+    private final Web3j web3j;
+    private final BlockTimingModel blockTimingModel;
+
+    public AdaptivePollingScheduler(Web3j web3j, BlockTimingModel blockTimingModel) {
+        this.web3j = web3j;
+        this.blockTimingModel = blockTimingModel;
+    }
+
+    public AdaptivePollingScheduler(Web3j web3j) {
+        this(web3j, BlockTimingModel.of(web3j));
+    }
+
+    /**
+     * Schedule a task at a fixed rate, or adaptively if the polling interval is {@link #ADAPTIVE}.
+     * The first poll is made immediately.
+     *
+     * @param web3j the web3j instance whose timing model is used for adaptive polling
+     * @param scheduledExecutorService the executor service to run the task on
+     * @param pollingInterval the polling interval in milliseconds, or {@link #ADAPTIVE}
+     * @param task the task, which should not throw exceptions
+     * @return a future which stops polling when cancelled
+     */
+    public static ScheduledFuture<?> schedule(
+            Web3j web3j,
+            ScheduledExecutorService scheduledExecutorService,
+            long pollingInterval,
+            PollingTask task) {
+        if (pollingInterval == ADAPTIVE) {
+            return new AdaptivePollingScheduler(web3j).schedule(scheduledExecutorService, task);
+        }
+        return scheduledExecutorService.scheduleAtFixedRate(
+                task::poll, 0, pollingInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule a task adaptively. The first poll is made immediately.
+     *
+     * @param scheduledExecutorService the executor service to run the task on
+     * @param task the task
+     * @return a future which stops polling when cancelled
+     */
+    public ScheduledFuture<?> schedule(
+            ScheduledExecutorService scheduledExecutorService, PollingTask task) {
+        AdaptiveSchedule schedule = new AdaptiveSchedule(scheduledExecutorService, task);
+        schedule.next(0);
+        return schedule;
+    }
+
+    /**
+     * Calculate the delay before the next poll, refreshing the timing model if a block is due.
+     *
+     * @param emptyPolls the number of consecutive polls without results
+     * @return the delay in milliseconds
+     */
+    public long getPollDelay(int emptyPolls) {
+        try {
+            blockTimingModel.refresh(web3j);
+        } catch (Throwable e) {
+            log.warn("Error refreshing block timing", e);
+        }
+        return blockTimingModel.getPollDelay(emptyPolls);
+    }
+
+    public BlockTimingModel getBlockTimingModel() {
+        return blockTimingModel;
+    }
+
+    private class AdaptiveSchedule implements ScheduledFuture<Object> {
+        private final ScheduledExecutorService scheduledExecutorService;
+        private final PollingTask task;
+        private final CompletableFuture<Object> cancelled = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> next;
+        private int emptyPolls;
+
+        AdaptiveSchedule(ScheduledExecutorService scheduledExecutorService, PollingTask task) {
+            this.scheduledExecutorService = scheduledExecutorService;
+            this.task = task;
+        }
+
+        private void run() {
+            if (isCancelled()) {
+                return;
+            }
+            boolean results = false;
+            try {
+                results = task.poll();
+            } catch (Throwable e) {
+                log.error("Error polling", e);
+            }
+            emptyPolls = results ? 0 : emptyPolls + 1;
+            next(getPollDelay(emptyPolls));
+        }
+
+        private synchronized void next(long delay) {
+            if (!isCancelled()) {
+                next = scheduledExecutorService.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            boolean result = cancelled.cancel(mayInterruptIfRunning);
+            if (next != null) {
+                next.cancel(mayInterruptIfRunning);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return cancelled.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return cancelled.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return cancelled.get(timeout, unit);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            ScheduledFuture<?> current = next;
+            return current == null ? 0 : current.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(
+                    getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.chain;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.LongSupplier;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.JsonRpc2_0Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/**
+ * Learns the block interval of a chain from the timestamps of its blocks, and predicts when the
+ * next block is due, so that polling can be aligned with block production.
+ *
+ * <p>The interval is measured over the most recent blocks observed, which keeps it accurate for
+ * chains producing several blocks per second despite the one second resolution of block timestamps.
+ * A single model is shared by all of the pollers of a {@link Web3j} instance, see {@link
+ * #of(Web3j)}.
+ */
+public class BlockTimingModel {
+
+    public static final long DEFAULT_MIN_DELAY = 50;
+    public static final long DEFAULT_MAX_DELAY = 60 * 1000;
+
+    // number of block intervals a poller backs off to after repeated empty polls
+    private static final int MAX_BACKOFF_BLOCKS = 4;
+    private static final int SAMPLES = 32;
+
+    private static final Map<Web3j, BlockTimingModel> MODELS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final long minDelay;
+    private final long maxDelay;
+    private final LongSupplier clock;
+
+    private final long[] sampleNumbers = new long[SAMPLES];
+    private final long[] sampleTimestamps = new long[SAMPLES];
+    private int samples;
+
+    private long blockInterval;
+    private long lastNumber = -1;
+    private long lastArrival;
+    private long lastRefresh;
+
+    BlockTimingModel(long initialInterval, long minDelay, long maxDelay, LongSupplier clock) {
+        this.blockInterval = initialInterval;
+        this.minDelay = minDelay;
+        this.maxDelay = maxDelay;
+        this.clock = clock;
+    }
+
+    public BlockTimingModel(long initialInterval) {
+        this(initialInterval, DEFAULT_MIN_DELAY, DEFAULT_MAX_DELAY, System::currentTimeMillis);
+    }
+
+    /**
+     * @param web3j a web3j instance
+     * @return the timing model shared by all of the pollers of the given instance
+     */
+    public static BlockTimingModel of(Web3j web3j) {
+        return MODELS.computeIfAbsent(
+                web3j, key -> new BlockTimingModel(JsonRpc2_0Web3j.DEFAULT_BLOCK_TIME));
+    }
+
+    /**
+     * Record a block seen at the head of the chain.
+     *
+     * @param block the block
+     */
+    public void observe(EthBlock.Block block) {
+        if (block.getNumberRaw() != null && block.getTimestampRaw() != null) {
+            observe(block.getNumber().longValueExact(), block.getTimestamp().longValueExact());
+        }
+    }
+
+    /**
+     * Record a block seen at the head of the chain.
+     *
+     * @param number the block number
+     * @param timestamp the block timestamp, in seconds
+     */
+    public synchronized void observe(long number, long timestamp) {
+        if (number <= lastNumber) {
+            return;
+        }
+        lastNumber = number;
+        lastArrival = clock.getAsLong();
+
+        int index = samples % SAMPLES;
+        sampleNumbers[index] = number;
+        sampleTimestamps[index] = timestamp * 1000;
+        samples++;
+
+        int oldest = samples > SAMPLES ? samples % SAMPLES : 0;
+        long blocks = number - sampleNumbers[oldest];
+        long elapsed = timestamp * 1000 - sampleTimestamps[oldest];
+        if (blocks > 0 && elapsed > 0) {
+            blockInterval = clamp(elapsed / blocks);
+        }
+    }
+
+    /** @return the estimated block interval in milliseconds */
+    public synchronized long getBlockInterval() {
+        return blockInterval;
+    }
+
+    /** @return the number of the latest block observed, or -1 if none has been */
+    public synchronized long getLastNumber() {
+        return lastNumber;
+    }
+
+    /**
+     * Calculate the delay before the next poll. Polls are aligned to just after the next block is
+     * due, and after consecutive polls without results, are backed off to up to several block
+     * intervals.
+     *
+     * @param emptyPolls the number of consecutive polls without results
+     * @return the delay in milliseconds
+     */
+    public synchronized long getPollDelay(int emptyPolls) {
+        long slack = Math.max(minDelay, blockInterval / 10);
+        long delay = millisUntilNextBlock() + slack;
+        if (emptyPolls > 0) {
+            long backoff = (blockInterval / 4) << Math.min(emptyPolls, 4);
+            delay = Math.max(delay, Math.min(backoff, MAX_BACKOFF_BLOCKS * blockInterval));
+        }
+        return clamp(delay);
+    }
+
+    /**
+     * Request the latest block from the node, if the next block is due and it has not been
+     * requested recently, so that the model keeps following the chain when it is only used by
+     * pollers which do not see blocks.
+     *
+     * @param web3j the web3j instance to use
+     * @throws IOException if the block could not be requested
+     */
+    public void refresh(Web3j web3j) throws IOException {
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (millisUntilNextBlock() > 0
+                    || now - lastRefresh < Math.max(minDelay, blockInterval / 10)) {
+                return;
+            }
+            lastRefresh = now;
+        }
+
+        EthBlock ethBlock =
+                web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+        if (!ethBlock.hasError() && ethBlock.getBlock() != null) {
+            observe(ethBlock.getBlock());
+        }
+    }
+
+    private long millisUntilNextBlock() {
+        return lastNumber < 0 ? 0 : Math.max(0, lastArrival + blockInterval - clock.getAsLong());
+    }
+
+    private long clamp(long delay) {
+        return Math.max(minDelay, Math.min(maxDelay, delay));
+    }
+}
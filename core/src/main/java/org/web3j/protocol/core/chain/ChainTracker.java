@@ -0,0 +1,306 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.chain;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.processors.FlowableProcessor;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.compact.Hash32;
+
+/**
+ * Follows the canonical chain of a node, detecting chain reorganisations.
+ *
+ * <p>The tracker keeps the hashes and parent hashes of the most recent blocks of the canonical
+ * chain in a fixed size ring buffer, in compact form, and only holds on to the block at its head.
+ * Each new head is linked to the buffer through its parent hash, fetching any blocks which were
+ * skipped. When a head does not extend the current tip, the blocks of its branch are fetched back
+ * to the common ancestor, and a {@link Reorg} is emitted with the hashes of the blocks it replaces.
+ *
+ * <p>Consumers which cannot undo their work can use {@link #confirmedBlockFlowable(int)}, which
+ * only emits a block once the given number of blocks have been built on top of it, fetching it from
+ * the node again when it is confirmed.
+ *
+ * <p>A reorg deeper than the buffer cannot be linked to the tracked chain, in which case the
+ * tracker restarts from the new head.
+ *
+ * <p>The heads seen are also used to train the {@link BlockTimingModel} of the web3j instance.
+ */
+public class ChainTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ChainTracker.class);
+
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final Web3j web3j;
+    private final boolean fullTransactionObjects;
+    private final int capacity;
+
+    // ring buffer of the canonical chain, from block tip - size + 1 up to tip
+    private final Hash32[] hashes;
+    private final Hash32[] parentHashes;
+    private EthBlock.Block head;
+    private long tip = -1;
+    private int size;
+
+    private final FlowableProcessor<EthBlock.Block> canonicalBlocks =
+            PublishProcessor.<EthBlock.Block>create().toSerialized();
+    private final FlowableProcessor<Reorg> reorgs = PublishProcessor.<Reorg>create().toSerialized();
+
+    public ChainTracker(Web3j web3j, boolean fullTransactionObjects, int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.web3j = web3j;
+        this.fullTransactionObjects = fullTransactionObjects;
+        this.capacity = capacity;
+        this.hashes = new Hash32[capacity];
+        this.parentHashes = new Hash32[capacity];
+    }
+
+    public ChainTracker(Web3j web3j) {
+        this(web3j, false, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Start tracking the new blocks reported by {@link Web3j#blockFlowable(boolean)}.
+     *
+     * @return a disposable which stops tracking
+     */
+    public Disposable track() {
+        return track(web3j.blockFlowable(fullTransactionObjects).map(EthBlock::getBlock));
+    }
+
+    /**
+     * Start tracking the given heads, such as blocks from a websocket subscription. Errors
+     * processing a head are logged, and tracking resumes with the next head.
+     *
+     * @param heads the new chain heads reported by a node
+     * @return a disposable which stops tracking
+     */
+    public Disposable track(Flowable<EthBlock.Block> heads) {
+        return heads.subscribe(
+                head -> {
+                    try {
+                        onHead(head);
+                    } catch (Throwable e) {
+                        log.error("Error tracking block " + head.getNumberRaw(), e);
+                    }
+                },
+                e -> log.error("Error receiving new heads", e));
+    }
+
+    /**
+     * Process a new chain head.
+     *
+     * @param head the block reported as the head of the chain
+     * @throws IOException if a block needed to link the head to the tracked chain could not be
+     *     retrieved
+     */
+    public synchronized void onHead(EthBlock.Block head) throws IOException {
+        BlockTimingModel.of(web3j).observe(head);
+        long number = head.getNumber().longValueExact();
+        if (size == 0) {
+            append(head);
+            canonicalBlocks.onNext(head);
+            return;
+        } else if (contains(number, hash(head.getHash())) || number <= tip - size) {
+            // already tracked, or older than the buffer, as reported by a lagging node
+            return;
+        }
+
+        LinkedList<EthBlock.Block> newBranch = new LinkedList<>();
+        newBranch.add(head);
+        EthBlock.Block first = head;
+        long parentNumber = number - 1;
+        while (!contains(parentNumber, hash(first.getParentHash()))) {
+            if (parentNumber <= tip - size || newBranch.size() >= capacity) {
+                restart(newBranch);
+                return;
+            }
+            first = getBlock(first.getParentHash());
+            newBranch.addFirst(first);
+            parentNumber = first.getNumber().longValueExact() - 1;
+        }
+
+        List<String> oldBranch = new ArrayList<>();
+        for (long n = parentNumber + 1; n <= tip; n++) {
+            oldBranch.add(hashes[index(n)].toString());
+        }
+        truncate(parentNumber);
+        for (EthBlock.Block block : newBranch) {
+            append(block);
+        }
+
+        if (!oldBranch.isEmpty()) {
+            log.info(
+                    "Chain reorganisation at block {}, {} blocks replaced by {}",
+                    parentNumber,
+                    oldBranch.size(),
+                    newBranch.size());
+            reorgs.onNext(new Reorg(oldBranch, newBranch));
+        }
+        for (EthBlock.Block block : newBranch) {
+            canonicalBlocks.onNext(block);
+        }
+    }
+
+    /**
+     * Create a flowable of the blocks added to the canonical chain. Following a reorg, the blocks
+     * of the new branch are emitted again, after the {@link Reorg} itself.
+     *
+     * @return a flowable emitting the canonical blocks
+     */
+    public Flowable<EthBlock.Block> canonicalBlockFlowable() {
+        return canonicalBlocks.onBackpressureBuffer();
+    }
+
+    /** @return a flowable emitting the chain reorganisations detected */
+    public Flowable<Reorg> reorgFlowable() {
+        return reorgs.onBackpressureBuffer();
+    }
+
+    /**
+     * Create a flowable of the canonical blocks with at least the given number of blocks built on
+     * top of them, starting from the block confirmed when it is subscribed to. Each block is
+     * emitted once, in ascending order, so a reorg deeper than the confirmation depth is not
+     * reflected. Confirmed blocks are fetched by hash on an I/O thread, and the flowable fails if
+     * one cannot be retrieved.
+     *
+     * @param depth the number of blocks required on top of a block, which must be less than the
+     *     capacity of the tracker
+     * @return a flowable emitting the confirmed blocks
+     */
+    public Flowable<EthBlock.Block> confirmedBlockFlowable(int depth) {
+        if (depth < 0 || depth >= capacity) {
+            throw new IllegalArgumentException("Depth must be between 0 and " + (capacity - 1));
+        }
+        return Flowable.defer(
+                () -> {
+                    AtomicLong next = new AtomicLong(-1);
+                    return canonicalBlocks
+                            .onBackpressureBuffer()
+                            .concatMapIterable(block -> confirmedHashes(depth, next))
+                            .concatMap(
+                                    hash ->
+                                            Flowable.fromCallable(() -> getConfirmedBlock(hash))
+                                                    .subscribeOn(Schedulers.io()));
+                });
+    }
+
+    /** @return the current head of the canonical chain, or null if no block has been tracked */
+    public synchronized EthBlock.Block getHead() {
+        return size == 0 ? null : head;
+    }
+
+    /**
+     * @param number a block number
+     * @return the hash of the canonical block with the given number, or null if it is not within
+     *     the buffer
+     */
+    public synchronized String getCanonicalHash(long number) {
+        return number <= tip && number > tip - size ? hashes[index(number)].toString() : null;
+    }
+
+    /**
+     * @param number a block number
+     * @return the parent hash of the canonical block with the given number, or null if it is not
+     *     within the buffer
+     */
+    public synchronized String getCanonicalParentHash(long number) {
+        return number <= tip && number > tip - size ? parentHashes[index(number)].toString() : null;
+    }
+
+    private synchronized List<String> confirmedHashes(int depth, AtomicLong next) {
+        long confirmed = tip - depth;
+        long from = Math.max(next.get() < 0 ? confirmed : next.get(), tip - size + 1);
+        if (from > confirmed) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>((int) (confirmed - from + 1));
+        for (long n = from; n <= confirmed; n++) {
+            result.add(hashes[index(n)].toString());
+        }
+        next.set(confirmed + 1);
+        return result;
+    }
+
+    private EthBlock.Block getConfirmedBlock(String hash) throws IOException {
+        EthBlock.Block current = getHead();
+        return current != null && hash.equals(current.getHash()) ? current : getBlock(hash);
+    }
+
+    private void restart(List<EthBlock.Block> newBranch) {
+        log.warn(
+                "Block {} could not be linked to the last {} tracked blocks, restarting",
+                newBranch.get(newBranch.size() - 1).getNumber(),
+                size);
+        size = 0;
+        tip = -1;
+        for (EthBlock.Block block : newBranch) {
+            append(block);
+            canonicalBlocks.onNext(block);
+        }
+    }
+
+    private boolean contains(long number, Hash32 hash) {
+        return number <= tip && number > tip - size && hashes[index(number)].equals(hash);
+    }
+
+    private void append(EthBlock.Block block) {
+        tip = block.getNumber().longValueExact();
+        int index = index(tip);
+        hashes[index] = hash(block.getHash());
+        parentHashes[index] = hash(block.getParentHash());
+        head = block;
+        size = Math.min(size + 1, capacity);
+    }
+
+    private void truncate(long number) {
+        size -= (int) (tip - number);
+        tip = number;
+    }
+
+    private int index(long number) {
+        return (int) Math.floorMod(number, (long) capacity);
+    }
+
+    private EthBlock.Block getBlock(String hash) throws IOException {
+        EthBlock ethBlock = web3j.ethGetBlockByHash(hash, fullTransactionObjects).send();
+        if (ethBlock.hasError() || ethBlock.getBlock() == null) {
+            throw new IOException("Unable to retrieve block " + hash);
+        }
+        return ethBlock.getBlock();
+    }
+
+    private static Hash32 hash(String value) {
+        Hash32 hash = Hash32.parse(value);
+        if (hash == null) {
+            throw new IllegalArgumentException("Invalid block hash: " + value);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.chain;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/**
+ * A chain reorganisation, in which the blocks of the old branch were replaced as the canonical
+ * chain by the blocks of the new branch. Both branches are in ascending block order and descend
+ * from the same common ancestor. The old branch is identified by its block hashes only.
+ */
+public class Reorg {
+
+    private final List<String> oldBranch;
+    private final List<EthBlock.Block> newBranch;
+
+    public Reorg(List<String> oldBranch, List<EthBlock.Block> newBranch) {
+        this.oldBranch = Collections.unmodifiableList(oldBranch);
+        this.newBranch = Collections.unmodifiableList(newBranch);
+    }
+
+    /** @return the hashes of the blocks which are no longer part of the canonical chain */
+    public List<String> getOldBranchHashes() {
+        return oldBranch;
+    }
+
+    /** @return the blocks which replaced them */
+    public List<EthBlock.Block> getNewBranch() {
+        return newBranch;
+    }
+
+    /** @return the number of the last block shared by both branches */
+    public long getCommonAncestorNumber() {
+        return newBranch.get(0).getNumber().longValueExact() - 1;
+    }
+
+    /** @return the number of blocks removed from the canonical chain */
+    public int getDepth() {
+        return oldBranch.size();
+    }
+
+    @Override
+    public String toString() {
+        return "Reorg{"
+                + "commonAncestor="
+                + getCommonAncestorNumber()
+                + ", oldBranch="
+                + oldBranch.size()
+                + " blocks, newBranch="
+                + newBranch.size()
+                + " blocks}";
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.checkpoint;
+
+import java.util.Objects;
+
+/**
+ * Position in the chain up to which a stream of events has been processed, identified by the number
+ * and hash of a block and the index of a log within it.
+ */
+public class Checkpoint {
+
+    /** Log index of a checkpoint covering all of the events of its block. */
+    public static final long END_OF_BLOCK = Long.MAX_VALUE;
+
+    private final long blockNumber;
+    private final String blockHash;
+    private final long logIndex;
+
+    public Checkpoint(long blockNumber, String blockHash, long logIndex) {
+        this.blockNumber = blockNumber;
+        this.blockHash = blockHash;
+        this.logIndex = logIndex;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public String getBlockHash() {
+        return blockHash;
+    }
+
+    public long getLogIndex() {
+        return logIndex;
+    }
+
+    /** @return true if all of the events of the checkpoint's block have been processed */
+    public boolean isEndOfBlock() {
+        return logIndex == END_OF_BLOCK;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Checkpoint)) {
+            return false;
+        }
+        Checkpoint that = (Checkpoint) o;
+        return blockNumber == that.blockNumber
+                && logIndex == that.logIndex
+                && Objects.equals(blockHash, that.blockHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(blockNumber, blockHash, logIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint{"
+                + "blockNumber="
+                + blockNumber
+                + ", blockHash='"
+                + blockHash
+                + '\''
+                + ", logIndex="
+                + (isEndOfBlock() ? "end" : String.valueOf(logIndex))
+                + '}';
+    }
+}
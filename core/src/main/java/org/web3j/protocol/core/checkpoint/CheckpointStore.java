@@ -0,0 +1,34 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.checkpoint;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/** Storage for the checkpoint of a {@link ResumableEventStream}. */
+public interface CheckpointStore {
+
+    /**
+     * @return the last checkpoint saved, or empty if none has been
+     * @throws IOException if the checkpoint could not be read
+     */
+    Optional<Checkpoint> load() throws IOException;
+
+    /**
+     * Save a checkpoint, replacing the previous one.
+     *
+     * @param checkpoint the checkpoint
+     * @throws IOException if the checkpoint could not be written
+     */
+    void save(Checkpoint checkpoint) throws IOException;
+}
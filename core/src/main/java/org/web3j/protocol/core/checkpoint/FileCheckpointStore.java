@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.checkpoint;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Stores a checkpoint in a local properties file. The file is replaced atomically on each save, so
+ * a crash leaves either the previous or the new checkpoint.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private static final String BLOCK_NUMBER = "blockNumber";
+    private static final String BLOCK_HASH = "blockHash";
+    private static final String LOG_INDEX = "logIndex";
+
+    private final Path file;
+
+    public FileCheckpointStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized Optional<Checkpoint> load() throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        }
+        try {
+            return Optional.of(
+                    new Checkpoint(
+                            Long.parseLong(properties.getProperty(BLOCK_NUMBER)),
+                            properties.getProperty(BLOCK_HASH),
+                            Long.parseLong(properties.getProperty(LOG_INDEX))));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(Checkpoint checkpoint) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(BLOCK_NUMBER, Long.toString(checkpoint.getBlockNumber()));
+        if (checkpoint.getBlockHash() != null) {
+            // checkpoints rewound past a reorg have no block hash, which is then left out
+            properties.setProperty(BLOCK_HASH, checkpoint.getBlockHash());
+        }
+        properties.setProperty(LOG_INDEX, Long.toString(checkpoint.getLogIndex()));
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel =
+                FileChannel.open(
+                        temp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream outputStream = Channels.newOutputStream(channel);
+            properties.store(outputStream, null);
+            outputStream.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
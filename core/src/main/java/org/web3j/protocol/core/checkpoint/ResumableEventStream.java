@@ -0,0 +1,348 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.checkpoint;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Flowable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Event streams which can be resumed after a restart from the last event acknowledged by the
+ * application.
+ *
+ * <p>Events are acknowledged once they have been processed, with {@link #acknowledge(Log)} or
+ * {@link #acknowledge(EthBlock.Block)}, and the position of the last acknowledged event is saved to
+ * a {@link CheckpointStore} at a fixed interval and when the stream is closed. A stream created
+ * with a saved checkpoint starts immediately after it, so no event which was acknowledged is
+ * delivered again.
+ *
+ * <p>The hash of the checkpoint's block is compared with the canonical chain before resuming. If
+ * the block has been replaced by a chain reorganisation, the stream rewinds a number of blocks and
+ * delivers their events again, as the events after the fork point may have changed.
+ */
+public class ResumableEventStream implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableEventStream.class);
+
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 5000;
+    public static final int DEFAULT_REWIND_BLOCKS = 64;
+
+    private final Web3j web3j;
+    private final CheckpointStore checkpointStore;
+    private final int rewindBlocks;
+    private final AtomicReference<Checkpoint> acknowledged = new AtomicReference<>();
+    private final ScheduledFuture<?> schedule;
+    // executor created by the stream itself, which is shut down when it is closed
+    private final ScheduledExecutorService ownedExecutorService;
+
+    private volatile Checkpoint saved;
+
+    /**
+     * Create a resumable stream.
+     *
+     * @param web3j the node to stream events from
+     * @param checkpointStore storage for the stream's checkpoint
+     * @param scheduledExecutorService executor used to save checkpoints, which is not shut down
+     *     when the stream is closed
+     * @param checkpointInterval interval in milliseconds at which the last acknowledged event is
+     *     saved, or zero to save it on every acknowledgement
+     * @param rewindBlocks the number of blocks to rewind if the checkpoint's block is no longer
+     *     part of the canonical chain
+     * @throws IOException if the saved checkpoint could not be read
+     */
+    public ResumableEventStream(
+            Web3j web3j,
+            CheckpointStore checkpointStore,
+            ScheduledExecutorService scheduledExecutorService,
+            long checkpointInterval,
+            int rewindBlocks)
+            throws IOException {
+        this(
+                web3j,
+                checkpointStore,
+                scheduledExecutorService,
+                checkpointInterval,
+                rewindBlocks,
+                null);
+    }
+
+    /**
+     * Create a resumable stream which saves its checkpoint every {@link
+     * #DEFAULT_CHECKPOINT_INTERVAL} milliseconds, using a thread of its own which is stopped when
+     * the stream is closed.
+     *
+     * @param web3j the node to stream events from
+     * @param checkpointStore storage for the stream's checkpoint
+     * @throws IOException if the saved checkpoint could not be read
+     */
+    public ResumableEventStream(Web3j web3j, CheckpointStore checkpointStore) throws IOException {
+        this(web3j, checkpointStore, createExecutorService());
+    }
+
+    public ResumableEventStream(Web3j web3j, Path checkpointFile) throws IOException {
+        this(web3j, new FileCheckpointStore(checkpointFile));
+    }
+
+    private ResumableEventStream(
+            Web3j web3j,
+            CheckpointStore checkpointStore,
+            ScheduledExecutorService ownedExecutorService)
+            throws IOException {
+        this(
+                web3j,
+                checkpointStore,
+                ownedExecutorService,
+                DEFAULT_CHECKPOINT_INTERVAL,
+                DEFAULT_REWIND_BLOCKS,
+                ownedExecutorService);
+    }
+
+    private ResumableEventStream(
+            Web3j web3j,
+            CheckpointStore checkpointStore,
+            ScheduledExecutorService scheduledExecutorService,
+            long checkpointInterval,
+            int rewindBlocks,
+            ScheduledExecutorService ownedExecutorService)
+            throws IOException {
+        this.web3j = web3j;
+        this.ownedExecutorService = ownedExecutorService;
+        this.checkpointStore = checkpointStore;
+        this.rewindBlocks = rewindBlocks;
+        try {
+            this.saved = checkpointStore.load().orElse(null);
+        } catch (IOException | RuntimeException e) {
+            if (ownedExecutorService != null) {
+                ownedExecutorService.shutdownNow();
+            }
+            throw e;
+        }
+        this.acknowledged.set(saved);
+
+        if (checkpointInterval > 0) {
+            schedule =
+                    scheduledExecutorService.scheduleWithFixedDelay(
+                            () -> {
+                                try {
+                                    flush();
+                                } catch (Throwable e) {
+                                    log.error("Error saving checkpoint", e);
+                                }
+                            },
+                            checkpointInterval,
+                            checkpointInterval,
+                            TimeUnit.MILLISECONDS);
+        } else {
+            schedule = null;
+        }
+    }
+
+    /**
+     * Create a flowable of the logs matching a filter, starting after the last acknowledged log, or
+     * from the filter's from block if there is no checkpoint. Logs are requested by block range as
+     * with {@link Web3j#blockRangeLogFlowable(EthFilter)}.
+     *
+     * @param ethFilter the filter
+     * @return a {@link Flowable} instance which resolves its starting point on subscription
+     */
+    public Flowable<Log> logFlowable(EthFilter ethFilter) {
+        return Flowable.defer(
+                () -> {
+                    Optional<Checkpoint> resumeFrom = resumeFrom();
+                    if (!resumeFrom.isPresent()) {
+                        return web3j.blockRangeLogFlowable(ethFilter);
+                    }
+
+                    Checkpoint checkpoint = resumeFrom.get();
+                    EthFilter resumeFilter =
+                            new EthFilter(
+                                    new DefaultBlockParameterNumber(checkpoint.getBlockNumber()),
+                                    ethFilter.getToBlock(),
+                                    ethFilter.getAddress());
+                    resumeFilter.getTopics().addAll(ethFilter.getTopics());
+                    return web3j.blockRangeLogFlowable(resumeFilter)
+                            .filter(log -> !isAcknowledged(checkpoint, log));
+                });
+    }
+
+    /**
+     * Create a flowable of blocks, starting after the last acknowledged block, or from the given
+     * block if there is no checkpoint, and continuing with new blocks as they are created.
+     *
+     * @param startBlock the block to start from if there is no checkpoint
+     * @param fullTransactionObjects if we require full {@link
+     *     org.web3j.protocol.core.methods.response.Transaction} objects in the provided {@link
+     *     EthBlock} responses
+     * @return a {@link Flowable} instance which resolves its starting point on subscription
+     */
+    public Flowable<EthBlock> blockFlowable(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects) {
+        return Flowable.defer(
+                () -> {
+                    Optional<Checkpoint> resumeFrom = resumeFrom();
+                    DefaultBlockParameter resumeBlock = startBlock;
+                    if (resumeFrom.isPresent()) {
+                        Checkpoint checkpoint = resumeFrom.get();
+                        // a block is only skipped once all of its events have been processed
+                        long next =
+                                checkpoint.isEndOfBlock()
+                                        ? checkpoint.getBlockNumber() + 1
+                                        : checkpoint.getBlockNumber();
+                        resumeBlock = new DefaultBlockParameterNumber(next);
+                    }
+                    return web3j.replayPastAndFutureBlocksFlowable(
+                            resumeBlock, fullTransactionObjects);
+                });
+    }
+
+    /**
+     * Mark a log, and all of the logs before it, as processed.
+     *
+     * @param log the log
+     */
+    public void acknowledge(Log log) {
+        acknowledge(
+                new Checkpoint(
+                        log.getBlockNumber().longValueExact(),
+                        log.getBlockHash(),
+                        log.getLogIndex().longValueExact()));
+    }
+
+    /**
+     * Mark a block, and all of the blocks before it, as processed.
+     *
+     * @param block the block
+     */
+    public void acknowledge(EthBlock.Block block) {
+        acknowledge(
+                new Checkpoint(
+                        block.getNumber().longValueExact(),
+                        block.getHash(),
+                        Checkpoint.END_OF_BLOCK));
+    }
+
+    /**
+     * Mark the events up to a checkpoint as processed. Acknowledgements are expected in the order
+     * events are delivered, the last one replacing any before it.
+     *
+     * @param checkpoint the position of the last processed event
+     */
+    public void acknowledge(Checkpoint checkpoint) {
+        acknowledged.set(checkpoint);
+        if (schedule == null) {
+            try {
+                flush();
+            } catch (IOException e) {
+                log.error("Error saving checkpoint", e);
+            }
+        }
+    }
+
+    /** @return the position of the last acknowledged event, which may not have been saved yet */
+    public Optional<Checkpoint> getCheckpoint() {
+        return Optional.ofNullable(acknowledged.get());
+    }
+
+    /**
+     * Save the position of the last acknowledged event, if it has changed since it was last saved.
+     *
+     * @throws IOException if the checkpoint could not be written
+     */
+    public synchronized void flush() throws IOException {
+        Checkpoint checkpoint = acknowledged.get();
+        if (checkpoint != null && !checkpoint.equals(saved)) {
+            checkpointStore.save(checkpoint);
+            saved = checkpoint;
+        }
+    }
+
+    /**
+     * Stop saving checkpoints at an interval and save the last acknowledged event. The thread
+     * created by the stream to save checkpoints, if any, is stopped.
+     *
+     * @throws IOException if the checkpoint could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        if (ownedExecutorService != null) {
+            ownedExecutorService.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Resolve the position to resume from, rewinding if the checkpoint's block has been replaced by
+     * a chain reorganisation.
+     */
+    Optional<Checkpoint> resumeFrom() throws IOException {
+        Checkpoint checkpoint = acknowledged.get();
+        if (checkpoint == null) {
+            return Optional.empty();
+        }
+
+        EthBlock.Block block =
+                web3j.ethGetBlockByNumber(
+                                new DefaultBlockParameterNumber(checkpoint.getBlockNumber()), false)
+                        .send()
+                        .getBlock();
+        if (block != null
+                && checkpoint.getBlockHash() != null
+                && checkpoint.getBlockHash().equalsIgnoreCase(block.getHash())) {
+            return Optional.of(checkpoint);
+        }
+
+        long rewindTo = Math.max(0, checkpoint.getBlockNumber() - rewindBlocks);
+        log.warn(
+                "Block {} of checkpoint {} is no longer canonical, rewinding to block {}",
+                checkpoint.getBlockNumber(),
+                checkpoint.getBlockHash(),
+                rewindTo);
+        // none of the events of the block rewound to are treated as processed
+        return Optional.of(new Checkpoint(rewindTo, null, -1));
+    }
+
+    private static ScheduledExecutorService createExecutorService() {
+        return Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "web3j-checkpoint");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static boolean isAcknowledged(Checkpoint checkpoint, Log log) {
+        BigInteger blockNumber = log.getBlockNumber();
+        return blockNumber.longValueExact() == checkpoint.getBlockNumber()
+                && log.getLogIndex().longValueExact() <= checkpoint.getLogIndex();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Log filter which keeps no state on the node. Rather than installing a filter and polling it for
+ * changes, it tracks the last block it has processed and requests the logs of the blocks after it
+ * with eth_getLogs each time the chain head advances.
+ *
+ * <p>As every request is self-contained, the filter works behind load balancers and across node
+ * restarts, where installed filters are lost. The cursor only moves forward once the logs of a
+ * range have been delivered, and a head which is behind the cursor, as reported by a node lagging
+ * the rest of a pool, is ignored. Nodes in a pool may still differ in the blocks they have
+ * imported, so a number of confirmation blocks can be set to only request ranges which all of the
+ * nodes are expected to have.
+ *
+ * <p>Ranges which the node rejects as too large are split by a {@link LogRangeFetcher}. Logs
+ * removed by chain reorganisations are not reported.
+ */
+public class BlockRangeLogFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockRangeLogFilter.class);
+
+    private final Web3j web3j;
+    private final Callback<Log> callback;
+    private final Runnable onFinished;
+    private final EthFilter ethFilter;
+    private final LogRangeFetcher logRangeFetcher;
+    private final int confirmationBlocks;
+    private final BigInteger toBlock;
+
+    // the last block whose logs have been delivered
+    private volatile BigInteger cursor;
+    private ScheduledFuture<?> schedule;
+
+    public BlockRangeLogFilter(
+            Web3j web3j,
+            Callback<Log> callback,
+            EthFilter ethFilter,
+            int maxBlockRange,
+            int confirmationBlocks,
+            Runnable onFinished) {
+        this.web3j = web3j;
+        this.callback = callback;
+        this.onFinished = onFinished;
+        this.ethFilter = ethFilter;
+        this.logRangeFetcher = new LogRangeFetcher(web3j, maxBlockRange);
+        this.confirmationBlocks = confirmationBlocks;
+        this.toBlock = LogRangeFetcher.toBlockNumber(ethFilter.getToBlock());
+
+        BigInteger fromBlock = LogRangeFetcher.toBlockNumber(ethFilter.getFromBlock());
+        this.cursor = fromBlock == null ? null : fromBlock.subtract(BigInteger.ONE);
+    }
+
+    public BlockRangeLogFilter(
+            Web3j web3j,
+            Callback<Log> callback,
+            EthFilter ethFilter,
+            int maxBlockRange,
+            int confirmationBlocks) {
+        this(web3j, callback, ethFilter, maxBlockRange, confirmationBlocks, () -> {});
+    }
+
+    public BlockRangeLogFilter(Web3j web3j, Callback<Log> callback, EthFilter ethFilter) {
+        this(web3j, callback, ethFilter, LogRangeFetcher.DEFAULT_MAX_BLOCK_RANGE, 0);
+    }
+
+    public void run(ScheduledExecutorService scheduledExecutorService, long blockTime) {
+        if (ethFilter.getBlockHash() != null) {
+            throw new FilterException("Block hash filters cannot be polled by block range");
+        }
+        if (cursor == null) {
+            // as with an installed filter, only the logs of new blocks are delivered
+            try {
+                cursor = getHead();
+            } catch (IOException e) {
+                throw new FilterException("Error sending request", e);
+            }
+        }
+
+        // errors are logged and polling resumes from the cursor, as with Filter
+        schedule =
+                AdaptivePollingScheduler.schedule(
+                        web3j,
+                        scheduledExecutorService,
+                        blockTime,
+                        () -> {
+                            try {
+                                return poll();
+                            } catch (Throwable e) {
+                                log.error("Error sending request", e);
+                                return false;
+                            }
+                        });
+    }
+
+    public void cancel() {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+    }
+
+    /** @return the last block whose logs have been delivered */
+    public BigInteger getCursor() {
+        return cursor;
+    }
+
+    /** @return true once the logs up to the filter's to block have been delivered */
+    public boolean isFinished() {
+        return toBlock != null && cursor != null && cursor.compareTo(toBlock) >= 0;
+    }
+
+    /** @return true if new blocks were processed */
+    boolean poll() throws IOException {
+        BigInteger head = getHead();
+        if (toBlock != null && head.compareTo(toBlock) > 0) {
+            head = toBlock;
+        }
+
+        boolean advanced = cursor.compareTo(head) < 0;
+        // a head behind the cursor is ignored, so the cursor never moves backwards
+        while (cursor.compareTo(head) < 0 && !isCancelled()) {
+            BigInteger from = cursor.add(BigInteger.ONE);
+            BigInteger to =
+                    head.min(from.add(BigInteger.valueOf(logRangeFetcher.getMaxBlockRange() - 1)));
+            List<Log> logs = logRangeFetcher.getLogs(ethFilter, from, to);
+            for (Log log : logs) {
+                callback.onEvent(log);
+            }
+            cursor = to;
+        }
+
+        if (isFinished()) {
+            cancel();
+            onFinished.run();
+        }
+        return advanced;
+    }
+
+    private BigInteger getHead() throws IOException {
+        EthBlockNumber ethBlockNumber = web3j.ethBlockNumber().send();
+        if (ethBlockNumber.hasError()) {
+            throw new FilterException("Invalid request: " + ethBlockNumber.getError().getMessage());
+        }
+        return ethBlockNumber.getBlockNumber().subtract(BigInteger.valueOf(confirmationBlocks));
+    }
+
+    private boolean isCancelled() {
+        return schedule != null && schedule.isCancelled();
+    }
+}
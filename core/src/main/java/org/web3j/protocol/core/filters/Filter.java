@@ -19,7 +19,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,6 +28,7 @@ import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.Response.Error;
 import org.web3j.protocol.core.RpcErrors;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
 import org.web3j.protocol.core.methods.response.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.EthUninstallFilter;
@@ -86,20 +86,21 @@ public abstract class Filter<T> {
             which isn't ideal given the aforementioned issues.
             */
             schedule =
-                    scheduledExecutorService.scheduleAtFixedRate(
+                    AdaptivePollingScheduler.schedule(
+                            web3j,
+                            scheduledExecutorService,
+                            blockTime,
                             () -> {
                                 try {
-                                    this.pollFilter(ethFilter);
+                                    return this.pollFilter(ethFilter);
                                 } catch (Throwable e) {
                                     // All exceptions must be caught, otherwise our job terminates
                                     // without
                                     // any notification
                                     log.error("Error sending request", e);
+                                    return false;
                                 }
-                            },
-                            0,
-                            blockTime,
-                            TimeUnit.MILLISECONDS);
+                            });
         } catch (IOException e) {
             throwException(e);
         }
@@ -127,7 +128,7 @@ public abstract class Filter<T> {
         }
     }
 
-    private void pollFilter(EthFilter ethFilter) {
+    private boolean pollFilter(EthFilter ethFilter) {
         EthLog ethLog = null;
         try {
             ethLog = web3j.ethGetFilterChanges(filterId).send();
@@ -144,8 +145,10 @@ public abstract class Filter<T> {
                     throwException(error);
                     break;
             }
+            return false;
         } else {
             process(ethLog.getLogs());
+            return !ethLog.getLogs().isEmpty();
         }
     }
 
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Retrieves the logs of a large block range, such as the full history of a contract, with many
+ * parallel eth_getLogs requests.
+ *
+ * <p>The range is split into chunks which are fetched concurrently, up to the configured
+ * parallelism, with requests spread over all of the given endpoints. A chunk the node rejects as
+ * containing too many results is bisected until its parts are accepted, and the chunk size used for
+ * the following chunks is reduced; chunks with few logs grow it again, up to the maximum. A request
+ * failing with an I/O error is retried on the next endpoint.
+ *
+ * <p>Logs are emitted in block and log index order. Chunks completing out of order are held until
+ * the chunks before them have been emitted, and no more than the parallelism's worth of chunks are
+ * fetched or held at once, which bounds the memory used regardless of the size of the range.
+ *
+ * <p>Each instance describes a single backfill, and exposes its progress and throughput while it
+ * runs.
+ */
+public class LogBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(LogBackfill.class);
+
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_INITIAL_CHUNK_SIZE = 2000;
+    public static final int DEFAULT_MAX_CHUNK_SIZE = 100000;
+    public static final int DEFAULT_SPARSE_THRESHOLD = 1000;
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    private static final Comparator<Log> LOG_ORDER =
+            Comparator.comparing(Log::getBlockNumber, Comparator.nullsFirst(BigInteger::compareTo))
+                    .thenComparing(Log::getLogIndex, Comparator.nullsFirst(BigInteger::compareTo));
+
+    private final List<Web3j> endpoints;
+    private final EthFilter ethFilter;
+    private final BigInteger fromBlock;
+    private final BigInteger toBlock;
+    private final int parallelism;
+    private final int maxChunkSize;
+    private final int sparseThreshold;
+    private final Scheduler scheduler;
+
+    private final AtomicInteger chunkSize;
+    private final AtomicInteger nextEndpoint = new AtomicInteger();
+
+    private final AtomicLong blocksCompleted = new AtomicLong();
+    private final AtomicLong logsEmitted = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong splits = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private volatile long startTime;
+    private volatile long endTime;
+
+    public LogBackfill(
+            List<Web3j> endpoints,
+            EthFilter ethFilter,
+            BigInteger fromBlock,
+            BigInteger toBlock,
+            int parallelism,
+            int initialChunkSize,
+            int maxChunkSize,
+            int sparseThreshold,
+            Scheduler scheduler) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        if (parallelism < 1 || initialChunkSize < 1 || maxChunkSize < initialChunkSize) {
+            throw new IllegalArgumentException("Invalid parallelism or chunk sizes");
+        }
+        this.endpoints = new ArrayList<>(endpoints);
+        this.ethFilter = ethFilter;
+        this.fromBlock = fromBlock;
+        this.toBlock = toBlock;
+        this.parallelism = parallelism;
+        this.chunkSize = new AtomicInteger(initialChunkSize);
+        this.maxChunkSize = maxChunkSize;
+        this.sparseThreshold = sparseThreshold;
+        this.scheduler = scheduler;
+    }
+
+    public LogBackfill(
+            List<Web3j> endpoints,
+            EthFilter ethFilter,
+            BigInteger fromBlock,
+            BigInteger toBlock,
+            int parallelism) {
+        this(
+                endpoints,
+                ethFilter,
+                fromBlock,
+                toBlock,
+                parallelism,
+                DEFAULT_INITIAL_CHUNK_SIZE,
+                DEFAULT_MAX_CHUNK_SIZE,
+                DEFAULT_SPARSE_THRESHOLD,
+                Schedulers.io());
+    }
+
+    public LogBackfill(Web3j web3j, EthFilter ethFilter, BigInteger fromBlock, BigInteger toBlock) {
+        this(Collections.singletonList(web3j), ethFilter, fromBlock, toBlock, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Create a flowable which runs the backfill when subscribed to.
+     *
+     * @return a flowable emitting the logs of the range in block and log index order
+     */
+    public Flowable<Log> logFlowable() {
+        return Flowable.<Range, BigInteger>generate(
+                        () -> fromBlock,
+                        (next, emitter) -> {
+                            if (next.compareTo(toBlock) > 0) {
+                                emitter.onComplete();
+                                return next;
+                            }
+                            // the chunk size is read as each chunk is requested, so that it
+                            // follows the log density seen by the chunks before it
+                            BigInteger end =
+                                    toBlock.min(next.add(BigInteger.valueOf(chunkSize.get() - 1)));
+                            emitter.onNext(new Range(next, end));
+                            return end.add(BigInteger.ONE);
+                        })
+                .doOnSubscribe(subscription -> start())
+                .concatMapEager(
+                        range ->
+                                Flowable.fromCallable(() -> fetchChunk(range))
+                                        .subscribeOn(scheduler),
+                        parallelism,
+                        1)
+                .concatMapIterable(
+                        logs -> {
+                            logsEmitted.addAndGet(logs.size());
+                            return logs;
+                        })
+                .doFinally(() -> endTime = System.nanoTime());
+    }
+
+    /** @return the number of blocks of the range */
+    public BigInteger getTotalBlocks() {
+        return toBlock.subtract(fromBlock).add(BigInteger.ONE).max(BigInteger.ZERO);
+    }
+
+    /** @return the number of blocks whose logs have been fetched */
+    public long getBlocksCompleted() {
+        return blocksCompleted.get();
+    }
+
+    /** @return the fraction of the range which has been fetched, between 0 and 1 */
+    public double getProgress() {
+        BigInteger total = getTotalBlocks();
+        return total.signum() == 0 ? 1.0 : blocksCompleted.get() / total.doubleValue();
+    }
+
+    public long getLogsEmitted() {
+        return logsEmitted.get();
+    }
+
+    /** @return the number of eth_getLogs requests sent, including retries and split chunks */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /** @return the number of chunks which were bisected after being rejected as too large */
+    public long getSplits() {
+        return splits.get();
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /** @return the chunk size used for the next chunk */
+    public int getChunkSize() {
+        return chunkSize.get();
+    }
+
+    public double getBlocksPerSecond() {
+        return perSecond(blocksCompleted.get());
+    }
+
+    public double getLogsPerSecond() {
+        return perSecond(logsEmitted.get());
+    }
+
+    private void start() {
+        blocksCompleted.set(0);
+        logsEmitted.set(0);
+        requests.set(0);
+        splits.set(0);
+        retries.set(0);
+        startTime = System.nanoTime();
+        endTime = 0;
+    }
+
+    private List<Log> fetchChunk(Range range) throws IOException {
+        List<Log> logs = fetch(range.from, range.to);
+        logs.sort(LOG_ORDER);
+        blocksCompleted.addAndGet(range.size());
+
+        if (logs.size() < sparseThreshold) {
+            chunkSize.getAndUpdate(size -> (int) Math.min(maxChunkSize, size * 2L));
+        }
+        return logs;
+    }
+
+    private List<Log> fetch(BigInteger from, BigInteger to) throws IOException {
+        EthLog ethLog = send(LogRangeFetcher.rangeFilter(ethFilter, from, to));
+
+        if (ethLog.hasError()) {
+            if (LogRangeFetcher.isRangeTooLarge(ethLog.getError()) && from.compareTo(to) < 0) {
+                splits.incrementAndGet();
+                BigInteger mid = from.add(to).shiftRight(1);
+                int half = mid.subtract(from).intValueExact() + 1;
+                chunkSize.getAndUpdate(size -> Math.min(size, half));
+
+                List<Log> logs = fetch(from, mid);
+                logs.addAll(fetch(mid.add(BigInteger.ONE), to));
+                return logs;
+            }
+            throw new FilterException("Invalid request: " + ethLog.getError().getMessage());
+        }
+
+        List<Log> logs = new ArrayList<>(ethLog.getLogs().size());
+        LogRangeFetcher.addLogs(ethLog, logs);
+        return logs;
+    }
+
+    private EthLog send(EthFilter rangeFilter) throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            Web3j web3j =
+                    endpoints.get(Math.floorMod(nextEndpoint.getAndIncrement(), endpoints.size()));
+            requests.incrementAndGet();
+            try {
+                return web3j.ethGetLogs(rangeFilter).send();
+            } catch (IOException e) {
+                if (attempt >= DEFAULT_MAX_RETRIES) {
+                    throw e;
+                }
+                retries.incrementAndGet();
+                log.warn("Error requesting logs, retrying on the next endpoint", e);
+            }
+        }
+    }
+
+    private double perSecond(long count) {
+        long end = endTime != 0 ? endTime : System.nanoTime();
+        long elapsed = end - startTime;
+        return startTime == 0 || elapsed <= 0
+                ? 0
+                : count / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static class Range {
+        private final BigInteger from;
+        private final BigInteger to;
+
+        Range(BigInteger from, BigInteger to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        long size() {
+            return to.subtract(from).longValueExact() + 1;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.request.Filter.FilterTopic;
+import org.web3j.protocol.core.methods.request.Filter.ListTopic;
+import org.web3j.protocol.core.methods.request.Filter.SingleTopic;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Serves many log subscriptions from a single poll of the node, rather than installing and polling
+ * a filter for each one.
+ *
+ * <p>Once per polling interval the hub requests the logs of any new blocks with a single
+ * eth_getLogs request, for the union of the addresses and first topics of all of its subscriptions.
+ * The logs are then dispatched to the matching subscriptions through an index keyed on the address
+ * and first topic of each log. The load on the node therefore does not grow with the number of
+ * subscriptions.
+ *
+ * <p>Ranges the node rejects as too large are split by a {@link LogRangeFetcher}.
+ *
+ * <p>A subscription whose filter starts at an earlier block number is first sent the logs from that
+ * block up to the block the hub has reached. Subscriptions which start from the latest block
+ * receive the logs of the blocks after it. As logs are requested by block range, logs removed by
+ * chain reorganisations are not reported.
+ */
+public class LogPollingHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LogPollingHub.class);
+
+    public static final int DEFAULT_MAX_BLOCK_RANGE = LogRangeFetcher.DEFAULT_MAX_BLOCK_RANGE;
+
+    // index key matching any address or topic
+    private static final String ANY = "";
+
+    private final Web3j web3j;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final long pollingInterval;
+    private final int maxBlockRange;
+    private final LogRangeFetcher logRangeFetcher;
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private final List<Subscription> pending = new ArrayList<>();
+    private volatile Map<String, Map<String, List<Subscription>>> index = Collections.emptyMap();
+    private volatile EthFilter unionFilter;
+    private ScheduledFuture<?> schedule;
+
+    // the last block whose logs have been dispatched, only accessed by the polling task
+    private BigInteger cursor;
+
+    public LogPollingHub(
+            Web3j web3j,
+            ScheduledExecutorService scheduledExecutorService,
+            long pollingInterval,
+            int maxBlockRange) {
+        this.web3j = web3j;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.pollingInterval = pollingInterval;
+        this.maxBlockRange = maxBlockRange;
+        this.logRangeFetcher = new LogRangeFetcher(web3j, maxBlockRange);
+    }
+
+    public LogPollingHub(
+            Web3j web3j, ScheduledExecutorService scheduledExecutorService, long pollingInterval) {
+        this(web3j, scheduledExecutorService, pollingInterval, DEFAULT_MAX_BLOCK_RANGE);
+    }
+
+    /**
+     * Create a flowable of the logs matching the given filter. Filters by block hash are not
+     * supported, as the hub only polls by block range.
+     *
+     * @param ethFilter filter criteria
+     * @return a flowable emitting the matching logs, in block order
+     */
+    public Flowable<Log> logFlowable(EthFilter ethFilter) {
+        if (ethFilter.getBlockHash() != null) {
+            return Flowable.error(new FilterException("Block hash filters cannot be multiplexed"));
+        }
+
+        return Flowable.create(
+                emitter -> {
+                    Subscription subscription = new Subscription(ethFilter, emitter);
+                    add(subscription);
+                    emitter.setCancellable(() -> remove(subscription));
+                },
+                BackpressureStrategy.BUFFER);
+    }
+
+    /** @return the number of subscriptions being served */
+    public synchronized int getSubscriptionCount() {
+        return subscriptions.size() + pending.size();
+    }
+
+    private synchronized void add(Subscription subscription) {
+        pending.add(subscription);
+        if (schedule == null) {
+            schedule =
+                    AdaptivePollingScheduler.schedule(
+                            web3j,
+                            scheduledExecutorService,
+                            pollingInterval,
+                            () -> {
+                                try {
+                                    return poll();
+                                } catch (Throwable e) {
+                                    // as with Filter, errors are logged and polling resumes
+                                    log.error("Error polling logs", e);
+                                    return false;
+                                }
+                            });
+        }
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        pending.remove(subscription);
+        if (subscriptions.remove(subscription)) {
+            reindex();
+        }
+        if (subscriptions.isEmpty() && pending.isEmpty() && schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+    }
+
+    private synchronized List<Subscription> takePending() {
+        List<Subscription> result = new ArrayList<>(pending);
+        pending.clear();
+        return result;
+    }
+
+    private synchronized void activate(Subscription subscription) {
+        if (!subscription.emitter.isCancelled()) {
+            subscriptions.add(subscription);
+            reindex();
+        }
+    }
+
+    /** @return true if new blocks were processed */
+    private boolean poll() throws IOException {
+        EthBlockNumber ethBlockNumber = web3j.ethBlockNumber().send();
+        if (ethBlockNumber.hasError()) {
+            throw new FilterException("Invalid request: " + ethBlockNumber.getError().getMessage());
+        }
+        BigInteger latest = ethBlockNumber.getBlockNumber();
+
+        synchronized (this) {
+            if (cursor == null || subscriptions.isEmpty()) {
+                // nothing is being followed, so start from the current head
+                cursor = latest;
+            }
+        }
+
+        for (Subscription subscription : takePending()) {
+            if (backfill(subscription)) {
+                activate(subscription);
+            }
+        }
+
+        boolean advanced = cursor.compareTo(latest) < 0;
+        while (cursor.compareTo(latest) < 0) {
+            BigInteger from = cursor.add(BigInteger.ONE);
+            BigInteger to = min(latest, from.add(BigInteger.valueOf(maxBlockRange - 1)));
+            EthFilter filter = unionFilter;
+            if (filter != null) {
+                dispatch(getLogs(filter, from, to));
+            }
+            cursor = to;
+        }
+
+        completeFinished();
+        return advanced;
+    }
+
+    /**
+     * Send a new subscription the logs of the blocks the hub has already passed.
+     *
+     * @return true if the subscription should follow new blocks
+     */
+    private boolean backfill(Subscription subscription) {
+        BigInteger from = subscription.fromBlock;
+        BigInteger to = subscription.toBlock != null ? min(cursor, subscription.toBlock) : cursor;
+        try {
+            while (from != null && from.compareTo(to) <= 0) {
+                BigInteger end = min(to, from.add(BigInteger.valueOf(maxBlockRange - 1)));
+                for (Log log : getLogs(subscription.ethFilter, from, end)) {
+                    subscription.emitter.onNext(log);
+                }
+                from = end.add(BigInteger.ONE);
+            }
+        } catch (Throwable e) {
+            subscription.emitter.onError(new FilterException("Error sending request", e));
+            return false;
+        }
+        if (subscription.isFinished(cursor)) {
+            subscription.emitter.onComplete();
+            return false;
+        }
+        return true;
+    }
+
+    private void completeFinished() {
+        List<Subscription> finished = new ArrayList<>();
+        synchronized (this) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.isFinished(cursor)) {
+                    finished.add(subscription);
+                }
+            }
+        }
+        for (Subscription subscription : finished) {
+            // completing the emitter removes the subscription through its cancellable
+            subscription.emitter.onComplete();
+        }
+    }
+
+    private List<Log> getLogs(EthFilter ethFilter, BigInteger from, BigInteger to)
+            throws IOException {
+        return logRangeFetcher.getLogs(ethFilter, from, to);
+    }
+
+    private void dispatch(List<Log> logs) {
+        Map<String, Map<String, List<Subscription>>> index = this.index;
+        for (Log log : logs) {
+            String address = key(log.getAddress());
+            List<String> topics = log.getTopics();
+            String topic0 = topics != null && !topics.isEmpty() ? key(topics.get(0)) : ANY;
+
+            // a log without an address is only matched by subscriptions to any address
+            if (!address.equals(ANY)) {
+                dispatch(log, index.get(address), topic0);
+            }
+            dispatch(log, index.get(ANY), topic0);
+        }
+    }
+
+    private static void dispatch(Log log, Map<String, List<Subscription>> byTopic, String topic0) {
+        if (byTopic == null) {
+            return;
+        }
+        for (String key : topic0.equals(ANY) ? Collections.singleton(ANY) : pair(topic0)) {
+            List<Subscription> matches = byTopic.get(key);
+            if (matches != null) {
+                for (Subscription subscription : matches) {
+                    if (subscription.matches(log)) {
+                        subscription.emitter.onNext(log);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild the dispatch index and the union filter used for polling. Each subscription is
+     * indexed under every combination of the addresses and first topics it accepts, so that each
+     * log is matched against it at most once.
+     */
+    private void reindex() {
+        Map<String, Map<String, List<Subscription>>> newIndex = new HashMap<>();
+        Set<String> addresses = new LinkedHashSet<>();
+        Set<String> topic0s = new LinkedHashSet<>();
+        boolean anyAddress = false;
+        boolean anyTopic0 = false;
+
+        for (Subscription subscription : subscriptions) {
+            anyAddress |= subscription.addresses.contains(ANY);
+            anyTopic0 |= subscription.topic0s.contains(ANY);
+            addresses.addAll(subscription.addresses);
+            topic0s.addAll(subscription.topic0s);
+            for (String address : subscription.addresses) {
+                for (String topic0 : subscription.topic0s) {
+                    newIndex.computeIfAbsent(address, k -> new HashMap<>())
+                            .computeIfAbsent(topic0, k -> new ArrayList<>())
+                            .add(subscription);
+                }
+            }
+        }
+
+        EthFilter filter = null;
+        if (!subscriptions.isEmpty()) {
+            filter = new EthFilter(null, null, anyAddress ? null : new ArrayList<>(addresses));
+            if (!anyTopic0) {
+                filter.addOptionalTopics(topic0s.toArray(new String[0]));
+            }
+        }
+
+        this.index = newIndex;
+        this.unionFilter = filter;
+    }
+
+    private static Set<String> pair(String topic0) {
+        Set<String> keys = new LinkedHashSet<>(2);
+        keys.add(topic0);
+        keys.add(ANY);
+        return keys;
+    }
+
+    private static String key(String value) {
+        return value == null ? ANY : value.toLowerCase();
+    }
+
+    private static BigInteger min(BigInteger a, BigInteger b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static class Subscription {
+        private final EthFilter ethFilter;
+        private final FlowableEmitter<Log> emitter;
+        private final Set<String> addresses = new LinkedHashSet<>();
+        private final Set<String> topic0s = new LinkedHashSet<>();
+        private final BigInteger fromBlock;
+        private final BigInteger toBlock;
+
+        Subscription(EthFilter ethFilter, FlowableEmitter<Log> emitter) {
+            this.ethFilter = ethFilter;
+            this.emitter = emitter;
+            this.fromBlock = LogRangeFetcher.toBlockNumber(ethFilter.getFromBlock());
+            this.toBlock = LogRangeFetcher.toBlockNumber(ethFilter.getToBlock());
+
+            if (ethFilter.getAddress() == null || ethFilter.getAddress().isEmpty()) {
+                addresses.add(ANY);
+            } else {
+                ethFilter.getAddress().forEach(address -> addresses.add(key(address)));
+            }
+
+            List<String> first =
+                    ethFilter.getTopics().isEmpty()
+                            ? Collections.singletonList(null)
+                            : values(ethFilter.getTopics().get(0));
+            for (String topic : first) {
+                topic0s.add(key(topic));
+            }
+            if (topic0s.contains(ANY)) {
+                topic0s.clear();
+                topic0s.add(ANY);
+            }
+        }
+
+        boolean isFinished(BigInteger blockNumber) {
+            return toBlock != null && toBlock.compareTo(blockNumber) <= 0;
+        }
+
+        boolean matches(Log log) {
+            BigInteger blockNumber = log.getBlockNumber();
+            if (blockNumber != null
+                    && ((fromBlock != null && blockNumber.compareTo(fromBlock) < 0)
+                            || (toBlock != null && blockNumber.compareTo(toBlock) > 0))) {
+                return false;
+            }
+
+            List<FilterTopic> topics = ethFilter.getTopics();
+            List<String> logTopics =
+                    log.getTopics() != null ? log.getTopics() : Collections.emptyList();
+            for (int i = 1; i < topics.size(); i++) {
+                List<String> accepted = values(topics.get(i));
+                if (accepted.contains(null)) {
+                    continue;
+                }
+                if (i >= logTopics.size() || !containsIgnoreCase(accepted, logTopics.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static List<String> values(FilterTopic<?> topic) {
+            if (topic instanceof ListTopic) {
+                List<String> values = new ArrayList<>();
+                for (SingleTopic singleTopic : ((ListTopic) topic).getValue()) {
+                    values.add(singleTopic.getValue());
+                }
+                return values;
+            } else {
+                return Collections.singletonList((String) topic.getValue());
+            }
+        }
+
+        private static boolean containsIgnoreCase(List<String> values, String value) {
+            for (String candidate : values) {
+                if (candidate.equalsIgnoreCase(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
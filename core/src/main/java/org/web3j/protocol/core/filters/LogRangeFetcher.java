@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.RpcErrors;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Retrieves the logs of a block range with eth_getLogs, splitting the range into smaller requests
+ * when the node rejects it as too large.
+ *
+ * <p>Nodes limit the number of blocks or logs a single eth_getLogs request may cover, and the
+ * limits differ between clients and providers. The fetcher starts with the maximum range, halves it
+ * each time a request is rejected, and doubles it again after a run of successful requests, so that
+ * it settles on the largest range the node accepts for the current log density.
+ */
+public class LogRangeFetcher {
+
+    public static final int DEFAULT_MAX_BLOCK_RANGE = 1000;
+
+    // successful requests needed before the range is grown again
+    private static final int GROWTH_THRESHOLD = 4;
+
+    private static final String[] RANGE_TOO_LARGE_MESSAGES = {
+        "query returned more than",
+        "block range",
+        "range is too large",
+        "range too large",
+        "too many blocks",
+        "too many results",
+        "response size",
+        "exceed maximum",
+        "max results"
+    };
+
+    private final Web3j web3j;
+    private final int maxBlockRange;
+
+    private volatile int blockRange;
+    private final AtomicInteger successes = new AtomicInteger();
+
+    public LogRangeFetcher(Web3j web3j, int maxBlockRange) {
+        if (maxBlockRange < 1) {
+            throw new IllegalArgumentException("Maximum block range must be at least 1");
+        }
+        this.web3j = web3j;
+        this.maxBlockRange = maxBlockRange;
+        this.blockRange = maxBlockRange;
+    }
+
+    public LogRangeFetcher(Web3j web3j) {
+        this(web3j, DEFAULT_MAX_BLOCK_RANGE);
+    }
+
+    /**
+     * Retrieve the logs matching the addresses and topics of the given filter between two blocks,
+     * inclusive. The block parameters of the filter are ignored.
+     *
+     * @param ethFilter filter criteria
+     * @param fromBlock first block of the range
+     * @param toBlock last block of the range
+     * @return the logs of the range, in block order
+     * @throws IOException if a request could not be sent
+     * @throws FilterException if the node returned an error, or rejected a single block range
+     */
+    public List<Log> getLogs(EthFilter ethFilter, BigInteger fromBlock, BigInteger toBlock)
+            throws IOException {
+        List<Log> logs = new ArrayList<>();
+        BigInteger from = fromBlock;
+        while (from.compareTo(toBlock) <= 0) {
+            BigInteger to = min(toBlock, from.add(BigInteger.valueOf(blockRange - 1)));
+            EthLog ethLog = web3j.ethGetLogs(rangeFilter(ethFilter, from, to)).send();
+
+            if (ethLog.hasError()) {
+                if (isRangeTooLarge(ethLog.getError()) && from.compareTo(to) < 0) {
+                    shrink(to.subtract(from).intValueExact() + 1);
+                    continue;
+                }
+                throw new FilterException("Invalid request: " + ethLog.getError().getMessage());
+            }
+
+            addLogs(ethLog, logs);
+            grow();
+            from = to.add(BigInteger.ONE);
+        }
+        return logs;
+    }
+
+    /** @return the block range currently used for each request */
+    public int getBlockRange() {
+        return blockRange;
+    }
+
+    public int getMaxBlockRange() {
+        return maxBlockRange;
+    }
+
+    /**
+     * Check whether an error returned for eth_getLogs indicates that the requested range covers too
+     * many blocks or logs, rather than a failure which would recur for a smaller range.
+     *
+     * @param error the error returned by the node
+     * @return true if the request should be retried with a smaller range
+     */
+    public static boolean isRangeTooLarge(Response.Error error) {
+        if (error == null) {
+            return false;
+        }
+        if (error.getCode() == RpcErrors.LIMIT_EXCEEDED) {
+            return true;
+        }
+        String message = error.getMessage() == null ? "" : error.getMessage();
+        message = message.toLowerCase(Locale.ROOT);
+        for (String candidate : RANGE_TOO_LARGE_MESSAGES) {
+            if (message.contains(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static EthFilter rangeFilter(EthFilter ethFilter, BigInteger from, BigInteger to) {
+        EthFilter rangeFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(from),
+                        new DefaultBlockParameterNumber(to),
+                        ethFilter.getAddress());
+        rangeFilter.getTopics().addAll(ethFilter.getTopics());
+        return rangeFilter;
+    }
+
+    static void addLogs(EthLog ethLog, List<Log> logs) {
+        for (EthLog.LogResult logResult : ethLog.getLogs()) {
+            if (logResult instanceof EthLog.LogObject) {
+                logs.add(((EthLog.LogObject) logResult).get());
+            } else {
+                throw new FilterException(
+                        "Unexpected result type: " + logResult.get() + " required LogObject");
+            }
+        }
+    }
+
+    /**
+     * @return the block number of a numeric or earliest block parameter, or null for latest and
+     *     pending
+     */
+    static BigInteger toBlockNumber(DefaultBlockParameter blockParameter) {
+        if (blockParameter instanceof DefaultBlockParameterNumber) {
+            return ((DefaultBlockParameterNumber) blockParameter).getBlockNumber();
+        } else if (blockParameter == DefaultBlockParameterName.EARLIEST) {
+            return BigInteger.ZERO;
+        } else {
+            return null;
+        }
+    }
+
+    private void shrink(int rejectedRange) {
+        blockRange = Math.max(1, rejectedRange / 2);
+        successes.set(0);
+    }
+
+    private void grow() {
+        if (blockRange < maxBlockRange && successes.incrementAndGet() >= GROWTH_THRESHOLD) {
+            blockRange = (int) Math.min(maxBlockRange, blockRange * 2L);
+            successes.set(0);
+        }
+    }
+
+    private static BigInteger min(BigInteger a, BigInteger b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -14,19 +14,20 @@ package org.web3j.protocol.core.methods.response;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.deserializer.BlockDeserializer;
 import org.web3j.utils.Numeric;
 
 /**
@@ -326,6 +327,75 @@ public class EthBlock extends Response<EthBlock.Block> {
             this.transactions = transactions;
         }
 
+        /**
+         * Set the undecoded JSON of the transactions array, which is only decoded when the
+         * transactions are accessed.
+         *
+         * @param rawTransactions JSON encoded transactions array
+         * @see ObjectMapperFactory#withLazyBlockTransactions(ObjectMapper, boolean)
+         */
+        public void setRawTransactions(byte[] rawTransactions) {
+            this.transactions =
+                    rawTransactions != null ? new RawBlockTransactions(rawTransactions) : null;
+        }
+
+        /**
+         * Set the undecoded JSON of the transactions array, which is decoded with the given object
+         * mapper and configuration when the transactions are accessed.
+         *
+         * @param rawTransactions JSON encoded transactions array
+         * @param objectMapper object mapper the block was read with
+         * @param config deserialization configuration the block was read with
+         */
+        public void setRawTransactions(
+                byte[] rawTransactions, ObjectMapper objectMapper, DeserializationConfig config) {
+            this.transactions =
+                    rawTransactions != null
+                            ? new RawBlockTransactions(rawTransactions, objectMapper, config)
+                            : null;
+        }
+
+        /**
+         * Returns the transaction at the given position in the block. If the transactions have not
+         * been decoded yet, only this transaction is decoded.
+         *
+         * @param index position of the transaction in the block
+         * @return the transaction hash or object
+         */
+        public TransactionResult getTransaction(int index) {
+            if (transactions == null) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+            }
+            return transactions instanceof RawBlockTransactions
+                    ? ((RawBlockTransactions) transactions).decode(index)
+                    : transactions.get(index);
+        }
+
+        public int getTransactionCount() {
+            return transactions != null ? transactions.size() : 0;
+        }
+
+        /**
+         * Returns the transactions whose value for the given field matches the predicate. If the
+         * transactions have not been decoded yet, only the matching transactions are decoded.
+         *
+         * @param fieldName JSON field name of the transaction, such as "to" or "from"
+         * @param predicate test applied to the hex encoded value of the field, which is null when
+         *     the field is absent
+         * @return the matching transactions, in block order
+         */
+        public List<TransactionResult> findTransactions(
+                String fieldName, Predicate<String> predicate) {
+            return transactions instanceof RawBlockTransactions
+                    ? ((RawBlockTransactions) transactions).find(fieldName, predicate)
+                    : RawBlockTransactions.find(transactions, fieldName, predicate);
+        }
+
+        public List<TransactionResult> findTransactionsTo(String address) {
+            return findTransactions(
+                    "to", to -> to == null ? address == null : to.equalsIgnoreCase(address));
+        }
+
         public List<String> getUncles() {
             return uncles;
         }
@@ -614,46 +684,26 @@ public class EthBlock extends Response<EthBlock.Block> {
     public static class ResultTransactionDeserialiser
             extends JsonDeserializer<List<TransactionResult>> {
 
-        private ObjectReader objectReader = ObjectMapperFactory.getObjectReader();
+        private final BlockDeserializer blockDeserializer = new BlockDeserializer();
 
         @Override
         public List<TransactionResult> deserialize(
                 JsonParser jsonParser, DeserializationContext deserializationContext)
                 throws IOException {
-
-            List<TransactionResult> transactionResults = new ArrayList<>();
-            JsonToken nextToken = jsonParser.nextToken();
-
-            if (nextToken == JsonToken.START_OBJECT) {
-                Iterator<TransactionObject> transactionObjectIterator =
-                        objectReader.readValues(jsonParser, TransactionObject.class);
-                while (transactionObjectIterator.hasNext()) {
-                    transactionResults.add(transactionObjectIterator.next());
-                }
-            } else if (nextToken == JsonToken.VALUE_STRING) {
-                jsonParser.getValueAsString();
-
-                Iterator<TransactionHash> transactionHashIterator =
-                        objectReader.readValues(jsonParser, TransactionHash.class);
-                while (transactionHashIterator.hasNext()) {
-                    transactionResults.add(transactionHashIterator.next());
-                }
-            }
-
-            return transactionResults;
+            return blockDeserializer.readTransactions(jsonParser, deserializationContext);
         }
     }
 
     public static class ResponseDeserialiser extends JsonDeserializer<Block> {
 
-        private ObjectReader objectReader = ObjectMapperFactory.getObjectReader();
+        private final BlockDeserializer blockDeserializer = new BlockDeserializer();
 
         @Override
         public Block deserialize(
                 JsonParser jsonParser, DeserializationContext deserializationContext)
                 throws IOException {
             if (jsonParser.getCurrentToken() != JsonToken.VALUE_NULL) {
-                return objectReader.readValue(jsonParser, Block.class);
+                return blockDeserializer.deserialize(jsonParser, deserializationContext);
             } else {
                 return null; // null is wrapped by Optional in above getter
             }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.compact.CompactLog;
+import org.web3j.protocol.core.methods.response.compact.CompactLogDeserializer;
+
+/** eth_getLogs, with the logs deserialized straight into {@link CompactLog}s. */
+public class EthCompactLog extends Response<List<CompactLog>> {
+
+    @Override
+    @JsonDeserialize(contentUsing = CompactLogDeserializer.class)
+    public void setResult(List<CompactLog> result) {
+        super.setResult(result);
+    }
+
+    public List<CompactLog> getLogs() {
+        return getResult();
+    }
+}
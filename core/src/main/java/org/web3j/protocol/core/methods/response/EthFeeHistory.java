@@ -0,0 +1,116 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.web3j.protocol.core.Response;
+import org.web3j.utils.Numeric;
+
+/** eth_feeHistory. */
+public class EthFeeHistory extends Response<EthFeeHistory.FeeHistory> {
+
+    public FeeHistory getFeeHistory() {
+        return getResult();
+    }
+
+    public static class FeeHistory {
+        private String oldestBlock;
+        private List<List<String>> reward;
+        private List<String> baseFeePerGas;
+        private List<Double> gasUsedRatio;
+
+        public FeeHistory() {}
+
+        public FeeHistory(
+                String oldestBlock,
+                List<List<String>> reward,
+                List<String> baseFeePerGas,
+                List<Double> gasUsedRatio) {
+            this.oldestBlock = oldestBlock;
+            this.reward = reward;
+            this.baseFeePerGas = baseFeePerGas;
+            this.gasUsedRatio = gasUsedRatio;
+        }
+
+        public BigInteger getOldestBlock() {
+            return Numeric.decodeQuantity(oldestBlock);
+        }
+
+        public String getOldestBlockRaw() {
+            return oldestBlock;
+        }
+
+        public void setOldestBlock(String oldestBlock) {
+            this.oldestBlock = oldestBlock;
+        }
+
+        /**
+         * @return for each block, the priority fees paid at each of the requested percentiles, or
+         *     an empty list if no percentiles were requested
+         */
+        public List<List<BigInteger>> getReward() {
+            List<List<BigInteger>> rewards = new ArrayList<>();
+            if (reward != null) {
+                for (List<String> blockReward : reward) {
+                    rewards.add(decode(blockReward));
+                }
+            }
+            return rewards;
+        }
+
+        public List<List<String>> getRewardRaw() {
+            return reward;
+        }
+
+        public void setReward(List<List<String>> reward) {
+            this.reward = reward;
+        }
+
+        /**
+         * @return the base fee of each block, followed by the base fee of the block after the
+         *     newest one
+         */
+        public List<BigInteger> getBaseFeePerGas() {
+            return decode(baseFeePerGas);
+        }
+
+        public List<String> getBaseFeePerGasRaw() {
+            return baseFeePerGas;
+        }
+
+        public void setBaseFeePerGas(List<String> baseFeePerGas) {
+            this.baseFeePerGas = baseFeePerGas;
+        }
+
+        public List<Double> getGasUsedRatio() {
+            return gasUsedRatio;
+        }
+
+        public void setGasUsedRatio(List<Double> gasUsedRatio) {
+            this.gasUsedRatio = gasUsedRatio;
+        }
+
+        private static List<BigInteger> decode(List<String> values) {
+            List<BigInteger> decoded = new ArrayList<>();
+            if (values != null) {
+                for (String value : values) {
+                    decoded.add(Numeric.decodeQuantity(value));
+                }
+            }
+            return decoded;
+        }
+    }
+}
@@ -19,28 +19,36 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
-import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.deserializer.TransactionReceiptDeserializer;
 
 /** eth_getTransactionReceipt. */
 public class EthGetTransactionReceipt extends Response<TransactionReceipt> {
 
+    @Override
+    @JsonDeserialize(using = ResponseDeserialiser.class)
+    public void setResult(TransactionReceipt result) {
+        super.setResult(result);
+    }
+
     public Optional<TransactionReceipt> getTransactionReceipt() {
         return Optional.ofNullable(getResult());
     }
 
     public static class ResponseDeserialiser extends JsonDeserializer<TransactionReceipt> {
 
-        private ObjectReader objectReader = ObjectMapperFactory.getObjectReader();
+        private final TransactionReceiptDeserializer transactionReceiptDeserializer =
+                new TransactionReceiptDeserializer();
 
         @Override
         public TransactionReceipt deserialize(
                 JsonParser jsonParser, DeserializationContext deserializationContext)
                 throws IOException {
             if (jsonParser.getCurrentToken() != JsonToken.VALUE_NULL) {
-                return objectReader.readValue(jsonParser, TransactionReceipt.class);
+                return transactionReceiptDeserializer.deserialize(
+                        jsonParser, deserializationContext);
             } else {
                 return null; // null is wrapped by Optional in above getter
             }
@@ -14,18 +14,16 @@ package org.web3j.protocol.core.methods.response;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
-import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.deserializer.LogDeserializer;
 
 /**
  * Log object returned by:
@@ -129,7 +127,7 @@ public class EthLog extends Response<List<EthLog.LogResult>> {
 
     public static class LogResultDeserialiser extends JsonDeserializer<List<LogResult>> {
 
-        private ObjectReader objectReader = ObjectMapperFactory.getObjectReader();
+        private final LogDeserializer logDeserializer = new LogDeserializer();
 
         @Override
         public List<LogResult> deserialize(
@@ -137,21 +135,18 @@ public class EthLog extends Response<List<EthLog.LogResult>> {
                 throws IOException {
 
             List<LogResult> logResults = new ArrayList<>();
-            JsonToken nextToken = jsonParser.nextToken();
-
-            if (nextToken == JsonToken.START_OBJECT) {
-                Iterator<LogObject> logObjectIterator =
-                        objectReader.readValues(jsonParser, LogObject.class);
-                while (logObjectIterator.hasNext()) {
-                    logResults.add(logObjectIterator.next());
-                }
-            } else if (nextToken == JsonToken.VALUE_STRING) {
-                jsonParser.getValueAsString();
-
-                Iterator<Hash> transactionHashIterator =
-                        objectReader.readValues(jsonParser, Hash.class);
-                while (transactionHashIterator.hasNext()) {
-                    logResults.add(transactionHashIterator.next());
+            JsonToken nextToken;
+
+            while ((nextToken = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+                if (nextToken == JsonToken.START_OBJECT) {
+                    logResults.add(
+                            (LogObject)
+                                    logDeserializer.deserialize(
+                                            jsonParser, deserializationContext, new LogObject()));
+                } else if (nextToken == JsonToken.VALUE_STRING) {
+                    logResults.add(new Hash(jsonParser.getText()));
+                } else {
+                    jsonParser.skipChildren();
                 }
             }
             return logResults;
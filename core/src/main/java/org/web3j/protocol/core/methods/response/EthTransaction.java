@@ -19,10 +19,10 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
-import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.deserializer.TransactionDeserializer;
 
 /**
  * Transaction object returned by:
@@ -40,20 +40,27 @@ import org.web3j.protocol.core.Response;
  */
 public class EthTransaction extends Response<Transaction> {
 
+    @Override
+    @JsonDeserialize(using = ResponseDeserialiser.class)
+    public void setResult(Transaction result) {
+        super.setResult(result);
+    }
+
     public Optional<Transaction> getTransaction() {
         return Optional.ofNullable(getResult());
     }
 
     public static class ResponseDeserialiser extends JsonDeserializer<Transaction> {
 
-        private ObjectReader objectReader = ObjectMapperFactory.getObjectReader();
+        private final TransactionDeserializer transactionDeserializer =
+                new TransactionDeserializer();
 
         @Override
         public Transaction deserialize(
                 JsonParser jsonParser, DeserializationContext deserializationContext)
                 throws IOException {
             if (jsonParser.getCurrentToken() != JsonToken.VALUE_NULL) {
-                return objectReader.readValue(jsonParser, Transaction.class);
+                return transactionDeserializer.deserialize(jsonParser, deserializationContext);
             } else {
                 return null; // null is wrapped by Optional in above getter
             }
@@ -15,6 +15,9 @@ package org.web3j.protocol.core.methods.response;
 import java.math.BigInteger;
 import java.util.List;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.deserializer.HexStringDeserializer;
 import org.web3j.utils.Numeric;
 
 /**
@@ -98,6 +101,7 @@ public class Log {
         return transactionHash;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setTransactionHash(String transactionHash) {
         this.transactionHash = transactionHash;
     }
@@ -106,6 +110,7 @@ public class Log {
         return blockHash;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setBlockHash(String blockHash) {
         this.blockHash = blockHash;
     }
@@ -126,6 +131,7 @@ public class Log {
         return address;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setAddress(String address) {
         this.address = address;
     }
@@ -150,6 +156,7 @@ public class Log {
         return topics;
     }
 
+    @JsonDeserialize(contentUsing = HexStringDeserializer.class)
     public void setTopics(List<String> topics) {
         this.topics = topics;
     }
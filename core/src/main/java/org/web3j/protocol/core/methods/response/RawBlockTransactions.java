@@ -0,0 +1,270 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+
+import org.web3j.exceptions.MessageDecodingException;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.deserializer.BlockDeserializer;
+import org.web3j.protocol.deserializer.TransactionDeserializer;
+
+/**
+ * Transactions of a block which are held as the undecoded JSON of the transactions array, used by
+ * {@link EthBlock.Block} when lazy block transactions are enabled in {@link ObjectMapperFactory}.
+ *
+ * <p>All of the transactions are decoded when the list is first read. Lookups through {@link
+ * #decode(int)} and {@link #find(String, Predicate)} scan the raw bytes instead, and only decode
+ * the transactions which are returned.
+ *
+ * <p>Transactions are decoded with the object mapper and configuration the block was read with, so
+ * attributes such as the {@link ObjectMapperFactory#HEX_STRING_POOL} still apply.
+ */
+final class RawBlockTransactions extends AbstractList<EthBlock.TransactionResult> {
+
+    private static final Map<String, Function<Transaction, String>> TRANSACTION_FIELDS =
+            transactionFields();
+
+    private final byte[] json;
+    private final ObjectMapper objectMapper;
+    private final DeserializationConfig config;
+    private volatile List<EthBlock.TransactionResult> decoded;
+    private int count = -1;
+
+    RawBlockTransactions(byte[] json) {
+        this(json, ObjectMapperFactory.getObjectMapper(), null);
+    }
+
+    RawBlockTransactions(byte[] json, ObjectMapper objectMapper, DeserializationConfig config) {
+        this.json = json;
+        this.objectMapper = objectMapper;
+        this.config = config != null ? config : objectMapper.getDeserializationConfig();
+    }
+
+    @Override
+    public EthBlock.TransactionResult get(int index) {
+        return decoded().get(index);
+    }
+
+    @Override
+    public int size() {
+        List<EthBlock.TransactionResult> decoded = this.decoded;
+        return decoded != null ? decoded.size() : count();
+    }
+
+    private List<EthBlock.TransactionResult> decoded() {
+        List<EthBlock.TransactionResult> decoded = this.decoded;
+        if (decoded == null) {
+            decoded = decodeAll();
+            this.decoded = decoded;
+        }
+        return decoded;
+    }
+
+    private List<EthBlock.TransactionResult> decodeAll() {
+        try (JsonParser jsonParser = createParser(0, json.length)) {
+            jsonParser.nextToken();
+            return new BlockDeserializer().readTransactions(jsonParser, createContext(jsonParser));
+        } catch (IOException e) {
+            throw decodingFailed(e);
+        }
+    }
+
+    EthBlock.TransactionResult decode(int index) {
+        List<EthBlock.TransactionResult> decoded = this.decoded;
+        if (decoded != null) {
+            return decoded.get(index);
+        } else if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        try (JsonParser jsonParser = createParser(0, json.length)) {
+            jsonParser.nextToken();
+            int current = 0;
+            for (JsonToken token = jsonParser.nextToken();
+                    token != JsonToken.END_ARRAY;
+                    token = jsonParser.nextToken()) {
+                if (current++ == index) {
+                    return decodeCurrent(jsonParser);
+                }
+                jsonParser.skipChildren();
+            }
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current);
+        } catch (IOException e) {
+            throw decodingFailed(e);
+        }
+    }
+
+    private int count() {
+        if (count < 0) {
+            try (JsonParser jsonParser = createParser(0, json.length)) {
+                jsonParser.nextToken();
+                int current = 0;
+                while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+                    jsonParser.skipChildren();
+                    current++;
+                }
+                count = current;
+            } catch (IOException e) {
+                throw decodingFailed(e);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decode the transactions which have a matching field. Only the matched field of each
+     * transaction is read, the others are skipped without being decoded.
+     */
+    List<EthBlock.TransactionResult> find(String fieldName, Predicate<String> predicate) {
+        List<EthBlock.TransactionResult> decoded = this.decoded;
+        if (decoded != null) {
+            return find(decoded, fieldName, predicate);
+        }
+
+        List<EthBlock.TransactionResult> result = new ArrayList<>();
+        try (JsonParser jsonParser = createParser(0, json.length)) {
+            jsonParser.nextToken();
+            for (JsonToken token = jsonParser.nextToken();
+                    token != JsonToken.END_ARRAY;
+                    token = jsonParser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    int start = (int) jsonParser.getTokenLocation().getByteOffset();
+                    if (matches(jsonParser, fieldName, predicate)) {
+                        int end = (int) jsonParser.getCurrentLocation().getByteOffset();
+                        result.add(decodeObject(start, end - start));
+                    }
+                } else if (token == JsonToken.VALUE_STRING) {
+                    String hash = jsonParser.getText();
+                    if (predicate.test("hash".equals(fieldName) ? hash : null)) {
+                        result.add(new EthBlock.TransactionHash(hash));
+                    }
+                } else {
+                    jsonParser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw decodingFailed(e);
+        }
+        return result;
+    }
+
+    static List<EthBlock.TransactionResult> find(
+            List<EthBlock.TransactionResult> transactions,
+            String fieldName,
+            Predicate<String> predicate) {
+        Function<Transaction, String> field = TRANSACTION_FIELDS.get(fieldName);
+        List<EthBlock.TransactionResult> result = new ArrayList<>();
+        for (EthBlock.TransactionResult transaction : transactions) {
+            String value;
+            if (transaction instanceof EthBlock.TransactionHash) {
+                value = "hash".equals(fieldName) ? (String) transaction.get() : null;
+            } else {
+                value = field != null ? field.apply((Transaction) transaction.get()) : null;
+            }
+            if (predicate.test(value)) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(
+            JsonParser jsonParser, String fieldName, Predicate<String> predicate)
+            throws IOException {
+        String value = null;
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            JsonToken token = jsonParser.nextToken();
+            if (token.isScalarValue()
+                    && token != JsonToken.VALUE_NULL
+                    && fieldName.equals(jsonParser.getCurrentName())) {
+                value = jsonParser.getText();
+            } else {
+                jsonParser.skipChildren();
+            }
+        }
+        return predicate.test(value);
+    }
+
+    private EthBlock.TransactionResult decodeCurrent(JsonParser jsonParser) throws IOException {
+        if (jsonParser.getCurrentToken() == JsonToken.START_OBJECT) {
+            return (EthBlock.TransactionObject)
+                    new TransactionDeserializer()
+                            .deserialize(
+                                    jsonParser,
+                                    createContext(jsonParser),
+                                    new EthBlock.TransactionObject());
+        } else {
+            return new EthBlock.TransactionHash(jsonParser.getText());
+        }
+    }
+
+    private EthBlock.TransactionResult decodeObject(int offset, int length) throws IOException {
+        try (JsonParser jsonParser = createParser(offset, length)) {
+            jsonParser.nextToken();
+            return decodeCurrent(jsonParser);
+        }
+    }
+
+    private JsonParser createParser(int offset, int length) throws IOException {
+        return objectMapper.getFactory().createParser(json, offset, length);
+    }
+
+    private DeserializationContext createContext(JsonParser jsonParser) {
+        return ((DefaultDeserializationContext) objectMapper.getDeserializationContext())
+                .createInstance(config, jsonParser, objectMapper.getInjectableValues());
+    }
+
+    private static Map<String, Function<Transaction, String>> transactionFields() {
+        Map<String, Function<Transaction, String>> fields = new HashMap<>();
+        fields.put("hash", Transaction::getHash);
+        fields.put("nonce", Transaction::getNonceRaw);
+        fields.put("blockHash", Transaction::getBlockHash);
+        fields.put("blockNumber", Transaction::getBlockNumberRaw);
+        fields.put("transactionIndex", Transaction::getTransactionIndexRaw);
+        fields.put("from", Transaction::getFrom);
+        fields.put("to", Transaction::getTo);
+        fields.put("value", Transaction::getValueRaw);
+        fields.put("gasPrice", Transaction::getGasPriceRaw);
+        fields.put("gas", Transaction::getGasRaw);
+        fields.put("input", Transaction::getInput);
+        fields.put("creates", Transaction::getCreates);
+        fields.put("publicKey", Transaction::getPublicKey);
+        fields.put("raw", Transaction::getRaw);
+        fields.put("r", Transaction::getR);
+        fields.put("s", Transaction::getS);
+        fields.put("type", Transaction::getType);
+        fields.put("maxFeePerGas", Transaction::getMaxFeePerGas);
+        fields.put("maxPriorityFeePerGas", Transaction::getMaxPriorityFeePerGas);
+        return Collections.unmodifiableMap(fields);
+    }
+
+    private static MessageDecodingException decodingFailed(IOException cause) {
+        return new MessageDecodingException("Unable to decode block transactions", cause);
+    }
+}
@@ -15,6 +15,9 @@ package org.web3j.protocol.core.methods.response;
 import java.math.BigInteger;
 import java.util.List;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.deserializer.HexStringDeserializer;
 import org.web3j.utils.Numeric;
 
 /** Transaction object used by both {@link EthTransaction} and {@link EthBlock}. */
@@ -95,6 +98,7 @@ public class Transaction {
         return hash;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setHash(String hash) {
         this.hash = hash;
     }
@@ -115,6 +119,7 @@ public class Transaction {
         return blockHash;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setBlockHash(String blockHash) {
         this.blockHash = blockHash;
     }
@@ -147,6 +152,7 @@ public class Transaction {
         return from;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setFrom(String from) {
         this.from = from;
     }
@@ -155,6 +161,7 @@ public class Transaction {
         return to;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setTo(String to) {
         this.to = to;
     }
@@ -207,6 +214,7 @@ public class Transaction {
         return creates;
     }
 
+    @JsonDeserialize(using = HexStringDeserializer.class)
     public void setCreates(String creates) {
         this.creates = creates;
     }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+/** Immutable 20 byte account or contract address, held as two longs and an int. */
+public final class Address20 {
+
+    public static final int LENGTH = 20;
+
+    final long high;
+    final long middle;
+    final int low;
+
+    Address20(long high, long middle, int low) {
+        this.high = high;
+        this.middle = middle;
+        this.low = low;
+    }
+
+    public static Address20 wrap(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException(
+                    "Expected " + LENGTH + " bytes, but got " + bytes.length);
+        }
+        return new Address20(
+                CompactValues.getLong(bytes, 0, 8),
+                CompactValues.getLong(bytes, 8, 8),
+                (int) CompactValues.getLong(bytes, 16, 4));
+    }
+
+    /**
+     * Parse a hex encoded address.
+     *
+     * @param value 0x prefixed hex string, in either case, so checksummed addresses are accepted
+     * @return the address, or null if the value is null
+     * @throws IllegalArgumentException if the value is not a 20 byte hex string
+     */
+    public static Address20 parse(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        CompactValues.checkBytes(value, LENGTH);
+        return new Address20(
+                CompactValues.parseLong(value, 0, 8),
+                CompactValues.parseLong(value, 8, 8),
+                (int) CompactValues.parseLong(value, 16, 4));
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[LENGTH];
+        CompactValues.putLong(high, bytes, 0, 8);
+        CompactValues.putLong(middle, bytes, 8, 8);
+        CompactValues.putLong(low, bytes, 16, 4);
+        return bytes;
+    }
+
+    boolean equals(long high, long middle, int low) {
+        return this.high == high && this.middle == middle && this.low == low;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Address20)) {
+            return false;
+        }
+        Address20 that = (Address20) o;
+        return equals(that.high, that.middle, that.low);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode(high, middle, low);
+    }
+
+    static int hashCode(long high, long middle, int low) {
+        int result = Long.hashCode(high);
+        result = 31 * result + Long.hashCode(middle);
+        result = 31 * result + low;
+        return result;
+    }
+
+    /** @return the 0x prefixed, lower case hex encoding of the address */
+    @Override
+    public String toString() {
+        return toString(high, middle, low);
+    }
+
+    static String toString(long high, long middle, int low) {
+        StringBuilder builder = new StringBuilder(2 + LENGTH * 2).append("0x");
+        CompactValues.appendHex(builder, high, 8);
+        CompactValues.appendHex(builder, middle, 8);
+        CompactValues.appendHex(builder, low, 4);
+        return builder.toString();
+    }
+}
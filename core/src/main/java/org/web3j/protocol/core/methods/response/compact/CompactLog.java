@@ -0,0 +1,312 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.web3j.protocol.core.methods.response.compact.CompactValues.ABSENT;
+
+/**
+ * Compact form of a {@link Log}, for applications which keep large numbers of logs in memory.
+ *
+ * <p>Quantities are held as primitive longs, hashes, the address and topics as inline words and
+ * data as bytes, so a log holds no strings. It is deserialized directly by {@link
+ * CompactLogDeserializer}, or converted from a {@link Log} with {@link #of(Log)}. The {@code type}
+ * field returned by some clients is not kept.
+ */
+@JsonDeserialize(using = CompactLogDeserializer.class)
+public class CompactLog {
+    boolean removed;
+    long logIndex = ABSENT;
+    long transactionIndex = ABSENT;
+    long blockNumber = ABSENT;
+
+    boolean hasTransactionHash;
+    long transactionHash0;
+    long transactionHash1;
+    long transactionHash2;
+    long transactionHash3;
+
+    boolean hasBlockHash;
+    long blockHash0;
+    long blockHash1;
+    long blockHash2;
+    long blockHash3;
+
+    boolean hasAddress;
+    long addressHigh;
+    long addressMiddle;
+    int addressLow;
+
+    byte[] data;
+    // four words per topic
+    long[] topics;
+
+    CompactLog() {}
+
+    /**
+     * Create a compact copy of the given log.
+     *
+     * @param log log to copy
+     * @return the compact log
+     * @throws IllegalArgumentException if a value of the log is not valid hex
+     */
+    public static CompactLog of(Log log) {
+        CompactLog compactLog = new CompactLog();
+        compactLog.removed = log.isRemoved();
+        compactLog.logIndex = CompactValues.parseQuantity(log.getLogIndexRaw());
+        compactLog.transactionIndex = CompactValues.parseQuantity(log.getTransactionIndexRaw());
+        compactLog.blockNumber = CompactValues.parseQuantity(log.getBlockNumberRaw());
+        compactLog.setTransactionHash(Hash32.parse(log.getTransactionHash()));
+        compactLog.setBlockHash(Hash32.parse(log.getBlockHash()));
+        compactLog.setAddress(Address20.parse(log.getAddress()));
+        compactLog.data = CompactValues.parseBytes(log.getData());
+        compactLog.setTopics(log.getTopics());
+        return compactLog;
+    }
+
+    /** @return a {@link Log} with the values of this log in canonical form */
+    public Log toLog() {
+        Log log = new Log();
+        log.setRemoved(removed);
+        log.setLogIndex(logIndex != ABSENT ? CompactValues.toQuantity(logIndex) : null);
+        log.setTransactionIndex(
+                transactionIndex != ABSENT ? CompactValues.toQuantity(transactionIndex) : null);
+        log.setTransactionHash(hasTransactionHash ? getTransactionHash().toString() : null);
+        log.setBlockHash(hasBlockHash ? getBlockHash().toString() : null);
+        log.setBlockNumber(blockNumber != ABSENT ? CompactValues.toQuantity(blockNumber) : null);
+        log.setAddress(hasAddress ? getAddress().toString() : null);
+        log.setData(data != null ? CompactValues.toHex(data) : null);
+        if (topics != null) {
+            List<String> values = new ArrayList<>(getTopicCount());
+            for (int i = 0; i < getTopicCount(); i++) {
+                values.add(getTopic(i).toString());
+            }
+            log.setTopics(values);
+        }
+        return log;
+    }
+
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    /** @return the log index, or -1 if it is absent */
+    public long getLogIndex() {
+        return logIndex;
+    }
+
+    /** @return the transaction index, or -1 if it is absent */
+    public long getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    /** @return the block number, or -1 if it is absent */
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public Hash32 getTransactionHash() {
+        return hasTransactionHash
+                ? new Hash32(transactionHash0, transactionHash1, transactionHash2, transactionHash3)
+                : null;
+    }
+
+    void setTransactionHash(Hash32 hash) {
+        hasTransactionHash = hash != null;
+        if (hasTransactionHash) {
+            transactionHash0 = hash.word0;
+            transactionHash1 = hash.word1;
+            transactionHash2 = hash.word2;
+            transactionHash3 = hash.word3;
+        }
+    }
+
+    public Hash32 getBlockHash() {
+        return hasBlockHash ? new Hash32(blockHash0, blockHash1, blockHash2, blockHash3) : null;
+    }
+
+    void setBlockHash(Hash32 hash) {
+        hasBlockHash = hash != null;
+        if (hasBlockHash) {
+            blockHash0 = hash.word0;
+            blockHash1 = hash.word1;
+            blockHash2 = hash.word2;
+            blockHash3 = hash.word3;
+        }
+    }
+
+    public Address20 getAddress() {
+        return hasAddress ? new Address20(addressHigh, addressMiddle, addressLow) : null;
+    }
+
+    /**
+     * Compare the address of the log without creating an {@link Address20}.
+     *
+     * @param address address to compare with
+     * @return true if the log was emitted by the given address
+     */
+    public boolean isAddress(Address20 address) {
+        return hasAddress && address.equals(addressHigh, addressMiddle, addressLow);
+    }
+
+    void setAddress(Address20 address) {
+        hasAddress = address != null;
+        if (hasAddress) {
+            addressHigh = address.high;
+            addressMiddle = address.middle;
+            addressLow = address.low;
+        }
+    }
+
+    /** @return a copy of the log data, or null if it is absent */
+    public byte[] getData() {
+        return data != null ? data.clone() : null;
+    }
+
+    /** @return the number of topics, or -1 if they are absent */
+    public int getTopicCount() {
+        return topics != null ? topics.length / 4 : -1;
+    }
+
+    public Hash32 getTopic(int index) {
+        checkTopicIndex(index);
+        int offset = index * 4;
+        return new Hash32(
+                topics[offset], topics[offset + 1], topics[offset + 2], topics[offset + 3]);
+    }
+
+    /**
+     * Compare a topic of the log without creating a {@link Hash32}.
+     *
+     * @param index index of the topic, where topic 0 is the event signature of non anonymous events
+     * @param topic topic to compare with
+     * @return true if the log has the given topic at the index
+     */
+    public boolean isTopic(int index, Hash32 topic) {
+        if (topics == null || index < 0 || index >= getTopicCount()) {
+            return false;
+        }
+        int offset = index * 4;
+        return topic.equals(
+                topics[offset], topics[offset + 1], topics[offset + 2], topics[offset + 3]);
+    }
+
+    void setTopics(List<String> values) {
+        if (values == null) {
+            topics = null;
+            return;
+        }
+
+        topics = new long[values.size() * 4];
+        for (int i = 0; i < values.size(); i++) {
+            Hash32 topic = Hash32.parse(values.get(i));
+            if (topic == null) {
+                throw new IllegalArgumentException("Missing topic " + i);
+            }
+            topics[i * 4] = topic.word0;
+            topics[i * 4 + 1] = topic.word1;
+            topics[i * 4 + 2] = topic.word2;
+            topics[i * 4 + 3] = topic.word3;
+        }
+    }
+
+    private void checkTopicIndex(int index) {
+        if (index < 0 || index >= getTopicCount()) {
+            throw new IndexOutOfBoundsException(
+                    "Topic " + index + " of " + Math.max(getTopicCount(), 0));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactLog)) {
+            return false;
+        }
+
+        CompactLog that = (CompactLog) o;
+        return removed == that.removed
+                && logIndex == that.logIndex
+                && transactionIndex == that.transactionIndex
+                && blockNumber == that.blockNumber
+                && hasTransactionHash == that.hasTransactionHash
+                && transactionHash0 == that.transactionHash0
+                && transactionHash1 == that.transactionHash1
+                && transactionHash2 == that.transactionHash2
+                && transactionHash3 == that.transactionHash3
+                && hasBlockHash == that.hasBlockHash
+                && blockHash0 == that.blockHash0
+                && blockHash1 == that.blockHash1
+                && blockHash2 == that.blockHash2
+                && blockHash3 == that.blockHash3
+                && hasAddress == that.hasAddress
+                && addressHigh == that.addressHigh
+                && addressMiddle == that.addressMiddle
+                && addressLow == that.addressLow
+                && Arrays.equals(data, that.data)
+                && Arrays.equals(topics, that.topics);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Boolean.hashCode(removed);
+        result = 31 * result + Long.hashCode(logIndex);
+        result = 31 * result + Long.hashCode(transactionIndex);
+        result = 31 * result + Long.hashCode(blockNumber);
+        result =
+                31 * result
+                        + Hash32.hashCode(
+                                transactionHash0,
+                                transactionHash1,
+                                transactionHash2,
+                                transactionHash3);
+        result = 31 * result + Hash32.hashCode(blockHash0, blockHash1, blockHash2, blockHash3);
+        result = 31 * result + Address20.hashCode(addressHigh, addressMiddle, addressLow);
+        result = 31 * result + Arrays.hashCode(data);
+        result = 31 * result + Arrays.hashCode(topics);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactLog{"
+                + "removed="
+                + removed
+                + ", logIndex="
+                + logIndex
+                + ", transactionIndex="
+                + transactionIndex
+                + ", transactionHash="
+                + getTransactionHash()
+                + ", blockHash="
+                + getBlockHash()
+                + ", blockNumber="
+                + blockNumber
+                + ", address="
+                + getAddress()
+                + ", data="
+                + (data != null ? CompactValues.toHex(data) : null)
+                + ", topics="
+                + (topics != null ? toLog().getTopics() : null)
+                + '}';
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import org.web3j.protocol.deserializer.StreamingDeserializer;
+
+/**
+ * Streaming deserializer which reads logs straight into their compact form, see {@link
+ * StreamingDeserializer}.
+ */
+public class CompactLogDeserializer extends StreamingDeserializer<CompactLog> {
+
+    public CompactLogDeserializer() {
+        super(CompactLog.class);
+    }
+
+    @Override
+    public CompactLog deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        try {
+            return deserialize(jsonParser, deserializationContext, new CompactLog());
+        } catch (IllegalArgumentException e) {
+            throw JsonMappingException.from(jsonParser, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            CompactLog log)
+            throws IOException {
+        switch (fieldName) {
+            case "removed":
+                log.removed = jsonParser.getValueAsBoolean();
+                return true;
+            case "logIndex":
+                log.logIndex =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionIndex":
+                log.transactionIndex =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionHash":
+                log.setTransactionHash(
+                        Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "blockHash":
+                log.setBlockHash(Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "blockNumber":
+                log.blockNumber =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "address":
+                log.setAddress(Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "data":
+                log.data = CompactValues.parseBytes(readString(jsonParser, deserializationContext));
+                return true;
+            case "topics":
+                log.setTopics(readStrings(jsonParser, deserializationContext));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.core.methods.response.AccessListObject;
+import org.web3j.protocol.core.methods.response.Transaction;
+
+import static org.web3j.protocol.core.methods.response.compact.CompactValues.ABSENT;
+
+/**
+ * Compact form of a {@link Transaction}, for applications which keep large numbers of transactions
+ * in memory.
+ *
+ * <p>Quantities are held as primitive longs, or as big integers where they may not fit, hashes,
+ * addresses and signature values as inline words and input as bytes, so a transaction holds no
+ * strings. It is deserialized directly by {@link CompactTransactionDeserializer}, or converted from
+ * a {@link Transaction} with {@link #of(Transaction)}. The {@code publicKey} and {@code raw} fields
+ * returned by some clients are not kept.
+ */
+@JsonDeserialize(using = CompactTransactionDeserializer.class)
+public class CompactTransaction {
+    private static final int CHAIN_ID_INC = 35;
+    private static final int LOWER_REAL_V = 27;
+
+    long nonce = ABSENT;
+    long blockNumber = ABSENT;
+    long transactionIndex = ABSENT;
+    long gas = ABSENT;
+    long v;
+    int type = -1;
+
+    boolean hasHash;
+    long hash0;
+    long hash1;
+    long hash2;
+    long hash3;
+
+    boolean hasBlockHash;
+    long blockHash0;
+    long blockHash1;
+    long blockHash2;
+    long blockHash3;
+
+    boolean hasFrom;
+    long fromHigh;
+    long fromMiddle;
+    int fromLow;
+
+    boolean hasTo;
+    long toHigh;
+    long toMiddle;
+    int toLow;
+
+    boolean hasCreates;
+    long createsHigh;
+    long createsMiddle;
+    int createsLow;
+
+    boolean hasR;
+    long r0;
+    long r1;
+    long r2;
+    long r3;
+
+    boolean hasS;
+    long s0;
+    long s1;
+    long s2;
+    long s3;
+
+    BigInteger value;
+    BigInteger gasPrice;
+    BigInteger maxFeePerGas;
+    BigInteger maxPriorityFeePerGas;
+    byte[] input;
+    List<AccessListObject> accessList;
+
+    CompactTransaction() {}
+
+    /**
+     * Create a compact copy of the given transaction.
+     *
+     * @param transaction transaction to copy
+     * @return the compact transaction
+     * @throws IllegalArgumentException if a value of the transaction is not valid hex
+     */
+    public static CompactTransaction of(Transaction transaction) {
+        CompactTransaction compactTransaction = new CompactTransaction();
+        compactTransaction.setHash(Hash32.parse(transaction.getHash()));
+        compactTransaction.nonce = CompactValues.parseQuantity(transaction.getNonceRaw());
+        compactTransaction.setBlockHash(Hash32.parse(transaction.getBlockHash()));
+        compactTransaction.blockNumber =
+                CompactValues.parseQuantity(transaction.getBlockNumberRaw());
+        compactTransaction.transactionIndex =
+                CompactValues.parseQuantity(transaction.getTransactionIndexRaw());
+        compactTransaction.setFrom(Address20.parse(transaction.getFrom()));
+        compactTransaction.setTo(Address20.parse(transaction.getTo()));
+        compactTransaction.value = CompactValues.parseBigQuantity(transaction.getValueRaw());
+        compactTransaction.gasPrice = CompactValues.parseBigQuantity(transaction.getGasPriceRaw());
+        compactTransaction.gas = CompactValues.parseQuantity(transaction.getGasRaw());
+        compactTransaction.input = CompactValues.parseBytes(transaction.getInput());
+        compactTransaction.setCreates(Address20.parse(transaction.getCreates()));
+        compactTransaction.setR(Hash32.parseQuantity(transaction.getR()));
+        compactTransaction.setS(Hash32.parseQuantity(transaction.getS()));
+        compactTransaction.v = transaction.getV();
+        compactTransaction.type = (int) CompactValues.parseQuantity(transaction.getType());
+        compactTransaction.maxFeePerGas =
+                CompactValues.parseBigQuantity(transaction.getMaxFeePerGas());
+        compactTransaction.maxPriorityFeePerGas =
+                CompactValues.parseBigQuantity(transaction.getMaxPriorityFeePerGas());
+        compactTransaction.accessList = transaction.getAccessList();
+        return compactTransaction;
+    }
+
+    /** @return a {@link Transaction} with the values of this transaction in canonical form */
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setHash(hasHash ? getHash().toString() : null);
+        transaction.setNonce(toQuantity(nonce));
+        transaction.setBlockHash(hasBlockHash ? getBlockHash().toString() : null);
+        transaction.setBlockNumber(toQuantity(blockNumber));
+        transaction.setTransactionIndex(toQuantity(transactionIndex));
+        transaction.setFrom(hasFrom ? getFrom().toString() : null);
+        transaction.setTo(hasTo ? getTo().toString() : null);
+        transaction.setValue(toQuantity(value));
+        transaction.setGasPrice(toQuantity(gasPrice));
+        transaction.setGas(toQuantity(gas));
+        transaction.setInput(input != null ? CompactValues.toHex(input) : null);
+        transaction.setCreates(hasCreates ? getCreates().toString() : null);
+        transaction.setR(hasR ? getR().toQuantity() : null);
+        transaction.setS(hasS ? getS().toQuantity() : null);
+        transaction.setV(v);
+        transaction.setType(toQuantity(type));
+        transaction.setMaxFeePerGas(toQuantity(maxFeePerGas));
+        transaction.setMaxPriorityFeePerGas(toQuantity(maxPriorityFeePerGas));
+        transaction.setAccessList(accessList);
+        return transaction;
+    }
+
+    public Hash32 getHash() {
+        return hasHash ? new Hash32(hash0, hash1, hash2, hash3) : null;
+    }
+
+    void setHash(Hash32 hash) {
+        hasHash = hash != null;
+        if (hasHash) {
+            hash0 = hash.word0;
+            hash1 = hash.word1;
+            hash2 = hash.word2;
+            hash3 = hash.word3;
+        }
+    }
+
+    /** @return the nonce, or -1 if it is absent */
+    public long getNonce() {
+        return nonce;
+    }
+
+    public Hash32 getBlockHash() {
+        return hasBlockHash ? new Hash32(blockHash0, blockHash1, blockHash2, blockHash3) : null;
+    }
+
+    void setBlockHash(Hash32 hash) {
+        hasBlockHash = hash != null;
+        if (hasBlockHash) {
+            blockHash0 = hash.word0;
+            blockHash1 = hash.word1;
+            blockHash2 = hash.word2;
+            blockHash3 = hash.word3;
+        }
+    }
+
+    /** @return the block number, or -1 if the transaction is pending */
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    /** @return the transaction index, or -1 if the transaction is pending */
+    public long getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public Address20 getFrom() {
+        return hasFrom ? new Address20(fromHigh, fromMiddle, fromLow) : null;
+    }
+
+    /**
+     * Compare the sender of the transaction without creating an {@link Address20}.
+     *
+     * @param address address to compare with
+     * @return true if the transaction was sent from the given address
+     */
+    public boolean isFrom(Address20 address) {
+        return hasFrom && address.equals(fromHigh, fromMiddle, fromLow);
+    }
+
+    void setFrom(Address20 address) {
+        hasFrom = address != null;
+        if (hasFrom) {
+            fromHigh = address.high;
+            fromMiddle = address.middle;
+            fromLow = address.low;
+        }
+    }
+
+    /** @return the recipient, or null for a contract creation */
+    public Address20 getTo() {
+        return hasTo ? new Address20(toHigh, toMiddle, toLow) : null;
+    }
+
+    /**
+     * Compare the recipient of the transaction without creating an {@link Address20}.
+     *
+     * @param address address to compare with
+     * @return true if the transaction was sent to the given address
+     */
+    public boolean isTo(Address20 address) {
+        return hasTo && address.equals(toHigh, toMiddle, toLow);
+    }
+
+    void setTo(Address20 address) {
+        hasTo = address != null;
+        if (hasTo) {
+            toHigh = address.high;
+            toMiddle = address.middle;
+            toLow = address.low;
+        }
+    }
+
+    public BigInteger getValue() {
+        return value;
+    }
+
+    public BigInteger getGasPrice() {
+        return gasPrice;
+    }
+
+    /** @return the gas limit, or -1 if it is absent */
+    public long getGas() {
+        return gas;
+    }
+
+    /** @return a copy of the input data, or null if it is absent */
+    public byte[] getInput() {
+        return input != null ? input.clone() : null;
+    }
+
+    public Address20 getCreates() {
+        return hasCreates ? new Address20(createsHigh, createsMiddle, createsLow) : null;
+    }
+
+    void setCreates(Address20 address) {
+        hasCreates = address != null;
+        if (hasCreates) {
+            createsHigh = address.high;
+            createsMiddle = address.middle;
+            createsLow = address.low;
+        }
+    }
+
+    /** @return the r value of the signature as 32 bytes, or null if it is absent */
+    public Hash32 getR() {
+        return hasR ? new Hash32(r0, r1, r2, r3) : null;
+    }
+
+    void setR(Hash32 r) {
+        hasR = r != null;
+        if (hasR) {
+            r0 = r.word0;
+            r1 = r.word1;
+            r2 = r.word2;
+            r3 = r.word3;
+        }
+    }
+
+    /** @return the s value of the signature as 32 bytes, or null if it is absent */
+    public Hash32 getS() {
+        return hasS ? new Hash32(s0, s1, s2, s3) : null;
+    }
+
+    void setS(Hash32 s) {
+        hasS = s != null;
+        if (hasS) {
+            s0 = s.word0;
+            s1 = s.word1;
+            s2 = s.word2;
+            s3 = s.word3;
+        }
+    }
+
+    public long getV() {
+        return v;
+    }
+
+    public Long getChainId() {
+        if (v == LOWER_REAL_V || v == (LOWER_REAL_V + 1)) {
+            return null;
+        }
+        return (v - CHAIN_ID_INC) / 2;
+    }
+
+    /** @return the transaction type, or -1 if it is absent */
+    public int getType() {
+        return type;
+    }
+
+    public BigInteger getMaxFeePerGas() {
+        return maxFeePerGas;
+    }
+
+    public BigInteger getMaxPriorityFeePerGas() {
+        return maxPriorityFeePerGas;
+    }
+
+    public List<AccessListObject> getAccessList() {
+        return accessList;
+    }
+
+    private static String toQuantity(long value) {
+        return value != ABSENT ? CompactValues.toQuantity(value) : null;
+    }
+
+    private static String toQuantity(BigInteger value) {
+        return value != null ? CompactValues.toQuantity(value) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactTransaction)) {
+            return false;
+        }
+
+        CompactTransaction that = (CompactTransaction) o;
+        return nonce == that.nonce
+                && blockNumber == that.blockNumber
+                && transactionIndex == that.transactionIndex
+                && gas == that.gas
+                && v == that.v
+                && type == that.type
+                && hasHash == that.hasHash
+                && hash0 == that.hash0
+                && hash1 == that.hash1
+                && hash2 == that.hash2
+                && hash3 == that.hash3
+                && hasBlockHash == that.hasBlockHash
+                && blockHash0 == that.blockHash0
+                && blockHash1 == that.blockHash1
+                && blockHash2 == that.blockHash2
+                && blockHash3 == that.blockHash3
+                && hasFrom == that.hasFrom
+                && fromHigh == that.fromHigh
+                && fromMiddle == that.fromMiddle
+                && fromLow == that.fromLow
+                && hasTo == that.hasTo
+                && toHigh == that.toHigh
+                && toMiddle == that.toMiddle
+                && toLow == that.toLow
+                && hasCreates == that.hasCreates
+                && createsHigh == that.createsHigh
+                && createsMiddle == that.createsMiddle
+                && createsLow == that.createsLow
+                && hasR == that.hasR
+                && r0 == that.r0
+                && r1 == that.r1
+                && r2 == that.r2
+                && r3 == that.r3
+                && hasS == that.hasS
+                && s0 == that.s0
+                && s1 == that.s1
+                && s2 == that.s2
+                && s3 == that.s3
+                && Objects.equals(value, that.value)
+                && Objects.equals(gasPrice, that.gasPrice)
+                && Objects.equals(maxFeePerGas, that.maxFeePerGas)
+                && Objects.equals(maxPriorityFeePerGas, that.maxPriorityFeePerGas)
+                && Arrays.equals(input, that.input)
+                && Objects.equals(accessList, that.accessList);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Hash32.hashCode(hash0, hash1, hash2, hash3);
+        result = 31 * result + Long.hashCode(nonce);
+        result = 31 * result + Hash32.hashCode(blockHash0, blockHash1, blockHash2, blockHash3);
+        result = 31 * result + Long.hashCode(blockNumber);
+        result = 31 * result + Long.hashCode(transactionIndex);
+        result = 31 * result + Address20.hashCode(fromHigh, fromMiddle, fromLow);
+        result = 31 * result + Address20.hashCode(toHigh, toMiddle, toLow);
+        result = 31 * result + Objects.hashCode(value);
+        result = 31 * result + Objects.hashCode(gasPrice);
+        result = 31 * result + Long.hashCode(gas);
+        result = 31 * result + Arrays.hashCode(input);
+        result = 31 * result + Address20.hashCode(createsHigh, createsMiddle, createsLow);
+        result = 31 * result + Hash32.hashCode(r0, r1, r2, r3);
+        result = 31 * result + Hash32.hashCode(s0, s1, s2, s3);
+        result = 31 * result + Long.hashCode(v);
+        result = 31 * result + type;
+        result = 31 * result + Objects.hashCode(maxFeePerGas);
+        result = 31 * result + Objects.hashCode(maxPriorityFeePerGas);
+        result = 31 * result + Objects.hashCode(accessList);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactTransaction{"
+                + "hash="
+                + getHash()
+                + ", nonce="
+                + nonce
+                + ", blockHash="
+                + getBlockHash()
+                + ", blockNumber="
+                + blockNumber
+                + ", transactionIndex="
+                + transactionIndex
+                + ", from="
+                + getFrom()
+                + ", to="
+                + getTo()
+                + ", value="
+                + value
+                + ", gasPrice="
+                + gasPrice
+                + ", gas="
+                + gas
+                + ", type="
+                + type
+                + '}';
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import org.web3j.protocol.core.methods.response.AccessListObject;
+import org.web3j.protocol.deserializer.StreamingDeserializer;
+import org.web3j.utils.Numeric;
+
+/**
+ * Streaming deserializer which reads transactions straight into their compact form, see {@link
+ * StreamingDeserializer}.
+ */
+public class CompactTransactionDeserializer extends StreamingDeserializer<CompactTransaction> {
+
+    public CompactTransactionDeserializer() {
+        super(CompactTransaction.class);
+    }
+
+    @Override
+    public CompactTransaction deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        try {
+            return deserialize(jsonParser, deserializationContext, new CompactTransaction());
+        } catch (IllegalArgumentException e) {
+            throw JsonMappingException.from(jsonParser, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            CompactTransaction transaction)
+            throws IOException {
+        switch (fieldName) {
+            case "hash":
+                transaction.setHash(Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "nonce":
+                transaction.nonce =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "blockHash":
+                transaction.setBlockHash(
+                        Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "blockNumber":
+                transaction.blockNumber =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionIndex":
+                transaction.transactionIndex =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "from":
+                transaction.setFrom(
+                        Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "to":
+                transaction.setTo(Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "value":
+                transaction.value =
+                        CompactValues.parseBigQuantity(
+                                readString(jsonParser, deserializationContext));
+                return true;
+            case "gasPrice":
+                transaction.gasPrice =
+                        CompactValues.parseBigQuantity(
+                                readString(jsonParser, deserializationContext));
+                return true;
+            case "gas":
+                transaction.gas =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "input":
+                transaction.input =
+                        CompactValues.parseBytes(readString(jsonParser, deserializationContext));
+                return true;
+            case "creates":
+                transaction.setCreates(
+                        Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "r":
+                transaction.setR(
+                        Hash32.parseQuantity(readString(jsonParser, deserializationContext)));
+                return true;
+            case "s":
+                transaction.setS(
+                        Hash32.parseQuantity(readString(jsonParser, deserializationContext)));
+                return true;
+            case "v":
+                transaction.v = readV(jsonParser, deserializationContext);
+                return true;
+            case "type":
+                transaction.type =
+                        (int)
+                                CompactValues.parseQuantity(
+                                        readString(jsonParser, deserializationContext));
+                return true;
+            case "maxFeePerGas":
+                transaction.maxFeePerGas =
+                        CompactValues.parseBigQuantity(
+                                readString(jsonParser, deserializationContext));
+                return true;
+            case "maxPriorityFeePerGas":
+                transaction.maxPriorityFeePerGas =
+                        CompactValues.parseBigQuantity(
+                                readString(jsonParser, deserializationContext));
+                return true;
+            case "accessList":
+                transaction.accessList =
+                        deserializationContext.readValue(
+                                jsonParser, accessListType(deserializationContext));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static long readV(JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        switch (jsonParser.getCurrentToken()) {
+            case VALUE_NULL:
+                return 0;
+            case VALUE_NUMBER_INT:
+                return jsonParser.getLongValue();
+            default:
+                // longValueExact() is not available on all supported Android versions
+                return Numeric.toBigInt(readString(jsonParser, deserializationContext)).longValue();
+        }
+    }
+
+    private static JavaType accessListType(DeserializationContext deserializationContext) {
+        return deserializationContext
+                .getTypeFactory()
+                .constructCollectionType(List.class, AccessListObject.class);
+    }
+}
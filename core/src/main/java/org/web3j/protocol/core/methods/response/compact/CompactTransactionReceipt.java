@@ -0,0 +1,402 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import static org.web3j.protocol.core.methods.response.compact.CompactValues.ABSENT;
+
+/**
+ * Compact form of a {@link TransactionReceipt}, for applications which keep large numbers of
+ * receipts in memory. Its logs are held as {@link CompactLog}s.
+ *
+ * <p>Quantities are held as primitive longs, hashes and addresses as inline words and the bloom
+ * filter as bytes, so only the revert reason of a receipt is held as a string. It is deserialized
+ * directly by {@link CompactTransactionReceiptDeserializer}, or converted from a {@link
+ * TransactionReceipt} with {@link #of(TransactionReceipt)}.
+ */
+@JsonDeserialize(using = CompactTransactionReceiptDeserializer.class)
+public class CompactTransactionReceipt {
+    long transactionIndex = ABSENT;
+    long blockNumber = ABSENT;
+    long cumulativeGasUsed = ABSENT;
+    long gasUsed = ABSENT;
+    int status = -1;
+    int type = -1;
+
+    boolean hasTransactionHash;
+    long transactionHash0;
+    long transactionHash1;
+    long transactionHash2;
+    long transactionHash3;
+
+    boolean hasBlockHash;
+    long blockHash0;
+    long blockHash1;
+    long blockHash2;
+    long blockHash3;
+
+    boolean hasRoot;
+    long root0;
+    long root1;
+    long root2;
+    long root3;
+
+    boolean hasContractAddress;
+    long contractAddressHigh;
+    long contractAddressMiddle;
+    int contractAddressLow;
+
+    boolean hasFrom;
+    long fromHigh;
+    long fromMiddle;
+    int fromLow;
+
+    boolean hasTo;
+    long toHigh;
+    long toMiddle;
+    int toLow;
+
+    CompactLog[] logs;
+    byte[] logsBloom;
+    String revertReason;
+    BigInteger effectiveGasPrice;
+
+    CompactTransactionReceipt() {}
+
+    /**
+     * Create a compact copy of the given receipt, including its logs.
+     *
+     * @param receipt receipt to copy
+     * @return the compact receipt
+     * @throws IllegalArgumentException if a value of the receipt is not valid hex
+     */
+    public static CompactTransactionReceipt of(TransactionReceipt receipt) {
+        CompactTransactionReceipt compactReceipt = new CompactTransactionReceipt();
+        compactReceipt.setTransactionHash(Hash32.parse(receipt.getTransactionHash()));
+        compactReceipt.transactionIndex =
+                CompactValues.parseQuantity(receipt.getTransactionIndexRaw());
+        compactReceipt.setBlockHash(Hash32.parse(receipt.getBlockHash()));
+        compactReceipt.blockNumber = CompactValues.parseQuantity(receipt.getBlockNumberRaw());
+        compactReceipt.cumulativeGasUsed =
+                CompactValues.parseQuantity(receipt.getCumulativeGasUsedRaw());
+        compactReceipt.gasUsed = CompactValues.parseQuantity(receipt.getGasUsedRaw());
+        compactReceipt.setContractAddress(Address20.parse(receipt.getContractAddress()));
+        compactReceipt.setRoot(Hash32.parse(receipt.getRoot()));
+        compactReceipt.status = (int) CompactValues.parseQuantity(receipt.getStatus());
+        compactReceipt.setFrom(Address20.parse(receipt.getFrom()));
+        compactReceipt.setTo(Address20.parse(receipt.getTo()));
+        if (receipt.getLogs() != null) {
+            compactReceipt.logs = new CompactLog[receipt.getLogs().size()];
+            for (int i = 0; i < compactReceipt.logs.length; i++) {
+                compactReceipt.logs[i] = CompactLog.of(receipt.getLogs().get(i));
+            }
+        }
+        compactReceipt.logsBloom = CompactValues.parseBytes(receipt.getLogsBloom());
+        compactReceipt.revertReason = receipt.getRevertReason();
+        compactReceipt.type = (int) CompactValues.parseQuantity(receipt.getType());
+        compactReceipt.effectiveGasPrice =
+                CompactValues.parseBigQuantity(receipt.getEffectiveGasPrice());
+        return compactReceipt;
+    }
+
+    /** @return a {@link TransactionReceipt} with the values of this receipt in canonical form */
+    public TransactionReceipt toTransactionReceipt() {
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash(hasTransactionHash ? getTransactionHash().toString() : null);
+        receipt.setTransactionIndex(toQuantity(transactionIndex));
+        receipt.setBlockHash(hasBlockHash ? getBlockHash().toString() : null);
+        receipt.setBlockNumber(toQuantity(blockNumber));
+        receipt.setCumulativeGasUsed(toQuantity(cumulativeGasUsed));
+        receipt.setGasUsed(toQuantity(gasUsed));
+        receipt.setContractAddress(hasContractAddress ? getContractAddress().toString() : null);
+        receipt.setRoot(hasRoot ? getRoot().toString() : null);
+        receipt.setStatus(toQuantity(status));
+        receipt.setFrom(hasFrom ? getFrom().toString() : null);
+        receipt.setTo(hasTo ? getTo().toString() : null);
+        if (logs != null) {
+            List<Log> values = new ArrayList<>(logs.length);
+            for (CompactLog log : logs) {
+                values.add(log.toLog());
+            }
+            receipt.setLogs(values);
+        }
+        receipt.setLogsBloom(logsBloom != null ? CompactValues.toHex(logsBloom) : null);
+        receipt.setRevertReason(revertReason);
+        receipt.setType(toQuantity(type));
+        receipt.setEffectiveGasPrice(
+                effectiveGasPrice != null ? CompactValues.toQuantity(effectiveGasPrice) : null);
+        return receipt;
+    }
+
+    public Hash32 getTransactionHash() {
+        return hasTransactionHash
+                ? new Hash32(transactionHash0, transactionHash1, transactionHash2, transactionHash3)
+                : null;
+    }
+
+    void setTransactionHash(Hash32 hash) {
+        hasTransactionHash = hash != null;
+        if (hasTransactionHash) {
+            transactionHash0 = hash.word0;
+            transactionHash1 = hash.word1;
+            transactionHash2 = hash.word2;
+            transactionHash3 = hash.word3;
+        }
+    }
+
+    /** @return the transaction index, or -1 if it is absent */
+    public long getTransactionIndex() {
+        return transactionIndex;
+    }
+
+    public Hash32 getBlockHash() {
+        return hasBlockHash ? new Hash32(blockHash0, blockHash1, blockHash2, blockHash3) : null;
+    }
+
+    void setBlockHash(Hash32 hash) {
+        hasBlockHash = hash != null;
+        if (hasBlockHash) {
+            blockHash0 = hash.word0;
+            blockHash1 = hash.word1;
+            blockHash2 = hash.word2;
+            blockHash3 = hash.word3;
+        }
+    }
+
+    /** @return the block number, or -1 if it is absent */
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    /** @return the cumulative gas used, or -1 if it is absent */
+    public long getCumulativeGasUsed() {
+        return cumulativeGasUsed;
+    }
+
+    /** @return the gas used, or -1 if it is absent */
+    public long getGasUsed() {
+        return gasUsed;
+    }
+
+    public Address20 getContractAddress() {
+        return hasContractAddress
+                ? new Address20(contractAddressHigh, contractAddressMiddle, contractAddressLow)
+                : null;
+    }
+
+    void setContractAddress(Address20 address) {
+        hasContractAddress = address != null;
+        if (hasContractAddress) {
+            contractAddressHigh = address.high;
+            contractAddressMiddle = address.middle;
+            contractAddressLow = address.low;
+        }
+    }
+
+    /** @return the post transaction state root of pre Byzantium receipts, or null */
+    public Hash32 getRoot() {
+        return hasRoot ? new Hash32(root0, root1, root2, root3) : null;
+    }
+
+    void setRoot(Hash32 root) {
+        hasRoot = root != null;
+        if (hasRoot) {
+            root0 = root.word0;
+            root1 = root.word1;
+            root2 = root.word2;
+            root3 = root.word3;
+        }
+    }
+
+    /** @return the status, 1 for success and 0 for failure, or -1 if it is absent */
+    public int getStatus() {
+        return status;
+    }
+
+    public boolean isStatusOK() {
+        return status == -1 || status == 1;
+    }
+
+    public Address20 getFrom() {
+        return hasFrom ? new Address20(fromHigh, fromMiddle, fromLow) : null;
+    }
+
+    void setFrom(Address20 address) {
+        hasFrom = address != null;
+        if (hasFrom) {
+            fromHigh = address.high;
+            fromMiddle = address.middle;
+            fromLow = address.low;
+        }
+    }
+
+    public Address20 getTo() {
+        return hasTo ? new Address20(toHigh, toMiddle, toLow) : null;
+    }
+
+    void setTo(Address20 address) {
+        hasTo = address != null;
+        if (hasTo) {
+            toHigh = address.high;
+            toMiddle = address.middle;
+            toLow = address.low;
+        }
+    }
+
+    /** @return an unmodifiable view of the logs, or null if they are absent */
+    public List<CompactLog> getLogs() {
+        return logs != null ? Collections.unmodifiableList(Arrays.asList(logs)) : null;
+    }
+
+    /** @return a copy of the logs bloom filter, or null if it is absent */
+    public byte[] getLogsBloom() {
+        return logsBloom != null ? logsBloom.clone() : null;
+    }
+
+    public String getRevertReason() {
+        return revertReason;
+    }
+
+    /** @return the transaction type, or -1 if it is absent */
+    public int getType() {
+        return type;
+    }
+
+    public BigInteger getEffectiveGasPrice() {
+        return effectiveGasPrice;
+    }
+
+    private static String toQuantity(long value) {
+        return value != ABSENT ? CompactValues.toQuantity(value) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactTransactionReceipt)) {
+            return false;
+        }
+
+        CompactTransactionReceipt that = (CompactTransactionReceipt) o;
+        return transactionIndex == that.transactionIndex
+                && blockNumber == that.blockNumber
+                && cumulativeGasUsed == that.cumulativeGasUsed
+                && gasUsed == that.gasUsed
+                && status == that.status
+                && type == that.type
+                && hasTransactionHash == that.hasTransactionHash
+                && transactionHash0 == that.transactionHash0
+                && transactionHash1 == that.transactionHash1
+                && transactionHash2 == that.transactionHash2
+                && transactionHash3 == that.transactionHash3
+                && hasBlockHash == that.hasBlockHash
+                && blockHash0 == that.blockHash0
+                && blockHash1 == that.blockHash1
+                && blockHash2 == that.blockHash2
+                && blockHash3 == that.blockHash3
+                && hasRoot == that.hasRoot
+                && root0 == that.root0
+                && root1 == that.root1
+                && root2 == that.root2
+                && root3 == that.root3
+                && hasContractAddress == that.hasContractAddress
+                && contractAddressHigh == that.contractAddressHigh
+                && contractAddressMiddle == that.contractAddressMiddle
+                && contractAddressLow == that.contractAddressLow
+                && hasFrom == that.hasFrom
+                && fromHigh == that.fromHigh
+                && fromMiddle == that.fromMiddle
+                && fromLow == that.fromLow
+                && hasTo == that.hasTo
+                && toHigh == that.toHigh
+                && toMiddle == that.toMiddle
+                && toLow == that.toLow
+                && Arrays.equals(logs, that.logs)
+                && Arrays.equals(logsBloom, that.logsBloom)
+                && Objects.equals(revertReason, that.revertReason)
+                && Objects.equals(effectiveGasPrice, that.effectiveGasPrice);
+    }
+
+    @Override
+    public int hashCode() {
+        int result =
+                Hash32.hashCode(
+                        transactionHash0, transactionHash1, transactionHash2, transactionHash3);
+        result = 31 * result + Long.hashCode(transactionIndex);
+        result = 31 * result + Hash32.hashCode(blockHash0, blockHash1, blockHash2, blockHash3);
+        result = 31 * result + Long.hashCode(blockNumber);
+        result = 31 * result + Long.hashCode(cumulativeGasUsed);
+        result = 31 * result + Long.hashCode(gasUsed);
+        result =
+                31 * result
+                        + Address20.hashCode(
+                                contractAddressHigh, contractAddressMiddle, contractAddressLow);
+        result = 31 * result + Hash32.hashCode(root0, root1, root2, root3);
+        result = 31 * result + status;
+        result = 31 * result + Address20.hashCode(fromHigh, fromMiddle, fromLow);
+        result = 31 * result + Address20.hashCode(toHigh, toMiddle, toLow);
+        result = 31 * result + Arrays.hashCode(logs);
+        result = 31 * result + Arrays.hashCode(logsBloom);
+        result = 31 * result + Objects.hashCode(revertReason);
+        result = 31 * result + type;
+        result = 31 * result + Objects.hashCode(effectiveGasPrice);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactTransactionReceipt{"
+                + "transactionHash="
+                + getTransactionHash()
+                + ", transactionIndex="
+                + transactionIndex
+                + ", blockHash="
+                + getBlockHash()
+                + ", blockNumber="
+                + blockNumber
+                + ", cumulativeGasUsed="
+                + cumulativeGasUsed
+                + ", gasUsed="
+                + gasUsed
+                + ", contractAddress="
+                + getContractAddress()
+                + ", status="
+                + status
+                + ", from="
+                + getFrom()
+                + ", to="
+                + getTo()
+                + ", logs="
+                + getLogs()
+                + ", revertReason="
+                + revertReason
+                + ", type="
+                + type
+                + ", effectiveGasPrice="
+                + effectiveGasPrice
+                + '}';
+    }
+}
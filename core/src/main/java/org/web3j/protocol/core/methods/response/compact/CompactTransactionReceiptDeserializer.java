@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import org.web3j.protocol.deserializer.StreamingDeserializer;
+
+/**
+ * Streaming deserializer which reads receipts, including their logs, straight into their compact
+ * form, see {@link StreamingDeserializer}.
+ */
+public class CompactTransactionReceiptDeserializer
+        extends StreamingDeserializer<CompactTransactionReceipt> {
+
+    private final CompactLogDeserializer logDeserializer = new CompactLogDeserializer();
+
+    public CompactTransactionReceiptDeserializer() {
+        super(CompactTransactionReceipt.class);
+    }
+
+    @Override
+    public CompactTransactionReceipt deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        try {
+            return deserialize(jsonParser, deserializationContext, new CompactTransactionReceipt());
+        } catch (IllegalArgumentException e) {
+            throw JsonMappingException.from(jsonParser, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            CompactTransactionReceipt receipt)
+            throws IOException {
+        switch (fieldName) {
+            case "transactionHash":
+                receipt.setTransactionHash(
+                        Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "transactionIndex":
+                receipt.transactionIndex =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "blockHash":
+                receipt.setBlockHash(Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "blockNumber":
+                receipt.blockNumber =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "cumulativeGasUsed":
+                receipt.cumulativeGasUsed =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "gasUsed":
+                receipt.gasUsed =
+                        CompactValues.parseQuantity(readString(jsonParser, deserializationContext));
+                return true;
+            case "contractAddress":
+                receipt.setContractAddress(
+                        Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "root":
+                receipt.setRoot(Hash32.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "status":
+                receipt.status =
+                        (int)
+                                CompactValues.parseQuantity(
+                                        readString(jsonParser, deserializationContext));
+                return true;
+            case "from":
+                receipt.setFrom(Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "to":
+                receipt.setTo(Address20.parse(readString(jsonParser, deserializationContext)));
+                return true;
+            case "logs":
+                receipt.logs = readLogs(jsonParser, deserializationContext);
+                return true;
+            case "logsBloom":
+                receipt.logsBloom =
+                        CompactValues.parseBytes(readString(jsonParser, deserializationContext));
+                return true;
+            case "revertReason":
+                receipt.revertReason = readString(jsonParser, deserializationContext);
+                return true;
+            case "type":
+                receipt.type =
+                        (int)
+                                CompactValues.parseQuantity(
+                                        readString(jsonParser, deserializationContext));
+                return true;
+            case "effectiveGasPrice":
+                receipt.effectiveGasPrice =
+                        CompactValues.parseBigQuantity(
+                                readString(jsonParser, deserializationContext));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private CompactLog[] readLogs(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.START_ARRAY) {
+            deserializationContext.handleUnexpectedToken(List.class, jsonParser);
+        }
+
+        List<CompactLog> logs = new ArrayList<>();
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            logs.add(logDeserializer.deserialize(jsonParser, deserializationContext));
+        }
+        return logs.toArray(new CompactLog[0]);
+    }
+}
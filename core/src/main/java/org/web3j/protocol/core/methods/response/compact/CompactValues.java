@@ -0,0 +1,201 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.math.BigInteger;
+
+/**
+ * Conversions between the hex encoded strings returned by the JSON-RPC API and their compact binary
+ * form.
+ *
+ * <p>Hex digits are accepted in either case and quantities may have leading zeros. Values are
+ * always encoded again in canonical form, lower case with no leading zeros in quantities.
+ */
+final class CompactValues {
+
+    static final long ABSENT = -1;
+
+    private static final String HEX_PREFIX = "0x";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private CompactValues() {}
+
+    /**
+     * Decode a hex encoded quantity.
+     *
+     * @param value hex string to decode
+     * @return the quantity, or {@link #ABSENT} if the value is null
+     * @throws IllegalArgumentException if the value is not a hex quantity or does not fit in a long
+     */
+    static long parseQuantity(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+
+        checkPrefix(value);
+        int start = skipZeros(value);
+        if (value.length() - start > 16 || (value.length() == HEX_PREFIX.length())) {
+            throw new IllegalArgumentException("Invalid quantity: " + value);
+        }
+        long result = parseWord(value, start, value.length() - start);
+        if (result < 0) {
+            throw new IllegalArgumentException("Quantity too large: " + value);
+        }
+        return result;
+    }
+
+    static BigInteger parseBigQuantity(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        checkPrefix(value);
+        if (value.length() == HEX_PREFIX.length()) {
+            throw new IllegalArgumentException("Invalid quantity: " + value);
+        }
+        int start = skipZeros(value);
+        if (value.length() - start <= 15) {
+            return BigInteger.valueOf(parseWord(value, start, value.length() - start));
+        }
+        for (int i = start; i < value.length(); i++) {
+            digit(value, i);
+        }
+        return new BigInteger(value.substring(start), 16);
+    }
+
+    static String toQuantity(long value) {
+        return HEX_PREFIX + Long.toHexString(value);
+    }
+
+    static String toQuantity(BigInteger value) {
+        return HEX_PREFIX + value.toString(16);
+    }
+
+    /**
+     * Check that a value is hex encoded data of the given length.
+     *
+     * @param value hex string to check
+     * @param length required number of bytes
+     * @throws IllegalArgumentException if it is not
+     */
+    static void checkBytes(String value, int length) {
+        checkPrefix(value);
+        if (value.length() != HEX_PREFIX.length() + length * 2) {
+            throw new IllegalArgumentException(
+                    "Expected " + length + " bytes of hex encoded data: " + value);
+        }
+    }
+
+    /**
+     * Decode up to sixteen hex digits of fixed length data into a long, big endian.
+     *
+     * @param value hex string which has been checked with {@link #checkBytes(String, int)}
+     * @param offset offset of the first byte to decode
+     * @param length number of bytes to decode
+     * @return the decoded bytes
+     */
+    static long parseLong(String value, int offset, int length) {
+        return parseWord(value, HEX_PREFIX.length() + offset * 2, length * 2);
+    }
+
+    /**
+     * Decode hex encoded data.
+     *
+     * @param value hex string to decode
+     * @return the decoded bytes, or null if the value is null
+     * @throws IllegalArgumentException if the value is not hex encoded data
+     */
+    static byte[] parseBytes(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        checkPrefix(value);
+        if ((value.length() & 1) != 0) {
+            throw new IllegalArgumentException("Odd number of hex digits: " + value);
+        }
+        byte[] result = new byte[(value.length() - HEX_PREFIX.length()) / 2];
+        for (int i = 0, j = HEX_PREFIX.length(); i < result.length; i++, j += 2) {
+            result[i] = (byte) (digit(value, j) << 4 | digit(value, j + 1));
+        }
+        return result;
+    }
+
+    static long getLong(byte[] bytes, int offset, int length) {
+        long result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            result = result << 8 | (bytes[i] & 0xff);
+        }
+        return result;
+    }
+
+    static void putLong(long value, byte[] bytes, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    static StringBuilder appendHex(StringBuilder builder, long value, int length) {
+        for (int shift = length * 8 - 4; shift >= 0; shift -= 4) {
+            builder.append(HEX_DIGITS[(int) (value >>> shift) & 0xf]);
+        }
+        return builder;
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] result = new char[HEX_PREFIX.length() + bytes.length * 2];
+        result[0] = '0';
+        result[1] = 'x';
+        for (int i = 0, j = HEX_PREFIX.length(); i < bytes.length; i++, j += 2) {
+            result[j] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            result[j + 1] = HEX_DIGITS[bytes[i] & 0xf];
+        }
+        return new String(result);
+    }
+
+    private static void checkPrefix(String value) {
+        if (!value.startsWith(HEX_PREFIX)) {
+            throw new IllegalArgumentException("Value must be in hex format: " + value);
+        }
+    }
+
+    private static int skipZeros(String value) {
+        int start = HEX_PREFIX.length();
+        while (start < value.length() - 1 && value.charAt(start) == '0') {
+            start++;
+        }
+        return start;
+    }
+
+    private static long parseWord(String value, int start, int digits) {
+        long result = 0;
+        for (int i = start; i < start + digits; i++) {
+            result = result << 4 | digit(value, i);
+        }
+        return result;
+    }
+
+    private static int digit(String value, int index) {
+        char c = value.charAt(index);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        } else {
+            throw new IllegalArgumentException("Invalid hex digit '" + c + "' in " + value);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.math.BigInteger;
+
+import org.web3j.utils.Numeric;
+
+/**
+ * Immutable 32 byte hash, such as a block or transaction hash, or a log topic, held as four longs.
+ */
+public final class Hash32 {
+
+    public static final int LENGTH = 32;
+
+    final long word0;
+    final long word1;
+    final long word2;
+    final long word3;
+
+    Hash32(long word0, long word1, long word2, long word3) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+        this.word3 = word3;
+    }
+
+    public static Hash32 wrap(byte[] bytes) {
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException(
+                    "Expected " + LENGTH + " bytes, but got " + bytes.length);
+        }
+        return new Hash32(
+                CompactValues.getLong(bytes, 0, 8),
+                CompactValues.getLong(bytes, 8, 8),
+                CompactValues.getLong(bytes, 16, 8),
+                CompactValues.getLong(bytes, 24, 8));
+    }
+
+    /**
+     * Parse a hex encoded hash.
+     *
+     * @param value 0x prefixed hex string, in either case
+     * @return the hash, or null if the value is null
+     * @throws IllegalArgumentException if the value is not a 32 byte hex string
+     */
+    public static Hash32 parse(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        CompactValues.checkBytes(value, LENGTH);
+        return new Hash32(
+                CompactValues.parseLong(value, 0, 8),
+                CompactValues.parseLong(value, 8, 8),
+                CompactValues.parseLong(value, 16, 8),
+                CompactValues.parseLong(value, 24, 8));
+    }
+
+    /**
+     * Parse a hex encoded quantity of up to 32 bytes, such as a signature value, which may have had
+     * its leading zeros removed.
+     */
+    static Hash32 parseQuantity(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        BigInteger quantity = CompactValues.parseBigQuantity(value);
+        if (quantity.bitLength() > LENGTH * 8) {
+            throw new IllegalArgumentException("Quantity too large: " + value);
+        }
+        return wrap(Numeric.toBytesPadded(quantity, LENGTH));
+    }
+
+    /** @return the hash as an unsigned quantity, without leading zeros */
+    String toQuantity() {
+        return CompactValues.toQuantity(new BigInteger(1, toByteArray()));
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[LENGTH];
+        CompactValues.putLong(word0, bytes, 0, 8);
+        CompactValues.putLong(word1, bytes, 8, 8);
+        CompactValues.putLong(word2, bytes, 16, 8);
+        CompactValues.putLong(word3, bytes, 24, 8);
+        return bytes;
+    }
+
+    boolean equals(long word0, long word1, long word2, long word3) {
+        return this.word0 == word0
+                && this.word1 == word1
+                && this.word2 == word2
+                && this.word3 == word3;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Hash32)) {
+            return false;
+        }
+        Hash32 that = (Hash32) o;
+        return equals(that.word0, that.word1, that.word2, that.word3);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode(word0, word1, word2, word3);
+    }
+
+    static int hashCode(long word0, long word1, long word2, long word3) {
+        int result = Long.hashCode(word0);
+        result = 31 * result + Long.hashCode(word1);
+        result = 31 * result + Long.hashCode(word2);
+        result = 31 * result + Long.hashCode(word3);
+        return result;
+    }
+
+    /** @return the 0x prefixed, lower case hex encoding of the hash */
+    @Override
+    public String toString() {
+        return toString(word0, word1, word2, word3);
+    }
+
+    static String toString(long word0, long word1, long word2, long word3) {
+        StringBuilder builder = new StringBuilder(2 + LENGTH * 2).append("0x");
+        CompactValues.appendHex(builder, word0, 8);
+        CompactValues.appendHex(builder, word1, 8);
+        CompactValues.appendHex(builder, word2, 8);
+        CompactValues.appendHex(builder, word3, 8);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/**
+ * Streaming deserializer for {@link EthBlock.Block} objects, including their transaction hashes or
+ * full transaction objects, see {@link StreamingDeserializer}.
+ */
+public class BlockDeserializer extends StreamingDeserializer<EthBlock.Block> {
+
+    private final TransactionDeserializer transactionDeserializer = new TransactionDeserializer();
+
+    public BlockDeserializer() {
+        super(EthBlock.Block.class);
+    }
+
+    @Override
+    public EthBlock.Block deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        return deserialize(jsonParser, deserializationContext, new EthBlock.Block());
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            EthBlock.Block block)
+            throws IOException {
+        switch (fieldName) {
+            case "number":
+                block.setNumber(readString(jsonParser, deserializationContext));
+                return true;
+            case "hash":
+                block.setHash(readString(jsonParser, deserializationContext));
+                return true;
+            case "parentHash":
+                block.setParentHash(readString(jsonParser, deserializationContext));
+                return true;
+            case "nonce":
+                block.setNonce(readString(jsonParser, deserializationContext));
+                return true;
+            case "sha3Uncles":
+                block.setSha3Uncles(readString(jsonParser, deserializationContext));
+                return true;
+            case "logsBloom":
+                block.setLogsBloom(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionsRoot":
+                block.setTransactionsRoot(readString(jsonParser, deserializationContext));
+                return true;
+            case "stateRoot":
+                block.setStateRoot(readString(jsonParser, deserializationContext));
+                return true;
+            case "receiptsRoot":
+                block.setReceiptsRoot(readString(jsonParser, deserializationContext));
+                return true;
+            case "author":
+                block.setAuthor(readString(jsonParser, deserializationContext));
+                return true;
+            case "miner":
+                block.setMiner(readString(jsonParser, deserializationContext));
+                return true;
+            case "mixHash":
+                block.setMixHash(readString(jsonParser, deserializationContext));
+                return true;
+            case "difficulty":
+                block.setDifficulty(readString(jsonParser, deserializationContext));
+                return true;
+            case "totalDifficulty":
+                block.setTotalDifficulty(readString(jsonParser, deserializationContext));
+                return true;
+            case "extraData":
+                block.setExtraData(readString(jsonParser, deserializationContext));
+                return true;
+            case "size":
+                block.setSize(readString(jsonParser, deserializationContext));
+                return true;
+            case "gasLimit":
+                block.setGasLimit(readString(jsonParser, deserializationContext));
+                return true;
+            case "gasUsed":
+                block.setGasUsed(readString(jsonParser, deserializationContext));
+                return true;
+            case "timestamp":
+                block.setTimestamp(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactions":
+                if (jsonParser.getCurrentToken() == JsonToken.START_ARRAY
+                        && Boolean.TRUE.equals(
+                                deserializationContext.getAttribute(
+                                        ObjectMapperFactory.LAZY_BLOCK_TRANSACTIONS))) {
+                    ObjectMapper objectMapper =
+                            jsonParser.getCodec() instanceof ObjectMapper
+                                    ? (ObjectMapper) jsonParser.getCodec()
+                                    : ObjectMapperFactory.getObjectMapper();
+                    block.setRawTransactions(
+                            readRaw(jsonParser), objectMapper, deserializationContext.getConfig());
+                } else {
+                    block.setTransactions(readTransactions(jsonParser, deserializationContext));
+                }
+                return true;
+            case "uncles":
+                block.setUncles(readStrings(jsonParser, deserializationContext));
+                return true;
+            case "sealFields":
+                block.setSealFields(readStrings(jsonParser, deserializationContext));
+                return true;
+            case "baseFeePerGas":
+                block.setBaseFeePerGas(readString(jsonParser, deserializationContext));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Read a transactions array, which contains either transaction hashes or full transaction
+     * objects depending on the request.
+     *
+     * @param jsonParser parser positioned on the start of the array
+     * @param deserializationContext current deserialization context
+     * @return the transactions of the block
+     * @throws IOException thrown if the array cannot be read
+     */
+    public List<EthBlock.TransactionResult> readTransactions(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.START_ARRAY) {
+            deserializationContext.handleUnexpectedToken(List.class, jsonParser);
+        }
+
+        List<EthBlock.TransactionResult> transactions = new ArrayList<>();
+        while ((token = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                transactions.add(
+                        (EthBlock.TransactionObject)
+                                transactionDeserializer.deserialize(
+                                        jsonParser,
+                                        deserializationContext,
+                                        new EthBlock.TransactionObject()));
+            } else if (token == JsonToken.VALUE_STRING) {
+                transactions.add(new EthBlock.TransactionHash(jsonParser.getText()));
+            } else {
+                jsonParser.skipChildren();
+            }
+        }
+        return transactions;
+    }
+}
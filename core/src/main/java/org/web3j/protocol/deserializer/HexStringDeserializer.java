@@ -0,0 +1,49 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Deserializer for address and hash fields which returns canonical instances from the {@link
+ * HexStringPool} configured in {@link ObjectMapperFactory}, if there is one.
+ */
+public class HexStringDeserializer extends JsonDeserializer<String> {
+
+    @Override
+    public String deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        return read(jsonParser, deserializationContext);
+    }
+
+    static String read(JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        HexStringPool hexStringPool =
+                (HexStringPool)
+                        deserializationContext.getAttribute(ObjectMapperFactory.HEX_STRING_POOL);
+        if (hexStringPool != null && jsonParser.getCurrentToken() == JsonToken.VALUE_STRING) {
+            return hexStringPool.intern(
+                    jsonParser.getTextCharacters(),
+                    jsonParser.getTextOffset(),
+                    jsonParser.getTextLength());
+        }
+        return StreamingDeserializer.readString(jsonParser, deserializationContext);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of canonical instances of hex encoded addresses and hashes, so that values which are
+ * repeated across many deserialized objects, such as contract addresses and event signature topics,
+ * share a single string.
+ *
+ * <p>Lookups are keyed on the raw characters of the value, so a hit does not allocate. The pool is
+ * a fixed size hash table in which each value may be held in one of two adjacent slots, the least
+ * recently inserted value being evicted when both are taken. It is safe for concurrent use, as
+ * strings are immutable slots may be read and written without synchronisation.
+ *
+ * @see org.web3j.protocol.ObjectMapperFactory#withHexStringPool(
+ *     com.fasterxml.jackson.databind.ObjectMapper, HexStringPool)
+ */
+public class HexStringPool {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // the length of a 0x prefixed 32 byte hash, longer values are not pooled
+    private static final int MAX_LENGTH = 66;
+
+    private final String[] entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public HexStringPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a pool holding at most the given number of values.
+     *
+     * @param capacity maximum number of values, rounded up to a power of two
+     */
+    public HexStringPool(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 2 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the canonical instance of the given value.
+     *
+     * @param value value to look up
+     * @return the pooled instance equal to the value, or the value itself if it was not pooled
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+
+        int index = index(value.hashCode());
+        for (int i = 0; i < 2; i++) {
+            String entry = entries[index ^ i];
+            if (entry != null && entry.equals(value)) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return insert(index, value);
+    }
+
+    /**
+     * Returns the canonical instance of the value held in the given characters, which are only
+     * copied to a new string if the value is not already pooled.
+     *
+     * @param chars buffer holding the value
+     * @param offset offset of the value in the buffer
+     * @param length length of the value
+     * @return the pooled instance equal to the value
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(chars, offset, length);
+        }
+
+        // the same hash as String#hashCode, so that both lookups use the same slots
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        int index = index(hash);
+        for (int i = 0; i < 2; i++) {
+            String entry = entries[index ^ i];
+            if (entry != null && matches(entry, chars, offset, length)) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return insert(index, new String(chars, offset, length));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** @return the proportion of lookups which returned a pooled value, or 0 if none were made */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    private String insert(int index, String value) {
+        misses.increment();
+        if (entries[index] != null && entries[index ^ 1] == null) {
+            entries[index ^ 1] = value;
+        } else {
+            entries[index ^ 1] = entries[index];
+            entries[index] = value;
+        }
+        return value;
+    }
+
+    private int index(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String entry, char[] chars, int offset, int length) {
+        if (entry.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import org.web3j.protocol.core.methods.response.Log;
+
+/** Streaming deserializer for {@link Log} objects, see {@link StreamingDeserializer}. */
+public class LogDeserializer extends StreamingDeserializer<Log> {
+
+    public LogDeserializer() {
+        super(Log.class);
+    }
+
+    @Override
+    public Log deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        return deserialize(jsonParser, deserializationContext, new Log());
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            Log log)
+            throws IOException {
+        switch (fieldName) {
+            case "removed":
+                log.setRemoved(jsonParser.getValueAsBoolean());
+                return true;
+            case "logIndex":
+                log.setLogIndex(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionIndex":
+                log.setTransactionIndex(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionHash":
+                log.setTransactionHash(readHex(jsonParser, deserializationContext));
+                return true;
+            case "blockHash":
+                log.setBlockHash(readHex(jsonParser, deserializationContext));
+                return true;
+            case "blockNumber":
+                log.setBlockNumber(readString(jsonParser, deserializationContext));
+                return true;
+            case "address":
+                log.setAddress(readHex(jsonParser, deserializationContext));
+                return true;
+            case "data":
+                log.setData(readString(jsonParser, deserializationContext));
+                return true;
+            case "type":
+                log.setType(readString(jsonParser, deserializationContext));
+                return true;
+            case "topics":
+                log.setTopics(readHexStrings(jsonParser, deserializationContext));
+                return true;
+            default:
+                return false;
+        }
+    }
+}
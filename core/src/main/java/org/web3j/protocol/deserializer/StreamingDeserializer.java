@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Base class for the hand written deserializers of the high volume response objects.
+ *
+ * <p>These deserializers read tokens straight into the fields of the target object, avoiding the
+ * reflective bean deserializer. Field names are compared against the canonicalized names produced
+ * by the Jackson parser and unknown fields are skipped without being materialised.
+ *
+ * @param <T> type of the deserialized object
+ */
+public abstract class StreamingDeserializer<T> extends JsonDeserializer<T> {
+
+    private final Class<?> valueType;
+
+    protected StreamingDeserializer(Class<?> valueType) {
+        this.valueType = valueType;
+    }
+
+    /**
+     * Read the current JSON object field by field into the given target.
+     *
+     * @param jsonParser parser positioned on the start of the object or on its first field
+     * @param deserializationContext current deserialization context
+     * @param target object to populate
+     * @return the populated target
+     * @throws IOException thrown if the object cannot be read
+     */
+    @Override
+    public T deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext, T target)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = jsonParser.nextToken();
+        }
+
+        for (; token == JsonToken.FIELD_NAME; token = jsonParser.nextToken()) {
+            String fieldName = jsonParser.getCurrentName();
+            jsonParser.nextToken();
+            if (!readField(jsonParser, deserializationContext, fieldName, target)) {
+                jsonParser.skipChildren();
+            }
+        }
+
+        if (token != JsonToken.END_OBJECT) {
+            deserializationContext.handleUnexpectedToken(valueType, jsonParser);
+        }
+        return target;
+    }
+
+    /**
+     * Read the value of a single field into the target.
+     *
+     * @param jsonParser parser positioned on the value of the field
+     * @param deserializationContext current deserialization context
+     * @param fieldName name of the field
+     * @param target object to populate
+     * @return false if the field is unknown and should be skipped
+     * @throws IOException thrown if the value cannot be read
+     */
+    protected abstract boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            T target)
+            throws IOException;
+
+    protected static String readString(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token.isScalarValue()) {
+            return jsonParser.getText();
+        } else {
+            return (String) deserializationContext.handleUnexpectedToken(String.class, jsonParser);
+        }
+    }
+
+    protected static List<String> readStrings(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.START_ARRAY) {
+            deserializationContext.handleUnexpectedToken(List.class, jsonParser);
+        }
+
+        List<String> values = new ArrayList<>();
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(jsonParser, deserializationContext));
+        }
+        return values;
+    }
+
+    /**
+     * Read an address or hash, returning the canonical instance if a {@link HexStringPool} is
+     * configured.
+     */
+    protected static String readHex(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        return HexStringDeserializer.read(jsonParser, deserializationContext);
+    }
+
+    protected static List<String> readHexStrings(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.START_ARRAY) {
+            deserializationContext.handleUnexpectedToken(List.class, jsonParser);
+        }
+
+        List<String> values = new ArrayList<>();
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readHex(jsonParser, deserializationContext));
+        }
+        return values;
+    }
+
+    /**
+     * Copy the current value, including any nested structure, as compact JSON.
+     *
+     * @param jsonParser parser positioned on the start of the value
+     * @return the UTF-8 encoded JSON of the value
+     * @throws IOException thrown if the value cannot be read
+     */
+    protected static byte[] readRaw(JsonParser jsonParser) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (JsonGenerator jsonGenerator =
+                ObjectMapperFactory.getObjectMapper().getFactory().createGenerator(outputStream)) {
+            jsonGenerator.copyCurrentStructure(jsonParser);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+
+import org.web3j.protocol.core.methods.response.AccessListObject;
+import org.web3j.protocol.core.methods.response.Transaction;
+
+/**
+ * Streaming deserializer for {@link Transaction} objects and their subclasses, see {@link
+ * StreamingDeserializer}.
+ */
+public class TransactionDeserializer extends StreamingDeserializer<Transaction> {
+
+    public TransactionDeserializer() {
+        super(Transaction.class);
+    }
+
+    @Override
+    public Transaction deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        return deserialize(jsonParser, deserializationContext, new Transaction());
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            Transaction transaction)
+            throws IOException {
+        switch (fieldName) {
+            case "hash":
+                transaction.setHash(readHex(jsonParser, deserializationContext));
+                return true;
+            case "nonce":
+                transaction.setNonce(readString(jsonParser, deserializationContext));
+                return true;
+            case "blockHash":
+                transaction.setBlockHash(readHex(jsonParser, deserializationContext));
+                return true;
+            case "blockNumber":
+                transaction.setBlockNumber(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionIndex":
+                transaction.setTransactionIndex(readString(jsonParser, deserializationContext));
+                return true;
+            case "from":
+                transaction.setFrom(readHex(jsonParser, deserializationContext));
+                return true;
+            case "to":
+                transaction.setTo(readHex(jsonParser, deserializationContext));
+                return true;
+            case "value":
+                transaction.setValue(readString(jsonParser, deserializationContext));
+                return true;
+            case "gasPrice":
+                transaction.setGasPrice(readString(jsonParser, deserializationContext));
+                return true;
+            case "gas":
+                transaction.setGas(readString(jsonParser, deserializationContext));
+                return true;
+            case "input":
+                transaction.setInput(readString(jsonParser, deserializationContext));
+                return true;
+            case "creates":
+                transaction.setCreates(readHex(jsonParser, deserializationContext));
+                return true;
+            case "publicKey":
+                transaction.setPublicKey(readString(jsonParser, deserializationContext));
+                return true;
+            case "raw":
+                transaction.setRaw(readString(jsonParser, deserializationContext));
+                return true;
+            case "r":
+                transaction.setR(readString(jsonParser, deserializationContext));
+                return true;
+            case "s":
+                transaction.setS(readString(jsonParser, deserializationContext));
+                return true;
+            case "v":
+                readV(jsonParser, deserializationContext, transaction);
+                return true;
+            case "type":
+                transaction.setType(readString(jsonParser, deserializationContext));
+                return true;
+            case "maxFeePerGas":
+                transaction.setMaxFeePerGas(readString(jsonParser, deserializationContext));
+                return true;
+            case "maxPriorityFeePerGas":
+                transaction.setMaxPriorityFeePerGas(readString(jsonParser, deserializationContext));
+                return true;
+            case "accessList":
+                transaction.setAccessList(
+                        deserializationContext.readValue(
+                                jsonParser, accessListType(deserializationContext)));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void readV(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            Transaction transaction)
+            throws IOException {
+        switch (jsonParser.getCurrentToken()) {
+            case VALUE_NULL:
+                break;
+            case VALUE_NUMBER_INT:
+                transaction.setV(jsonParser.getLongValue());
+                break;
+            default:
+                transaction.setV(readString(jsonParser, deserializationContext));
+                break;
+        }
+    }
+
+    private static JavaType accessListType(DeserializationContext deserializationContext) {
+        return deserializationContext
+                .getTypeFactory()
+                .constructCollectionType(List.class, AccessListObject.class);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * Streaming deserializer for {@link TransactionReceipt} objects, see {@link StreamingDeserializer}.
+ */
+public class TransactionReceiptDeserializer extends StreamingDeserializer<TransactionReceipt> {
+
+    private final LogDeserializer logDeserializer = new LogDeserializer();
+
+    public TransactionReceiptDeserializer() {
+        super(TransactionReceipt.class);
+    }
+
+    @Override
+    public TransactionReceipt deserialize(
+            JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        return deserialize(jsonParser, deserializationContext, new TransactionReceipt());
+    }
+
+    @Override
+    protected boolean readField(
+            JsonParser jsonParser,
+            DeserializationContext deserializationContext,
+            String fieldName,
+            TransactionReceipt receipt)
+            throws IOException {
+        switch (fieldName) {
+            case "transactionHash":
+                receipt.setTransactionHash(readString(jsonParser, deserializationContext));
+                return true;
+            case "transactionIndex":
+                receipt.setTransactionIndex(readString(jsonParser, deserializationContext));
+                return true;
+            case "blockHash":
+                receipt.setBlockHash(readString(jsonParser, deserializationContext));
+                return true;
+            case "blockNumber":
+                receipt.setBlockNumber(readString(jsonParser, deserializationContext));
+                return true;
+            case "cumulativeGasUsed":
+                receipt.setCumulativeGasUsed(readString(jsonParser, deserializationContext));
+                return true;
+            case "gasUsed":
+                receipt.setGasUsed(readString(jsonParser, deserializationContext));
+                return true;
+            case "contractAddress":
+                receipt.setContractAddress(readString(jsonParser, deserializationContext));
+                return true;
+            case "root":
+                receipt.setRoot(readString(jsonParser, deserializationContext));
+                return true;
+            case "status":
+                receipt.setStatus(readString(jsonParser, deserializationContext));
+                return true;
+            case "from":
+                receipt.setFrom(readString(jsonParser, deserializationContext));
+                return true;
+            case "to":
+                receipt.setTo(readString(jsonParser, deserializationContext));
+                return true;
+            case "logs":
+                receipt.setLogs(readLogs(jsonParser, deserializationContext));
+                return true;
+            case "logsBloom":
+                receipt.setLogsBloom(readString(jsonParser, deserializationContext));
+                return true;
+            case "revertReason":
+                receipt.setRevertReason(readString(jsonParser, deserializationContext));
+                return true;
+            case "type":
+                receipt.setType(readString(jsonParser, deserializationContext));
+                return true;
+            case "effectiveGasPrice":
+                receipt.setEffectiveGasPrice(readString(jsonParser, deserializationContext));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private List<Log> readLogs(JsonParser jsonParser, DeserializationContext deserializationContext)
+            throws IOException {
+        JsonToken token = jsonParser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        } else if (token != JsonToken.START_ARRAY) {
+            deserializationContext.handleUnexpectedToken(List.class, jsonParser);
+        }
+
+        List<Log> logs = new ArrayList<>();
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+            logs.add(
+                    jsonParser.getCurrentToken() == JsonToken.VALUE_NULL
+                            ? null
+                            : logDeserializer.deserialize(jsonParser, deserializationContext));
+        }
+        return logs;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.CipherSuite;
 import okhttp3.ConnectionSpec;
 import okhttp3.Headers;
@@ -34,6 +35,7 @@ import okio.BufferedSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.Service;
 import org.web3j.protocol.exceptions.ClientConnectionException;
 
@@ -100,7 +102,28 @@ public class HttpService extends Service {
     private HashMap<String, String> headers = new HashMap<>();
 
     public HttpService(String url, OkHttpClient httpClient, boolean includeRawResponses) {
-        super(includeRawResponses);
+        this(
+                url,
+                httpClient,
+                includeRawResponses,
+                ObjectMapperFactory.getObjectMapper(includeRawResponses));
+    }
+
+    /**
+     * Create a service which reads responses with its own object mapper.
+     *
+     * @param url node URL
+     * @param httpClient HTTP client
+     * @param includeRawResponses true to keep the raw JSON of responses
+     * @param objectMapper object mapper, based on {@link
+     *     ObjectMapperFactory#getObjectMapper(boolean)} with the same includeRawResponses flag
+     */
+    public HttpService(
+            String url,
+            OkHttpClient httpClient,
+            boolean includeRawResponses,
+            ObjectMapper objectMapper) {
+        super(objectMapper);
         this.url = url;
         this.httpClient = httpClient;
         this.includeRawResponse = includeRawResponses;
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.web3j.protocol.websocket.events.Notification;
+
+/**
+ * Notification which keeps its result as an untyped JSON tree, see {@link JsonNodeResponse}.
+ *
+ * <p>The params are kept as they were received, as {@link
+ * org.web3j.protocol.websocket.events.NotificationParams} does not read the subscription id.
+ */
+class JsonNodeNotification extends Notification<JsonNode> {
+
+    private JsonNode rawParams;
+
+    @JsonSetter("params")
+    void setRawParams(JsonNode rawParams) {
+        this.rawParams = rawParams;
+    }
+
+    JsonNode toTree(ObjectMapper objectMapper) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("jsonrpc", getJsonrpc());
+        node.put("method", getMethod());
+        ObjectNode params = node.putObject("params");
+        JsonNode subscription = rawParams == null ? null : rawParams.get("subscription");
+        if (subscription != null) {
+            params.set("subscription", subscription);
+        }
+        JsonNode result = rawParams == null ? null : rawParams.get("result");
+        params.set("result", result == null ? NullNode.getInstance() : result);
+        return node;
+    }
+}
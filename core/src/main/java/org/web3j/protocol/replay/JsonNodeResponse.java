@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.web3j.protocol.core.Response;
+
+/**
+ * Response which keeps its result as an untyped JSON tree, so that it can be recorded exactly as it
+ * was received regardless of the transport in use.
+ */
+class JsonNodeResponse extends Response<JsonNode> {
+
+    JsonNode toTree(ObjectMapper objectMapper) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("jsonrpc", getJsonrpc());
+        node.put("id", getId());
+        if (hasError()) {
+            ObjectNode error = node.putObject("error");
+            error.put("code", getError().getCode());
+            error.put("message", getError().getMessage());
+            if (getError().getData() != null) {
+                error.set("data", readData(objectMapper, getError().getData()));
+            }
+        } else {
+            node.set("result", getResult() == null ? NullNode.getInstance() : getResult());
+        }
+        return node;
+    }
+
+    private static JsonNode readData(ObjectMapper objectMapper, String data) {
+        try {
+            return objectMapper.readTree(data);
+        } catch (IOException e) {
+            return objectMapper.getNodeFactory().textNode(data);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.web3j.protocol.core.Request;
+
+/**
+ * The method and parameters of a recorded JSON-RPC request.
+ *
+ * <p>Request ids differ between runs, so two calls are considered equal when their method and
+ * serialized parameters are equal.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RecordedCall {
+
+    private String method;
+    private JsonNode params;
+
+    public RecordedCall() {}
+
+    public RecordedCall(String method, JsonNode params) {
+        this.method = method;
+        this.params = params;
+    }
+
+    static RecordedCall of(Request<?, ?> request, ObjectMapper objectMapper) {
+        return new RecordedCall(request.getMethod(), objectMapper.valueToTree(request.getParams()));
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public JsonNode getParams() {
+        return params;
+    }
+
+    public void setParams(JsonNode params) {
+        this.params = params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RecordedCall)) {
+            return false;
+        }
+
+        RecordedCall that = (RecordedCall) o;
+
+        if (method != null ? !method.equals(that.method) : that.method != null) {
+            return false;
+        }
+        // compare the textual form, numeric nodes of different widths are otherwise not equal
+        return String.valueOf(params).equals(String.valueOf(that.params));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = method != null ? method.hashCode() : 0;
+        result = 31 * result + String.valueOf(params).hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return method + String.valueOf(params);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A single line of a recording produced by {@link RecordingService}.
+ *
+ * <p>Every entry is either a request/response exchange ({@link Kind#SEND} or {@link Kind#BATCH}),
+ * the opening of a notification stream ({@link Kind#SUBSCRIBE}) or a single notification received
+ * on such a stream ({@link Kind#EVENT}).
+ */
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RecordedEntry {
+
+    public enum Kind {
+        SEND,
+        BATCH,
+        SUBSCRIBE,
+        EVENT
+    }
+
+    private Kind kind;
+    // milliseconds since the recording was started
+    private long offset;
+    // milliseconds spent waiting for the response
+    private long latency;
+    // notification stream this entry belongs to, SUBSCRIBE and EVENT entries only
+    private long stream;
+    private List<RecordedCall> calls;
+    private List<JsonNode> responses;
+    private String failure;
+
+    public RecordedEntry() {}
+
+    public RecordedEntry(
+            Kind kind,
+            long offset,
+            long latency,
+            long stream,
+            List<RecordedCall> calls,
+            List<JsonNode> responses,
+            String failure) {
+        this.kind = kind;
+        this.offset = offset;
+        this.latency = latency;
+        this.stream = stream;
+        this.calls = calls;
+        this.responses = responses;
+        this.failure = failure;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    public long getStream() {
+        return stream;
+    }
+
+    public void setStream(long stream) {
+        this.stream = stream;
+    }
+
+    public List<RecordedCall> getCalls() {
+        return calls;
+    }
+
+    public void setCalls(List<RecordedCall> calls) {
+        this.calls = calls;
+    }
+
+    public List<JsonNode> getResponses() {
+        return responses;
+    }
+
+    public void setResponses(List<JsonNode> responses) {
+        this.responses = responses;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    boolean matches(Kind kind, List<RecordedCall> calls) {
+        return this.kind == kind && this.calls != null && this.calls.equals(calls);
+    }
+}
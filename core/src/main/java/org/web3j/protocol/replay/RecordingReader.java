@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Reads the entries of a recording written by {@link RecordingWriter} one line at a time, so that
+ * recordings larger than the available heap can be replayed.
+ */
+public class RecordingReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    public RecordingReader(InputStream inputStream) {
+        this.reader =
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    public static RecordingReader open(Path path) throws IOException {
+        InputStream inputStream = Files.newInputStream(path);
+        if (RecordingWriter.isCompressed(path)) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        return new RecordingReader(inputStream);
+    }
+
+    /**
+     * Read the next entry of the recording.
+     *
+     * @return the next entry, or null if the end of the recording has been reached
+     * @throws IOException thrown if the recording cannot be read
+     */
+    public synchronized RecordedEntry next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isEmpty());
+
+        return objectMapper.readValue(line, RecordedEntry.class);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.Flowable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+/**
+ * Service which forwards all traffic to another {@link Web3jService} and records every request,
+ * response and notification, along with its timing, so that it can later be served by a {@link
+ * ReplayService} without a node.
+ *
+ * <p>Responses are captured as JSON trees before they are mapped to their response types, so the
+ * recording is exact regardless of the underlying transport.
+ */
+public class RecordingService implements Web3jService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordingService.class);
+
+    private final Web3jService web3jService;
+    private final RecordingWriter recordingWriter;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final AtomicLong nextStreamId = new AtomicLong(0);
+    private final long startTime = System.nanoTime();
+
+    public RecordingService(Web3jService web3jService, RecordingWriter recordingWriter) {
+        this.web3jService = web3jService;
+        this.recordingWriter = recordingWriter;
+    }
+
+    public RecordingService(Web3jService web3jService, Path recording) throws IOException {
+        this(web3jService, RecordingWriter.open(recording));
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        long started = System.nanoTime();
+        List<RecordedCall> calls =
+                Collections.singletonList(RecordedCall.of(request, objectMapper));
+        JsonNodeResponse response;
+        try {
+            response = web3jService.send(asJsonNodeRequest(request), JsonNodeResponse.class);
+        } catch (IOException e) {
+            recordFailure(RecordedEntry.Kind.SEND, started, calls, e);
+            throw e;
+        }
+
+        return record(started, calls, response, responseType);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            Request request, Class<T> responseType) {
+        long started = System.nanoTime();
+        List<RecordedCall> calls =
+                Collections.singletonList(RecordedCall.of(request, objectMapper));
+
+        return web3jService
+                .sendAsync(asJsonNodeRequest(request), JsonNodeResponse.class)
+                .handle(
+                        (response, throwable) -> {
+                            try {
+                                if (throwable != null) {
+                                    recordFailure(
+                                            RecordedEntry.Kind.SEND, started, calls, throwable);
+                                    throw throwable instanceof CompletionException
+                                            ? (CompletionException) throwable
+                                            : new CompletionException(throwable);
+                                }
+                                return record(started, calls, response, responseType);
+                            } catch (IOException e) {
+                                throw new CompletionException(e);
+                            }
+                        });
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        long started = System.nanoTime();
+        List<RecordedCall> calls = new ArrayList<>(batchRequest.getRequests().size());
+        BatchRequest jsonNodeBatch = new BatchRequest(web3jService);
+        for (Request<?, ? extends Response<?>> request : batchRequest.getRequests()) {
+            calls.add(RecordedCall.of(request, objectMapper));
+            jsonNodeBatch.add(asJsonNodeRequest(request));
+        }
+
+        BatchResponse batchResponse;
+        try {
+            batchResponse = web3jService.sendBatch(jsonNodeBatch);
+        } catch (IOException e) {
+            recordFailure(RecordedEntry.Kind.BATCH, started, calls, e);
+            throw e;
+        }
+        if (batchResponse == null) {
+            return null;
+        }
+
+        List<JsonNode> trees = new ArrayList<>(calls.size());
+        List<Response<?>> responses = new ArrayList<>(calls.size());
+        for (int i = 0; i < batchResponse.getResponses().size(); i++) {
+            JsonNode tree =
+                    ((JsonNodeResponse) batchResponse.getResponses().get(i)).toTree(objectMapper);
+            trees.add(tree);
+            responses.add(
+                    objectMapper.treeToValue(
+                            tree, batchRequest.getRequests().get(i).getResponseType()));
+        }
+        write(
+                new RecordedEntry(
+                        RecordedEntry.Kind.BATCH,
+                        millisSince(startTime, started),
+                        millisSince(started, System.nanoTime()),
+                        0,
+                        calls,
+                        trees,
+                        null));
+
+        return new BatchResponse(batchRequest.getRequests(), responses);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        long stream = nextStreamId.incrementAndGet();
+        try {
+            write(
+                    new RecordedEntry(
+                            RecordedEntry.Kind.SUBSCRIBE,
+                            millisSince(startTime, System.nanoTime()),
+                            0,
+                            stream,
+                            Collections.singletonList(RecordedCall.of(request, objectMapper)),
+                            null,
+                            null));
+        } catch (IOException e) {
+            return Flowable.error(e);
+        }
+
+        return web3jService
+                .subscribe(request, unsubscribeMethod, JsonNodeNotification.class)
+                .map(
+                        notification -> {
+                            JsonNode tree = notification.toTree(objectMapper);
+                            write(
+                                    new RecordedEntry(
+                                            RecordedEntry.Kind.EVENT,
+                                            millisSince(startTime, System.nanoTime()),
+                                            0,
+                                            stream,
+                                            null,
+                                            Collections.singletonList(tree),
+                                            null));
+                            return objectMapper.treeToValue(tree, responseType);
+                        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            web3jService.close();
+        } finally {
+            recordingWriter.close();
+        }
+    }
+
+    /**
+     * Flush all entries recorded so far to the underlying storage.
+     *
+     * @throws IOException thrown if the recording could not be written
+     */
+    public void flush() throws IOException {
+        recordingWriter.flush();
+    }
+
+    private <T extends Response> T record(
+            long started,
+            List<RecordedCall> calls,
+            JsonNodeResponse response,
+            Class<T> responseType)
+            throws IOException {
+        if (response == null) {
+            return null;
+        }
+
+        JsonNode tree = response.toTree(objectMapper);
+        write(
+                new RecordedEntry(
+                        RecordedEntry.Kind.SEND,
+                        millisSince(startTime, started),
+                        millisSince(started, System.nanoTime()),
+                        0,
+                        calls,
+                        Collections.singletonList(tree),
+                        null));
+        return objectMapper.treeToValue(tree, responseType);
+    }
+
+    private void recordFailure(
+            RecordedEntry.Kind kind, long started, List<RecordedCall> calls, Throwable cause) {
+        try {
+            write(
+                    new RecordedEntry(
+                            kind,
+                            millisSince(startTime, started),
+                            millisSince(started, System.nanoTime()),
+                            0,
+                            calls,
+                            null,
+                            String.valueOf(cause.getMessage())));
+        } catch (IOException e) {
+            log.warn("Failed to record failed request", e);
+        }
+    }
+
+    private void write(RecordedEntry entry) throws IOException {
+        recordingWriter.write(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Request<?, JsonNodeResponse> asJsonNodeRequest(Request<?, ?> request) {
+        Request<?, JsonNodeResponse> jsonNodeRequest =
+                new Request<>(
+                        request.getMethod(),
+                        (List) request.getParams(),
+                        web3jService,
+                        JsonNodeResponse.class);
+        jsonNodeRequest.setId(request.getId());
+        return jsonNodeRequest;
+    }
+
+    private static long millisSince(long from, long to) {
+        return TimeUnit.NANOSECONDS.toMillis(to - from);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.web3j.protocol.ObjectMapperFactory;
+
+/**
+ * Appends {@link RecordedEntry} instances to a recording, one JSON document per line.
+ *
+ * <p>Files ending in <em>.gz</em> are GZIP compressed.
+ */
+public class RecordingWriter implements Closeable {
+
+    private final Writer writer;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    public RecordingWriter(OutputStream outputStream) {
+        this.writer =
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    public static RecordingWriter open(Path path) throws IOException {
+        OutputStream outputStream = Files.newOutputStream(path);
+        if (isCompressed(path)) {
+            outputStream = new GZIPOutputStream(outputStream);
+        }
+        return new RecordingWriter(outputStream);
+    }
+
+    public synchronized void write(RecordedEntry entry) throws IOException {
+        writer.write(objectMapper.writeValueAsString(entry));
+        writer.write('\n');
+    }
+
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    static boolean isCompressed(Path path) {
+        return path.getFileName().toString().endsWith(".gz");
+    }
+}
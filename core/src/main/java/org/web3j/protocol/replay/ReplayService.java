@@ -0,0 +1,361 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.Flowable;
+import io.reactivex.processors.UnicastProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.websocket.events.Notification;
+import org.web3j.utils.Async;
+
+/**
+ * Service which serves the responses captured by a {@link RecordingService}, allowing a recorded
+ * session to be replayed deterministically without a node.
+ *
+ * <p>The recording is streamed, only a bounded window of entries is held in memory. Requests are
+ * matched on their method and parameters, so they may arrive in a slightly different order to the
+ * one in which they were recorded, as long as the match is found within the lookahead window.
+ *
+ * <p>The recorded response latencies and notification timings are reproduced, divided by the
+ * configured speed factor. Use {@link #MAX_SPEED} to serve the recording as fast as possible.
+ */
+public class ReplayService implements Web3jService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayService.class);
+
+    public static final double ORIGINAL_SPEED = 1.0;
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+    public static final int DEFAULT_LOOKAHEAD = 1024;
+
+    private final RecordingReader recordingReader;
+    private final double speedFactor;
+    private final int lookahead;
+    private final ScheduledExecutorService executor;
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    // recorded entries which have been read, but not yet requested
+    private final Deque<RecordedEntry> pending = new ArrayDeque<>();
+    // open notification streams keyed by their recorded stream id
+    private final Map<Long, ReplayStream<?>> streams = new ConcurrentHashMap<>();
+    private final long startTime = System.nanoTime();
+
+    private boolean exhausted;
+    private boolean pumping;
+    private long lastEventDueTime;
+
+    public ReplayService(RecordingReader recordingReader, double speedFactor, int lookahead) {
+        if (speedFactor <= 0) {
+            throw new IllegalArgumentException("Speed factor must be positive");
+        }
+        this.recordingReader = recordingReader;
+        this.speedFactor = speedFactor;
+        this.lookahead = lookahead;
+        this.executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    public ReplayService(Path recording, double speedFactor) throws IOException {
+        this(RecordingReader.open(recording), speedFactor, DEFAULT_LOOKAHEAD);
+    }
+
+    public ReplayService(Path recording) throws IOException {
+        this(recording, ORIGINAL_SPEED);
+    }
+
+    @Override
+    public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        RecordedEntry entry =
+                take(
+                        RecordedEntry.Kind.SEND,
+                        Collections.singletonList(RecordedCall.of(request, objectMapper)));
+        pause(entry.getLatency());
+
+        return objectMapper.treeToValue(entry.getResponses().get(0), responseType);
+    }
+
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            Request request, Class<T> responseType) {
+        return Async.run(() -> send(request, responseType));
+    }
+
+    @Override
+    public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
+        if (batchRequest.getRequests().isEmpty()) {
+            return new BatchResponse(Collections.emptyList(), Collections.emptyList());
+        }
+
+        List<RecordedCall> calls = new ArrayList<>(batchRequest.getRequests().size());
+        for (Request<?, ? extends Response<?>> request : batchRequest.getRequests()) {
+            calls.add(RecordedCall.of(request, objectMapper));
+        }
+        RecordedEntry entry = take(RecordedEntry.Kind.BATCH, calls);
+        pause(entry.getLatency());
+
+        List<Response<?>> responses = new ArrayList<>(calls.size());
+        for (int i = 0; i < entry.getResponses().size(); i++) {
+            responses.add(
+                    objectMapper.treeToValue(
+                            entry.getResponses().get(i),
+                            batchRequest.getRequests().get(i).getResponseType()));
+        }
+        return new BatchResponse(batchRequest.getRequests(), responses);
+    }
+
+    @Override
+    public CompletableFuture<BatchResponse> sendBatchAsync(BatchRequest batchRequest) {
+        return Async.run(() -> sendBatch(batchRequest));
+    }
+
+    @Override
+    public <T extends Notification<?>> Flowable<T> subscribe(
+            Request request, String unsubscribeMethod, Class<T> responseType) {
+        RecordedEntry entry;
+        try {
+            entry =
+                    take(
+                            RecordedEntry.Kind.SUBSCRIBE,
+                            Collections.singletonList(RecordedCall.of(request, objectMapper)));
+        } catch (IOException e) {
+            return Flowable.error(e);
+        }
+
+        long stream = entry.getStream();
+        ReplayStream<T> replayStream = new ReplayStream<>(responseType);
+        open(stream, replayStream);
+
+        return replayStream.processor.doOnCancel(() -> streams.remove(stream));
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        recordingReader.close();
+    }
+
+    private synchronized RecordedEntry take(RecordedEntry.Kind kind, List<RecordedCall> calls)
+            throws IOException {
+        RecordedEntry entry = findPending(kind, calls);
+        while (entry == null) {
+            RecordedEntry next = readNext();
+            if (next == null) {
+                throw new IOException("No recorded response for " + calls + ", end of recording");
+            } else if (next.matches(kind, calls)) {
+                entry = next;
+            } else if (pending.size() >= lookahead) {
+                throw new IOException(
+                        "No recorded response for "
+                                + calls
+                                + " within "
+                                + lookahead
+                                + " entries, the session has diverged from the recording");
+            } else {
+                pending.addLast(next);
+            }
+        }
+
+        if (!pumping && !streams.isEmpty()) {
+            schedulePump(0);
+        }
+        if (entry.getFailure() != null) {
+            throw new IOException(entry.getFailure());
+        }
+        return entry;
+    }
+
+    private RecordedEntry findPending(RecordedEntry.Kind kind, List<RecordedCall> calls) {
+        Iterator<RecordedEntry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            RecordedEntry entry = iterator.next();
+            if (entry.matches(kind, calls)) {
+                iterator.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /** Reads the next entry of the recording, dispatching any notifications encountered. */
+    private RecordedEntry readNext() throws IOException {
+        while (!exhausted) {
+            RecordedEntry entry = recordingReader.next();
+            if (entry == null) {
+                onExhausted();
+            } else if (entry.getKind() == RecordedEntry.Kind.EVENT) {
+                dispatchOrHold(entry);
+            } else {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void schedulePump(long delay) {
+        pumping = true;
+        executor.schedule(this::pump, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads ahead while notification streams are open so that their events are delivered even when
+     * no requests are being made. Reading is paced by the timing of the events, which keeps the
+     * amount of the recording held in memory bounded.
+     */
+    private synchronized void pump() {
+        pumping = false;
+        if (streams.isEmpty() || exhausted || pending.size() >= lookahead) {
+            return;
+        }
+
+        try {
+            RecordedEntry entry = recordingReader.next();
+            if (entry == null) {
+                onExhausted();
+            } else if (entry.getKind() == RecordedEntry.Kind.EVENT) {
+                schedulePump(dispatchOrHold(entry));
+            } else {
+                pending.addLast(entry);
+                schedulePump(0);
+            }
+        } catch (IOException e) {
+            log.error("Failed to read recording", e);
+            streams.values().forEach(stream -> stream.processor.onError(e));
+            streams.clear();
+        }
+    }
+
+    private synchronized void open(long stream, ReplayStream<?> replayStream) {
+        streams.put(stream, replayStream);
+
+        // deliver the events which were read ahead before the stream was opened
+        Iterator<RecordedEntry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            RecordedEntry entry = iterator.next();
+            if (entry.getKind() == RecordedEntry.Kind.EVENT && entry.getStream() == stream) {
+                iterator.remove();
+                dispatch(replayStream, entry);
+            }
+        }
+
+        if (exhausted) {
+            onExhausted();
+        } else {
+            schedulePump(0);
+        }
+    }
+
+    private long dispatchOrHold(RecordedEntry entry) {
+        ReplayStream<?> stream = streams.get(entry.getStream());
+        if (stream != null) {
+            return dispatch(stream, entry);
+        } else if (isSubscriptionPending(entry.getStream())) {
+            pending.addLast(entry);
+        } else {
+            log.debug("Dropping recorded event for closed stream {}", entry.getStream());
+        }
+        return 0;
+    }
+
+    private boolean isSubscriptionPending(long stream) {
+        for (RecordedEntry entry : pending) {
+            if (entry.getKind() == RecordedEntry.Kind.SUBSCRIBE && entry.getStream() == stream) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long dispatch(ReplayStream<?> stream, RecordedEntry entry) {
+        lastEventDueTime = Math.max(lastEventDueTime, dueTime(entry.getOffset()));
+        long delay = Math.max(0, dueTime(entry.getOffset()) - elapsed());
+        executor.schedule(
+                () -> stream.emit(objectMapper, entry.getResponses().get(0)),
+                delay,
+                TimeUnit.MILLISECONDS);
+        return delay;
+    }
+
+    private void onExhausted() {
+        exhausted = true;
+        // complete the streams only once all of the events already read have been delivered
+        executor.schedule(
+                this::completeStreams,
+                Math.max(0, lastEventDueTime - elapsed()),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void completeStreams() {
+        streams.values().forEach(stream -> stream.processor.onComplete());
+        streams.clear();
+    }
+
+    private void pause(long latency) throws IOException {
+        long delay = dueTime(latency);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while replaying response", e);
+            }
+        }
+    }
+
+    private long dueTime(long recordedMillis) {
+        return (long) (recordedMillis / speedFactor);
+    }
+
+    private long elapsed() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    private static class ReplayStream<T extends Notification<?>> {
+        private final Class<T> responseType;
+        private final UnicastProcessor<T> processor = UnicastProcessor.create();
+
+        ReplayStream(Class<T> responseType) {
+            this.responseType = responseType;
+        }
+
+        void emit(ObjectMapper objectMapper, JsonNode event) {
+            try {
+                processor.onNext(objectMapper.treeToValue(event, responseType));
+            } catch (IOException e) {
+                processor.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.RpcErrors;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * Fetches the receipts of all of the transactions in a block.
+ *
+ * <p>Receipts are requested with a single eth_getBlockReceipts call. Once the node has rejected the
+ * method as unsupported, they are requested by transaction hash instead, in JSON-RPC batches which
+ * are sent concurrently.
+ */
+class BlockReceiptsFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockReceiptsFetcher.class);
+
+    static final int DEFAULT_RECEIPT_BATCH_SIZE = 100;
+
+    private final Web3j web3j;
+    private final int receiptBatchSize;
+
+    private volatile boolean blockReceiptsSupported = true;
+
+    BlockReceiptsFetcher(Web3j web3j, int receiptBatchSize) {
+        this.web3j = web3j;
+        this.receiptBatchSize = receiptBatchSize;
+    }
+
+    BlockReceiptsFetcher(Web3j web3j) {
+        this(web3j, DEFAULT_RECEIPT_BATCH_SIZE);
+    }
+
+    BlockWithReceipts getBlockWithReceipts(EthBlock ethBlock) throws IOException {
+        EthBlock.Block block = ethBlock.getBlock();
+        if (block == null) {
+            throw new IOException("Block not found");
+        }
+
+        List<String> transactionHashes = new ArrayList<>(block.getTransactions().size());
+        for (EthBlock.TransactionResult<?> transactionResult : block.getTransactions()) {
+            Object transaction = transactionResult.get();
+            transactionHashes.add(
+                    transaction instanceof String
+                            ? (String) transaction
+                            : ((Transaction) transaction).getHash());
+        }
+        if (transactionHashes.isEmpty()) {
+            return new BlockWithReceipts(block, Collections.emptyList());
+        }
+
+        if (blockReceiptsSupported) {
+            List<TransactionReceipt> receipts = getBlockReceipts(block, transactionHashes.size());
+            if (receipts != null) {
+                return new BlockWithReceipts(block, receipts);
+            }
+        }
+        return new BlockWithReceipts(block, getTransactionReceipts(transactionHashes));
+    }
+
+    boolean isBlockReceiptsSupported() {
+        return blockReceiptsSupported;
+    }
+
+    /** @return the receipts of the block, or null if they must be requested by transaction */
+    private List<TransactionReceipt> getBlockReceipts(EthBlock.Block block, int transactionCount)
+            throws IOException {
+        EthGetBlockReceipts ethGetBlockReceipts =
+                web3j.ethGetBlockReceipts(new DefaultBlockParameterNumber(block.getNumber()))
+                        .send();
+        if (ethGetBlockReceipts.hasError()) {
+            if (isUnsupported(ethGetBlockReceipts.getError())) {
+                log.info(
+                        "eth_getBlockReceipts is not supported, requesting receipts by "
+                                + "transaction: {}",
+                        ethGetBlockReceipts.getError().getMessage());
+                blockReceiptsSupported = false;
+            }
+            return null;
+        }
+
+        List<TransactionReceipt> receipts = ethGetBlockReceipts.getBlockReceipts().orElse(null);
+        if (receipts == null || receipts.size() != transactionCount) {
+            return null;
+        }
+        // the block is requested by number, so may have been replaced by a reorganisation
+        for (TransactionReceipt receipt : receipts) {
+            if (receipt.getBlockHash() != null
+                    && !receipt.getBlockHash().equalsIgnoreCase(block.getHash())) {
+                return null;
+            }
+        }
+        return receipts;
+    }
+
+    private List<TransactionReceipt> getTransactionReceipts(List<String> transactionHashes)
+            throws IOException {
+        List<CompletableFuture<List<TransactionReceipt>>> batches = new ArrayList<>();
+        for (int i = 0; i < transactionHashes.size(); i += receiptBatchSize) {
+            List<String> hashes =
+                    transactionHashes.subList(
+                            i, Math.min(i + receiptBatchSize, transactionHashes.size()));
+            batches.add(getTransactionReceiptsAsync(hashes));
+        }
+
+        List<TransactionReceipt> receipts = new ArrayList<>(transactionHashes.size());
+        try {
+            for (CompletableFuture<List<TransactionReceipt>> batch : batches) {
+                receipts.addAll(batch.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error requesting transaction receipts", e.getCause());
+        }
+        return receipts;
+    }
+
+    private CompletableFuture<List<TransactionReceipt>> getTransactionReceiptsAsync(
+            List<String> hashes) {
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Request<?, EthGetTransactionReceipt>> requests = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            Request<?, EthGetTransactionReceipt> request = web3j.ethGetTransactionReceipt(hash);
+            requests.add(request);
+            batchRequest.add(request);
+        }
+
+        return batchRequest
+                .sendAsync()
+                .thenApply(batchResponse -> toReceipts(hashes, requests, batchResponse));
+    }
+
+    private static List<TransactionReceipt> toReceipts(
+            List<String> hashes,
+            List<Request<?, EthGetTransactionReceipt>> requests,
+            BatchResponse batchResponse) {
+        if (batchResponse == null || batchResponse.getResponses().size() != hashes.size()) {
+            throw new CompletionException(
+                    new IOException("Incomplete batch response requesting receipts " + hashes));
+        }
+
+        List<EthGetTransactionReceipt> responses = batchResponse.orderedByRequest(requests);
+        List<TransactionReceipt> receipts = new ArrayList<>(hashes.size());
+        for (int i = 0; i < responses.size(); i++) {
+            if (!responses.get(i).getTransactionReceipt().isPresent()) {
+                throw new CompletionException(
+                        new IOException("No receipt for transaction " + hashes.get(i)));
+            }
+            receipts.add(responses.get(i).getTransactionReceipt().get());
+        }
+        return receipts;
+    }
+
+    private static boolean isUnsupported(Response.Error error) {
+        if (error.getCode() == RpcErrors.INVALID_REQUEST) {
+            return true;
+        }
+        String message = String.valueOf(error.getMessage()).toLowerCase();
+        return Arrays.asList("not supported", "not available", "method not found", "unknown method")
+                .stream()
+                .anyMatch(message::contains);
+    }
+}
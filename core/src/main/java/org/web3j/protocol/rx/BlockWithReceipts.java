@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/** A block along with the receipts of its transactions, in transaction order. */
+public class BlockWithReceipts {
+
+    private final EthBlock.Block block;
+    private final List<TransactionReceipt> receipts;
+
+    public BlockWithReceipts(EthBlock.Block block, List<TransactionReceipt> receipts) {
+        this.block = block;
+        this.receipts = receipts;
+    }
+
+    public EthBlock.Block getBlock() {
+        return block;
+    }
+
+    public List<TransactionReceipt> getReceipts() {
+        return receipts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlockWithReceipts)) {
+            return false;
+        }
+        BlockWithReceipts that = (BlockWithReceipts) o;
+        return Objects.equals(block, that.block) && Objects.equals(receipts, that.receipts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(block, receipts);
+    }
+}
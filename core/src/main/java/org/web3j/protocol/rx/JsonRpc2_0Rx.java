@@ -14,7 +14,11 @@ package org.web3j.protocol.rx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
@@ -25,12 +29,17 @@ import io.reactivex.Scheduler;
 import io.reactivex.schedulers.Schedulers;
 
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.DefaultBlockParameterNumber;
 import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.filters.BlockFilter;
+import org.web3j.protocol.core.filters.BlockRangeLogFilter;
 import org.web3j.protocol.core.filters.LogFilter;
+import org.web3j.protocol.core.filters.LogPollingHub;
+import org.web3j.protocol.core.filters.LogRangeFetcher;
 import org.web3j.protocol.core.filters.PendingTransactionFilter;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.Log;
@@ -40,14 +49,48 @@ import org.web3j.utils.Flowables;
 /** web3j reactive API implementation. */
 public class JsonRpc2_0Rx {
 
+    public static final int DEFAULT_REPLAY_BATCH_SIZE = 1;
+    public static final int DEFAULT_REPLAY_CONCURRENCY = 4;
+
     private final Web3j web3j;
     private final ScheduledExecutorService scheduledExecutorService;
     private final Scheduler scheduler;
+    private final int replayBatchSize;
+    private final int replayConcurrency;
+    private final Map<Long, LogPollingHub> logPollingHubs = new ConcurrentHashMap<>();
+    private final BlockReceiptsFetcher blockReceiptsFetcher;
 
     public JsonRpc2_0Rx(Web3j web3j, ScheduledExecutorService scheduledExecutorService) {
+        this(
+                web3j,
+                scheduledExecutorService,
+                DEFAULT_REPLAY_BATCH_SIZE,
+                DEFAULT_REPLAY_CONCURRENCY);
+    }
+
+    /**
+     * @param web3j web3j instance used to send requests
+     * @param scheduledExecutorService executor service to use for polling and replaying blocks
+     * @param replayBatchSize number of blocks requested in each JSON-RPC batch when replaying
+     *     blocks, or 1 to request each block individually
+     * @param replayConcurrency maximum number of block requests or batches in flight at once when
+     *     replaying blocks
+     */
+    public JsonRpc2_0Rx(
+            Web3j web3j,
+            ScheduledExecutorService scheduledExecutorService,
+            int replayBatchSize,
+            int replayConcurrency) {
+        if (replayBatchSize < 1 || replayConcurrency < 1) {
+            throw new IllegalArgumentException(
+                    "Replay batch size and concurrency must be positive");
+        }
         this.web3j = web3j;
         this.scheduledExecutorService = scheduledExecutorService;
         this.scheduler = Schedulers.from(scheduledExecutorService);
+        this.replayBatchSize = replayBatchSize;
+        this.replayConcurrency = replayConcurrency;
+        this.blockReceiptsFetcher = new BlockReceiptsFetcher(web3j);
     }
 
     public Flowable<String> ethBlockHashFlowable(long pollingInterval) {
@@ -81,6 +124,54 @@ public class JsonRpc2_0Rx {
                 BackpressureStrategy.BUFFER);
     }
 
+    public Flowable<Log> blockRangeLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter, long pollingInterval) {
+        return blockRangeLogFlowable(ethFilter, pollingInterval, 0);
+    }
+
+    public Flowable<Log> blockRangeLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter,
+            long pollingInterval,
+            int confirmationBlocks) {
+        return Flowable.create(
+                subscriber -> {
+                    BlockRangeLogFilter logFilter =
+                            new BlockRangeLogFilter(
+                                    web3j,
+                                    subscriber::onNext,
+                                    ethFilter,
+                                    LogRangeFetcher.DEFAULT_MAX_BLOCK_RANGE,
+                                    confirmationBlocks,
+                                    subscriber::onComplete);
+
+                    logFilter.run(scheduledExecutorService, pollingInterval);
+                    subscriber.setCancellable(logFilter::cancel);
+                },
+                BackpressureStrategy.BUFFER);
+    }
+
+    /**
+     * Create a flowable of the logs matching the given filter, which shares a single eth_getLogs
+     * poll of the node with all of the other multiplexed log flowables using the same polling
+     * interval. Filters by block hash are served by an individual {@link LogFilter}.
+     *
+     * @param ethFilter filter criteria
+     * @param pollingInterval polling interval in milliseconds
+     * @return a flowable emitting the matching logs
+     * @see LogPollingHub
+     */
+    public Flowable<Log> multiplexedLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter, long pollingInterval) {
+        if (ethFilter.getBlockHash() != null) {
+            return ethLogFlowable(ethFilter, pollingInterval);
+        }
+        return logPollingHubs
+                .computeIfAbsent(
+                        pollingInterval,
+                        interval -> new LogPollingHub(web3j, scheduledExecutorService, interval))
+                .logFlowable(ethFilter);
+    }
+
     private <T> void run(
             org.web3j.protocol.core.filters.Filter<T> filter,
             FlowableEmitter<? super T> emitter,
@@ -95,12 +186,10 @@ public class JsonRpc2_0Rx {
     }
 
     public Flowable<Transaction> pendingTransactionFlowable(long pollingInterval) {
-        return ethPendingTransactionHashFlowable(pollingInterval)
-                .flatMap(
-                        transactionHash ->
-                                web3j.ethGetTransactionByHash(transactionHash).flowable())
-                .filter(ethTransaction -> ethTransaction.getTransaction().isPresent())
-                .map(ethTransaction -> ethTransaction.getTransaction().get());
+        return Flowable.defer(
+                () ->
+                        new PendingTransactionHydrator(web3j, scheduler)
+                                .hydrate(ethPendingTransactionHashFlowable(pollingInterval)));
     }
 
     public Flowable<EthBlock> blockFlowable(boolean fullTransactionObjects, long pollingInterval) {
@@ -150,10 +239,71 @@ public class JsonRpc2_0Rx {
             return Flowable.error(e);
         }
 
-        return Flowables.range(startBlockNumber, endBlockNumber, isAscending)
-                .map(DefaultBlockParameterNumber::new)
-                .map(number -> web3j.ethGetBlockByNumber(number, containsFullTransactionObjects))
-                .flatMap(Request::flowable);
+        // block numbers are generated on demand and grouped into batches, a bounded number of
+        // which are requested concurrently, and the results are emitted in block order
+        return Flowables.range(
+                        startBlockNumber.longValueExact(),
+                        endBlockNumber.longValueExact(),
+                        isAscending)
+                .buffer(replayBatchSize)
+                .concatMapEager(
+                        numbers ->
+                                Flowable.fromCallable(
+                                                () ->
+                                                        getBlocks(
+                                                                numbers,
+                                                                containsFullTransactionObjects))
+                                        .subscribeOn(scheduler),
+                        replayConcurrency,
+                        1)
+                .concatMapIterable(blocks -> blocks);
+    }
+
+    private List<EthBlock> getBlocks(List<Long> numbers, boolean fullTransactionObjects)
+            throws IOException {
+        if (replayBatchSize == 1) {
+            return Collections.singletonList(
+                    web3j.ethGetBlockByNumber(
+                                    new DefaultBlockParameterNumber(numbers.get(0)),
+                                    fullTransactionObjects)
+                            .send());
+        }
+
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Request<?, EthBlock>> requests = new ArrayList<>(numbers.size());
+        for (Long number : numbers) {
+            Request<?, EthBlock> request =
+                    web3j.ethGetBlockByNumber(
+                            new DefaultBlockParameterNumber(number), fullTransactionObjects);
+            requests.add(request);
+            batchRequest.add(request);
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null || batchResponse.getResponses().size() != numbers.size()) {
+            throw new IOException("Incomplete batch response replaying blocks " + numbers);
+        }
+        return batchResponse.orderedByRequest(requests);
+    }
+
+    public Flowable<BlockWithReceipts> blockWithReceiptsFlowable(long pollingInterval) {
+        return withReceipts(blockFlowable(false, pollingInterval));
+    }
+
+    public Flowable<BlockWithReceipts> replayBlocksWithReceiptsFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock) {
+        return withReceipts(replayBlocksFlowable(startBlock, endBlock, false));
+    }
+
+    private Flowable<BlockWithReceipts> withReceipts(Flowable<EthBlock> blocks) {
+        // receipts of consecutive blocks are fetched concurrently, but emitted in block order
+        return blocks.concatMapEager(
+                ethBlock ->
+                        Flowable.fromCallable(
+                                        () -> blockReceiptsFetcher.getBlockWithReceipts(ethBlock))
+                                .subscribeOn(scheduler),
+                replayConcurrency,
+                1);
     }
 
     public Flowable<Transaction> replayTransactionsFlowable(
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.Transaction;
+
+/**
+ * Resolves a stream of pending transaction hashes to their transactions.
+ *
+ * <p>Hashes which have been seen recently are dropped, using a set bounded both in size and in the
+ * time each hash is kept. The remaining hashes are collected for a short interval and their
+ * transactions requested in a single JSON-RPC batch, with a bounded number of batches in flight.
+ * Transactions which the node no longer has, or which have been mined by the time they are
+ * requested, are dropped.
+ *
+ * <p>Batches are collected on a timer, which cannot be slowed down by the subscriber. When the node
+ * is too slow to keep up, at most {@link #MAX_QUEUED_BATCHES} batches wait for a request and the
+ * oldest are dropped, as the transactions in them are the most likely to have been mined already.
+ */
+public class PendingTransactionHydrator {
+
+    public static final long DEFAULT_BATCH_INTERVAL = 10;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final int DEFAULT_SEEN_CAPACITY = 100_000;
+    public static final long DEFAULT_SEEN_EXPIRY = TimeUnit.MINUTES.toMillis(10);
+    public static final int MAX_QUEUED_BATCHES = 64;
+
+    private final Web3j web3j;
+    private final Scheduler scheduler;
+    private final long batchInterval;
+    private final int maxBatchSize;
+    private final int maxConcurrency;
+    private final SeenSet seen;
+
+    /**
+     * Create a hydrator.
+     *
+     * @param web3j the node to request transactions from
+     * @param scheduler scheduler on which batches are collected and sent
+     * @param batchInterval the interval in milliseconds over which hashes are batched
+     * @param maxBatchSize the maximum number of hashes in a batch
+     * @param maxConcurrency the maximum number of batches in flight
+     * @param seenCapacity the maximum number of hashes remembered to drop duplicates
+     * @param seenExpiry the time in milliseconds for which a hash is remembered
+     */
+    public PendingTransactionHydrator(
+            Web3j web3j,
+            Scheduler scheduler,
+            long batchInterval,
+            int maxBatchSize,
+            int maxConcurrency,
+            int seenCapacity,
+            long seenExpiry) {
+        this(
+                web3j,
+                scheduler,
+                batchInterval,
+                maxBatchSize,
+                maxConcurrency,
+                new SeenSet(seenCapacity, seenExpiry, System::currentTimeMillis));
+    }
+
+    public PendingTransactionHydrator(Web3j web3j, Scheduler scheduler) {
+        this(
+                web3j,
+                scheduler,
+                DEFAULT_BATCH_INTERVAL,
+                DEFAULT_MAX_BATCH_SIZE,
+                DEFAULT_MAX_CONCURRENCY,
+                DEFAULT_SEEN_CAPACITY,
+                DEFAULT_SEEN_EXPIRY);
+    }
+
+    PendingTransactionHydrator(
+            Web3j web3j,
+            Scheduler scheduler,
+            long batchInterval,
+            int maxBatchSize,
+            int maxConcurrency,
+            SeenSet seen) {
+        this.web3j = web3j;
+        this.scheduler = scheduler;
+        this.batchInterval = batchInterval;
+        this.maxBatchSize = maxBatchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.seen = seen;
+    }
+
+    /**
+     * Resolve transaction hashes to their pending transactions.
+     *
+     * @param transactionHashes hashes of pending transactions
+     * @return a {@link Flowable} instance emitting the pending transactions
+     */
+    public Flowable<Transaction> hydrate(Flowable<String> transactionHashes) {
+        return transactionHashes
+                .filter(seen::add)
+                .buffer(batchInterval, TimeUnit.MILLISECONDS, scheduler, maxBatchSize)
+                .filter(hashes -> !hashes.isEmpty())
+                .onBackpressureBuffer(
+                        MAX_QUEUED_BATCHES, () -> {}, BackpressureOverflowStrategy.DROP_OLDEST)
+                .flatMap(
+                        hashes ->
+                                Flowable.fromCallable(() -> getPendingTransactions(hashes))
+                                        .subscribeOn(scheduler),
+                        maxConcurrency)
+                .concatMapIterable(transactions -> transactions);
+    }
+
+    List<Transaction> getPendingTransactions(List<String> hashes) throws IOException {
+        List<Transaction> transactions = new ArrayList<>(hashes.size());
+        for (EthTransaction ethTransaction : getTransactions(hashes)) {
+            if (ethTransaction != null && ethTransaction.getTransaction().isPresent()) {
+                Transaction transaction = ethTransaction.getTransaction().get();
+                if (!isMined(transaction)) {
+                    transactions.add(transaction);
+                }
+            }
+        }
+        return transactions;
+    }
+
+    private List<EthTransaction> getTransactions(List<String> hashes) throws IOException {
+        if (hashes.size() == 1) {
+            return Collections.singletonList(web3j.ethGetTransactionByHash(hashes.get(0)).send());
+        }
+
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Request<?, EthTransaction>> requests = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            Request<?, EthTransaction> request = web3j.ethGetTransactionByHash(hash);
+            requests.add(request);
+            batchRequest.add(request);
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            throw new IOException("No batch response requesting pending transactions");
+        }
+        return batchResponse.orderedByRequest(requests);
+    }
+
+    private static boolean isMined(Transaction transaction) {
+        // pending transactions have no block, reported as null or, by some clients, as zero
+        String blockNumber = transaction.getBlockNumberRaw();
+        return blockNumber != null && !blockNumber.equals("0x0") && !blockNumber.equals("0x");
+    }
+
+    /** Set of recently seen hashes, bounded in size and expiring hashes after a fixed time. */
+    static class SeenSet {
+
+        private final int capacity;
+        private final long expiry;
+        private final LongSupplier clock;
+        private final LinkedHashMap<String, Long> seen = new LinkedHashMap<>();
+
+        SeenSet(int capacity, long expiry, LongSupplier clock) {
+            this.capacity = capacity;
+            this.expiry = expiry;
+            this.clock = clock;
+        }
+
+        /** @return true if the hash has not been seen within the expiry time */
+        synchronized boolean add(String hash) {
+            long now = clock.getAsLong();
+            // entries are kept in insertion order, so the oldest are at the head
+            Iterator<Long> iterator = seen.values().iterator();
+            while (iterator.hasNext()) {
+                long added = iterator.next();
+                if (now - added < expiry && seen.size() < capacity) {
+                    break;
+                }
+                iterator.remove();
+            }
+
+            if (seen.containsKey(hash)) {
+                return false;
+            }
+            seen.put(hash, now);
+            return true;
+        }
+
+        synchronized int size() {
+            return seen.size();
+        }
+    }
+}
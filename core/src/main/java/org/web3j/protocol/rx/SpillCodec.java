@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Binary encoding of the events held on disk by a {@link SpillingBuffer}.
+ *
+ * @param <T> the type of event
+ */
+public interface SpillCodec<T> {
+
+    /** Codec for block and transaction hashes, stored as their raw bytes. */
+    SpillCodec<String> HASH = new SpillCodecs.HashCodec();
+
+    /** Codec for logs, storing quantities, hashes and data as their raw bytes. */
+    SpillCodec<Log> LOG = new SpillCodecs.LogCodec();
+
+    void encode(T value, DataOutput output) throws IOException;
+
+    T decode(DataInput input) throws IOException;
+}
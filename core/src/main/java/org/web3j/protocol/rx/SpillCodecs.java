@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+/**
+ * Implementations of {@link SpillCodec}.
+ *
+ * <p>Strings are stored with a tag giving their form: even-length hex data as its bytes, other
+ * canonical quantities as the bytes of the number, and anything else as UTF-8 text, so every value
+ * is decoded exactly as it was received.
+ */
+final class SpillCodecs {
+
+    private static final int NULL = 0;
+    private static final int QUANTITY = 1;
+    private static final int DATA = 2;
+    private static final int TEXT = 3;
+
+    private SpillCodecs() {}
+
+    static class HashCodec implements SpillCodec<String> {
+
+        @Override
+        public void encode(String value, DataOutput output) throws IOException {
+            writeHex(value, output);
+        }
+
+        @Override
+        public String decode(DataInput input) throws IOException {
+            return readHex(input);
+        }
+    }
+
+    static class LogCodec implements SpillCodec<Log> {
+
+        @Override
+        public void encode(Log log, DataOutput output) throws IOException {
+            output.writeBoolean(log.isRemoved());
+            writeHex(log.getLogIndexRaw(), output);
+            writeHex(log.getTransactionIndexRaw(), output);
+            writeHex(log.getTransactionHash(), output);
+            writeHex(log.getBlockHash(), output);
+            writeHex(log.getBlockNumberRaw(), output);
+            writeHex(log.getAddress(), output);
+            writeHex(log.getData(), output);
+            writeHex(log.getType(), output);
+
+            List<String> topics = log.getTopics();
+            writeLength(topics == null ? 0 : topics.size() + 1, output);
+            if (topics != null) {
+                for (String topic : topics) {
+                    writeHex(topic, output);
+                }
+            }
+        }
+
+        @Override
+        public Log decode(DataInput input) throws IOException {
+            Log log = new Log();
+            log.setRemoved(input.readBoolean());
+            log.setLogIndex(readHex(input));
+            log.setTransactionIndex(readHex(input));
+            log.setTransactionHash(readHex(input));
+            log.setBlockHash(readHex(input));
+            log.setBlockNumber(readHex(input));
+            log.setAddress(readHex(input));
+            log.setData(readHex(input));
+            log.setType(readHex(input));
+
+            int topicCount = readLength(input) - 1;
+            if (topicCount >= 0) {
+                List<String> topics = new ArrayList<>(topicCount);
+                for (int i = 0; i < topicCount; i++) {
+                    topics.add(readHex(input));
+                }
+                log.setTopics(topics);
+            }
+            return log;
+        }
+    }
+
+    static void writeHex(String value, DataOutput output) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (isData(value)) {
+            output.writeByte(DATA);
+            writeBytes(Numeric.hexStringToByteArray(value), output);
+        } else if (isQuantity(value)) {
+            output.writeByte(QUANTITY);
+            writeBytes(Numeric.decodeQuantity(value).toByteArray(), output);
+        } else {
+            output.writeByte(TEXT);
+            writeBytes(value.getBytes(StandardCharsets.UTF_8), output);
+        }
+    }
+
+    static String readHex(DataInput input) throws IOException {
+        int tag = input.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case QUANTITY:
+                return Numeric.encodeQuantity(new BigInteger(readBytes(input)));
+            case DATA:
+                return Numeric.toHexString(readBytes(input));
+            case TEXT:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            default:
+                throw new IOException("Invalid value tag " + tag);
+        }
+    }
+
+    private static boolean isQuantity(String value) {
+        if (!value.startsWith("0x") || value.length() == 2 || value.length() > 66) {
+            return false;
+        }
+        for (int i = 2; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return Numeric.encodeQuantity(Numeric.decodeQuantity(value)).equals(value);
+    }
+
+    private static boolean isData(String value) {
+        if (!value.startsWith("0x") || value.length() % 2 != 0) {
+            return false;
+        }
+        for (int i = 2; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // upper case digits would not survive the round trip
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutput output) throws IOException {
+        writeLength(bytes.length, output);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInput input) throws IOException {
+        byte[] bytes = new byte[readLength(input)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    // lengths are stored as variable length integers, as most are a single byte
+    private static void writeLength(int length, DataOutput output) throws IOException {
+        while ((length & ~0x7f) != 0) {
+            output.writeByte((length & 0x7f) | 0x80);
+            length >>>= 7;
+        }
+        output.writeByte(length);
+    }
+
+    private static int readLength(DataInput input) throws IOException {
+        int length = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.readUnsignedByte();
+            length |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return length;
+            }
+        }
+        throw new IOException("Invalid length");
+    }
+}
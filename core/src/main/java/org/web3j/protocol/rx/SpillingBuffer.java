@@ -0,0 +1,458 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.FlowableTransformer;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffer for a {@link Flowable} whose consumer may fall behind, which holds a bounded number of
+ * events in memory and spills the rest to a local append-only file.
+ *
+ * <p>The polling flowables of {@link JsonRpc2_0Rx} buffer events on the heap without bound while
+ * the consumer is not requesting them. Applied with {@link Flowable#compose(FlowableTransformer)},
+ * the buffer requests all events from upstream itself, so nothing accumulates there:
+ *
+ * <pre>
+ * SpillingBuffer&lt;Log&gt; buffer =
+ *         new SpillingBuffer&lt;&gt;(directory, 10_000, 1_000, SpillCodec.LOG);
+ * web3j.ethLogFlowable(filter).compose(buffer).subscribe(...);
+ * </pre>
+ *
+ * <p>Events are held in memory until the high watermark is reached, after which all further events
+ * are appended to the file until it has been read back. Once the consumer has drained the events in
+ * memory down to the low watermark, they are refilled from the file, so events are always delivered
+ * in the order they arrived. An upstream error is delivered after all of the buffered events. The
+ * file is deleted when the flowable terminates or is cancelled.
+ *
+ * <p>The file is emptied whenever all of its events have been read back. A consumer which stays
+ * behind never empties it, so once more than 16 MiB have been read, and the events still to be read
+ * take less space than those already read, they are moved to the start of the file. The file is
+ * therefore at most 16 MiB larger than twice the size of the events still to be read.
+ *
+ * <p>A buffer can be subscribed to once.
+ *
+ * @param <T> the type of event
+ */
+public class SpillingBuffer<T> implements FlowableTransformer<T, T>, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillingBuffer.class);
+
+    static final long COMPACTION_THRESHOLD = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final SpillCodec<T> codec;
+    private final long compactionThreshold;
+
+    private final ArrayDeque<T> memory = new ArrayDeque<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private FileChannel spillFile;
+    private long readPosition;
+    private long writePosition;
+    private long onDisk;
+
+    private volatile long maxBuffered;
+    private volatile long spilled;
+    private volatile long spills;
+
+    /**
+     * Create a buffer.
+     *
+     * @param directory directory in which to create the spill file
+     * @param highWatermark the number of events held in memory before events are spilled to disk
+     * @param lowWatermark the number of events in memory below which spilled events are read back
+     * @param codec the binary encoding of the events
+     */
+    public SpillingBuffer(
+            Path directory, int highWatermark, int lowWatermark, SpillCodec<T> codec) {
+        this(directory, highWatermark, lowWatermark, codec, COMPACTION_THRESHOLD);
+    }
+
+    SpillingBuffer(
+            Path directory,
+            int highWatermark,
+            int lowWatermark,
+            SpillCodec<T> codec,
+            long compactionThreshold) {
+        if (highWatermark < 1 || lowWatermark < 0 || lowWatermark >= highWatermark) {
+            throw new IllegalArgumentException(
+                    "The low watermark must be below a positive high watermark");
+        }
+        this.directory = directory;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.codec = codec;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public SpillingBuffer(Path directory, int highWatermark, SpillCodec<T> codec) {
+        this(directory, highWatermark, highWatermark / 2, codec);
+    }
+
+    @Override
+    public Publisher<T> apply(Flowable<T> upstream) {
+        return Flowable.unsafeCreate(
+                subscriber -> {
+                    if (subscribed.compareAndSet(false, true)) {
+                        upstream.subscribe(new SpillingSubscriber(subscriber));
+                    } else {
+                        subscriber.onSubscribe(NoSubscription.INSTANCE);
+                        subscriber.onError(
+                                new IllegalStateException(
+                                        "A spilling buffer can only be subscribed to once"));
+                    }
+                });
+    }
+
+    public int getHighWatermark() {
+        return highWatermark;
+    }
+
+    public int getLowWatermark() {
+        return lowWatermark;
+    }
+
+    /** @return the number of events waiting to be consumed, in memory and on disk */
+    public synchronized long getSize() {
+        return memory.size() + onDisk;
+    }
+
+    /** @return the number of events held on disk */
+    public synchronized long getSpilledSize() {
+        return onDisk;
+    }
+
+    /** @return the size in bytes of the spill file */
+    public synchronized long getSpillFileSize() {
+        return writePosition;
+    }
+
+    /** @return the largest number of events that have been waiting to be consumed at once */
+    public long getMaxSize() {
+        return maxBuffered;
+    }
+
+    /** @return the total number of events that have been written to disk */
+    public long getSpilledCount() {
+        return spilled;
+    }
+
+    /** @return the number of times the high watermark has been reached */
+    public long getSpillCount() {
+        return spills;
+    }
+
+    /** Delete the spill file, discarding any events held in it. */
+    @Override
+    public synchronized void close() {
+        memory.clear();
+        onDisk = 0;
+        closeSpillFile();
+    }
+
+    synchronized void offer(T value) throws IOException {
+        if (onDisk == 0 && memory.size() < highWatermark) {
+            memory.add(value);
+        } else {
+            if (onDisk == 0) {
+                spills++;
+                log.debug("Buffer reached {} events, spilling to disk", highWatermark);
+            }
+            spill(value);
+        }
+
+        long size = memory.size() + onDisk;
+        if (size > maxBuffered) {
+            maxBuffered = size;
+        }
+    }
+
+    synchronized T poll() throws IOException {
+        if (onDisk > 0 && memory.size() <= lowWatermark) {
+            refill();
+        }
+        return memory.poll();
+    }
+
+    synchronized boolean isEmpty() {
+        return memory.isEmpty() && onDisk == 0;
+    }
+
+    private void spill(T value) throws IOException {
+        if (spillFile == null) {
+            Files.createDirectories(directory);
+            Path path = Files.createTempFile(directory, "web3j-buffer", ".bin");
+            spillFile =
+                    FileChannel.open(
+                            path,
+                            StandardOpenOption.READ,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0);
+        codec.encode(value, output);
+        output.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+        while (record.hasRemaining()) {
+            writePosition += spillFile.write(record, writePosition);
+        }
+        onDisk++;
+        spilled++;
+    }
+
+    private void refill() throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        while (onDisk > 0 && memory.size() < highWatermark) {
+            length.clear();
+            read(length);
+            ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+            read(record);
+            memory.add(codec.decode(new DataInputStream(new ByteArrayInputStream(record.array()))));
+            onDisk--;
+        }
+
+        if (onDisk == 0) {
+            // the file has been read back, so new events are appended from its start again
+            spillFile.truncate(0);
+            readPosition = 0;
+            writePosition = 0;
+        } else if (readPosition > compactionThreshold
+                && writePosition - readPosition < readPosition) {
+            compact();
+        }
+    }
+
+    /** Move the events still to be read to the start of the file, and drop the rest. */
+    private void compact() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long from = readPosition;
+        long to = 0;
+        while (from < writePosition) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), writePosition - from));
+            read(buffer, from);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                to += spillFile.write(buffer, to);
+            }
+            from += buffer.limit();
+        }
+        spillFile.truncate(to);
+        readPosition = 0;
+        writePosition = to;
+    }
+
+    private void read(ByteBuffer buffer) throws IOException {
+        readPosition += read(buffer, readPosition);
+    }
+
+    private int read(ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = spillFile.read(buffer, position + total);
+            if (read < 0) {
+                throw new EOFException("Spill file truncated");
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private void closeSpillFile() {
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                log.warn("Error deleting spill file", e);
+            }
+            spillFile = null;
+            readPosition = 0;
+            writePosition = 0;
+        }
+    }
+
+    private class SpillingSubscriber implements FlowableSubscriber<T>, Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Subscription upstream;
+        private volatile boolean done;
+        private volatile boolean cancelled;
+        private Throwable error;
+
+        SpillingSubscriber(Subscriber<? super T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(T value) {
+            if (done) {
+                return;
+            }
+            try {
+                offer(value);
+            } catch (Throwable e) {
+                upstream.cancel();
+                onError(e);
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("Requests must be positive: " + n));
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!requested.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                drain();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                long requested = this.requested.get();
+                long emitted = 0;
+                while (true) {
+                    if (cancelled) {
+                        close();
+                        return;
+                    }
+
+                    boolean terminated = done;
+                    T value = null;
+                    if (emitted != requested) {
+                        try {
+                            value = poll();
+                        } catch (Throwable e) {
+                            cancelled = true;
+                            upstream.cancel();
+                            close();
+                            downstream.onError(e);
+                            return;
+                        }
+                    }
+
+                    if (value == null) {
+                        // errors are delivered once all of the buffered events have been
+                        // consumed, as with completion
+                        if (terminated && isEmpty()) {
+                            close();
+                            if (error != null) {
+                                downstream.onError(error);
+                            } else {
+                                downstream.onComplete();
+                            }
+                            return;
+                        }
+                        break;
+                    }
+
+                    downstream.onNext(value);
+                    emitted++;
+                }
+
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    private enum NoSubscription implements Subscription {
+        INSTANCE;
+
+        @Override
+        public void request(long n) {}
+
+        @Override
+        public void cancel() {}
+    }
+}
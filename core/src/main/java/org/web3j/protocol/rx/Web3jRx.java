@@ -39,6 +39,29 @@ public interface Web3jRx {
      */
     Flowable<Log> ethLogFlowable(EthFilter ethFilter);
 
+    /**
+     * Create an flowable to filter for specific log events on the blockchain, which polls the
+     * node with eth_getLogs for the blocks after the last one it has seen, rather than installing
+     * a filter on the node. This works behind load balancers and across node restarts, where
+     * installed filters are lost.
+     *
+     * @param ethFilter filter criteria
+     * @return a {@link Flowable} instance that emits all Log events matching the filter
+     */
+    Flowable<Log> blockRangeLogFlowable(EthFilter ethFilter);
+
+    /**
+     * Create a flowable like {@link #blockRangeLogFlowable(EthFilter)}, which only requests the
+     * logs of blocks at least the given number of blocks behind the head reported by the node.
+     * Behind a load balancer, this keeps requests within the blocks that every node in the pool is
+     * expected to have imported, and leaves time for short chain reorganisations to settle.
+     *
+     * @param ethFilter filter criteria
+     * @param confirmationBlocks number of blocks to stay behind the head of the chain
+     * @return a {@link Flowable} instance that emits all Log events matching the filter
+     */
+    Flowable<Log> blockRangeLogFlowable(EthFilter ethFilter, int confirmationBlocks);
+
     /**
      * Create an Flowable to emit block hashes.
      *
@@ -67,6 +90,9 @@ public interface Web3jRx {
      * Create an {@link Flowable} instance to emit all pending transactions that have yet to be
      * placed into a block on the blockchain.
      *
+     * <p>Duplicate hashes are dropped and transactions are requested in batches, as described in
+     * {@link PendingTransactionHydrator}.
+     *
      * @return a {@link Flowable} instance to emit pending transactions
      */
     Flowable<Transaction> pendingTransactionFlowable();
@@ -81,6 +107,18 @@ public interface Web3jRx {
      */
     Flowable<EthBlock> blockFlowable(boolean fullTransactionObjects);
 
+    /**
+     * Create an {@link Flowable} instance that emits newly created blocks on the blockchain along
+     * with the receipts of all of their transactions.
+     *
+     * <p>Receipts are requested with eth_getBlockReceipts where the node supports it, otherwise in
+     * batches of eth_getTransactionReceipt requests. The receipts of several blocks are requested
+     * concurrently, but blocks are emitted in order.
+     *
+     * @return a {@link Flowable} instance that emits all new blocks with their receipts
+     */
+    Flowable<BlockWithReceipts> blockWithReceiptsFlowable();
+
     /**
      * Create an {@link Flowable} instance that emits all blocks from the blockchain contained
      * within the requested range.
@@ -96,6 +134,18 @@ public interface Web3jRx {
             DefaultBlockParameter endBlock,
             boolean fullTransactionObjects);
 
+    /**
+     * Create an {@link Flowable} instance that emits all blocks from the blockchain contained
+     * within the requested range along with the receipts of their transactions, as per {@link
+     * #blockWithReceiptsFlowable()}.
+     *
+     * @param startBlock block number to commence with
+     * @param endBlock block number to finish with
+     * @return a {@link Flowable} instance to emit these blocks with their receipts
+     */
+    Flowable<BlockWithReceipts> replayBlocksWithReceiptsFlowable(
+            DefaultBlockParameter startBlock, DefaultBlockParameter endBlock);
+
     /**
      * Create an {@link Flowable} instance that emits all blocks from the blockchain contained
      * within the requested range.
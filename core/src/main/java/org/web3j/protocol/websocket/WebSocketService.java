@@ -93,13 +93,31 @@ public class WebSocketService implements Web3jService {
         this(webSocketClient, Executors.newScheduledThreadPool(1), includeRawResponses);
     }
 
+    /**
+     * Create a service which reads responses with its own object mapper, such as one returned by
+     * {@link ObjectMapperFactory#withLazyBlockTransactions(ObjectMapper, boolean)}.
+     *
+     * @param webSocketClient WebSocket client
+     * @param objectMapper object mapper for this service
+     */
+    public WebSocketService(WebSocketClient webSocketClient, ObjectMapper objectMapper) {
+        this(webSocketClient, Executors.newScheduledThreadPool(1), objectMapper);
+    }
+
     WebSocketService(
             WebSocketClient webSocketClient,
             ScheduledExecutorService executor,
             boolean includeRawResponses) {
+        this(webSocketClient, executor, ObjectMapperFactory.getObjectMapper(includeRawResponses));
+    }
+
+    WebSocketService(
+            WebSocketClient webSocketClient,
+            ScheduledExecutorService executor,
+            ObjectMapper objectMapper) {
         this.webSocketClient = webSocketClient;
         this.executor = executor;
-        this.objectMapper = ObjectMapperFactory.getObjectMapper(includeRawResponses);
+        this.objectMapper = objectMapper;
     }
 
     /**
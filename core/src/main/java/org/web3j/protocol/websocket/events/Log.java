@@ -14,14 +14,27 @@ package org.web3j.protocol.websocket.events;
 
 import java.util.List;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import org.web3j.protocol.deserializer.HexStringDeserializer;
+
 public class Log {
+    @JsonDeserialize(using = HexStringDeserializer.class)
     private String address;
+
+    @JsonDeserialize(using = HexStringDeserializer.class)
     private String blockHash;
+
     private String blockNumber;
     private String data;
     private String logIndex;
+
+    @JsonDeserialize(contentUsing = HexStringDeserializer.class)
     private List<String> topics;
+
+    @JsonDeserialize(using = HexStringDeserializer.class)
     private String transactionHash;
+
     private String transactionIndex;
 
     public String getAddress() {
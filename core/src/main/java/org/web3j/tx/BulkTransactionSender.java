@@ -0,0 +1,376 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.exceptions.TxHashMismatchException;
+import org.web3j.tx.nonce.NonceAllocator;
+import org.web3j.tx.nonce.NonceReservation;
+
+/**
+ * Sends many transactions from the account of a {@link RawTransactionManager} at once.
+ *
+ * <p>Nonces for all of the transactions are allocated up front, replacing the nonces the given
+ * transactions were created with. The transactions are signed in parallel and sent with
+ * eth_sendRawTransaction in JSON-RPC batches, in nonce order, with a bounded number of batches in
+ * flight. The hash of each transaction is verified against the one returned by the node with the
+ * manager's {@link org.web3j.utils.TxHashVerifier}.
+ *
+ * <p>If the manager has a {@link NonceAllocator}, the nonces of transactions which fail to sign, or
+ * which the node rejects, are released for reuse. Transactions whose batch fails in transport, or
+ * which the node does not answer for, may still have been accepted, so their nonces are committed
+ * and left to {@link NonceAllocator#reconcile(String)}. If the manager has a {@link
+ * org.web3j.tx.journal.TransactionJournal}, each transaction is recorded as it is signed, so the
+ * journal's fsyncs are shared by the signing threads.
+ */
+public class BulkTransactionSender {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+
+    private final RawTransactionManager transactionManager;
+    private final Web3j web3j;
+    private final int batchSize;
+    private final int maxInFlightBatches;
+    private final Executor signingExecutor;
+
+    /**
+     * Create a sender.
+     *
+     * @param transactionManager the transaction manager whose account sends the transactions
+     * @param web3j the node to send the transactions to
+     * @param batchSize the number of transactions in each batch
+     * @param maxInFlightBatches the maximum number of batches sent and not yet answered
+     * @param signingExecutor the executor on which transactions are signed
+     */
+    public BulkTransactionSender(
+            RawTransactionManager transactionManager,
+            Web3j web3j,
+            int batchSize,
+            int maxInFlightBatches,
+            Executor signingExecutor) {
+        if (batchSize < 1 || maxInFlightBatches < 1) {
+            throw new IllegalArgumentException(
+                    "Batch size and maximum in flight batches must be positive");
+        }
+        this.transactionManager = transactionManager;
+        this.web3j = web3j;
+        this.batchSize = batchSize;
+        this.maxInFlightBatches = maxInFlightBatches;
+        this.signingExecutor = signingExecutor;
+    }
+
+    public BulkTransactionSender(RawTransactionManager transactionManager, Web3j web3j) {
+        this(
+                transactionManager,
+                web3j,
+                DEFAULT_BATCH_SIZE,
+                DEFAULT_MAX_IN_FLIGHT_BATCHES,
+                transactionManager.getSigningPool() != null
+                        ? transactionManager.getSigningPool()
+                        : ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Send transactions, allocating consecutive nonces to them in the order given.
+     *
+     * @param transactions the transactions, whose nonces are replaced
+     * @return a future for each transaction, in the order given, completed with the node's response
+     *     once its batch has been sent
+     * @throws IOException if the nonces could not be allocated
+     */
+    public List<CompletableFuture<EthSendTransaction>> send(List<RawTransaction> transactions)
+            throws IOException {
+        List<PendingTransaction> pending = allocateNonces(transactions);
+
+        List<Batch> batches = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += batchSize) {
+            batches.add(new Batch(pending.subList(i, Math.min(i + batchSize, pending.size()))));
+        }
+        Pipeline pipeline = new Pipeline(batches);
+        for (Batch batch : batches) {
+            batch.signed.whenComplete((ignored, throwable) -> pipeline.submitReady());
+        }
+
+        List<CompletableFuture<EthSendTransaction>> results = new ArrayList<>(pending.size());
+        for (PendingTransaction transaction : pending) {
+            results.add(transaction.result);
+        }
+        return results;
+    }
+
+    private List<PendingTransaction> allocateNonces(List<RawTransaction> transactions)
+            throws IOException {
+        List<PendingTransaction> pending = new ArrayList<>(transactions.size());
+        NonceAllocator nonceAllocator = transactionManager.getNonceAllocator();
+        if (nonceAllocator != null) {
+            try {
+                for (RawTransaction transaction : transactions) {
+                    NonceReservation reservation =
+                            nonceAllocator.reserve(transactionManager.getFromAddress());
+                    pending.add(
+                            new PendingTransaction(
+                                    withNonce(transaction, reservation.getNonce()), reservation));
+                }
+            } catch (IOException | RuntimeException e) {
+                pending.forEach(transaction -> transaction.reservation.release());
+                throw e;
+            }
+        } else if (!transactions.isEmpty()) {
+            BigInteger nonce = transactionManager.getNonce();
+            for (RawTransaction transaction : transactions) {
+                pending.add(new PendingTransaction(withNonce(transaction, nonce), null));
+                nonce = nonce.add(BigInteger.ONE);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Create a copy of a transaction with a different nonce.
+     *
+     * @param transaction the transaction
+     * @param nonce the nonce
+     * @return the transaction with the given nonce
+     */
+    public static RawTransaction withNonce(RawTransaction transaction, BigInteger nonce) {
+        if (transaction.getTransaction() instanceof Transaction1559) {
+            Transaction1559 transaction1559 = (Transaction1559) transaction.getTransaction();
+            return RawTransaction.createTransaction(
+                    transaction1559.getChainId(),
+                    nonce,
+                    transaction1559.getGasLimit(),
+                    transaction1559.getTo(),
+                    transaction1559.getValue(),
+                    transaction1559.getData(),
+                    transaction1559.getMaxPriorityFeePerGas(),
+                    transaction1559.getMaxFeePerGas());
+        }
+        return RawTransaction.createTransaction(
+                nonce,
+                transaction.getGasPrice(),
+                transaction.getGasLimit(),
+                transaction.getTo(),
+                transaction.getValue(),
+                transaction.getData());
+    }
+
+    private class PendingTransaction {
+        private final RawTransaction transaction;
+        private final NonceReservation reservation;
+        private final CompletableFuture<String> signed;
+        private final CompletableFuture<EthSendTransaction> result = new CompletableFuture<>();
+
+        PendingTransaction(RawTransaction transaction, NonceReservation reservation) {
+            this.transaction = transaction;
+            this.reservation = reservation;
+            this.signed =
+                    CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    return transactionManager.signForSending(transaction);
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            },
+                            signingExecutor);
+        }
+
+        void complete(EthSendTransaction ethSendTransaction) {
+            boolean rejected =
+                    ethSendTransaction.hasError()
+                            && !RawTransactionManager.isNonceUsed(ethSendTransaction.getError());
+            if (reservation != null) {
+                if (rejected) {
+                    reservation.release();
+                } else {
+                    reservation.commit();
+                }
+            }
+            if (rejected) {
+                transactionManager.notSent(signed.join());
+            }
+            result.complete(ethSendTransaction);
+        }
+
+        void fail(Throwable throwable, boolean sent) {
+            if (reservation != null) {
+                if (sent) {
+                    reservation.commit();
+                } else {
+                    reservation.release();
+                }
+            }
+            if (!sent && signed.isDone() && !signed.isCompletedExceptionally()) {
+                transactionManager.notSent(signed.join());
+            }
+            result.completeExceptionally(throwable);
+        }
+    }
+
+    private static class Batch {
+        private final List<PendingTransaction> transactions;
+        private final CompletableFuture<Void> signed;
+
+        Batch(List<PendingTransaction> transactions) {
+            this.transactions = transactions;
+            this.signed =
+                    CompletableFuture.allOf(
+                            transactions.stream()
+                                    .map(transaction -> transaction.signed)
+                                    .toArray(CompletableFuture[]::new));
+        }
+    }
+
+    /** Sends signed batches in order, keeping at most the maximum number in flight. */
+    private class Pipeline {
+        private final List<Batch> batches;
+        private int next;
+        private int inFlight;
+
+        Pipeline(List<Batch> batches) {
+            this.batches = batches;
+        }
+
+        void submitReady() {
+            List<Batch> ready = new ArrayList<>();
+            synchronized (this) {
+                while (inFlight < maxInFlightBatches
+                        && next < batches.size()
+                        && batches.get(next).signed.isDone()) {
+                    ready.add(batches.get(next++));
+                    inFlight++;
+                }
+            }
+
+            for (Batch batch : ready) {
+                submit(batch)
+                        .whenComplete(
+                                (ignored, throwable) -> {
+                                    synchronized (this) {
+                                        inFlight--;
+                                    }
+                                    submitReady();
+                                });
+            }
+        }
+    }
+
+    private CompletableFuture<Void> submit(Batch batch) {
+        List<PendingTransaction> signed = new ArrayList<>(batch.transactions.size());
+        for (PendingTransaction transaction : batch.transactions) {
+            if (transaction.signed.isCompletedExceptionally()) {
+                transaction.fail(unwrap(transaction.signed), false);
+            } else {
+                signed.add(transaction);
+            }
+        }
+        if (signed.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Request<?, EthSendTransaction>> requests = new ArrayList<>(signed.size());
+        for (PendingTransaction transaction : signed) {
+            Request<?, EthSendTransaction> request =
+                    web3j.ethSendRawTransaction(transaction.signed.join());
+            requests.add(request);
+            batchRequest.add(request);
+        }
+
+        CompletableFuture<BatchResponse> batchResponse;
+        try {
+            batchResponse = batchRequest.sendAsync();
+        } catch (RuntimeException e) {
+            // the batch was never sent
+            signed.forEach(transaction -> transaction.fail(e, false));
+            return CompletableFuture.completedFuture(null);
+        }
+        return batchResponse.handle(
+                (response, throwable) -> {
+                    if (throwable != null) {
+                        Throwable cause =
+                                throwable instanceof CompletionException
+                                        ? throwable.getCause()
+                                        : throwable;
+                        // as for missing responses, the node may have accepted the transactions
+                        // before the connection failed
+                        signed.forEach(transaction -> transaction.fail(cause, true));
+                    } else {
+                        completeAll(signed, requests, response);
+                    }
+                    return null;
+                });
+    }
+
+    private void completeAll(
+            List<PendingTransaction> signed,
+            List<Request<?, EthSendTransaction>> requests,
+            BatchResponse batchResponse) {
+        List<EthSendTransaction> responses =
+                batchResponse == null
+                        ? Collections.nCopies(signed.size(), null)
+                        : batchResponse.orderedByRequest(requests);
+
+        for (int i = 0; i < signed.size(); i++) {
+            PendingTransaction transaction = signed.get(i);
+            EthSendTransaction ethSendTransaction = responses.get(i);
+            if (ethSendTransaction == null) {
+                // the node may have accepted the transaction without answering for it
+                transaction.fail(
+                        new IOException(
+                                "No response sending transaction with nonce "
+                                        + transaction.transaction.getNonce()),
+                        true);
+                continue;
+            }
+
+            if (!ethSendTransaction.hasError()) {
+                String txHashLocal = Hash.sha3(transaction.signed.join());
+                String txHashRemote = ethSendTransaction.getTransactionHash();
+                if (!transactionManager.getTxHashVerifier().verify(txHashLocal, txHashRemote)) {
+                    transaction.fail(new TxHashMismatchException(txHashLocal, txHashRemote), true);
+                    continue;
+                }
+            }
+            transaction.complete(ethSendTransaction);
+        }
+    }
+
+    private static Throwable unwrap(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+}
@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import org.web3j.abi.EventEncoder;
@@ -45,6 +47,7 @@ import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.tx.exceptions.ContractCallException;
+import org.web3j.tx.gas.ContractEIP1559GasProvider;
 import org.web3j.tx.gas.ContractGasProvider;
 import org.web3j.tx.gas.StaticGasProvider;
 import org.web3j.utils.Numeric;
@@ -390,14 +393,85 @@ public abstract class Contract extends ManagedTransaction {
             String data, BigInteger weiValue, String funcName, boolean constructor)
             throws TransactionException, IOException {
 
-        TransactionReceipt receipt =
-                send(
-                        contractAddress,
-                        data,
-                        weiValue,
-                        gasProvider.getGasPrice(funcName),
-                        gasProvider.getGasLimit(funcName),
-                        constructor);
+        TransactionReceipt receipt;
+        if (isEIP1559(gasProvider)) {
+            ContractEIP1559GasProvider eip1559GasProvider =
+                    (ContractEIP1559GasProvider) gasProvider;
+            receipt =
+                    sendEIP1559(
+                            eip1559GasProvider.getChainId(),
+                            contractAddress,
+                            data,
+                            weiValue,
+                            eip1559GasProvider.getGasLimit(funcName),
+                            eip1559GasProvider.getMaxPriorityFeePerGas(funcName),
+                            eip1559GasProvider.getMaxFeePerGas(funcName),
+                            constructor);
+        } else {
+            receipt =
+                    send(
+                            contractAddress,
+                            data,
+                            weiValue,
+                            gasProvider.getGasPrice(funcName),
+                            gasProvider.getGasLimit(funcName),
+                            constructor);
+        }
+        return assertStatusOk(receipt, data);
+    }
+
+    /**
+     * Execute a transaction, waiting for its receipt without blocking the calling thread.
+     *
+     * @param data to send in transaction
+     * @param weiValue in Wei to send in transaction
+     * @return a future completed with the transaction receipt, or with a {@link
+     *     TransactionException} if the transaction failed
+     */
+    CompletableFuture<TransactionReceipt> executeTransactionAsync(
+            String data, BigInteger weiValue, String funcName, boolean constructor) {
+
+        CompletableFuture<TransactionReceipt> result;
+        if (isEIP1559(gasProvider)) {
+            ContractEIP1559GasProvider eip1559GasProvider =
+                    (ContractEIP1559GasProvider) gasProvider;
+            result =
+                    sendEIP1559Async(
+                            eip1559GasProvider.getChainId(),
+                            contractAddress,
+                            data,
+                            weiValue,
+                            eip1559GasProvider.getGasLimit(funcName),
+                            eip1559GasProvider.getMaxPriorityFeePerGas(funcName),
+                            eip1559GasProvider.getMaxFeePerGas(funcName),
+                            constructor);
+        } else {
+            result =
+                    sendAsync(
+                            contractAddress,
+                            data,
+                            weiValue,
+                            gasProvider.getGasPrice(funcName),
+                            gasProvider.getGasLimit(funcName),
+                            constructor);
+        }
+        return result.thenApply(
+                        receipt -> {
+                            try {
+                                return assertStatusOk(receipt, data);
+                            } catch (IOException | TransactionException e) {
+                                throw new CompletionException(e);
+                            }
+                        });
+    }
+
+    private static boolean isEIP1559(ContractGasProvider gasProvider) {
+        return gasProvider instanceof ContractEIP1559GasProvider
+                && ((ContractEIP1559GasProvider) gasProvider).isEIP1559Enabled();
+    }
+
+    private TransactionReceipt assertStatusOk(TransactionReceipt receipt, String data)
+            throws IOException, TransactionException {
         //交易返回失败
         if (!receipt.isStatusOK()) {
             throw new TransactionException(
@@ -436,12 +510,28 @@ public abstract class Contract extends ManagedTransaction {
     //远程调用交易
     protected RemoteFunctionCall<TransactionReceipt> executeRemoteCallTransaction(
             Function function) {
-        return new RemoteFunctionCall<>(function, () -> executeTransaction(function));
+        return new RemoteFunctionCall<>(
+                function,
+                () -> executeTransaction(function),
+                () ->
+                        executeTransactionAsync(
+                                FunctionEncoder.encode(function),
+                                BigInteger.ZERO,
+                                function.getName(),
+                                false));
     }
     //远程调用交易
     protected RemoteFunctionCall<TransactionReceipt> executeRemoteCallTransaction(
             Function function, BigInteger weiValue) {
-        return new RemoteFunctionCall<>(function, () -> executeTransaction(function, weiValue));
+        return new RemoteFunctionCall<>(
+                function,
+                () -> executeTransaction(function, weiValue),
+                () ->
+                        executeTransactionAsync(
+                                FunctionEncoder.encode(function),
+                                weiValue,
+                                function.getName(),
+                                false));
     }
     //创建合约
     private static <T extends Contract> T create(
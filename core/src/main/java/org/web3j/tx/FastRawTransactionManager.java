@@ -17,22 +17,26 @@ import java.math.BigInteger;
 
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
+import org.web3j.tx.nonce.NonceAllocator;
+import org.web3j.tx.nonce.NonceReservation;
 import org.web3j.tx.response.TransactionReceiptProcessor;
 
 /**
  * Simple RawTransactionManager derivative that manages nonces to facilitate multiple transactions per block.
+ * Nonces are allocated by a {@link NonceAllocator}, which can be replaced with one shared by other
+ * transaction managers.
  * 简单的 RawTransactionManager 派生类，用于管理 nonce 以促进每个块的多个事务。
  */
 public class FastRawTransactionManager extends RawTransactionManager {
 
-    private volatile BigInteger nonce = BigInteger.valueOf(-1);
-
     public FastRawTransactionManager(Web3j web3j, Credentials credentials, long chainId) {
         super(web3j, credentials, chainId);
+        setNonceAllocator(new NonceAllocator(web3j));
     }
 
     public FastRawTransactionManager(Web3j web3j, Credentials credentials) {
         super(web3j, credentials);
+        setNonceAllocator(new NonceAllocator(web3j));
     }
 
     public FastRawTransactionManager(
@@ -40,6 +44,7 @@ public class FastRawTransactionManager extends RawTransactionManager {
             Credentials credentials,
             TransactionReceiptProcessor transactionReceiptProcessor) {
         super(web3j, credentials, ChainId.NONE, transactionReceiptProcessor);
+        setNonceAllocator(new NonceAllocator(web3j));
     }
 
     public FastRawTransactionManager(
@@ -48,28 +53,26 @@ public class FastRawTransactionManager extends RawTransactionManager {
             long chainId,
             TransactionReceiptProcessor transactionReceiptProcessor) {
         super(web3j, credentials, chainId, transactionReceiptProcessor);
+        setNonceAllocator(new NonceAllocator(web3j));
     }
 
     @Override
-    protected synchronized BigInteger getNonce() throws IOException {
-        if (nonce.signum() == -1) {
-            // obtain lock
-            nonce = super.getNonce();
-        } else {
-            nonce = nonce.add(BigInteger.ONE);
-        }
-        return nonce;
+    protected BigInteger getNonce() throws IOException {
+        NonceReservation reservation = getNonceAllocator().reserve(getFromAddress());
+        reservation.commit();
+        return reservation.getNonce();
     }
     //获取当前nonce
     public BigInteger getCurrentNonce() {
-        return nonce;
+        long next = getNonceAllocator().getNextNonce(getFromAddress());
+        return BigInteger.valueOf(next < 0 ? -1 : next - 1);
     }
     //重设nonce
-    public synchronized void resetNonce() throws IOException {
-        nonce = super.getNonce();
+    public void resetNonce() throws IOException {
+        setNonce(super.getNonce());
     }
     //设置nonce
-    public synchronized void setNonce(BigInteger value) {
-        nonce = value;
+    public void setNonce(BigInteger value) {
+        getNonceAllocator().setNextNonce(getFromAddress(), value.longValueExact() + 1);
     }
 }
@@ -14,6 +14,7 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
 
 import org.web3j.ens.EnsResolver;
 import org.web3j.protocol.Web3j;
@@ -148,6 +149,63 @@ public abstract class ManagedTransaction {
                 gasPrice, gasLimit, to, data, value, constructor);
     }
 
+    /** Send a transaction, waiting for its receipt without blocking the calling thread. */
+    protected CompletableFuture<TransactionReceipt> sendAsync(
+            String to,
+            String data,
+            BigInteger value,
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            boolean constructor) {
+
+        return transactionManager.executeTransactionAsync(
+                gasPrice, gasLimit, to, data, value, constructor);
+    }
+
+    protected TransactionReceipt sendEIP1559(
+            long chainId,
+            String to,
+            String data,
+            BigInteger value,
+            BigInteger gasLimit,
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            boolean constructor)
+            throws IOException, TransactionException {
+
+        return transactionManager.executeTransactionEIP1559(
+                chainId,
+                maxPriorityFeePerGas,
+                maxFeePerGas,
+                gasLimit,
+                to,
+                data,
+                value,
+                constructor);
+    }
+
+    /** Send an EIP-1559 transaction, waiting for its receipt without blocking the calling thread. */
+    protected CompletableFuture<TransactionReceipt> sendEIP1559Async(
+            long chainId,
+            String to,
+            String data,
+            BigInteger value,
+            BigInteger gasLimit,
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            boolean constructor) {
+
+        return transactionManager.executeTransactionEIP1559Async(
+                chainId,
+                maxPriorityFeePerGas,
+                maxFeePerGas,
+                gasLimit,
+                to,
+                data,
+                value,
+                constructor);
+    }
+
     protected String call(String to, String data, DefaultBlockParameter defaultBlockParameter)
             throws IOException {
 
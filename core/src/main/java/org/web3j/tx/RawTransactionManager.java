@@ -14,6 +14,18 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.Hash;
@@ -22,12 +34,21 @@ import org.web3j.crypto.TransactionEncoder;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.request.Transaction;
 import org.web3j.protocol.core.methods.response.EthCall;
 import org.web3j.protocol.core.methods.response.EthGetCode;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.tx.exceptions.TxHashMismatchException;
+import org.web3j.tx.journal.JournalEntry;
+import org.web3j.tx.journal.TransactionJournal;
+import org.web3j.tx.nonce.NonceAllocator;
+import org.web3j.tx.nonce.NonceReservation;
+import org.web3j.tx.response.EmptyTransactionReceipt;
 import org.web3j.tx.response.TransactionReceiptProcessor;
 import org.web3j.utils.Numeric;
 import org.web3j.utils.TxHashVerifier;
@@ -46,6 +67,9 @@ import org.web3j.utils.TxHashVerifier;
  *
  */
 public class RawTransactionManager extends TransactionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(RawTransactionManager.class);
+
     //web3j对象
     private final Web3j web3j;
     //凭证
@@ -54,6 +78,12 @@ public class RawTransactionManager extends TransactionManager {
     private final long chainId;
     //交易hash验证
     protected TxHashVerifier txHashVerifier = new TxHashVerifier();
+    // nonces are requested from the node for each transaction unless an allocator is set
+    private volatile NonceAllocator nonceAllocator;
+    // transactions are signed on the calling thread unless a pool is set
+    private volatile SigningPool signingPool;
+    // signed transactions are only recorded if a journal is set
+    private volatile TransactionJournal journal;
     //构造
     public RawTransactionManager(Web3j web3j, Credentials credentials, long chainId) {
         super(web3j, credentials.getAddress());
@@ -113,6 +143,53 @@ public class RawTransactionManager extends TransactionManager {
         this.txHashVerifier = txHashVerifier;
     }
 
+    public NonceAllocator getNonceAllocator() {
+        return nonceAllocator;
+    }
+
+    /**
+     * Allocate nonces with a {@link NonceAllocator}, which may be shared with other transaction
+     * managers. Nonces of transactions which fail to sign, or which the node rejects, are released
+     * for reuse. If sending fails before the node responds, the nonce is kept until {@link
+     * NonceAllocator#reconcile(String)} finds whether the transaction reached the node.
+     *
+     * @param nonceAllocator the allocator, or null to request the nonce of each transaction from
+     *     the node
+     */
+    public void setNonceAllocator(NonceAllocator nonceAllocator) {
+        this.nonceAllocator = nonceAllocator;
+    }
+
+    public SigningPool getSigningPool() {
+        return signingPool;
+    }
+
+    /**
+     * Sign transactions on a {@link SigningPool}, which may be shared with other transaction
+     * managers.
+     *
+     * @param signingPool the pool, or null to sign transactions on the calling thread
+     */
+    public void setSigningPool(SigningPool signingPool) {
+        this.signingPool = signingPool;
+    }
+
+    public TransactionJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Record transactions in a {@link TransactionJournal}, which may be shared with other
+     * transaction managers. Each transaction is recorded before it is sent, and is recorded as
+     * confirmed when this manager receives its receipt. After a restart, {@link
+     * #recoverFromJournal()} resumes the transactions which were in flight.
+     *
+     * @param journal the journal, or null to not record transactions
+     */
+    public void setJournal(TransactionJournal journal) {
+        this.journal = journal;
+    }
+
 
     //发起交易
     @Override
@@ -124,13 +201,11 @@ public class RawTransactionManager extends TransactionManager {
             BigInteger value,
             boolean constructor)
             throws IOException {
-        //获取nonce
-        BigInteger nonce = getNonce();
-        //创建交易
-        RawTransaction rawTransaction =
-                RawTransaction.createTransaction(nonce, gasPrice, gasLimit, to, value, data);
-        //签名并调用交易
-        return signAndSend(rawTransaction);
+        //获取nonce，创建交易，签名并调用交易
+        return sendWithNonce(
+                nonce ->
+                        RawTransaction.createTransaction(
+                                nonce, gasPrice, gasLimit, to, value, data));
     }
 
     @Override
@@ -145,20 +220,74 @@ public class RawTransactionManager extends TransactionManager {
             boolean constructor)
             throws IOException {
 
-        BigInteger nonce = getNonce();
+        return sendWithNonce(
+                nonce ->
+                        RawTransaction.createTransaction(
+                                chainId,
+                                nonce,
+                                gasLimit,
+                                to,
+                                value,
+                                data,
+                                maxPriorityFeePerGas,
+                                maxFeePerGas));
+    }
+
+    EthSendTransaction sendWithNonce(Function<BigInteger, RawTransaction> transaction)
+            throws IOException {
+        NonceAllocator nonceAllocator = this.nonceAllocator;
+        if (nonceAllocator == null) {
+            return signAndSend(transaction.apply(getNonce()));
+        }
+
+        NonceReservation reservation = nonceAllocator.reserve(getFromAddress());
+        String hexValue;
+        try {
+            hexValue = signForSending(transaction.apply(reservation.getNonce()));
+        } catch (IOException | RuntimeException e) {
+            // nothing was sent at the nonce
+            reservation.release();
+            throw e;
+        }
+
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction = sendSigned(hexValue);
+        } catch (IOException | RuntimeException e) {
+            // the node may have received the transaction, so the nonce is kept until reconcile()
+            // finds whether it is in the pool
+            reservation.commit();
+            throw e;
+        }
+
+        if (ethSendTransaction == null
+                || ethSendTransaction.hasError() && !isNonceUsed(ethSendTransaction.getError())) {
+            reservation.release();
+        } else {
+            reservation.commit();
+        }
+        return ethSendTransaction;
+    }
 
-        RawTransaction rawTransaction =
-                RawTransaction.createTransaction(
-                        chainId,
-                        nonce,
-                        gasLimit,
-                        to,
-                        value,
-                        data,
-                        maxPriorityFeePerGas,
-                        maxFeePerGas);
+    static boolean isNonceUsed(Response.Error error) {
+        String message = String.valueOf(error.getMessage()).toLowerCase();
+        return message.contains("nonce too low")
+                || message.contains("already known")
+                || message.contains("known transaction")
+                || message.contains("replacement transaction underpriced");
+    }
 
-        return signAndSend(rawTransaction);
+    /**
+     * Send many transactions at once, as described in {@link BulkTransactionSender}.
+     *
+     * @param transactions the transactions, whose nonces are replaced by consecutive nonces of
+     *     this manager's account
+     * @return a future for each transaction, in the order given
+     * @throws IOException if the nonces could not be allocated
+     */
+    public List<CompletableFuture<EthSendTransaction>> sendBulk(List<RawTransaction> transactions)
+            throws IOException {
+        return new BulkTransactionSender(this, web3j).send(transactions);
     }
 
     @Override
@@ -187,7 +316,40 @@ public class RawTransactionManager extends TransactionManager {
      * @return The transaction signed and encoded without ever broadcasting it
      */
     public String sign(RawTransaction rawTransaction) {
+        SigningPool pool = signingPool;
+        if (pool == null) {
+            return signLocally(rawTransaction);
+        }
+        try {
+            return pool.sign(rawTransaction, this::signLocally).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sign transactions, in parallel if a {@link SigningPool} is set.
+     *
+     * @param rawTransactions the transactions to sign
+     * @return the signed and encoded transactions, in the order given
+     */
+    public List<String> signAll(List<RawTransaction> rawTransactions) {
+        SigningPool pool = signingPool;
+        if (pool != null) {
+            return pool.signAll(rawTransactions, this::signLocally);
+        }
+
+        List<String> signed = new ArrayList<>(rawTransactions.size());
+        for (RawTransaction rawTransaction : rawTransactions) {
+            signed.add(signLocally(rawTransaction));
+        }
+        return signed;
+    }
 
+    private String signLocally(RawTransaction rawTransaction) {
         byte[] signedMessage;
         //指定链
         if (chainId > ChainId.NONE) {
@@ -199,12 +361,48 @@ public class RawTransactionManager extends TransactionManager {
         return Numeric.toHexString(signedMessage);
     }
 
+    /** Sign a transaction and record it in the journal, if one is set, before it is sent. */
+    String signForSending(RawTransaction rawTransaction) throws IOException {
+        String signedTransaction = sign(rawTransaction);
+        TransactionJournal journal = this.journal;
+        if (journal != null) {
+            journal.recordSigned(
+                    getFromAddress(),
+                    rawTransaction.getNonce().longValue(),
+                    Hash.sha3(signedTransaction),
+                    signedTransaction);
+        }
+        return signedTransaction;
+    }
+
+    /** Record a transaction which was not accepted by the node as dropped. */
+    void notSent(String signedTransaction) {
+        TransactionJournal journal = this.journal;
+        if (journal != null) {
+            try {
+                journal.recordDropped(Hash.sha3(signedTransaction));
+            } catch (IOException e) {
+                log.warn("Error recording dropped transaction in journal", e);
+            }
+        }
+    }
+
     //签名并调用交易
     public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
         //获取签名hex值
-        String hexValue = sign(rawTransaction);
+        return sendSigned(signForSending(rawTransaction));
+    }
+
+    /** Send a transaction signed by {@link #signForSending(RawTransaction)}. */
+    EthSendTransaction sendSigned(String hexValue) throws IOException {
         //调用web3j对象交易方法
+        // if sending fails the node may still have received the transaction, so it is left pending
+        // in the journal and checked again on recovery
         EthSendTransaction ethSendTransaction = web3j.ethSendRawTransaction(hexValue).send();
+        if (ethSendTransaction == null
+                || ethSendTransaction.hasError() && !isNonceUsed(ethSendTransaction.getError())) {
+            notSent(hexValue);
+        }
 
         if (ethSendTransaction != null && !ethSendTransaction.hasError()) {
             String txHashLocal = Hash.sha3(hexValue);
@@ -217,4 +415,160 @@ public class RawTransactionManager extends TransactionManager {
 
         return ethSendTransaction;
     }
+
+    @Override
+    protected TransactionReceipt processResponse(EthSendTransaction transactionResponse)
+            throws IOException, TransactionException {
+        return confirmed(super.processResponse(transactionResponse));
+    }
+
+    @Override
+    protected CompletableFuture<TransactionReceipt> processResponseAsync(
+            EthSendTransaction transactionResponse) {
+        return super.processResponseAsync(transactionResponse).thenApply(this::confirmed);
+    }
+
+    TransactionReceipt confirmed(TransactionReceipt receipt) {
+        TransactionJournal journal = this.journal;
+        // receipts which are not waited for have no block
+        if (journal != null && !(receipt instanceof EmptyTransactionReceipt)) {
+            try {
+                journal.recordConfirmed(receipt.getTransactionHash());
+            } catch (IOException e) {
+                // the transaction is checked again on recovery
+                log.warn("Error recording confirmed transaction in journal", e);
+            }
+        }
+        return receipt;
+    }
+
+    /**
+     * Resume the transactions of this manager's account which the journal has pending, after a
+     * restart.
+     *
+     * <p>Transactions which have been mined are recorded as confirmed, and those whose nonce has
+     * been used by another transaction are recorded as dropped. The rest are sent again and their
+     * receipts waited for. If a {@link NonceAllocator} is set, its counter for the account is
+     * moved past the nonces in the journal.
+     *
+     * @return a future for each pending nonce, in nonce order, completed with the receipt of
+     *     whichever transaction at the nonce is mined
+     * @throws IOException if the node could not be reached
+     */
+    public List<CompletableFuture<TransactionReceipt>> recoverFromJournal() throws IOException {
+        TransactionJournal journal = this.journal;
+        if (journal == null) {
+            throw new IllegalStateException("No journal is set");
+        }
+
+        String address = getFromAddress();
+        NonceAllocator nonceAllocator = this.nonceAllocator;
+        if (nonceAllocator != null) {
+            // the pending count is requested directly, as getNonce() may reserve a nonce
+            nonceAllocator.setNextNonce(
+                    address,
+                    Math.max(
+                            journal.getNextNonce(address),
+                            getTransactionCount(address, DefaultBlockParameterName.PENDING)));
+        }
+
+        Map<Long, List<JournalEntry>> byNonce = new TreeMap<>();
+        for (JournalEntry entry : journal.getPending(address)) {
+            byNonce.computeIfAbsent(entry.getNonce(), nonce -> new ArrayList<>()).add(entry);
+        }
+        if (byNonce.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        long minedCount = getTransactionCount(address, DefaultBlockParameterName.LATEST);
+        List<CompletableFuture<TransactionReceipt>> results = new ArrayList<>(byNonce.size());
+        for (List<JournalEntry> entries : byNonce.values()) {
+            results.add(recover(journal, entries, minedCount));
+        }
+        return results;
+    }
+
+    private CompletableFuture<TransactionReceipt> recover(
+            TransactionJournal journal, List<JournalEntry> entries, long minedCount)
+            throws IOException {
+        for (JournalEntry entry : entries) {
+            EthGetTransactionReceipt ethGetTransactionReceipt =
+                    web3j.ethGetTransactionReceipt(entry.getTransactionHash()).send();
+            if (ethGetTransactionReceipt.hasError()) {
+                throw new IOException(
+                        "Error requesting transaction receipt: "
+                                + ethGetTransactionReceipt.getError().getMessage());
+            }
+            Optional<TransactionReceipt> receipt = ethGetTransactionReceipt.getTransactionReceipt();
+            if (receipt.isPresent()) {
+                return CompletableFuture.completedFuture(confirmed(receipt.get()));
+            }
+        }
+
+        long nonce = entries.get(0).getNonce();
+        if (nonce < minedCount) {
+            for (JournalEntry entry : entries) {
+                journal.recordDropped(entry.getTransactionHash());
+            }
+            CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+            result.completeExceptionally(
+                    new TransactionException(
+                            "Nonce " + nonce + " was used by another transaction"));
+            return result;
+        }
+
+        List<CompletableFuture<TransactionReceipt>> receipts = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            EthSendTransaction ethSendTransaction =
+                    web3j.ethSendRawTransaction(entry.getSignedTransaction()).send();
+            if (ethSendTransaction.hasError() && !isNonceUsed(ethSendTransaction.getError())) {
+                journal.recordDropped(entry.getTransactionHash());
+                CompletableFuture<TransactionReceipt> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(
+                        new TransactionException(
+                                "Error resending transaction: "
+                                        + ethSendTransaction.getError().getMessage(),
+                                entry.getTransactionHash()));
+                receipts.add(rejected);
+            } else {
+                receipts.add(
+                        getTransactionReceiptProcessor()
+                                .waitForTransactionReceiptAsync(entry.getTransactionHash()));
+            }
+        }
+        return firstReceipt(receipts).thenApply(this::confirmed);
+    }
+
+    private long getTransactionCount(String address, DefaultBlockParameterName blockParameter)
+            throws IOException {
+        EthGetTransactionCount ethGetTransactionCount =
+                web3j.ethGetTransactionCount(address, blockParameter).send();
+        if (ethGetTransactionCount.hasError()) {
+            throw new IOException(
+                    "Error requesting transaction count: "
+                            + ethGetTransactionCount.getError().getMessage());
+        }
+        return ethGetTransactionCount.getTransactionCount().longValueExact();
+    }
+
+    /**
+     * @return a future completed with the first of the receipts to arrive, or failed once all of
+     *     them have failed
+     */
+    static CompletableFuture<TransactionReceipt> firstReceipt(
+            List<CompletableFuture<TransactionReceipt>> receipts) {
+        CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(receipts.size());
+        for (CompletableFuture<TransactionReceipt> receipt : receipts) {
+            receipt.whenComplete(
+                    (transactionReceipt, throwable) -> {
+                        if (throwable == null) {
+                            result.complete(transactionReceipt);
+                        } else if (remaining.decrementAndGet() == 0) {
+                            result.completeExceptionally(throwable);
+                        }
+                    });
+        }
+        return result;
+    }
 }
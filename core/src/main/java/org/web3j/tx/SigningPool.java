@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.web3j.crypto.RawTransaction;
+
+/**
+ * Dedicated pool of threads for signing transactions.
+ *
+ * <p>Signing is CPU-bound, so spreading bursts of transactions over a pool sized to the available
+ * processors keeps a single caller from becoming the bottleneck, while bounding the number of
+ * threads competing for the CPU when many callers sign at once. Each worker reuses its own signer
+ * state between transactions.
+ *
+ * <p>Work submitted from one of the pool's own workers runs inline, so signers may themselves use
+ * the pool without deadlocking it.
+ */
+public class SigningPool implements Executor, AutoCloseable {
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final ExecutorService executorService;
+    private final int threads;
+
+    /**
+     * Create a pool.
+     *
+     * @param threads the number of worker threads
+     */
+    public SigningPool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A signing pool needs at least one thread");
+        }
+        this.threads = threads;
+
+        int pool = POOL_COUNT.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executorService =
+                Executors.newFixedThreadPool(
+                        threads,
+                        runnable -> {
+                            Thread thread =
+                                    new Worker(
+                                            runnable,
+                                            "web3j-signer-"
+                                                    + pool
+                                                    + "-"
+                                                    + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /** Create a pool with a thread per available processor. */
+    public SigningPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (isWorkerThread()) {
+            command.run();
+        } else {
+            executorService.execute(command);
+        }
+    }
+
+    /**
+     * Sign a transaction on the pool.
+     *
+     * @param rawTransaction the transaction
+     * @param signer the function which signs it
+     * @return the signed transaction
+     */
+    public CompletableFuture<String> sign(
+            RawTransaction rawTransaction, Function<RawTransaction, String> signer) {
+        return CompletableFuture.supplyAsync(() -> signer.apply(rawTransaction), this);
+    }
+
+    /**
+     * Sign transactions in parallel on the pool.
+     *
+     * @param rawTransactions the transactions
+     * @param signer the function which signs each of them
+     * @return the signed transactions, in the order given
+     */
+    public List<String> signAll(
+            List<RawTransaction> rawTransactions, Function<RawTransaction, String> signer) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawTransactions.size());
+        for (RawTransaction rawTransaction : rawTransactions) {
+            futures.add(sign(rawTransaction, signer));
+        }
+
+        List<String> signed = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            try {
+                signed.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return signed;
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    private boolean isWorkerThread() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof Worker && ((Worker) thread).getPool() == this;
+    }
+
+    private class Worker extends Thread {
+        Worker(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+
+        SigningPool getPool() {
+            return SigningPool.this;
+        }
+    }
+}
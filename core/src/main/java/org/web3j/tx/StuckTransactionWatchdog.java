@@ -0,0 +1,404 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Async;
+import org.web3j.utils.Flowables;
+
+/**
+ * Replaces transactions which stay pending for too long, so that a transaction sent with too low a
+ * fee does not hold back every later nonce of its account.
+ *
+ * <p>Transactions sent or watched by the watchdog have their receipts waited for with the {@link
+ * org.web3j.tx.response.TransactionReceiptProcessor} of the {@link RawTransactionManager}. Once
+ * {@link #start()} has been called, a transaction which has not been mined after a number of new
+ * blocks is signed again at the same nonce, with its fees raised by at least the minimum nodes
+ * require of a replacement, and sent. The receipt of each replacement is waited for as well, and
+ * whichever version of the transaction is mined completes its future. If the manager has a {@link
+ * org.web3j.tx.journal.TransactionJournal}, each replacement is recorded in it.
+ *
+ * <p>A transaction is not replaced more than a maximum number of times, nor with a maximum fee, or
+ * gas price, above an optional cap. Its future fails once the receipts of all of its versions have
+ * failed to arrive and it cannot be replaced again.
+ */
+public class StuckTransactionWatchdog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StuckTransactionWatchdog.class);
+
+    /** The minimum fee increase, as a percentage, with which nodes accept a replacement. */
+    public static final int MIN_FEE_BUMP_PERCENT = 10;
+    // above the minimum, as some nodes require more of a replacement
+    public static final int DEFAULT_FEE_BUMP_PERCENT = 12;
+    public static final int DEFAULT_STUCK_BLOCKS = 3;
+    public static final int DEFAULT_MAX_REPLACEMENTS = 10;
+
+    private final RawTransactionManager transactionManager;
+    private final Web3j web3j;
+    private final int stuckBlocks;
+    private final int feeBumpPercent;
+    private final int maxReplacements;
+    private final BigInteger maxFeeCap;
+
+    private final Set<Watched> watched = ConcurrentHashMap.newKeySet();
+    private volatile Disposable subscription;
+    private volatile boolean closed;
+
+    /**
+     * Create a watchdog.
+     *
+     * @param transactionManager the transaction manager whose account sends the transactions
+     * @param web3j the node to follow new blocks on
+     * @param stuckBlocks the number of new blocks after which a pending transaction is replaced
+     * @param feeBumpPercent the percentage by which the fees of a replacement are raised, at least
+     *     {@link #MIN_FEE_BUMP_PERCENT}
+     * @param maxReplacements the maximum number of times a transaction is replaced
+     * @param maxFeeCap the highest maximum fee per gas, or gas price, of a replacement, or null for
+     *     no cap
+     */
+    public StuckTransactionWatchdog(
+            RawTransactionManager transactionManager,
+            Web3j web3j,
+            int stuckBlocks,
+            int feeBumpPercent,
+            int maxReplacements,
+            BigInteger maxFeeCap) {
+        if (stuckBlocks < 1) {
+            throw new IllegalArgumentException("Stuck blocks must be positive");
+        }
+        if (feeBumpPercent < MIN_FEE_BUMP_PERCENT) {
+            throw new IllegalArgumentException(
+                    "Fee bump must be at least " + MIN_FEE_BUMP_PERCENT + "%");
+        }
+        this.transactionManager = transactionManager;
+        this.web3j = web3j;
+        this.stuckBlocks = stuckBlocks;
+        this.feeBumpPercent = feeBumpPercent;
+        this.maxReplacements = maxReplacements;
+        this.maxFeeCap = maxFeeCap;
+    }
+
+    public StuckTransactionWatchdog(RawTransactionManager transactionManager, Web3j web3j) {
+        this(
+                transactionManager,
+                web3j,
+                DEFAULT_STUCK_BLOCKS,
+                DEFAULT_FEE_BUMP_PERCENT,
+                DEFAULT_MAX_REPLACEMENTS,
+                null);
+    }
+
+    /**
+     * Follow new blocks with {@link Web3j#ethBlockHashFlowable()}.
+     *
+     * @return this watchdog
+     */
+    public StuckTransactionWatchdog start() {
+        return start(web3j.ethBlockHashFlowable());
+    }
+
+    /**
+     * Follow new blocks, replacing the transactions which have been pending for too many of them.
+     *
+     * @param newBlocks emits an item for each new block
+     * @return this watchdog
+     */
+    public StuckTransactionWatchdog start(Flowable<?> newBlocks) {
+        if (closed) {
+            return this;
+        }
+        subscription =
+                Flowables.retryWithDelay(
+                                newBlocks,
+                                throwable ->
+                                        log.error(
+                                                "Error following new blocks, resubscribing",
+                                                throwable))
+                        .subscribe(
+                                block -> onBlock(),
+                                throwable -> log.error("Error following new blocks", throwable));
+        return this;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Send a transaction at the next nonce of the manager's account and watch it.
+     *
+     * @return a future completed with the receipt of whichever version of the transaction is mined
+     */
+    public CompletableFuture<TransactionReceipt> sendTransaction(
+            BigInteger gasPrice, BigInteger gasLimit, String to, String data, BigInteger value) {
+        return send(
+                nonce ->
+                        RawTransaction.createTransaction(
+                                nonce, gasPrice, gasLimit, to, value, data));
+    }
+
+    /**
+     * Send an EIP-1559 transaction at the next nonce of the manager's account and watch it.
+     *
+     * @return a future completed with the receipt of whichever version of the transaction is mined
+     */
+    public CompletableFuture<TransactionReceipt> sendEIP1559Transaction(
+            long chainId,
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value) {
+        return send(
+                nonce ->
+                        RawTransaction.createTransaction(
+                                chainId,
+                                nonce,
+                                gasLimit,
+                                to,
+                                value,
+                                data,
+                                maxPriorityFeePerGas,
+                                maxFeePerGas));
+    }
+
+    /**
+     * Watch a transaction which has been sent from the manager's account by other means, such as a
+     * {@link BulkTransactionSender}.
+     *
+     * @param rawTransaction the transaction, as signed
+     * @param transactionHash the transaction's hash
+     * @return a future completed with the receipt of whichever version of the transaction is mined
+     */
+    public CompletableFuture<TransactionReceipt> watch(
+            RawTransaction rawTransaction, String transactionHash) {
+        Watched transaction = new Watched(rawTransaction);
+        watched.add(transaction);
+        transaction.result.whenComplete((receipt, throwable) -> watched.remove(transaction));
+        transaction.track(transactionHash);
+        return transaction.result;
+    }
+
+    /** @return the number of transactions being watched */
+    public int getWatchedCount() {
+        return watched.size();
+    }
+
+    private CompletableFuture<TransactionReceipt> send(
+            Function<BigInteger, RawTransaction> transaction) {
+        return Async.run(
+                        () -> {
+                            RawTransaction[] sent = new RawTransaction[1];
+                            EthSendTransaction ethSendTransaction =
+                                    transactionManager.sendWithNonce(
+                                            nonce -> sent[0] = transaction.apply(nonce));
+                            if (ethSendTransaction.hasError()) {
+                                throw new RuntimeException(
+                                        "Error processing transaction request: "
+                                                + ethSendTransaction.getError().getMessage());
+                            }
+                            return watch(sent[0], ethSendTransaction.getTransactionHash());
+                        })
+                .thenCompose(Function.identity());
+    }
+
+    private void onBlock() {
+        for (Watched transaction : watched) {
+            transaction.onBlock();
+        }
+    }
+
+    /**
+     * @return the fee raised by a percentage, rounded up and by at least one wei, as nodes compare
+     *     a replacement's fees with the rounded down minimum
+     */
+    static BigInteger bump(BigInteger fee, int percent) {
+        BigInteger bumped =
+                fee.multiply(BigInteger.valueOf(100 + percent))
+                        .add(BigInteger.valueOf(99))
+                        .divide(BigInteger.valueOf(100));
+        return bumped.max(fee.add(BigInteger.ONE));
+    }
+
+    /** @return the transaction with raised fees, or null if they would exceed the cap */
+    private RawTransaction replacementOf(RawTransaction transaction) {
+        if (transaction.getTransaction() instanceof Transaction1559) {
+            Transaction1559 transaction1559 = (Transaction1559) transaction.getTransaction();
+            BigInteger maxFeePerGas = bump(transaction1559.getMaxFeePerGas(), feeBumpPercent);
+            if (maxFeeCap != null && maxFeePerGas.compareTo(maxFeeCap) > 0) {
+                return null;
+            }
+            return RawTransaction.createTransaction(
+                    transaction1559.getChainId(),
+                    transaction1559.getNonce(),
+                    transaction1559.getGasLimit(),
+                    transaction1559.getTo(),
+                    transaction1559.getValue(),
+                    transaction1559.getData(),
+                    bump(transaction1559.getMaxPriorityFeePerGas(), feeBumpPercent),
+                    maxFeePerGas);
+        }
+
+        BigInteger gasPrice = bump(transaction.getGasPrice(), feeBumpPercent);
+        if (maxFeeCap != null && gasPrice.compareTo(maxFeeCap) > 0) {
+            return null;
+        }
+        return RawTransaction.createTransaction(
+                transaction.getNonce(),
+                gasPrice,
+                transaction.getGasLimit(),
+                transaction.getTo(),
+                transaction.getValue(),
+                transaction.getData());
+    }
+
+    /**
+     * A transaction and its replacements, guarded by its own lock. Replacements are sent and their
+     * receipts waited for without holding the lock, so that a slow node does not hold up the block
+     * thread, and the receipt processor's own locks are never taken while holding this one.
+     */
+    private class Watched {
+        private final CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+        private final List<String> transactionHashes = new ArrayList<>();
+        private RawTransaction latest;
+        private int blocksPending;
+        private int replacements;
+        // receipts being waited for
+        private int outstanding;
+        // whether a replacement is being sent
+        private boolean sending;
+        private Throwable lastFailure;
+
+        Watched(RawTransaction rawTransaction) {
+            this.latest = rawTransaction;
+        }
+
+        void track(String transactionHash) {
+            synchronized (this) {
+                transactionHashes.add(transactionHash);
+                outstanding++;
+            }
+            transactionManager
+                    .getTransactionReceiptProcessor()
+                    .waitForTransactionReceiptAsync(transactionHash)
+                    .whenComplete(
+                            (receipt, throwable) -> {
+                                if (throwable == null) {
+                                    result.complete(transactionManager.confirmed(receipt));
+                                } else {
+                                    failed(throwable);
+                                }
+                            });
+        }
+
+        synchronized void failed(Throwable throwable) {
+            outstanding--;
+            lastFailure = throwable;
+            failIfExhausted();
+        }
+
+        void onBlock() {
+            RawTransaction replacement;
+            List<String> replaced;
+            synchronized (this) {
+                if (result.isDone() || sending || ++blocksPending < stuckBlocks) {
+                    return;
+                }
+                if (replacements >= maxReplacements) {
+                    return;
+                }
+
+                replacement = replacementOf(latest);
+                if (replacement == null) {
+                    if (outstanding == 0) {
+                        result.completeExceptionally(lastFailure);
+                    }
+                    return;
+                }
+                replacements++;
+                latest = replacement;
+                sending = true;
+                replaced = new ArrayList<>(transactionHashes);
+            }
+            Async.run(
+                    () -> {
+                        replace(replacement, replaced);
+                        return null;
+                    });
+        }
+
+        private void replace(RawTransaction replacement, List<String> replaced) {
+            String transactionHash = null;
+            try {
+                EthSendTransaction ethSendTransaction = transactionManager.signAndSend(replacement);
+                if (ethSendTransaction.hasError()) {
+                    // an underpriced replacement is raised again at the next block
+                    log.warn(
+                            "Error replacing transaction {} at nonce {}: {}",
+                            replaced,
+                            replacement.getNonce(),
+                            ethSendTransaction.getError().getMessage());
+                } else {
+                    log.info(
+                            "Replaced transaction {} at nonce {} with {}",
+                            replaced,
+                            replacement.getNonce(),
+                            ethSendTransaction.getTransactionHash());
+                    transactionHash = ethSendTransaction.getTransactionHash();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Error replacing transaction {}", replaced, e);
+            }
+
+            if (transactionHash != null) {
+                track(transactionHash);
+            }
+            synchronized (this) {
+                sending = false;
+                if (transactionHash != null) {
+                    blocksPending = 0;
+                }
+                failIfExhausted();
+            }
+        }
+
+        private void failIfExhausted() {
+            if (outstanding == 0 && !sending && replacements >= maxReplacements) {
+                result.completeExceptionally(lastFailure);
+            }
+        }
+    }
+}
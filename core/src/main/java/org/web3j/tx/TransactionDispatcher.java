@@ -0,0 +1,406 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.nonce.NonceAllocator;
+import org.web3j.tx.response.AsyncTransactionReceiptProcessor;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+import org.web3j.utils.Async;
+
+/**
+ * Spreads transactions over a pool of accounts, each with its own {@link FastRawTransactionManager}
+ * and nonce sequence, so that a stuck transaction or a per-account mempool limit only holds back
+ * one account.
+ *
+ * <p>Each transaction is sent from the account with the fewest unconfirmed transactions. Related
+ * transactions can be given the same affinity key, which keeps them on one account while any of
+ * them is unconfirmed. Once they are all confirmed the key may move to another account.
+ * Transactions sent with {@link #sendTransaction} or {@link #sendEIP1559Transaction} with the same
+ * key are also sent one after another, so their nonces follow the order they were submitted in.
+ *
+ * <p>Receipts are waited for with {@link
+ * TransactionReceiptProcessor#waitForTransactionReceiptAsync(String)}, and the backlog and
+ * confirmation latency of each account are available from {@link #getMetrics()}.
+ */
+public class TransactionDispatcher {
+
+    private final List<Account> accounts;
+    private final long chainId;
+    private final Map<Object, Affinity> affinities = new ConcurrentHashMap<>();
+    private final AtomicInteger nextAccount = new AtomicInteger();
+
+    public TransactionDispatcher(
+            Web3j web3j,
+            List<Credentials> credentials,
+            long chainId,
+            TransactionReceiptProcessor transactionReceiptProcessor) {
+        if (credentials.isEmpty()) {
+            throw new IllegalArgumentException("At least one account is required");
+        }
+        this.chainId = chainId;
+
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        List<Account> accounts = new ArrayList<>(credentials.size());
+        for (Credentials account : credentials) {
+            FastRawTransactionManager transactionManager =
+                    new FastRawTransactionManager(
+                            web3j, account, chainId, transactionReceiptProcessor);
+            transactionManager.setNonceAllocator(nonceAllocator);
+            accounts.add(new Account(transactionManager));
+        }
+        this.accounts = Collections.unmodifiableList(accounts);
+    }
+
+    public TransactionDispatcher(Web3j web3j, List<Credentials> credentials, long chainId) {
+        this(
+                web3j,
+                credentials,
+                chainId,
+                new AsyncTransactionReceiptProcessor(
+                        web3j,
+                        TransactionManager.DEFAULT_POLLING_FREQUENCY,
+                        TransactionManager.DEFAULT_POLLING_ATTEMPTS_PER_TX_HASH));
+    }
+
+    /**
+     * Send a transaction from the least loaded account.
+     *
+     * @param affinityKey transactions with equal keys are sent from the same account while any of
+     *     them is unconfirmed, or null to send from any account
+     * @return a future completed with the transaction receipt
+     */
+    public CompletableFuture<TransactionReceipt> sendTransaction(
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value,
+            Object affinityKey) {
+        return submit(
+                affinityKey,
+                transactionManager ->
+                        sendInOrder(
+                                        affinityKey,
+                                        () ->
+                                                transactionManager.sendTransaction(
+                                                        gasPrice, gasLimit, to, data, value, false))
+                                .thenCompose(transactionManager::processResponseAsync));
+    }
+
+    /**
+     * Send an EIP-1559 transaction from the least loaded account.
+     *
+     * @param affinityKey transactions with equal keys are sent from the same account while any of
+     *     them is unconfirmed, or null to send from any account
+     * @return a future completed with the transaction receipt
+     */
+    public CompletableFuture<TransactionReceipt> sendEIP1559Transaction(
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value,
+            Object affinityKey) {
+        return submit(
+                affinityKey,
+                transactionManager ->
+                        sendInOrder(
+                                        affinityKey,
+                                        () ->
+                                                transactionManager.sendEIP1559Transaction(
+                                                        chainId,
+                                                        maxPriorityFeePerGas,
+                                                        maxFeePerGas,
+                                                        gasLimit,
+                                                        to,
+                                                        data,
+                                                        value,
+                                                        false))
+                                .thenCompose(transactionManager::processResponseAsync));
+    }
+
+    /**
+     * Run a task which sends a transaction with the transaction manager of the least loaded
+     * account, for example a contract function call loaded with that manager.
+     *
+     * <p>Tasks are run as soon as they are submitted, so tasks with the same affinity key which
+     * send asynchronously may send out of order.
+     *
+     * @param affinityKey tasks with equal keys are run with the same account while any of them is
+     *     unconfirmed, or null to use any account
+     * @param task sends the transaction and returns a future of its receipt
+     * @return the future returned by the task
+     */
+    public CompletableFuture<TransactionReceipt> submit(
+            Object affinityKey,
+            Function<RawTransactionManager, CompletableFuture<TransactionReceipt>> task) {
+        Account account = affinityKey == null ? leastLoaded() : acquire(affinityKey);
+        if (affinityKey == null) {
+            account.backlog.incrementAndGet();
+        }
+        account.submitted.increment();
+        long started = System.nanoTime();
+
+        CompletableFuture<TransactionReceipt> result;
+        try {
+            result = task.apply(account.transactionManager);
+        } catch (RuntimeException e) {
+            result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+        }
+        return result.whenComplete(
+                (receipt, throwable) -> {
+                    if (throwable == null) {
+                        account.confirmed(System.nanoTime() - started);
+                    } else {
+                        account.failed.increment();
+                    }
+                    if (affinityKey == null) {
+                        account.backlog.decrementAndGet();
+                    } else {
+                        release(affinityKey);
+                    }
+                });
+    }
+
+    /** @return the transaction managers of the accounts, in the order they were given */
+    public List<RawTransactionManager> getTransactionManagers() {
+        List<RawTransactionManager> transactionManagers = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            transactionManagers.add(account.transactionManager);
+        }
+        return transactionManagers;
+    }
+
+    /** @return a snapshot of the metrics of each account, in the order they were given */
+    public List<AccountMetrics> getMetrics() {
+        List<AccountMetrics> metrics = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            metrics.add(account.metrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Send a transaction once the previous transaction with the same affinity key has been sent, so
+     * that nonces are reserved in the order transactions were submitted.
+     */
+    private CompletableFuture<EthSendTransaction> sendInOrder(
+            Object affinityKey, Callable<EthSendTransaction> send) {
+        if (affinityKey == null) {
+            return Async.run(send);
+        }
+
+        // the affinity is kept while this transaction is in flight
+        CompletableFuture<EthSendTransaction> sent = new CompletableFuture<>();
+        affinities
+                .get(affinityKey)
+                .lastSend
+                .getAndSet(sent)
+                .whenComplete(
+                        (ignored, previousThrowable) ->
+                                Async.run(send)
+                                        .whenComplete(
+                                                (ethSendTransaction, throwable) -> {
+                                                    if (throwable == null) {
+                                                        sent.complete(ethSendTransaction);
+                                                    } else {
+                                                        sent.completeExceptionally(throwable);
+                                                    }
+                                                }));
+        return sent;
+    }
+
+    private Account leastLoaded() {
+        // start from a different account each time, so ties are spread round robin
+        int start = Math.floorMod(nextAccount.getAndIncrement(), accounts.size());
+        Account leastLoaded = null;
+        int leastBacklog = Integer.MAX_VALUE;
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get((start + i) % accounts.size());
+            int backlog = account.backlog.get();
+            if (backlog < leastBacklog) {
+                leastLoaded = account;
+                leastBacklog = backlog;
+            }
+        }
+        return leastLoaded;
+    }
+
+    private Account acquire(Object affinityKey) {
+        return affinities.compute(
+                        affinityKey,
+                        (key, affinity) -> {
+                            if (affinity == null) {
+                                affinity = new Affinity(leastLoaded());
+                            }
+                            affinity.inFlight++;
+                            affinity.account.backlog.incrementAndGet();
+                            return affinity;
+                        })
+                .account;
+    }
+
+    private void release(Object affinityKey) {
+        affinities.computeIfPresent(
+                affinityKey,
+                (key, affinity) -> {
+                    affinity.account.backlog.decrementAndGet();
+                    return --affinity.inFlight == 0 ? null : affinity;
+                });
+    }
+
+    private static class Affinity {
+        private final Account account;
+        // the send of the latest transaction submitted with the key
+        private final AtomicReference<CompletableFuture<?>> lastSend =
+                new AtomicReference<>(CompletableFuture.completedFuture(null));
+        // only updated within the affinity map's compute functions
+        private int inFlight;
+
+        Affinity(Account account) {
+            this.account = account;
+        }
+    }
+
+    private static class Account {
+        private final FastRawTransactionManager transactionManager;
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder confirmed = new LongAdder();
+        private final LongAdder totalLatency = new LongAdder();
+        private final AtomicLong lastLatency = new AtomicLong();
+
+        Account(FastRawTransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        void confirmed(long latencyNanos) {
+            confirmed.increment();
+            totalLatency.add(latencyNanos);
+            lastLatency.set(latencyNanos);
+        }
+
+        AccountMetrics metrics() {
+            long confirmedCount = confirmed.sum();
+            return new AccountMetrics(
+                    transactionManager.getFromAddress(),
+                    backlog.get(),
+                    submitted.sum(),
+                    confirmedCount,
+                    failed.sum(),
+                    confirmedCount == 0 ? 0 : totalLatency.sum() / confirmedCount / 1_000_000,
+                    lastLatency.get() / 1_000_000);
+        }
+    }
+
+    /** Snapshot of the load and performance of an account. */
+    public static class AccountMetrics {
+        private final String address;
+        private final int backlog;
+        private final long submitted;
+        private final long confirmed;
+        private final long failed;
+        private final long averageConfirmationLatency;
+        private final long lastConfirmationLatency;
+
+        public AccountMetrics(
+                String address,
+                int backlog,
+                long submitted,
+                long confirmed,
+                long failed,
+                long averageConfirmationLatency,
+                long lastConfirmationLatency) {
+            this.address = address;
+            this.backlog = backlog;
+            this.submitted = submitted;
+            this.confirmed = confirmed;
+            this.failed = failed;
+            this.averageConfirmationLatency = averageConfirmationLatency;
+            this.lastConfirmationLatency = lastConfirmationLatency;
+        }
+
+        public String getAddress() {
+            return address;
+        }
+
+        /** @return the number of transactions submitted and not yet confirmed or failed */
+        public int getBacklog() {
+            return backlog;
+        }
+
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        public long getConfirmed() {
+            return confirmed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /** @return the average time from submission to receipt, in milliseconds */
+        public long getAverageConfirmationLatency() {
+            return averageConfirmationLatency;
+        }
+
+        /** @return the time from submission to receipt of the last transaction, in milliseconds */
+        public long getLastConfirmationLatency() {
+            return lastConfirmationLatency;
+        }
+
+        @Override
+        public String toString() {
+            return "AccountMetrics{"
+                    + "address='"
+                    + address
+                    + '\''
+                    + ", backlog="
+                    + backlog
+                    + ", submitted="
+                    + submitted
+                    + ", confirmed="
+                    + confirmed
+                    + ", failed="
+                    + failed
+                    + ", averageConfirmationLatency="
+                    + averageConfirmationLatency
+                    + ", lastConfirmationLatency="
+                    + lastConfirmationLatency
+                    + '}';
+        }
+    }
+}
@@ -14,6 +14,7 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
 
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
@@ -25,6 +26,7 @@ import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.tx.exceptions.ContractCallException;
 import org.web3j.tx.response.PollingTransactionReceiptProcessor;
 import org.web3j.tx.response.TransactionReceiptProcessor;
+import org.web3j.utils.Async;
 
 import static org.web3j.protocol.core.JsonRpc2_0Web3j.DEFAULT_BLOCK_TIME;
 
@@ -118,6 +120,49 @@ public abstract class TransactionManager {
                         constructor);
         return processResponse(ethSendTransaction);
     }
+    /**
+     * Send a transaction and wait for its receipt without blocking the calling thread. Only the
+     * sending holds a thread, the receipt is waited for with {@link
+     * TransactionReceiptProcessor#waitForTransactionReceiptAsync(String)}.
+     *
+     * @return a future completed with the transaction receipt
+     */
+    protected CompletableFuture<TransactionReceipt> executeTransactionAsync(
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value,
+            boolean constructor) {
+
+        return Async.run(() -> sendTransaction(gasPrice, gasLimit, to, data, value, constructor))
+                .thenCompose(this::processResponseAsync);
+    }
+
+    protected CompletableFuture<TransactionReceipt> executeTransactionEIP1559Async(
+            long chainId,
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value,
+            boolean constructor) {
+
+        return Async.run(
+                        () ->
+                                sendEIP1559Transaction(
+                                        chainId,
+                                        maxPriorityFeePerGas,
+                                        maxFeePerGas,
+                                        gasLimit,
+                                        to,
+                                        data,
+                                        value,
+                                        constructor))
+                .thenCompose(this::processResponseAsync);
+    }
+
     //发起交易
     public EthSendTransaction sendTransaction(
             BigInteger gasPrice, BigInteger gasLimit, String to, String data, BigInteger value)
@@ -168,6 +213,10 @@ public abstract class TransactionManager {
         return fromAddress;
     }
 
+    protected TransactionReceiptProcessor getTransactionReceiptProcessor() {
+        return transactionReceiptProcessor;
+    }
+
     //进程响应返回
     protected TransactionReceipt processResponse(EthSendTransaction transactionResponse)
             throws IOException, TransactionException {
@@ -181,6 +230,21 @@ public abstract class TransactionManager {
 
         return transactionReceiptProcessor.waitForTransactionReceipt(transactionHash);
     }
+    protected CompletableFuture<TransactionReceipt> processResponseAsync(
+            EthSendTransaction transactionResponse) {
+        if (transactionResponse.hasError()) {
+            CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+            result.completeExceptionally(
+                    new RuntimeException(
+                            "Error processing transaction request: "
+                                    + transactionResponse.getError().getMessage()));
+            return result;
+        }
+
+        return transactionReceiptProcessor.waitForTransactionReceiptAsync(
+                transactionResponse.getTransactionHash());
+    }
+
     //调用异常校验
     static void assertCallNotReverted(EthCall ethCall) {
         if (ethCall.isReverted()) {
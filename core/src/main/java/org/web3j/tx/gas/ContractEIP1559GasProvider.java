@@ -0,0 +1,29 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.math.BigInteger;
+
+/**
+ * Gas provider which also supplies EIP-1559 fees. Contracts send EIP-1559 transactions when their
+ * gas provider implements this interface and {@link #isEIP1559Enabled()} returns true.
+ */
+public interface ContractEIP1559GasProvider extends ContractGasProvider {
+    boolean isEIP1559Enabled();
+
+    long getChainId();
+
+    BigInteger getMaxFeePerGas(String contractFunc);
+
+    BigInteger getMaxPriorityFeePerGas(String contractFunc);
+}
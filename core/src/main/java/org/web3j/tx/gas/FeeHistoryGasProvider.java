@@ -0,0 +1,342 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.EthMaxPriorityFeePerGas;
+import org.web3j.utils.Flowables;
+
+/**
+ * Gas provider which derives EIP-1559 fees from recent blocks with eth_feeHistory and
+ * eth_maxPriorityFeePerGas.
+ *
+ * <p>Both are requested in a single batch, once when fees are first needed and then, once {@link
+ * #start()} has been called, each time a new block arrives. The fees are kept in an immutable
+ * snapshot, so reading them never blocks or sends a request.
+ *
+ * <p>The priority fee is the median, over the blocks requested, of the priority fee paid at the
+ * given reward percentile, ignoring blocks without transactions. If none of the blocks had
+ * transactions, the node's suggestion is used. The maximum fee allows the base fee of the next
+ * block to grow by the base fee multiplier before the transaction is priced out.
+ */
+public class FeeHistoryGasProvider implements ContractEIP1559GasProvider, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FeeHistoryGasProvider.class);
+
+    public static final int DEFAULT_BLOCK_COUNT = 20;
+    public static final double DEFAULT_REWARD_PERCENTILE = 50;
+    public static final int DEFAULT_BASE_FEE_MULTIPLIER = 2;
+
+    private final Web3j web3j;
+    private final long chainId;
+    private final BigInteger gasLimit;
+    private final int blockCount;
+    private final double rewardPercentile;
+    private final int baseFeeMultiplier;
+
+    private volatile Fees fees;
+    private volatile Disposable subscription;
+    private volatile boolean closed;
+
+    public FeeHistoryGasProvider(
+            Web3j web3j,
+            long chainId,
+            BigInteger gasLimit,
+            int blockCount,
+            double rewardPercentile,
+            int baseFeeMultiplier) {
+        this.web3j = web3j;
+        this.chainId = chainId;
+        this.gasLimit = gasLimit;
+        this.blockCount = blockCount;
+        this.rewardPercentile = rewardPercentile;
+        this.baseFeeMultiplier = baseFeeMultiplier;
+    }
+
+    public FeeHistoryGasProvider(Web3j web3j, long chainId, BigInteger gasLimit) {
+        this(
+                web3j,
+                chainId,
+                gasLimit,
+                DEFAULT_BLOCK_COUNT,
+                DEFAULT_REWARD_PERCENTILE,
+                DEFAULT_BASE_FEE_MULTIPLIER);
+    }
+
+    /**
+     * Refresh the fees each time {@link Web3j#ethBlockHashFlowable()} reports a new block.
+     *
+     * @return this provider
+     */
+    public FeeHistoryGasProvider start() {
+        return start(web3j.ethBlockHashFlowable());
+    }
+
+    /**
+     * Refresh the fees each time a new block arrives.
+     *
+     * @param newBlocks emits an item for each new block
+     * @return this provider
+     */
+    public FeeHistoryGasProvider start(Flowable<?> newBlocks) {
+        if (closed) {
+            return this;
+        }
+        subscription =
+                Flowables.retryWithDelay(
+                                newBlocks,
+                                throwable ->
+                                        log.error(
+                                                "Error following new blocks, resubscribing",
+                                                throwable))
+                        .subscribe(
+                                block -> {
+                                    try {
+                                        refresh();
+                                    } catch (IOException e) {
+                                        log.warn("Error refreshing fees, keeping previous fees", e);
+                                    }
+                                },
+                                throwable -> log.error("Error following new blocks", throwable));
+        return this;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Request the fee history of the latest blocks and recompute the fees.
+     *
+     * @return the new fees
+     * @throws IOException if the fee history could not be requested
+     */
+    public Fees refresh() throws IOException {
+        Request<?, EthFeeHistory> feeHistoryRequest =
+                web3j.ethFeeHistory(
+                        blockCount,
+                        DefaultBlockParameterName.LATEST,
+                        Collections.singletonList(rewardPercentile));
+        Request<?, EthMaxPriorityFeePerGas> maxPriorityFeeRequest = web3j.ethMaxPriorityFeePerGas();
+        BatchResponse batchResponse =
+                web3j.newBatch().add(feeHistoryRequest).add(maxPriorityFeeRequest).send();
+
+        EthFeeHistory ethFeeHistory = null;
+        EthMaxPriorityFeePerGas ethMaxPriorityFeePerGas = null;
+        for (Response<?> response : batchResponse.getResponses()) {
+            if (response instanceof EthFeeHistory) {
+                ethFeeHistory = (EthFeeHistory) response;
+            } else if (response instanceof EthMaxPriorityFeePerGas) {
+                ethMaxPriorityFeePerGas = (EthMaxPriorityFeePerGas) response;
+            }
+        }
+        if (ethFeeHistory == null || ethFeeHistory.hasError()) {
+            throw new IOException(
+                    "Error requesting fee history: "
+                            + (ethFeeHistory == null
+                                    ? "no response"
+                                    : ethFeeHistory.getError().getMessage()));
+        }
+
+        // the node's suggestion is optional, not every node supports it
+        BigInteger suggestedPriorityFee =
+                ethMaxPriorityFeePerGas == null
+                                || ethMaxPriorityFeePerGas.hasError()
+                                || ethMaxPriorityFeePerGas.getResult() == null
+                        ? null
+                        : ethMaxPriorityFeePerGas.getMaxPriorityFeePerGas();
+
+        Fees newFees = computeFees(ethFeeHistory.getFeeHistory(), suggestedPriorityFee);
+        fees = newFees;
+        return newFees;
+    }
+
+    Fees computeFees(EthFeeHistory.FeeHistory feeHistory, BigInteger suggestedPriorityFee)
+            throws IOException {
+        List<BigInteger> baseFees = feeHistory.getBaseFeePerGas();
+        if (baseFees.isEmpty()) {
+            throw new IOException("Fee history contains no base fees");
+        }
+        BigInteger baseFee = baseFees.get(baseFees.size() - 1);
+
+        // blocks without transactions report a reward of zero, so they are told apart from blocks
+        // of transactions paying no priority fee by their gas used
+        List<Double> gasUsedRatios = feeHistory.getGasUsedRatio();
+        List<List<BigInteger>> blocksRewards = feeHistory.getReward();
+        List<BigInteger> rewards = new ArrayList<>();
+        for (int i = 0; i < blocksRewards.size(); i++) {
+            List<BigInteger> blockRewards = blocksRewards.get(i);
+            boolean empty =
+                    gasUsedRatios != null
+                            && i < gasUsedRatios.size()
+                            && gasUsedRatios.get(i) != null
+                            && gasUsedRatios.get(i) == 0;
+            if (!blockRewards.isEmpty() && !empty) {
+                rewards.add(blockRewards.get(0));
+            }
+        }
+        BigInteger priorityFee;
+        if (!rewards.isEmpty()) {
+            Collections.sort(rewards);
+            priorityFee = rewards.get(rewards.size() / 2);
+        } else if (suggestedPriorityFee != null) {
+            priorityFee = suggestedPriorityFee;
+        } else {
+            priorityFee = BigInteger.ZERO;
+        }
+
+        long blockNumber = feeHistory.getOldestBlock().longValueExact() + baseFees.size() - 2;
+        return new Fees(
+                blockNumber,
+                baseFee,
+                priorityFee,
+                baseFee.multiply(BigInteger.valueOf(baseFeeMultiplier)).add(priorityFee));
+    }
+
+    /**
+     * @return the current fees, requesting them if they have not been requested yet
+     * @throws UncheckedIOException if the fees could not be requested
+     */
+    public Fees getFees() {
+        Fees current = fees;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (fees == null) {
+                try {
+                    refresh();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return fees;
+        }
+    }
+
+    @Override
+    public boolean isEIP1559Enabled() {
+        return true;
+    }
+
+    @Override
+    public long getChainId() {
+        return chainId;
+    }
+
+    @Override
+    public BigInteger getMaxFeePerGas(String contractFunc) {
+        return getFees().getMaxFeePerGas();
+    }
+
+    @Override
+    public BigInteger getMaxPriorityFeePerGas(String contractFunc) {
+        return getFees().getMaxPriorityFeePerGas();
+    }
+
+    /** @return the gas price for legacy transactions, the next base fee plus the priority fee */
+    @Override
+    public BigInteger getGasPrice(String contractFunc) {
+        Fees current = getFees();
+        return current.getBaseFeePerGas().add(current.getMaxPriorityFeePerGas());
+    }
+
+    @Override
+    @Deprecated
+    public BigInteger getGasPrice() {
+        return getGasPrice(null);
+    }
+
+    @Override
+    public BigInteger getGasLimit(String contractFunc) {
+        return gasLimit;
+    }
+
+    @Override
+    @Deprecated
+    public BigInteger getGasLimit() {
+        return gasLimit;
+    }
+
+    /** Fees computed from the fee history up to a block. */
+    public static class Fees {
+        private final long blockNumber;
+        private final BigInteger baseFeePerGas;
+        private final BigInteger maxPriorityFeePerGas;
+        private final BigInteger maxFeePerGas;
+
+        public Fees(
+                long blockNumber,
+                BigInteger baseFeePerGas,
+                BigInteger maxPriorityFeePerGas,
+                BigInteger maxFeePerGas) {
+            this.blockNumber = blockNumber;
+            this.baseFeePerGas = baseFeePerGas;
+            this.maxPriorityFeePerGas = maxPriorityFeePerGas;
+            this.maxFeePerGas = maxFeePerGas;
+        }
+
+        /** @return the newest block the fees were computed from */
+        public long getBlockNumber() {
+            return blockNumber;
+        }
+
+        /** @return the base fee of the block after the newest block */
+        public BigInteger getBaseFeePerGas() {
+            return baseFeePerGas;
+        }
+
+        public BigInteger getMaxPriorityFeePerGas() {
+            return maxPriorityFeePerGas;
+        }
+
+        public BigInteger getMaxFeePerGas() {
+            return maxFeePerGas;
+        }
+
+        @Override
+        public String toString() {
+            return "Fees{"
+                    + "blockNumber="
+                    + blockNumber
+                    + ", baseFeePerGas="
+                    + baseFeePerGas
+                    + ", maxPriorityFeePerGas="
+                    + maxPriorityFeePerGas
+                    + ", maxFeePerGas="
+                    + maxFeePerGas
+                    + '}';
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.journal;
+
+/** A signed transaction recorded in a {@link TransactionJournal}. */
+public class JournalEntry {
+
+    private final String address;
+    private final long nonce;
+    private final String transactionHash;
+    private final String signedTransaction;
+
+    public JournalEntry(
+            String address, long nonce, String transactionHash, String signedTransaction) {
+        this.address = address;
+        this.nonce = nonce;
+        this.transactionHash = transactionHash;
+        this.signedTransaction = signedTransaction;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public long getNonce() {
+        return nonce;
+    }
+
+    public String getTransactionHash() {
+        return transactionHash;
+    }
+
+    /** @return the signed and encoded transaction, as sent with eth_sendRawTransaction */
+    public String getSignedTransaction() {
+        return signedTransaction;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEntry{"
+                + "address='"
+                + address
+                + '\''
+                + ", nonce="
+                + nonce
+                + ", transactionHash='"
+                + transactionHash
+                + '\''
+                + '}';
+    }
+}
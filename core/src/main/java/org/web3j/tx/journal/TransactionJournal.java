@@ -0,0 +1,404 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-ahead journal of the transactions sent from one or more accounts, so that a sender can
+ * recover its nonces and in flight transactions after a crash without scanning the chain.
+ *
+ * <p>Each signed transaction is recorded before it is sent, and is pending until it is recorded as
+ * confirmed or dropped. Confirming a transaction also ends any other pending transaction of the
+ * account with the same nonce, so every replacement of a transaction can be recorded and whichever
+ * is mined completes them all.
+ *
+ * <p>Records are appended to segment files in the journal's directory, one line per record with a
+ * CRC32 checksum, so a record torn by a crash is detected and ignored. Signed transactions are
+ * forced to disk before {@link #recordSigned(String, long, String, String)} returns, and concurrent
+ * appends share a single fsync. Confirmations and drops are not forced, as losing one only leaves a
+ * transaction to be checked again on recovery. When a segment is full, a new one is started with
+ * the pending transactions and the older segments are deleted. Opening a journal replays its
+ * segments in the same way.
+ */
+public class TransactionJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionJournal.class);
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final char SIGNED = 'S';
+    private static final char CONFIRMED = 'C';
+    private static final char DROPPED = 'D';
+    private static final char NEXT_NONCE = 'N';
+
+    private final Path directory;
+    private final long segmentSize;
+
+    // guarded by this
+    private final Map<String, JournalEntry> pending = new LinkedHashMap<>();
+    private final Map<String, Set<String>> pendingByNonce = new HashMap<>();
+    private final Map<String, Long> nextNonces = new HashMap<>();
+    private FileChannel segment;
+    private long segmentNumber;
+    private long written;
+
+    // held while forcing the segment, and taken before this when both are needed
+    private final Object syncLock = new Object();
+    private volatile long synced;
+
+    public TransactionJournal(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments();
+        for (Path path : segments) {
+            replay(path);
+        }
+        if (!segments.isEmpty()) {
+            segmentNumber = segmentNumber(segments.get(segments.size() - 1));
+        }
+        synchronized (this) {
+            startSegment(segments);
+        }
+    }
+
+    public TransactionJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Record a signed transaction, before it is sent. The record is on disk when this returns.
+     *
+     * @param address the sending account
+     * @param nonce the transaction's nonce
+     * @param transactionHash the transaction's hash
+     * @param signedTransaction the signed and encoded transaction
+     * @throws IOException if the record could not be written
+     */
+    public void recordSigned(
+            String address, long nonce, String transactionHash, String signedTransaction)
+            throws IOException {
+        append(
+                SIGNED
+                        + " "
+                        + normalise(address)
+                        + " "
+                        + nonce
+                        + " "
+                        + normalise(transactionHash)
+                        + " "
+                        + signedTransaction,
+                true);
+    }
+
+    /**
+     * Record that a transaction has been mined, which also ends any other pending transaction of
+     * the account with the same nonce.
+     *
+     * @param transactionHash the transaction's hash
+     * @throws IOException if the record could not be written
+     */
+    public void recordConfirmed(String transactionHash) throws IOException {
+        append(CONFIRMED + " " + normalise(transactionHash), false);
+    }
+
+    /**
+     * Record that a transaction will not be mined, as it was rejected by the node or its nonce was
+     * used by another transaction.
+     *
+     * @param transactionHash the transaction's hash
+     * @throws IOException if the record could not be written
+     */
+    public void recordDropped(String transactionHash) throws IOException {
+        append(DROPPED + " " + normalise(transactionHash), false);
+    }
+
+    /** @return the pending transactions, in the order they were recorded */
+    public synchronized List<JournalEntry> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * @param address the account address
+     * @return the account's pending transactions, in nonce order
+     */
+    public synchronized List<JournalEntry> getPending(String address) {
+        String account = normalise(address);
+        return pending.values().stream()
+                .filter(entry -> entry.getAddress().equals(account))
+                .sorted(Comparator.comparingLong(JournalEntry::getNonce))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param address the account address
+     * @return one more than the highest nonce recorded for the account, or -1 if it has none
+     */
+    public synchronized long getNextNonce(String address) {
+        return nextNonces.getOrDefault(normalise(address), -1L);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (segment != null) {
+                    segment.force(false);
+                    segment.close();
+                    segment = null;
+                }
+            }
+        }
+    }
+
+    private void append(String record, boolean durable) throws IOException {
+        long sequence;
+        boolean full;
+        synchronized (this) {
+            if (segment == null) {
+                throw new IOException("Journal is closed");
+            }
+            write(record);
+            apply(record);
+            sequence = written;
+            full = segment.position() >= segmentSize;
+        }
+
+        if (full) {
+            synchronized (syncLock) {
+                synchronized (this) {
+                    if (segment != null && segment.position() >= segmentSize) {
+                        startSegment(listSegments());
+                    }
+                }
+            }
+        }
+        if (durable) {
+            sync(sequence);
+        }
+    }
+
+    /** Force the segment up to a record, along with any records appended since. */
+    private void sync(long sequence) throws IOException {
+        if (synced >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+            FileChannel channel;
+            long target;
+            synchronized (this) {
+                if (segment == null) {
+                    throw new IOException("Journal is closed");
+                }
+                channel = segment;
+                target = written;
+            }
+            channel.force(false);
+            synced = target;
+        }
+    }
+
+    /** Start a segment holding the current state, then delete the segments it replaces. */
+    private void startSegment(List<Path> replaced) throws IOException {
+        if (segment != null) {
+            segment.close();
+        }
+        segmentNumber++;
+        segment =
+                FileChannel.open(
+                        directory.resolve(segmentName(segmentNumber)),
+                        StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+        for (Map.Entry<String, Long> nextNonce : nextNonces.entrySet()) {
+            write(NEXT_NONCE + " " + nextNonce.getKey() + " " + nextNonce.getValue());
+        }
+        for (JournalEntry entry : pending.values()) {
+            write(
+                    SIGNED
+                            + " "
+                            + entry.getAddress()
+                            + " "
+                            + entry.getNonce()
+                            + " "
+                            + entry.getTransactionHash()
+                            + " "
+                            + entry.getSignedTransaction());
+        }
+        segment.force(true);
+        synced = written;
+
+        for (Path path : replaced) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private void write(String record) throws IOException {
+        byte[] payload = record.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer =
+                ByteBuffer.wrap(
+                        String.format("%08x %s\n", crc.getValue(), record)
+                                .getBytes(StandardCharsets.US_ASCII));
+        long position = segment.position();
+        try {
+            while (buffer.hasRemaining()) {
+                segment.write(buffer);
+            }
+        } catch (IOException e) {
+            // a torn record would hide the records after it on replay
+            try {
+                segment.truncate(position);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        written++;
+    }
+
+    private void replay(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, start, i - start, StandardCharsets.US_ASCII);
+            String record = checked(line);
+            if (record == null) {
+                log.warn("Ignoring invalid journal record and the records after it in {}", path);
+                return;
+            }
+            apply(record);
+            start = i + 1;
+        }
+        if (start < bytes.length) {
+            log.warn("Ignoring incomplete journal record in {}", path);
+        }
+    }
+
+    /** @return the record of a line, or null if its checksum does not match */
+    private static String checked(String line) {
+        if (line.length() < 10 || line.charAt(8) != ' ') {
+            return null;
+        }
+        String record = line.substring(9);
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.US_ASCII));
+        try {
+            return Long.parseLong(line.substring(0, 8), 16) == crc.getValue() ? record : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void apply(String record) throws IOException {
+        String[] fields = record.split(" ");
+        switch (fields[0].charAt(0)) {
+            case SIGNED:
+                JournalEntry entry =
+                        new JournalEntry(
+                                fields[1], Long.parseLong(fields[2]), fields[3], fields[4]);
+                pending.put(entry.getTransactionHash(), entry);
+                pendingByNonce
+                        .computeIfAbsent(nonceKey(entry), key -> new HashSet<>())
+                        .add(entry.getTransactionHash());
+                nextNonces.merge(entry.getAddress(), entry.getNonce() + 1, Math::max);
+                break;
+            case CONFIRMED:
+                JournalEntry confirmed = pending.get(fields[1]);
+                if (confirmed != null) {
+                    for (String transactionHash : pendingByNonce.remove(nonceKey(confirmed))) {
+                        pending.remove(transactionHash);
+                    }
+                }
+                break;
+            case DROPPED:
+                JournalEntry dropped = pending.remove(fields[1]);
+                if (dropped != null) {
+                    Set<String> sameNonce = pendingByNonce.get(nonceKey(dropped));
+                    sameNonce.remove(dropped.getTransactionHash());
+                    if (sameNonce.isEmpty()) {
+                        pendingByNonce.remove(nonceKey(dropped));
+                    }
+                }
+                break;
+            case NEXT_NONCE:
+                nextNonces.merge(fields[1], Long.parseLong(fields[2]), Math::max);
+                break;
+            default:
+                throw new IOException("Unknown journal record: " + record);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(
+                            path -> {
+                                String name = path.getFileName().toString();
+                                return name.startsWith(SEGMENT_PREFIX)
+                                        && name.endsWith(SEGMENT_SUFFIX);
+                            })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static String segmentName(long number) {
+        return String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(
+                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static String nonceKey(JournalEntry entry) {
+        return entry.getAddress() + ":" + entry.getNonce();
+    }
+
+    private static String normalise(String value) {
+        return value.toLowerCase();
+    }
+}
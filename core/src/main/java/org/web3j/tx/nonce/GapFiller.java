@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.nonce;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.Transfer;
+
+/** Sends a transaction at a nonce which {@link NonceAllocator} found to be missing. */
+public interface GapFiller {
+
+    /**
+     * Send a transaction at the given nonce.
+     *
+     * @param address the account whose nonce is missing
+     * @param nonce the missing nonce
+     * @throws IOException if the transaction could not be sent
+     */
+    void fill(String address, BigInteger nonce) throws IOException;
+
+    /**
+     * Create a filler which sends a zero value transfer from the account to itself.
+     *
+     * @param transactionManager transaction manager holding the account's credentials
+     * @param gasPrice the gas price of the filler transactions
+     * @return the filler
+     */
+    static GapFiller selfTransfer(RawTransactionManager transactionManager, BigInteger gasPrice) {
+        return (address, nonce) -> {
+            if (!address.equalsIgnoreCase(transactionManager.getFromAddress())) {
+                throw new IllegalArgumentException(
+                        "Cannot fill nonces of " + address + " from " + transactionManager);
+            }
+            EthSendTransaction ethSendTransaction =
+                    transactionManager.signAndSend(
+                            RawTransaction.createEtherTransaction(
+                                    nonce, gasPrice, Transfer.GAS_LIMIT, address, BigInteger.ZERO));
+            if (ethSendTransaction.hasError()) {
+                throw new IOException(
+                        "Error filling nonce "
+                                + nonce
+                                + ": "
+                                + ethSendTransaction.getError().getMessage());
+            }
+        };
+    }
+}
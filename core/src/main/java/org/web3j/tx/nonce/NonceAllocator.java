@@ -0,0 +1,313 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.nonce;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+/**
+ * Allocates transaction nonces for any number of accounts, and can be shared by all of the
+ * transaction managers sending from them.
+ *
+ * <p>Each account has an atomic counter, seeded from the account's pending transaction count the
+ * first time a nonce is reserved, so reservations do not contend on a lock. A nonce is committed
+ * once its transaction has been sent, or released if sending failed. Released nonces are given to
+ * the next reservations, lowest first, so a failed send does not leave a gap which every later
+ * transaction of the account would be stuck behind.
+ *
+ * <p>{@link #reconcile(String)} compares the allocator's state with the chain. It forgets nonces
+ * which have been mined, moves the counter forward if transactions were sent by other means, and
+ * detects gaps: released nonces below a committed one, and committed nonces which the node no
+ * longer has in its pool. Gaps are filled by the account's {@link GapFiller} if one is set, and
+ * otherwise are given to the next reservations.
+ */
+public class NonceAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(NonceAllocator.class);
+
+    private static final long UNSEEDED = -1;
+
+    private final Web3j web3j;
+    private final Map<String, AccountNonces> accounts = new ConcurrentHashMap<>();
+    private final Map<String, GapFiller> gapFillers = new ConcurrentHashMap<>();
+
+    public NonceAllocator(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    /**
+     * Reserve the next nonce of an account.
+     *
+     * @param address the account address
+     * @return the reservation, which must be committed or released
+     * @throws IOException if the account's transaction count could not be requested
+     */
+    public NonceReservation reserve(String address) throws IOException {
+        AccountNonces account = account(address);
+        Long released = account.released.pollFirst();
+        long nonce;
+        if (released != null) {
+            nonce = released;
+        } else {
+            if (account.next.get() == UNSEEDED) {
+                long count = getTransactionCount(address, DefaultBlockParameterName.PENDING);
+                account.next.compareAndSet(UNSEEDED, count);
+            }
+            nonce = account.next.getAndIncrement();
+        }
+        account.reserved.add(nonce);
+        return new NonceReservation(this, address, nonce);
+    }
+
+    /**
+     * @param address the account address
+     * @return the next nonce the account's counter will allocate, or -1 if it has not been seeded
+     *     from the chain
+     */
+    public long getNextNonce(String address) {
+        return account(address).next.get();
+    }
+
+    /**
+     * Set the next nonce the account's counter will allocate, discarding released nonces.
+     *
+     * @param address the account address
+     * @param nonce the next nonce
+     */
+    public void setNextNonce(String address, long nonce) {
+        AccountNonces account = account(address);
+        account.next.set(nonce);
+        account.released.clear();
+    }
+
+    /**
+     * Reseed an account's counter from its pending transaction count.
+     *
+     * @param address the account address
+     * @throws IOException if the account's transaction count could not be requested
+     */
+    public void reset(String address) throws IOException {
+        setNextNonce(address, getTransactionCount(address, DefaultBlockParameterName.PENDING));
+    }
+
+    /**
+     * Set the filler used to send transactions at the missing nonces of an account.
+     *
+     * @param address the account address
+     * @param gapFiller the filler, or null to leave gaps to the next reservations
+     */
+    public void setGapFiller(String address, GapFiller gapFiller) {
+        if (gapFiller == null) {
+            gapFillers.remove(normalise(address));
+        } else {
+            gapFillers.put(normalise(address), gapFiller);
+        }
+    }
+
+    /** @return the addresses of the accounts nonces have been allocated for */
+    public Set<String> getAccounts() {
+        return Collections.unmodifiableSet(accounts.keySet());
+    }
+
+    /**
+     * @param address the account address
+     * @return the number of nonces reserved which have been neither committed nor released
+     */
+    public int getReservedCount(String address) {
+        return account(address).reserved.size();
+    }
+
+    /**
+     * @param address the account address
+     * @return the nonces which have been committed but not yet seen mined
+     */
+    public Set<Long> getCommitted(String address) {
+        return Collections.unmodifiableSet(account(address).committed);
+    }
+
+    /**
+     * @param address the account address
+     * @return the nonces which have been released and will be given to the next reservations
+     */
+    public Set<Long> getReleased(String address) {
+        return Collections.unmodifiableSet(account(address).released);
+    }
+
+    /**
+     * Reconcile an account with the chain, filling any gaps found.
+     *
+     * @param address the account address
+     * @return the missing nonces found
+     * @throws IOException if the account's transaction counts could not be requested
+     */
+    public List<Long> reconcile(String address) throws IOException {
+        AccountNonces account = account(address);
+        // only transactions committed before the counts are requested can be judged missing
+        NavigableSet<Long> committed = new TreeSet<>(account.committed);
+        long mined = getTransactionCount(address, DefaultBlockParameterName.LATEST);
+        long pending = getTransactionCount(address, DefaultBlockParameterName.PENDING);
+
+        account.committed.headSet(mined).clear();
+        committed.headSet(mined).clear();
+        account.released.headSet(mined).clear();
+
+        // nonces used by transactions sent by other means are skipped
+        long next = account.next.get();
+        while (next != UNSEEDED && next < pending && !account.next.compareAndSet(next, pending)) {
+            next = account.next.get();
+        }
+
+        List<Long> gaps = findGaps(account, committed, pending);
+        if (gaps.isEmpty()) {
+            return gaps;
+        }
+
+        GapFiller gapFiller = gapFillers.get(normalise(address));
+        if (gapFiller == null) {
+            log.warn(
+                    "Nonces {} of {} are missing, reusing them for the next transactions",
+                    gaps,
+                    address);
+            for (Long gap : gaps) {
+                account.committed.remove(gap);
+                account.released.add(gap);
+            }
+            return gaps;
+        }
+
+        for (Long gap : gaps) {
+            account.reserved.add(gap);
+            NonceReservation reservation = new NonceReservation(this, address, gap);
+            try {
+                gapFiller.fill(address, BigInteger.valueOf(gap));
+                reservation.commit();
+            } catch (Exception e) {
+                log.warn("Failed to fill nonce {} of {}", gap, address, e);
+                account.committed.remove(gap);
+                reservation.release();
+            }
+        }
+        return gaps;
+    }
+
+    /** Reconcile all of the accounts nonces have been allocated for, logging any errors. */
+    public void reconcileAll() {
+        for (String address : accounts.keySet()) {
+            try {
+                reconcile(address);
+            } catch (Exception e) {
+                log.warn("Failed to reconcile nonces of {}", address, e);
+            }
+        }
+    }
+
+    /**
+     * Reconcile all accounts at a fixed interval.
+     *
+     * @param scheduledExecutorService the executor to run reconciliation on
+     * @param interval the interval in milliseconds
+     * @return the schedule, which can be cancelled to stop reconciliation
+     */
+    public ScheduledFuture<?> startReconciliation(
+            ScheduledExecutorService scheduledExecutorService, long interval) {
+        return scheduledExecutorService.scheduleWithFixedDelay(
+                this::reconcileAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    void commit(String address, long nonce) {
+        AccountNonces account = account(address);
+        account.reserved.remove(nonce);
+        account.committed.add(nonce);
+    }
+
+    void release(String address, long nonce) {
+        AccountNonces account = account(address);
+        account.reserved.remove(nonce);
+        // the last nonce allocated is returned to the counter, any other is reused first
+        if (!account.next.compareAndSet(nonce + 1, nonce)) {
+            account.released.add(nonce);
+        }
+    }
+
+    private List<Long> findGaps(AccountNonces account, NavigableSet<Long> committed, long pending) {
+        List<Long> gaps = new ArrayList<>();
+        if (committed.isEmpty()) {
+            return gaps;
+        }
+        long highestCommitted = committed.last();
+
+        // a released nonce below a committed one blocks the committed transaction
+        for (Long released : account.released.headSet(highestCommitted)) {
+            if (account.released.remove(released)) {
+                gaps.add(released);
+            }
+        }
+        // the pending count stops at the first nonce the node does not have, so a committed
+        // transaction at that nonce has been dropped from its pool
+        if (pending < highestCommitted
+                && committed.contains(pending)
+                && account.committed.contains(pending)) {
+            gaps.add(pending);
+        }
+        Collections.sort(gaps);
+        return gaps;
+    }
+
+    private long getTransactionCount(String address, DefaultBlockParameter defaultBlockParameter)
+            throws IOException {
+        EthGetTransactionCount ethGetTransactionCount =
+                web3j.ethGetTransactionCount(address, defaultBlockParameter).send();
+        if (ethGetTransactionCount.hasError()) {
+            throw new IOException(
+                    "Error requesting transaction count: "
+                            + ethGetTransactionCount.getError().getMessage());
+        }
+        return ethGetTransactionCount.getTransactionCount().longValueExact();
+    }
+
+    private AccountNonces account(String address) {
+        return accounts.computeIfAbsent(normalise(address), key -> new AccountNonces());
+    }
+
+    private static String normalise(String address) {
+        return address.toLowerCase();
+    }
+
+    private static class AccountNonces {
+        private final AtomicLong next = new AtomicLong(UNSEEDED);
+        private final NavigableSet<Long> reserved = new ConcurrentSkipListSet<>();
+        private final NavigableSet<Long> committed = new ConcurrentSkipListSet<>();
+        private final NavigableSet<Long> released = new ConcurrentSkipListSet<>();
+    }
+}
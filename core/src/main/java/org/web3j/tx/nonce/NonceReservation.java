@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.nonce;
+
+import java.math.BigInteger;
+
+/**
+ * A nonce reserved for a transaction by a {@link NonceAllocator}. Once the transaction has been
+ * sent the reservation is committed, or if sending failed it is released, so that the nonce is
+ * given to the next transaction rather than leaving a gap.
+ */
+public class NonceReservation {
+
+    private final NonceAllocator nonceAllocator;
+    private final String address;
+    private final long nonce;
+
+    private volatile boolean resolved;
+
+    NonceReservation(NonceAllocator nonceAllocator, String address, long nonce) {
+        this.nonceAllocator = nonceAllocator;
+        this.address = address;
+        this.nonce = nonce;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public BigInteger getNonce() {
+        return BigInteger.valueOf(nonce);
+    }
+
+    /** Mark the nonce as used by a transaction which has been sent. */
+    public void commit() {
+        if (resolve()) {
+            nonceAllocator.commit(address, nonce);
+        }
+    }
+
+    /** Return the nonce, as the transaction for which it was reserved was not sent. */
+    public void release() {
+        if (resolve()) {
+            nonceAllocator.release(address, nonce);
+        }
+    }
+
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    private synchronized boolean resolve() {
+        if (resolved) {
+            return false;
+        }
+        resolved = true;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "NonceReservation{" + "address='" + address + '\'' + ", nonce=" + nonce + '}';
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Async;
+
+/**
+ * Transaction receipt processor which waits for receipts without holding a thread per transaction.
+ *
+ * <p>Waits are scheduled on a shared timer. While any receipts are pending, each poll requests all
+ * of them in JSON-RPC batches and the next poll is only scheduled once the previous one has been
+ * handled, so thousands of transactions can be waited for with a handful of threads. Pass {@link
+ * AdaptivePollingScheduler#ADAPTIVE} as the polling frequency to poll just after each block is
+ * expected instead of at a fixed rate.
+ *
+ * <p>A batch which cannot be requested counts as a poll without receipts for its transactions, so
+ * they only fail once they run out of attempts.
+ */
+public class AsyncTransactionReceiptProcessor extends TransactionReceiptProcessor {
+
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final long pollingFrequency;
+    private final int attempts;
+    private final AdaptivePollingScheduler adaptivePollingScheduler;
+    private final TransactionReceiptBatcher transactionReceiptBatcher;
+
+    private final Map<String, PendingReceipt> pendingReceipts = new ConcurrentHashMap<>();
+    private final AtomicBoolean polling = new AtomicBoolean(false);
+
+    /**
+     * @param web3j web3j instance to use
+     * @param pollingFrequency time to wait between polls in milliseconds, or {@link
+     *     AdaptivePollingScheduler#ADAPTIVE}
+     * @param attempts number of polls to wait for each receipt
+     * @param receiptBatchSize the maximum number of receipts requested in a batch
+     * @param scheduledExecutorService the timer to schedule polls on
+     */
+    public AsyncTransactionReceiptProcessor(
+            Web3j web3j,
+            long pollingFrequency,
+            int attempts,
+            int receiptBatchSize,
+            ScheduledExecutorService scheduledExecutorService) {
+        super(web3j);
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.pollingFrequency = pollingFrequency;
+        this.attempts = attempts;
+        this.adaptivePollingScheduler =
+                pollingFrequency == AdaptivePollingScheduler.ADAPTIVE
+                        ? new AdaptivePollingScheduler(web3j)
+                        : null;
+        this.transactionReceiptBatcher = new TransactionReceiptBatcher(web3j, receiptBatchSize);
+    }
+
+    /**
+     * Create a processor which schedules its polls on {@link Async#sharedExecutorService()}, so it
+     * holds no threads of its own.
+     *
+     * @param web3j web3j instance to use
+     * @param pollingFrequency time to wait between polls in milliseconds, or {@link
+     *     AdaptivePollingScheduler#ADAPTIVE}
+     * @param attempts number of polls to wait for each receipt
+     */
+    public AsyncTransactionReceiptProcessor(Web3j web3j, long pollingFrequency, int attempts) {
+        this(
+                web3j,
+                pollingFrequency,
+                attempts,
+                QueuingTransactionReceiptProcessor.DEFAULT_RECEIPT_BATCH_SIZE,
+                Async.sharedExecutorService());
+    }
+
+    @Override
+    public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+            throws IOException, TransactionException {
+        try {
+            return waitForTransactionReceiptAsync(transactionHash).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TransactionException) {
+                throw (TransactionException) e.getCause();
+            } else if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        PendingReceipt pendingReceipt =
+                pendingReceipts.computeIfAbsent(transactionHash, hash -> new PendingReceipt());
+        schedulePoll();
+        return pendingReceipt.future;
+    }
+
+    /** @return the number of transactions whose receipts are being waited for */
+    public int getPendingCount() {
+        return pendingReceipts.size();
+    }
+
+    private void schedulePoll() {
+        if (!pendingReceipts.isEmpty() && polling.compareAndSet(false, true)) {
+            if (adaptivePollingScheduler != null) {
+                // the delay may refresh the block timing model from the node, which blocks, so it
+                // is calculated on the timer rather than on the caller's thread
+                scheduledExecutorService.execute(
+                        () -> schedulePoll(adaptivePollingScheduler.getPollDelay(1)));
+            } else {
+                schedulePoll(pollingFrequency);
+            }
+        }
+    }
+
+    private void schedulePoll(long delay) {
+        scheduledExecutorService.schedule(this::poll, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        List<String> transactionHashes = new ArrayList<>(pendingReceipts.keySet());
+        CompletableFuture<Void> requested;
+        try {
+            requested =
+                    transactionReceiptBatcher.request(
+                            transactionHashes,
+                            this::processResponse,
+                            (transactionHashesInBatch, throwable) ->
+                                    missedAll(transactionHashesInBatch));
+        } catch (Throwable e) {
+            missedAll(transactionHashes);
+            pollCompleted();
+            return;
+        }
+        requested.whenComplete((ignored, throwable) -> pollCompleted());
+    }
+
+    private void pollCompleted() {
+        polling.set(false);
+        schedulePoll();
+    }
+
+    /**
+     * As for a poll without a receipt, transactions whose receipts could not be requested are
+     * polled again until they run out of attempts.
+     */
+    private void missedAll(List<String> transactionHashes) {
+        for (String transactionHash : transactionHashes) {
+            PendingReceipt pendingReceipt = pendingReceipts.get(transactionHash);
+            if (pendingReceipt != null) {
+                missed(transactionHash, pendingReceipt);
+            }
+        }
+    }
+
+    private void processResponse(String transactionHash, EthGetTransactionReceipt response) {
+        PendingReceipt pendingReceipt = pendingReceipts.get(transactionHash);
+        if (pendingReceipt == null) {
+            return;
+        }
+
+        if (response.hasError()) {
+            fail(
+                    transactionHash,
+                    new TransactionException(
+                            "Error processing request: " + response.getError().getMessage()));
+        } else if (response.getTransactionReceipt().isPresent()) {
+            pendingReceipts.remove(transactionHash);
+            pendingReceipt.future.complete(response.getTransactionReceipt().get());
+        } else {
+            missed(transactionHash, pendingReceipt);
+        }
+    }
+
+    private void missed(String transactionHash, PendingReceipt pendingReceipt) {
+        if (++pendingReceipt.polls > attempts) {
+            fail(
+                    transactionHash,
+                    new TransactionException(
+                            "Transaction receipt was not generated after "
+                                    + (System.currentTimeMillis() - pendingReceipt.started) / 1000
+                                    + " seconds for transaction: "
+                                    + transactionHash,
+                            transactionHash));
+        }
+    }
+
+    private void fail(String transactionHash, Throwable throwable) {
+        PendingReceipt pendingReceipt = pendingReceipts.remove(transactionHash);
+        if (pendingReceipt != null) {
+            pendingReceipt.future.completeExceptionally(throwable);
+        }
+    }
+
+    private static class PendingReceipt {
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        private final long started = System.currentTimeMillis();
+        // only updated by the poll handling the transaction, as polls never overlap
+        private int polls;
+    }
+}
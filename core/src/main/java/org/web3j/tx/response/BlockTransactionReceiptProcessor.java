@@ -0,0 +1,411 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Flowables;
+
+/**
+ * Transaction receipt processor driven by new blocks rather than a timer.
+ *
+ * <p>The transaction hashes of each new block are requested once and looked up in the set of
+ * pending transactions. Receipts are only requested for the transactions found, in JSON-RPC
+ * batches, so the number of requests grows with the number of blocks rather than with the number of
+ * pending transactions.
+ *
+ * <p>The hashes of the most recent blocks are kept, so that:
+ *
+ * <ul>
+ *   <li>a transaction mined before it is waited for is still found;
+ *   <li>blocks missed between two new heads are requested by their parent hashes;
+ *   <li>when a block's parent does not match the block kept for its number, the chain has been
+ *       reorganised and transactions found in the replaced blocks become pending again.
+ * </ul>
+ *
+ * <p>A receipt is only returned once its block has the requested number of confirmations.
+ */
+public class BlockTransactionReceiptProcessor extends TransactionReceiptProcessor
+        implements AutoCloseable {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BlockTransactionReceiptProcessor.class);
+
+    public static final int DEFAULT_RECHECK_BLOCKS = 12;
+
+    private final Web3j web3j;
+    private final Flowable<EthBlock> blocks;
+    private final int confirmations;
+    private final int attempts;
+    private final int recheckBlocks;
+    private final TransactionReceiptBatcher transactionReceiptBatcher;
+
+    private final Object lock = new Object();
+    private final Map<String, PendingTransaction> pendingTransactions = new ConcurrentHashMap<>();
+    // guarded by lock
+    private final NavigableMap<Long, RecentBlock> recentBlocks = new TreeMap<>();
+    private long head = -1;
+
+    private volatile Disposable subscription;
+    private volatile boolean closed;
+
+    /**
+     * Create a processor.
+     *
+     * @param web3j the node to request blocks and receipts from
+     * @param blocks new blocks, which need only contain transaction hashes
+     * @param confirmations the number of blocks to wait for after the block of a transaction
+     * @param attempts the number of blocks to wait for a transaction to be mined before failing
+     */
+    public BlockTransactionReceiptProcessor(
+            Web3j web3j, Flowable<EthBlock> blocks, int confirmations, int attempts) {
+        super(web3j);
+        this.web3j = web3j;
+        this.blocks = blocks;
+        this.confirmations = confirmations;
+        this.attempts = attempts;
+        this.recheckBlocks = Math.max(DEFAULT_RECHECK_BLOCKS, confirmations + 1);
+        this.transactionReceiptBatcher =
+                new TransactionReceiptBatcher(
+                        web3j, QueuingTransactionReceiptProcessor.DEFAULT_RECEIPT_BATCH_SIZE);
+
+        subscribe();
+    }
+
+    /**
+     * Create a processor which follows new blocks with {@link Web3j#blockFlowable(boolean)}.
+     *
+     * @param web3j the node to request blocks and receipts from
+     * @param attempts the number of blocks to wait for a transaction to be mined before failing
+     */
+    public BlockTransactionReceiptProcessor(Web3j web3j, int attempts) {
+        this(web3j, web3j.blockFlowable(false), 0, attempts);
+    }
+
+    @Override
+    public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+            throws IOException, TransactionException {
+        try {
+            return watch(transactionHash).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransactionException) {
+                throw (TransactionException) e.getCause();
+            } else if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new TransactionException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        return watch(transactionHash);
+    }
+
+    /**
+     * Wait for the receipt of a transaction without blocking.
+     *
+     * @param transactionHash the hash of the transaction
+     * @return a future completed with the receipt once its block has enough confirmations
+     */
+    public CompletableFuture<TransactionReceipt> watch(String transactionHash) {
+        String key = transactionHash.toLowerCase();
+        synchronized (lock) {
+            if (closed) {
+                CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+                future.completeExceptionally(
+                        new CancellationException("Receipt processor has been closed"));
+                return future;
+            }
+
+            PendingTransaction pendingTransaction =
+                    pendingTransactions.computeIfAbsent(
+                            key, hash -> new PendingTransaction(transactionHash, head));
+            // the transaction may already have been mined in a recent block
+            if (pendingTransaction.blockHash == null) {
+                for (Map.Entry<Long, RecentBlock> entry : recentBlocks.entrySet()) {
+                    if (entry.getValue().transactionHashes.contains(key)) {
+                        pendingTransaction.found(entry.getKey(), entry.getValue().hash);
+                    }
+                }
+            }
+            return pendingTransaction.future;
+        }
+    }
+
+    /** @return the number of transactions whose receipts are being waited for */
+    public int getPendingCount() {
+        return pendingTransactions.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        CancellationException e = new CancellationException("Receipt processor has been closed");
+        pendingTransactions.values().forEach(pending -> pending.future.completeExceptionally(e));
+        pendingTransactions.clear();
+    }
+
+    private void subscribe() {
+        subscription =
+                Flowables.retryWithDelay(
+                                blocks,
+                                throwable ->
+                                        log.error(
+                                                "Error following new blocks, resubscribing",
+                                                throwable))
+                        .subscribe(
+                                ethBlock -> processBlock(ethBlock.getBlock()),
+                                throwable -> log.error("Error following new blocks", throwable));
+    }
+
+    void processBlock(EthBlock.Block block) {
+        if (block == null || block.getNumber() == null) {
+            return;
+        }
+        synchronized (lock) {
+            RecentBlock known = recentBlocks.get(block.getNumber().longValueExact());
+            if (known != null && known.hash.equalsIgnoreCase(block.getHash())) {
+                return;
+            }
+        }
+
+        List<EthBlock.Block> chain;
+        try {
+            chain = connect(block);
+        } catch (IOException e) {
+            log.warn("Error requesting ancestors of block {}", block.getNumber(), e);
+            chain = new ArrayList<>();
+            chain.add(block);
+        }
+
+        List<PendingTransaction> found;
+        synchronized (lock) {
+            long fork = chain.get(0).getNumber().longValueExact();
+            NavigableMap<Long, RecentBlock> replaced = recentBlocks.tailMap(fork, true);
+            if (!replaced.isEmpty()) {
+                log.info("Chain reorganised from block {}", fork);
+                for (PendingTransaction pending : pendingTransactions.values()) {
+                    if (pending.blockHash != null && pending.blockNumber >= fork) {
+                        pending.lost();
+                    }
+                }
+                replaced.clear();
+            }
+
+            for (EthBlock.Block newBlock : chain) {
+                RecentBlock recentBlock = new RecentBlock(newBlock);
+                long number = newBlock.getNumber().longValueExact();
+                recentBlocks.put(number, recentBlock);
+                for (String transactionHash : recentBlock.transactionHashes) {
+                    PendingTransaction pending = pendingTransactions.get(transactionHash);
+                    if (pending != null) {
+                        pending.found(number, recentBlock.hash);
+                    }
+                }
+                head = number;
+            }
+            while (recentBlocks.size() > recheckBlocks) {
+                recentBlocks.pollFirstEntry();
+            }
+
+            found = new ArrayList<>();
+            for (PendingTransaction pending : pendingTransactions.values()) {
+                if (pending.blockHash != null && pending.receipt == null) {
+                    found.add(pending);
+                }
+            }
+        }
+
+        requestReceipts(found);
+
+        synchronized (lock) {
+            for (PendingTransaction pending : new ArrayList<>(pendingTransactions.values())) {
+                if (pending.receipt != null) {
+                    if (head - pending.blockNumber >= confirmations) {
+                        complete(pending, null);
+                    }
+                } else if (pending.blockHash == null) {
+                    if (pending.registeredAt < 0) {
+                        pending.registeredAt = head;
+                    } else if (head - pending.registeredAt >= attempts) {
+                        complete(
+                                pending,
+                                new TransactionException(
+                                        "No transaction receipt for txHash: "
+                                                + pending.transactionHash
+                                                + " received after "
+                                                + attempts
+                                                + " blocks",
+                                        pending.transactionHash));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Request the blocks between the most recent block kept and a new block, following parent
+     * hashes back until they join the blocks kept or the recheck depth is exhausted.
+     *
+     * @return the new blocks in ascending order, ending with the given block
+     */
+    private List<EthBlock.Block> connect(EthBlock.Block block) throws IOException {
+        List<EthBlock.Block> chain = new ArrayList<>();
+        chain.add(block);
+        EthBlock.Block current = block;
+        while (true) {
+            long parentNumber = current.getNumber().longValueExact() - 1;
+            RecentBlock parent;
+            synchronized (lock) {
+                if (recentBlocks.isEmpty() || parentNumber < recentBlocks.firstKey()) {
+                    return chain;
+                }
+                parent = recentBlocks.get(parentNumber);
+            }
+            if (parent != null && parent.hash.equalsIgnoreCase(current.getParentHash())) {
+                return chain;
+            }
+
+            EthBlock.Block ancestor =
+                    web3j.ethGetBlockByHash(current.getParentHash(), false).send().getBlock();
+            if (ancestor == null) {
+                return chain;
+            }
+            chain.add(0, ancestor);
+            current = ancestor;
+        }
+    }
+
+    private void requestReceipts(List<PendingTransaction> found) {
+        if (found.isEmpty()) {
+            return;
+        }
+
+        List<String> transactionHashes = new ArrayList<>(found.size());
+        Map<String, String> blockHashes = new ConcurrentHashMap<>();
+        for (PendingTransaction pending : found) {
+            transactionHashes.add(pending.transactionHash);
+            blockHashes.put(pending.transactionHash, pending.blockHash);
+        }
+
+        transactionReceiptBatcher
+                .request(
+                        transactionHashes,
+                        (transactionHash, response) -> {
+                            TransactionReceipt receipt =
+                                    response.getTransactionReceipt().orElse(null);
+                            // a lagging node may not have the block the transaction was found in
+                            if (receipt == null
+                                    || !String.valueOf(receipt.getBlockHash())
+                                            .equalsIgnoreCase(blockHashes.get(transactionHash))) {
+                                return;
+                            }
+                            synchronized (lock) {
+                                PendingTransaction pending =
+                                        pendingTransactions.get(transactionHash.toLowerCase());
+                                if (pending != null
+                                        && receipt.getBlockHash()
+                                                .equalsIgnoreCase(pending.blockHash)) {
+                                    pending.receipt = receipt;
+                                }
+                            }
+                        },
+                        (transactionHashesInBatch, throwable) ->
+                                log.warn(
+                                        "Error requesting receipts, retrying on the next block",
+                                        throwable))
+                .join();
+    }
+
+    private void complete(PendingTransaction pending, TransactionException e) {
+        pendingTransactions.remove(pending.transactionHash.toLowerCase());
+        if (e == null) {
+            pending.future.complete(pending.receipt);
+        } else {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingTransaction {
+        private final String transactionHash;
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+        private long registeredAt;
+        private long blockNumber = -1;
+        private String blockHash;
+        private TransactionReceipt receipt;
+
+        PendingTransaction(String transactionHash, long registeredAt) {
+            this.transactionHash = transactionHash;
+            this.registeredAt = registeredAt;
+        }
+
+        void found(long blockNumber, String blockHash) {
+            this.blockNumber = blockNumber;
+            this.blockHash = blockHash;
+            this.receipt = null;
+        }
+
+        void lost() {
+            found(-1, null);
+        }
+    }
+
+    private static class RecentBlock {
+        private final String hash;
+        private final Set<String> transactionHashes;
+
+        RecentBlock(EthBlock.Block block) {
+            this.hash = block.getHash();
+            this.transactionHashes = new HashSet<>();
+            for (EthBlock.TransactionResult<?> result : block.getTransactions()) {
+                Object transaction = result.get();
+                String transactionHash =
+                        transaction instanceof Transaction
+                                ? ((Transaction) transaction).getHash()
+                                : String.valueOf(transaction);
+                transactionHashes.add(transactionHash.toLowerCase());
+            }
+        }
+    }
+}
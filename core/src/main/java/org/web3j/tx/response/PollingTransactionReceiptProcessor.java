@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.Optional;
 
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 
@@ -24,11 +25,22 @@ public class PollingTransactionReceiptProcessor extends TransactionReceiptProces
 
     protected final long sleepDuration;
     protected final int attempts;
+    private final AdaptivePollingScheduler adaptivePollingScheduler;
 
+    /**
+     * @param web3j web3j instance to use
+     * @param sleepDuration time to wait between attempts in milliseconds, or {@link
+     *     AdaptivePollingScheduler#ADAPTIVE} to wait until just after the next block is expected
+     * @param attempts number of attempts to make
+     */
     public PollingTransactionReceiptProcessor(Web3j web3j, long sleepDuration, int attempts) {
         super(web3j);
         this.sleepDuration = sleepDuration;
         this.attempts = attempts;
+        this.adaptivePollingScheduler =
+                sleepDuration == AdaptivePollingScheduler.ADAPTIVE
+                        ? new AdaptivePollingScheduler(web3j)
+                        : null;
     }
 
     @Override
@@ -42,12 +54,16 @@ public class PollingTransactionReceiptProcessor extends TransactionReceiptProces
             String transactionHash, long sleepDuration, int attempts)
             throws IOException, TransactionException {
 
+        long started = System.currentTimeMillis();
         Optional<? extends TransactionReceipt> receiptOptional =
                 sendTransactionReceiptRequest(transactionHash);
         for (int i = 0; i < attempts; i++) {
             if (!receiptOptional.isPresent()) {
                 try {
-                    Thread.sleep(sleepDuration);
+                    Thread.sleep(
+                            adaptivePollingScheduler != null
+                                    ? adaptivePollingScheduler.getPollDelay(i + 1)
+                                    : sleepDuration);
                 } catch (InterruptedException e) {
                     throw new TransactionException(e);
                 }
@@ -60,7 +76,10 @@ public class PollingTransactionReceiptProcessor extends TransactionReceiptProces
 
         throw new TransactionException(
                 "Transaction receipt was not generated after "
-                        + ((sleepDuration * attempts) / 1000
+                        + ((adaptivePollingScheduler != null
+                                                ? System.currentTimeMillis() - started
+                                                : sleepDuration * attempts)
+                                        / 1000
                                 + " seconds for transaction: "
                                 + transactionHash),
                 transactionHash);
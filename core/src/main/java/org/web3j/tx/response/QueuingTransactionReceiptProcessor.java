@@ -13,13 +13,20 @@
 package org.web3j.tx.response;
 
 import java.io.IOException;
-import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.utils.Async;
@@ -30,71 +37,186 @@ import org.web3j.utils.Async;
  * <p><em>Note:</em>When initially invoked, this processor returns a transaction receipt containing
  * only the transaction hash of the submitted transaction. This is encapsulated in an {@link
  * EmptyTransactionReceipt}.
+ *
+ * <p>Pass {@link AdaptivePollingScheduler#ADAPTIVE} as the polling frequency to poll just after
+ * each block is expected instead of at a fixed rate.
+ *
+ * <p>The receipts of all pending transactions are requested on each poll in JSON-RPC batches of up
+ * to the receipt batch size. Up to the maximum number of concurrent batches are in flight at once
+ * and their responses are handled as they arrive, so the {@link Callback} may be called from
+ * several threads at once.
  */
 public class QueuingTransactionReceiptProcessor extends TransactionReceiptProcessor {
 
+    private static final Logger log =
+            LoggerFactory.getLogger(QueuingTransactionReceiptProcessor.class);
+
+    public static final int DEFAULT_RECEIPT_BATCH_SIZE = 100;
+    public static final int DEFAULT_MAX_CONCURRENT_BATCHES =
+            TransactionReceiptBatcher.DEFAULT_MAX_CONCURRENT_BATCHES;
+
     private final int pollingAttemptsPerTxHash;
 
     private final ScheduledExecutorService scheduledExecutorService;
     private final Callback callback;
-    private final BlockingQueue<RequestWrapper> pendingTransactions;
+    private final Map<String, RequestWrapper> pendingTransactions;
+    private final TransactionReceiptBatcher transactionReceiptBatcher;
 
     public QueuingTransactionReceiptProcessor(
-            Web3j web3j, Callback callback, int pollingAttemptsPerTxHash, long pollingFrequency) {
+            Web3j web3j,
+            Callback callback,
+            int pollingAttemptsPerTxHash,
+            long pollingFrequency,
+            int receiptBatchSize,
+            int maxConcurrentBatches) {
         super(web3j);
         this.scheduledExecutorService = Async.defaultExecutorService();
         this.callback = callback;
-        this.pendingTransactions = new LinkedBlockingQueue<>();
+        this.pendingTransactions = new ConcurrentHashMap<>();
         this.pollingAttemptsPerTxHash = pollingAttemptsPerTxHash;
+        this.transactionReceiptBatcher =
+                new TransactionReceiptBatcher(web3j, receiptBatchSize, maxConcurrentBatches);
 
-        scheduledExecutorService.scheduleAtFixedRate(
-                this::sendTransactionReceiptRequests,
+        if (pollingFrequency == AdaptivePollingScheduler.ADAPTIVE) {
+            new AdaptivePollingScheduler(web3j).schedule(scheduledExecutorService, this::poll);
+        } else {
+            scheduledExecutorService.scheduleAtFixedRate(
+                    this::poll,
+                    pollingFrequency,
+                    pollingFrequency,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public QueuingTransactionReceiptProcessor(
+            Web3j web3j,
+            Callback callback,
+            int pollingAttemptsPerTxHash,
+            long pollingFrequency,
+            int receiptBatchSize) {
+        this(
+                web3j,
+                callback,
+                pollingAttemptsPerTxHash,
                 pollingFrequency,
+                receiptBatchSize,
+                DEFAULT_MAX_CONCURRENT_BATCHES);
+    }
+
+    public QueuingTransactionReceiptProcessor(
+            Web3j web3j, Callback callback, int pollingAttemptsPerTxHash, long pollingFrequency) {
+        this(
+                web3j,
+                callback,
+                pollingAttemptsPerTxHash,
                 pollingFrequency,
-                TimeUnit.MILLISECONDS);
+                DEFAULT_RECEIPT_BATCH_SIZE);
     }
 
     @Override
     public TransactionReceipt waitForTransactionReceipt(String transactionHash)
             throws IOException, TransactionException {
-        pendingTransactions.add(new RequestWrapper(transactionHash));
+        pendingTransactions.putIfAbsent(transactionHash, new RequestWrapper(transactionHash));
 
         return new EmptyTransactionReceipt(transactionHash);
     }
 
-    private void sendTransactionReceiptRequests() {
-        for (RequestWrapper requestWrapper : pendingTransactions) {
-            try {
-                String transactionHash = requestWrapper.getTransactionHash();
-                Optional<? extends TransactionReceipt> transactionReceipt =
-                        sendTransactionReceiptRequest(transactionHash);
-                if (transactionReceipt.isPresent()) {
-                    callback.accept(transactionReceipt.get());
-                    pendingTransactions.remove(requestWrapper);
-                } else {
-                    if (requestWrapper.getCount() == pollingAttemptsPerTxHash) {
-                        throw new TransactionException(
-                                "No transaction receipt for txHash: "
-                                        + transactionHash
-                                        + "received after "
-                                        + pollingAttemptsPerTxHash
-                                        + " attempts",
-                                transactionHash);
-                    } else {
-                        requestWrapper.incrementCount();
-                    }
-                }
-            } catch (IOException | TransactionException e) {
-                pendingTransactions.remove(requestWrapper);
-                callback.exception(e);
+    /** @return the number of transactions whose receipts are being waited for */
+    public int getPendingCount() {
+        return pendingTransactions.size();
+    }
+
+    /**
+     * Poll for receipts. Errors are logged rather than thrown, as an exception escaping a task
+     * scheduled at a fixed rate would stop any further polls.
+     */
+    boolean poll() {
+        try {
+            return sendTransactionReceiptRequests();
+        } catch (Throwable e) {
+            log.error("Error polling for transaction receipts", e);
+            return false;
+        }
+    }
+
+    /** @return true if a receipt was received, or there are no receipts to wait for */
+    boolean sendTransactionReceiptRequests() {
+        if (pendingTransactions.isEmpty()) {
+            return true;
+        }
+
+        AtomicBoolean received = new AtomicBoolean(false);
+        List<String> transactionHashes = new ArrayList<>(pendingTransactions.keySet());
+        // the poll waits for every batch, so polls never overlap
+        transactionReceiptBatcher
+                .request(
+                        transactionHashes,
+                        (transactionHash, response) -> {
+                            if (processResponse(transactionHash, response)) {
+                                received.set(true);
+                            }
+                        },
+                        (transactionHashesInBatch, throwable) -> {
+                            for (String transactionHash : transactionHashesInBatch) {
+                                fail(transactionHash, asException(throwable));
+                            }
+                        })
+                .join();
+        return received.get();
+    }
+
+    private boolean processResponse(String transactionHash, EthGetTransactionReceipt response) {
+        RequestWrapper requestWrapper = pendingTransactions.get(transactionHash);
+        if (requestWrapper == null) {
+            return false;
+        }
+
+        if (response.hasError()) {
+            fail(
+                    transactionHash,
+                    new TransactionException(
+                            "Error processing request: " + response.getError().getMessage()));
+            return false;
+        }
+
+        if (response.getTransactionReceipt().isPresent()) {
+            if (pendingTransactions.remove(transactionHash, requestWrapper)) {
+                callback.accept(response.getTransactionReceipt().get());
             }
+            return true;
+        }
+
+        if (requestWrapper.getCount() == pollingAttemptsPerTxHash) {
+            fail(
+                    transactionHash,
+                    new TransactionException(
+                            "No transaction receipt for txHash: "
+                                    + transactionHash
+                                    + "received after "
+                                    + pollingAttemptsPerTxHash
+                                    + " attempts",
+                            transactionHash));
+        } else {
+            requestWrapper.incrementCount();
+        }
+        return false;
+    }
+
+    private void fail(String transactionHash, Exception e) {
+        if (pendingTransactions.remove(transactionHash) != null) {
+            callback.exception(e);
+        }
+    }
+
+    private static Exception asException(Throwable throwable) {
+        if (throwable instanceof Exception) {
+            return (Exception) throwable;
         }
+        return new IOException("Error requesting transaction receipts", throwable);
     }
 
     /**
-     * Java doesn't provide a concurrent linked hash set, so we use a simple wrapper to store
-     * details of the number of requests we've made against this specific transaction hash. This is
-     * so we can preserve submission order as we interate over the outstanding transactions.
+     * Details of the number of requests we've made against a specific transaction hash.
      *
      * <p>Note - the equals/hashcode methods only operate on the transactionHash field. This is
      * intentional.
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+
+/**
+ * Requests the receipts of many transactions with eth_getTransactionReceipt in JSON-RPC batches of
+ * a bounded size. Up to a maximum number of batches are sent concurrently, each being followed by
+ * the next waiting batch once it completes. The responses of each batch are handled as soon as it
+ * arrives, so handlers may be called from several threads at once.
+ */
+class TransactionReceiptBatcher {
+
+    static final int DEFAULT_MAX_CONCURRENT_BATCHES = 4;
+
+    private final Web3j web3j;
+    private final int batchSize;
+    private final int maxConcurrentBatches;
+
+    TransactionReceiptBatcher(Web3j web3j, int batchSize, int maxConcurrentBatches) {
+        if (batchSize < 1 || maxConcurrentBatches < 1) {
+            throw new IllegalArgumentException(
+                    "Batch size and maximum concurrent batches must be positive");
+        }
+        this.web3j = web3j;
+        this.batchSize = batchSize;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    TransactionReceiptBatcher(Web3j web3j, int batchSize) {
+        this(web3j, batchSize, DEFAULT_MAX_CONCURRENT_BATCHES);
+    }
+
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Request receipts.
+     *
+     * @param transactionHashes the transactions to request receipts for
+     * @param onResponse called with each transaction hash and the node's response for it
+     * @param onFailure called with the transaction hashes of each batch which failed
+     * @return a future completed once every batch has been handled
+     */
+    CompletableFuture<Void> request(
+            List<String> transactionHashes,
+            BiConsumer<String, EthGetTransactionReceipt> onResponse,
+            BiConsumer<List<String>, Throwable> onFailure) {
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < transactionHashes.size(); i += batchSize) {
+            batches.add(
+                    transactionHashes.subList(
+                            i, Math.min(i + batchSize, transactionHashes.size())));
+        }
+
+        // each lane sends the next waiting batch once its previous batch has been handled
+        AtomicInteger next = new AtomicInteger();
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxConcurrentBatches, batches.size()); i++) {
+            lanes.add(requestNext(batches, next, onResponse, onFailure));
+        }
+        return CompletableFuture.allOf(lanes.toArray(new CompletableFuture[0]));
+    }
+
+    private CompletableFuture<Void> requestNext(
+            List<List<String>> batches,
+            AtomicInteger next,
+            BiConsumer<String, EthGetTransactionReceipt> onResponse,
+            BiConsumer<List<String>, Throwable> onFailure) {
+        int index = next.getAndIncrement();
+        if (index >= batches.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<String> hashes = batches.get(index);
+        return request(hashes)
+                .<Void>handle(
+                        (responses, throwable) -> {
+                            if (throwable != null) {
+                                onFailure.accept(hashes, unwrap(throwable));
+                            } else {
+                                for (int j = 0; j < hashes.size(); j++) {
+                                    onResponse.accept(hashes.get(j), responses.get(j));
+                                }
+                            }
+                            return null;
+                        })
+                .thenCompose(ignored -> requestNext(batches, next, onResponse, onFailure));
+    }
+
+    private CompletableFuture<List<EthGetTransactionReceipt>> request(List<String> hashes) {
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Request<?, EthGetTransactionReceipt>> requests = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            Request<?, EthGetTransactionReceipt> request = web3j.ethGetTransactionReceipt(hash);
+            requests.add(request);
+            batchRequest.add(request);
+        }
+
+        try {
+            return batchRequest
+                    .sendAsync()
+                    .thenApply(batchResponse -> place(hashes, requests, batchResponse));
+        } catch (RuntimeException e) {
+            CompletableFuture<List<EthGetTransactionReceipt>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static List<EthGetTransactionReceipt> place(
+            List<String> hashes,
+            List<Request<?, EthGetTransactionReceipt>> requests,
+            BatchResponse batchResponse) {
+        if (batchResponse == null || batchResponse.getResponses().size() != hashes.size()) {
+            throw new CompletionException(
+                    new IOException("Incomplete batch response requesting receipts " + hashes));
+        }
+        return batchResponse.orderedByRequest(requests);
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+    }
+}
@@ -24,6 +24,15 @@ public class Async {
 
     private static final ExecutorService executor = Executors.newCachedThreadPool();
 
+    private static final ScheduledExecutorService sharedScheduledExecutorService =
+            Executors.newScheduledThreadPool(
+                    getCpuCount(),
+                    runnable -> {
+                        Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
     static {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> shutdown(executor)));
     }
@@ -64,6 +73,19 @@ public class Async {
         return scheduledExecutorService;
     }
 
+    /**
+     * Provide a ScheduledExecutorService which is shared by all of its callers, for components that
+     * only schedule short tasks and do not own an executor service.
+     *
+     * <p>Its threads are daemon threads, so it does not need to be shut down, and it must not be
+     * shut down by callers.
+     *
+     * @return the shared ScheduledExecutorService
+     */
+    public static ScheduledExecutorService sharedExecutorService() {
+        return sharedScheduledExecutorService;
+    }
+
     /**
      * Shutdown as per {@link ExecutorService} Javadoc recommendation.
      *
@@ -13,13 +13,18 @@
 package org.web3j.utils;
 
 import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
 
 import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
+import io.reactivex.functions.Consumer;
 
 /** Flowable utility functions. */
 public class Flowables {
 
+    /** Delay in milliseconds before resubscribing to a failed flowable. */
+    public static final long DEFAULT_RETRY_DELAY = 1000;
+
     public static Flowable<BigInteger> range(
             final BigInteger startValue, final BigInteger endValue) {
         return range(startValue, endValue, true);
@@ -72,4 +77,77 @@ public class Flowables {
                     BackpressureStrategy.BUFFER);
         }
     }
+
+    /**
+     * Emit a range of long values. Each value is only generated when it is requested, so the range
+     * honours backpressure and no values are buffered.
+     *
+     * @param startValue first value to emit in range
+     * @param endValue final value to emit in range
+     * @param ascending direction to iterate through range
+     * @return a {@link Flowable} instance to emit this range of values
+     */
+    public static Flowable<Long> range(
+            final long startValue, final long endValue, final boolean ascending) {
+        if (startValue < 0) {
+            throw new IllegalArgumentException("Negative start index cannot be used");
+        } else if (startValue > endValue) {
+            throw new IllegalArgumentException(
+                    "Negative start index cannot be greater then end index");
+        }
+
+        if (ascending) {
+            return Flowable.generate(
+                    () -> startValue,
+                    (i, emitter) -> {
+                        emitter.onNext(i);
+                        if (i == endValue) {
+                            emitter.onComplete();
+                        }
+                        return i + 1;
+                    });
+        } else {
+            return Flowable.generate(
+                    () -> endValue,
+                    (i, emitter) -> {
+                        emitter.onNext(i);
+                        if (i == startValue) {
+                            emitter.onComplete();
+                        }
+                        return i - 1;
+                    });
+        }
+    }
+
+    /**
+     * Resubscribe to a flowable each time it fails, after {@link #DEFAULT_RETRY_DELAY}
+     * milliseconds.
+     *
+     * @param flowable the flowable to resubscribe to
+     * @param onError called with each error before resubscribing, such as to log it
+     * @param <T> the type of item
+     * @return a {@link Flowable} instance which only terminates when the source completes
+     * @see #retryWithDelay(Flowable, long, TimeUnit, Consumer)
+     */
+    public static <T> Flowable<T> retryWithDelay(
+            Flowable<T> flowable, Consumer<? super Throwable> onError) {
+        return retryWithDelay(flowable, DEFAULT_RETRY_DELAY, TimeUnit.MILLISECONDS, onError);
+    }
+
+    /**
+     * Resubscribe to a flowable each time it fails, after a fixed delay. The delays run on the
+     * shared computation scheduler, and a pending resubscription is cancelled along with the
+     * subscription.
+     *
+     * @param flowable the flowable to resubscribe to
+     * @param delay the delay before resubscribing
+     * @param unit the unit of the delay
+     * @param onError called with each error before resubscribing, such as to log it
+     * @param <T> the type of item
+     * @return a {@link Flowable} instance which only terminates when the source completes
+     */
+    public static <T> Flowable<T> retryWithDelay(
+            Flowable<T> flowable, long delay, TimeUnit unit, Consumer<? super Throwable> onError) {
+        return flowable.retryWhen(errors -> errors.doOnNext(onError).delay(delay, unit));
+    }
 }
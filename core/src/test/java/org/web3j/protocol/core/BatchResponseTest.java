@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.methods.response.NetVersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class BatchResponseTest {
+
+    private final Web3jService web3jService = mock(Web3jService.class);
+
+    @Test
+    public void testResponsesArePlacedById() {
+        List<Request<?, NetVersion>> requests = Arrays.asList(request(), request(), request());
+        NetVersion first = response(requests.get(0).getId());
+        NetVersion second = response(requests.get(1).getId());
+        NetVersion third = response(requests.get(2).getId());
+
+        List<NetVersion> ordered = batchResponse(third, first, second).orderedByRequest(requests);
+
+        assertEquals(ordered, Arrays.asList(first, second, third));
+    }
+
+    @Test
+    public void testMissingResponsesAreNull() {
+        List<Request<?, NetVersion>> requests = Arrays.asList(request(), request());
+        NetVersion second = response(requests.get(1).getId());
+
+        List<NetVersion> ordered = batchResponse(second).orderedByRequest(requests);
+
+        assertNull(ordered.get(0));
+        assertSame(ordered.get(1), second);
+    }
+
+    @Test
+    public void testResponsesWithoutMatchingIdsKeepReceivedOrder() {
+        List<Request<?, NetVersion>> requests = Arrays.asList(request(), request(), request());
+        // the first response matches the last request, but the others do not match any
+        NetVersion first = response(requests.get(2).getId());
+        NetVersion second = response(-1);
+        NetVersion third = response(-1);
+
+        List<NetVersion> ordered = batchResponse(first, second, third).orderedByRequest(requests);
+
+        assertEquals(ordered, Arrays.asList(first, second, third));
+    }
+
+    @Test
+    public void testDuplicateIdsKeepReceivedOrder() {
+        List<Request<?, NetVersion>> requests = Arrays.asList(request(), request());
+        NetVersion first = response(requests.get(1).getId());
+        NetVersion second = response(requests.get(1).getId());
+
+        List<NetVersion> ordered = batchResponse(first, second).orderedByRequest(requests);
+
+        assertEquals(ordered, Arrays.asList(first, second));
+    }
+
+    private Request<?, NetVersion> request() {
+        return new Request<>(
+                "net_version", Collections.<String>emptyList(), web3jService, NetVersion.class);
+    }
+
+    private static NetVersion response(long id) {
+        NetVersion netVersion = new NetVersion();
+        netVersion.setId(id);
+        return netVersion;
+    }
+
+    private static BatchResponse batchResponse(NetVersion... responses) {
+        return new BatchResponse(Collections.emptyList(), Arrays.asList(responses));
+    }
+}
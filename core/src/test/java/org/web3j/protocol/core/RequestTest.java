@@ -146,6 +146,25 @@ public class RequestTest extends RequestTester {
         verifyResult("{\"jsonrpc\":\"2.0\",\"method\":\"eth_gasPrice\",\"params\":[],\"id\":1}");
     }
 
+    @Test
+    public void testEthMaxPriorityFeePerGas() throws Exception {
+        web3j.ethMaxPriorityFeePerGas().send();
+
+        verifyResult(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_maxPriorityFeePerGas\","
+                        + "\"params\":[],\"id\":1}");
+    }
+
+    @Test
+    public void testEthFeeHistory() throws Exception {
+        web3j.ethFeeHistory(4, DefaultBlockParameterName.LATEST, Arrays.asList(25.0, 75.0))
+                .send();
+
+        verifyResult(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_feeHistory\","
+                        + "\"params\":[\"0x4\",\"latest\",[25.0,75.0]],\"id\":1}");
+    }
+
     @Test
     public void testEthAccounts() throws Exception {
         web3j.ethAccounts().send();
@@ -413,6 +432,15 @@ public class RequestTest extends RequestTester {
                         + "\"id\":1}");
     }
 
+    @Test
+    public void testEthGetBlockReceipts() throws Exception {
+        web3j.ethGetBlockReceipts(DefaultBlockParameter.valueOf(Numeric.toBigInt("0x1b4"))).send();
+
+        verifyResult(
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_getBlockReceipts\","
+                        + "\"params\":[\"0x1b4\"],\"id\":1}");
+    }
+
     @Test
     public void testEthGetUncleByBlockHashAndIndex() throws Exception {
         web3j.ethGetUncleByBlockHashAndIndex(
@@ -39,9 +39,11 @@ import org.web3j.protocol.core.methods.response.EthCompileLLL;
 import org.web3j.protocol.core.methods.response.EthCompileSerpent;
 import org.web3j.protocol.core.methods.response.EthCompileSolidity;
 import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
 import org.web3j.protocol.core.methods.response.EthFilter;
 import org.web3j.protocol.core.methods.response.EthGasPrice;
 import org.web3j.protocol.core.methods.response.EthGetBalance;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
 import org.web3j.protocol.core.methods.response.EthGetBlockTransactionCountByHash;
 import org.web3j.protocol.core.methods.response.EthGetBlockTransactionCountByNumber;
 import org.web3j.protocol.core.methods.response.EthGetCode;
@@ -54,6 +56,7 @@ import org.web3j.protocol.core.methods.response.EthGetUncleCountByBlockNumber;
 import org.web3j.protocol.core.methods.response.EthGetWork;
 import org.web3j.protocol.core.methods.response.EthHashrate;
 import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthMaxPriorityFeePerGas;
 import org.web3j.protocol.core.methods.response.EthMining;
 import org.web3j.protocol.core.methods.response.EthProtocolVersion;
 import org.web3j.protocol.core.methods.response.EthSendRawTransaction;
@@ -328,6 +331,50 @@ public class ResponseTest extends ResponseTester {
         assertEquals(ethHashrate.getHashrate(), (BigInteger.valueOf(906L)));
     }
 
+    @Test
+    public void testEthMaxPriorityFeePerGas() {
+        buildResponse(
+                "{\n"
+                        + "  \"id\":1,\n"
+                        + "  \"jsonrpc\": \"2.0\",\n"
+                        + "  \"result\": \"0x3b9aca00\"\n"
+                        + "}");
+
+        EthMaxPriorityFeePerGas ethMaxPriorityFeePerGas =
+                deserialiseResponse(EthMaxPriorityFeePerGas.class);
+        assertEquals(
+                ethMaxPriorityFeePerGas.getMaxPriorityFeePerGas(), BigInteger.valueOf(1000000000L));
+    }
+
+    @Test
+    public void testEthFeeHistory() {
+        buildResponse(
+                "{\n"
+                        + "  \"id\":1,\n"
+                        + "  \"jsonrpc\": \"2.0\",\n"
+                        + "  \"result\": {\n"
+                        + "    \"oldestBlock\": \"0x10\",\n"
+                        + "    \"reward\": [[\"0x1\", \"0x2\"], [\"0x3\", \"0x4\"]],\n"
+                        + "    \"baseFeePerGas\": [\"0x64\", \"0x65\", \"0x66\"],\n"
+                        + "    \"gasUsedRatio\": [0.5, 0.25]\n"
+                        + "  }\n"
+                        + "}");
+
+        EthFeeHistory.FeeHistory feeHistory =
+                deserialiseResponse(EthFeeHistory.class).getFeeHistory();
+        assertEquals(feeHistory.getOldestBlock(), BigInteger.valueOf(16));
+        assertEquals(
+                feeHistory.getReward(),
+                Arrays.asList(
+                        Arrays.asList(BigInteger.valueOf(1), BigInteger.valueOf(2)),
+                        Arrays.asList(BigInteger.valueOf(3), BigInteger.valueOf(4))));
+        assertEquals(
+                feeHistory.getBaseFeePerGas(),
+                Arrays.asList(
+                        BigInteger.valueOf(100), BigInteger.valueOf(101), BigInteger.valueOf(102)));
+        assertEquals(feeHistory.getGasUsedRatio(), Arrays.asList(0.5, 0.25));
+    }
+
     @Test
     public void testEthGasPrice() {
         buildResponse(
@@ -1038,6 +1085,35 @@ public class ResponseTest extends ResponseTester {
         assertEquals(ethTransaction.getTransaction(), (Optional.empty()));
     }
 
+    @Test
+    public void testEthGetBlockReceipts() {
+
+        buildResponse(
+                "{\n"
+                        + "    \"id\":1,\n"
+                        + "    \"jsonrpc\":\"2.0\",\n"
+                        + "    \"result\": [{\n"
+                        + "        \"transactionHash\": \"0xb903239f8543d04b5dc1ba6579132b143087c68db1b2168786408fcbce568238\",\n"
+                        + "        \"transactionIndex\":  \"0x0\",\n"
+                        + "        \"blockNumber\": \"0xb\",\n"
+                        + "        \"status\": \"0x1\",\n"
+                        + "        \"logs\": []\n"
+                        + "    }, {\n"
+                        + "        \"transactionHash\": \"0xdf829c5a142f1fccd7d8216c5785ac562ff41e2dcfdf5785ac562ff41e2dcf\",\n"
+                        + "        \"transactionIndex\":  \"0x1\",\n"
+                        + "        \"blockNumber\": \"0xb\",\n"
+                        + "        \"status\": \"0x0\",\n"
+                        + "        \"logs\": []\n"
+                        + "    }]\n"
+                        + "}");
+
+        EthGetBlockReceipts ethGetBlockReceipts = deserialiseResponse(EthGetBlockReceipts.class);
+        List<TransactionReceipt> receipts = ethGetBlockReceipts.getBlockReceipts().get();
+        assertEquals(receipts.size(), (2));
+        assertEquals(receipts.get(1).getTransactionIndex(), (BigInteger.ONE));
+        assertEquals(receipts.get(1).getStatus(), ("0x0"));
+    }
+
     @Test
     public void testeEthGetTransactionReceiptBeforeByzantium() {
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.chain;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class BlockTimingModelTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    public void testLearnsBlockInterval() {
+        BlockTimingModel model = new BlockTimingModel(15000, 10, 60000, clock::get);
+
+        model.observe(100, 1000);
+        model.observe(101, 1002);
+        model.observe(103, 1006);
+        assertEquals(2000, model.getBlockInterval());
+
+        // sub-second blocks are measured across the blocks observed
+        BlockTimingModel fast = new BlockTimingModel(15000, 10, 60000, clock::get);
+        for (int i = 0; i < 12; i++) {
+            fast.observe(i, 1000 + i / 4);
+        }
+        assertEquals(181, fast.getBlockInterval());
+    }
+
+    @Test
+    public void testAlignsPollsWithNextBlock() {
+        BlockTimingModel model = new BlockTimingModel(15000, 10, 60000, clock::get);
+        model.observe(100, 1000);
+        model.observe(101, 1002);
+
+        // slack of a tenth of the interval after the block is due
+        assertEquals(2200, model.getPollDelay(0));
+        clock.addAndGet(1500);
+        assertEquals(700, model.getPollDelay(0));
+
+        // empty polls back off up to four block intervals
+        assertEquals(1000, model.getPollDelay(1));
+        assertEquals(4000, model.getPollDelay(3));
+        assertEquals(8000, model.getPollDelay(10));
+    }
+
+    @Test
+    public void testModelIsSharedPerWeb3j() {
+        Web3j web3j = mock(Web3j.class);
+        assertSame(BlockTimingModel.of(web3j), BlockTimingModel.of(web3j));
+    }
+
+    @Test
+    public void testAdaptiveScheduleStopsWhenCancelled() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        BlockTimingModel model = new BlockTimingModel(20, 10, 60000, System::currentTimeMillis);
+        model.observe(1, 1);
+        AdaptivePollingScheduler scheduler = new AdaptivePollingScheduler(mock(Web3j.class), model);
+
+        AtomicInteger polls = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(3);
+        ScheduledFuture<?> schedule =
+                scheduler.schedule(
+                        executor,
+                        () -> {
+                            polls.incrementAndGet();
+                            latch.countDown();
+                            return true;
+                        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        schedule.cancel(false);
+        assertTrue(schedule.isCancelled());
+        int count = polls.get();
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertTrue(polls.get() <= count + 1);
+        executor.shutdown();
+    }
+}
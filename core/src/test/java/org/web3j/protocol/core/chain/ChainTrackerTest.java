@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.chain;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChainTrackerTest {
+
+    private final Map<String, EthBlock.Block> node = new HashMap<>();
+
+    private ChainTracker chainTracker;
+    private TestSubscriber<EthBlock.Block> canonical;
+    private TestSubscriber<Reorg> reorgs;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            EthBlock ethBlock = new EthBlock();
+                            ethBlock.setResult(node.get((String) request.getParams().get(0)));
+                            return ethBlock;
+                        });
+
+        chainTracker = new ChainTracker(Web3j.build(web3jService), false, 8);
+        canonical = chainTracker.canonicalBlockFlowable().test();
+        reorgs = chainTracker.reorgFlowable().test();
+    }
+
+    @Test
+    public void testFillsSkippedBlocks() throws Exception {
+        chainTracker.onHead(block(1, 'a', 'a'));
+        block(2, 'a', 'a');
+        block(3, 'a', 'a');
+        chainTracker.onHead(block(4, 'a', 'a'));
+        // a lagging node reporting an older head is ignored
+        chainTracker.onHead(block(3, 'a', 'a'));
+
+        assertEquals(numbers(canonical.values()), Arrays.asList(1L, 2L, 3L, 4L));
+        reorgs.assertNoValues();
+        assertEquals(chainTracker.getHead().getHash(), hash(4, 'a'));
+    }
+
+    @Test
+    public void testDetectsReorg() throws Exception {
+        chainTracker.onHead(block(1, 'a', 'a'));
+        chainTracker.onHead(block(2, 'a', 'a'));
+        chainTracker.onHead(block(3, 'a', 'a'));
+        block(2, 'b', 'a');
+        chainTracker.onHead(block(3, 'b', 'b'));
+
+        reorgs.assertValueCount(1);
+        Reorg reorg = reorgs.values().get(0);
+        assertEquals(reorg.getCommonAncestorNumber(), 1);
+        assertEquals(reorg.getDepth(), 2);
+        assertEquals(reorg.getOldBranchHashes().get(1), hash(3, 'a'));
+        assertEquals(reorg.getNewBranch().get(0).getHash(), hash(2, 'b'));
+        assertEquals(numbers(canonical.values()), Arrays.asList(1L, 2L, 3L, 2L, 3L));
+        assertEquals(chainTracker.getCanonicalHash(2), hash(2, 'b'));
+        assertEquals(chainTracker.getCanonicalParentHash(3), hash(2, 'b'));
+    }
+
+    @Test
+    public void testConfirmedBlocks() throws Exception {
+        TestSubscriber<EthBlock.Block> confirmed = chainTracker.confirmedBlockFlowable(2).test();
+
+        chainTracker.onHead(block(1, 'a', 'a'));
+        chainTracker.onHead(block(2, 'a', 'a'));
+        chainTracker.onHead(block(3, 'a', 'a'));
+        chainTracker.onHead(block(4, 'a', 'a'));
+        // a reorg within the confirmation depth is not visible to confirmed blocks
+        chainTracker.onHead(block(4, 'b', 'a'));
+        chainTracker.onHead(block(5, 'b', 'b'));
+
+        confirmed.awaitCount(3);
+        assertEquals(numbers(confirmed.values()), Arrays.asList(1L, 2L, 3L));
+        assertEquals(confirmed.values().get(2).getHash(), hash(3, 'a'));
+    }
+
+    @Test
+    public void testRestartsWhenReorgIsDeeperThanBuffer() throws Exception {
+        for (int i = 1; i <= 10; i++) {
+            chainTracker.onHead(block(i, 'a', 'a'));
+        }
+        for (int i = 1; i <= 10; i++) {
+            block(i, 'c', i == 1 ? 'a' : 'c');
+        }
+        chainTracker.onHead(block(11, 'c', 'c'));
+
+        reorgs.assertNoValues();
+        assertEquals(chainTracker.getHead().getHash(), hash(11, 'c'));
+        assertNull(chainTracker.getCanonicalHash(3));
+        assertEquals(chainTracker.getCanonicalHash(4), hash(4, 'c'));
+    }
+
+    private EthBlock.Block block(long number, char fork, char parentFork) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        block.setHash(hash(number, fork));
+        block.setParentHash(hash(number - 1, parentFork));
+        node.put(block.getHash(), block);
+        return block;
+    }
+
+    private static String hash(long number, char fork) {
+        return Numeric.toHexStringWithPrefixZeroPadded(
+                BigInteger.valueOf(number).shiftLeft(8).add(BigInteger.valueOf(fork)), 64);
+    }
+
+    private static List<Long> numbers(List<EthBlock.Block> blocks) {
+        return blocks.stream()
+                .map(block -> block.getNumber().longValueExact())
+                .collect(Collectors.toList());
+    }
+}
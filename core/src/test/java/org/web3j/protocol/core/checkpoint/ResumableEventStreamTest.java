@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.checkpoint;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.web3j.TempFileProvider;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResumableEventStreamTest extends TempFileProvider {
+
+    private static final String ADDRESS = "0x2a98c5f40bfa3dee83431103c535f6fae9a8ad38";
+    private static final String HASH =
+            "0xb0f1b5a2cf3a9e8c3c1e1fbe06d24e05a19e3d7b3f28d5ec8f4f3ed9a9a8b1c2";
+    private static final String REORGED_HASH =
+            "0x5c1a0d6f4ed3b6a2a9fd1df06b7bb1e7f0a4c5f64d0e82a6c7e7a1e1a8f2d3e4";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final ScheduledExecutorService scheduledExecutorService =
+            Executors.newSingleThreadScheduledExecutor();
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private Path checkpointFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService, 100, scheduledExecutorService);
+        checkpointFile = Paths.get(tempDirPath, "checkpoint.properties");
+
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x11\"}",
+                                EthBlockNumber.class));
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{"
+                                        + "\"number\":\"0x10\",\"hash\":\""
+                                        + HASH
+                                        + "\"}}",
+                                EthBlock.class));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":["
+                                        + log("0x10", 0)
+                                        + ","
+                                        + log("0x10", 1)
+                                        + ","
+                                        + log("0x10", 2)
+                                        + ","
+                                        + log("0x11", 0)
+                                        + "]}",
+                                EthLog.class));
+    }
+
+    @Test
+    public void testFileCheckpointStore() throws Exception {
+        FileCheckpointStore store = new FileCheckpointStore(checkpointFile);
+        assertFalse(store.load().isPresent());
+
+        Checkpoint checkpoint = new Checkpoint(0x10, HASH, Checkpoint.END_OF_BLOCK);
+        store.save(checkpoint);
+        store.save(new Checkpoint(0x11, HASH, 3));
+
+        assertEquals(
+                new FileCheckpointStore(checkpointFile).load(),
+                Optional.of(new Checkpoint(0x11, HASH, 3)));
+    }
+
+    @Test
+    public void testFileCheckpointStoreWithoutBlockHash() throws Exception {
+        new FileCheckpointStore(checkpointFile).save(new Checkpoint(0x10, null, -1));
+
+        assertEquals(
+                new FileCheckpointStore(checkpointFile).load(),
+                Optional.of(new Checkpoint(0x10, null, -1)));
+    }
+
+    @Test
+    public void testResumesAfterAcknowledgedLog() throws Exception {
+        new FileCheckpointStore(checkpointFile).save(new Checkpoint(0x10, HASH, 1));
+
+        ResumableEventStream stream = newStream();
+        TestSubscriber<Log> subscriber = stream.logFlowable(filter()).test();
+        subscriber.awaitCount(2);
+        subscriber.assertValueCount(2);
+        assertEquals(subscriber.values().get(0).getLogIndexRaw(), "0x2");
+        assertEquals(subscriber.values().get(1).getBlockNumberRaw(), "0x11");
+        assertEquals(requestedFromBlock(), 0x10);
+
+        stream.acknowledge(subscriber.values().get(1));
+        subscriber.dispose();
+        stream.close();
+
+        assertEquals(
+                new FileCheckpointStore(checkpointFile).load(),
+                Optional.of(new Checkpoint(0x11, HASH, 0)));
+    }
+
+    @Test
+    public void testRewindsWhenCheckpointBlockIsReorganised() throws Exception {
+        new FileCheckpointStore(checkpointFile).save(new Checkpoint(0x10, REORGED_HASH, 1));
+
+        ResumableEventStream stream = newStream();
+        TestSubscriber<Log> subscriber = stream.logFlowable(filter()).test();
+        subscriber.awaitCount(4);
+        subscriber.assertValueCount(4);
+        assertEquals(requestedFromBlock(), 0x10 - 4);
+        subscriber.dispose();
+        stream.close();
+    }
+
+    @Test
+    public void testCloseStopsOwnThread() throws Exception {
+        ResumableEventStream stream = new ResumableEventStream(web3j, checkpointFile);
+        List<Thread> threads = checkpointThreads();
+        assertFalse(threads.isEmpty());
+
+        stream.close();
+
+        for (Thread thread : threads) {
+            thread.join(5000);
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    private static List<Thread> checkpointThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("web3j-checkpoint"))
+                .collect(Collectors.toList());
+    }
+
+    private ResumableEventStream newStream() throws Exception {
+        return new ResumableEventStream(
+                web3j,
+                new FileCheckpointStore(checkpointFile),
+                scheduledExecutorService,
+                ResumableEventStream.DEFAULT_CHECKPOINT_INTERVAL,
+                4);
+    }
+
+    private EthFilter filter() {
+        return new EthFilter(
+                new DefaultBlockParameterNumber(0), new DefaultBlockParameterNumber(0x11), ADDRESS);
+    }
+
+    private long requestedFromBlock() throws Exception {
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        verify(web3jService, atLeastOnce()).send(requests.capture(), eq(EthLog.class));
+        EthFilter ethFilter = (EthFilter) requests.getAllValues().get(0).getParams().get(0);
+        return ((DefaultBlockParameterNumber) ethFilter.getFromBlock())
+                .getBlockNumber()
+                .longValueExact();
+    }
+
+    private static String log(String blockNumber, int logIndex) {
+        return "{\"logIndex\":\"0x"
+                + Integer.toHexString(logIndex)
+                + "\",\"blockNumber\":\""
+                + blockNumber
+                + "\",\"blockHash\":\""
+                + HASH
+                + "\"}";
+    }
+}
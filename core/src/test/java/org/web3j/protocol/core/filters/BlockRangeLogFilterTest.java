@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlockRangeLogFilterTest {
+
+    private static final String ADDRESS = "0x2a98c5f40bfa3dee83431103c535f6fae9a8ad38";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final ScheduledExecutorService scheduledExecutorService =
+            Executors.newSingleThreadScheduledExecutor();
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService, 1000, scheduledExecutorService);
+    }
+
+    @Test
+    public void testPollsBlocksAfterCursor() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x12"))
+                .thenReturn(blockNumber("0x11"))
+                .thenReturn(blockNumber("0x14"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(ethLog("{\"logIndex\":\"0x0\",\"blockNumber\":\"0x11\"}"))
+                .thenReturn(ethLog("{\"logIndex\":\"0x1\",\"blockNumber\":\"0x13\"}"));
+
+        List<Log> results = new ArrayList<>();
+        BlockRangeLogFilter filter =
+                new BlockRangeLogFilter(
+                        web3j,
+                        results::add,
+                        new EthFilter(
+                                new DefaultBlockParameterNumber(0x10),
+                                DefaultBlockParameterName.LATEST,
+                                ADDRESS));
+
+        filter.poll();
+        assertEquals(filter.getCursor(), BigInteger.valueOf(0x12));
+        // a node lagging behind the cursor is ignored
+        filter.poll();
+        assertEquals(filter.getCursor(), BigInteger.valueOf(0x12));
+        filter.poll();
+        assertEquals(filter.getCursor(), BigInteger.valueOf(0x14));
+
+        assertEquals(results.size(), 2);
+        ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+        verify(web3jService, times(2)).send(requests.capture(), eq(EthLog.class));
+        EthFilter last = (EthFilter) requests.getValue().getParams().get(0);
+        assertEquals(
+                ((DefaultBlockParameterNumber) last.getFromBlock()).getBlockNumber(),
+                BigInteger.valueOf(0x13));
+        verify(web3jService, never())
+                .send(
+                        any(Request.class),
+                        eq(org.web3j.protocol.core.methods.response.EthFilter.class));
+    }
+
+    @Test
+    public void testFlowableStaysBehindHead() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x14"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class))).thenReturn(ethLog());
+
+        Disposable disposable =
+                web3j.blockRangeLogFlowable(
+                                new EthFilter(
+                                        new DefaultBlockParameterNumber(0x10),
+                                        DefaultBlockParameterName.LATEST,
+                                        ADDRESS),
+                                2)
+                        .subscribe();
+        try {
+            ArgumentCaptor<Request> requests = ArgumentCaptor.forClass(Request.class);
+            verify(web3jService, timeout(5000).atLeastOnce())
+                    .send(requests.capture(), eq(EthLog.class));
+            EthFilter first = (EthFilter) requests.getAllValues().get(0).getParams().get(0);
+            assertEquals(
+                    ((DefaultBlockParameterNumber) first.getToBlock()).getBlockNumber(),
+                    BigInteger.valueOf(0x12));
+        } finally {
+            disposable.dispose();
+        }
+    }
+
+    @Test
+    public void testStopsAtToBlock() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x20"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class))).thenReturn(ethLog());
+
+        BlockRangeLogFilter filter =
+                new BlockRangeLogFilter(
+                        web3j,
+                        log -> {},
+                        new EthFilter(
+                                new DefaultBlockParameterNumber(0x10),
+                                new DefaultBlockParameterNumber(0x18),
+                                ADDRESS));
+        filter.poll();
+
+        assertTrue(filter.isFinished());
+        assertEquals(filter.getCursor(), BigInteger.valueOf(0x18));
+    }
+
+    @Test
+    public void testFlowableCompletesAtToBlock() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x20"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(ethLog("{\"logIndex\":\"0x0\",\"blockNumber\":\"0x11\"}"));
+
+        TestSubscriber<Log> subscriber =
+                web3j.blockRangeLogFlowable(
+                                new EthFilter(
+                                        new DefaultBlockParameterNumber(0x10),
+                                        new DefaultBlockParameterNumber(0x18),
+                                        ADDRESS))
+                        .test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertComplete();
+        subscriber.assertValueCount(1);
+    }
+
+    @Test
+    public void testSplitsRejectedRange() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(error(-32005, "query returned more than 10000 results"))
+                .thenReturn(ethLog("{\"logIndex\":\"0x0\"}"))
+                .thenReturn(ethLog("{\"logIndex\":\"0x1\"}"));
+
+        LogRangeFetcher fetcher = new LogRangeFetcher(web3j, 8);
+        List<Log> logs =
+                fetcher.getLogs(
+                        new EthFilter(null, null, ADDRESS), BigInteger.ONE, BigInteger.valueOf(8));
+
+        assertEquals(logs.size(), 2);
+        assertEquals(logs.get(1).getLogIndex(), BigInteger.ONE);
+        assertEquals(fetcher.getBlockRange(), 4);
+        verify(web3jService, times(3)).send(any(Request.class), eq(EthLog.class));
+    }
+
+    @Test
+    public void testSingleBlockRejectionFails() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(error(-32005, "query returned more than 10000 results"));
+
+        LogRangeFetcher fetcher = new LogRangeFetcher(web3j, 1);
+        assertThrows(
+                FilterException.class,
+                () ->
+                        fetcher.getLogs(
+                                new EthFilter(null, null, ADDRESS),
+                                BigInteger.ONE,
+                                BigInteger.ONE));
+    }
+
+    private EthBlockNumber blockNumber(String number) throws Exception {
+        return objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"" + number + "\"}",
+                EthBlockNumber.class);
+    }
+
+    private EthLog ethLog(String... logs) throws Exception {
+        return objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[" + String.join(",", logs) + "]}",
+                EthLog.class);
+    }
+
+    private EthLog error(int code, String message) throws Exception {
+        return objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":"
+                        + code
+                        + ",\"message\":\""
+                        + message
+                        + "\"}}",
+                EthLog.class);
+    }
+}
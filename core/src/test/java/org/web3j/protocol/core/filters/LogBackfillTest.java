@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogBackfillTest {
+
+    private static final String ADDRESS = "0x2a98c5f40bfa3dee83431103c535f6fae9a8ad38";
+    // widest range the mocked nodes accept
+    private static final int NODE_LIMIT = 4;
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testBackfillIsOrderedAndSplitsRejectedChunks() throws Exception {
+        Web3jService first = node();
+        Web3jService second = node();
+
+        LogBackfill backfill =
+                new LogBackfill(
+                        Arrays.asList(Web3j.build(first), Web3j.build(second)),
+                        new EthFilter(null, null, ADDRESS),
+                        BigInteger.ZERO,
+                        BigInteger.valueOf(49),
+                        3,
+                        8,
+                        16,
+                        1,
+                        Schedulers.io());
+
+        List<Log> logs =
+                backfill.logFlowable().toList().timeout(10, TimeUnit.SECONDS).blockingGet();
+
+        assertEquals(logs.size(), 100);
+        for (int i = 0; i < logs.size(); i++) {
+            assertEquals(logs.get(i).getBlockNumber(), BigInteger.valueOf(i / 2));
+            assertEquals(logs.get(i).getLogIndex(), BigInteger.valueOf(i % 2));
+        }
+        assertTrue(backfill.getSplits() > 0);
+        assertTrue(backfill.getChunkSize() <= NODE_LIMIT);
+        assertEquals(backfill.getBlocksCompleted(), 50);
+        assertEquals(backfill.getProgress(), 1.0);
+        assertEquals(backfill.getLogsEmitted(), 100);
+        assertTrue(backfill.getBlocksPerSecond() > 0);
+        verify(first, atLeastOnce()).send(any(Request.class), eq(EthLog.class));
+        verify(second, atLeastOnce()).send(any(Request.class), eq(EthLog.class));
+    }
+
+    /** A node returning two logs per block, in reverse order, for ranges up to its limit. */
+    private Web3jService node() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        Answer<EthLog> answer =
+                invocation -> {
+                    Request<?, ?> request = invocation.getArgument(0);
+                    EthFilter filter = (EthFilter) request.getParams().get(0);
+                    long from =
+                            ((DefaultBlockParameterNumber) filter.getFromBlock())
+                                    .getBlockNumber()
+                                    .longValue();
+                    long to =
+                            ((DefaultBlockParameterNumber) filter.getToBlock())
+                                    .getBlockNumber()
+                                    .longValue();
+                    if (to - from + 1 > NODE_LIMIT) {
+                        return objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32005,"
+                                        + "\"message\":\"query returned more than 10000 results\"}}",
+                                EthLog.class);
+                    }
+
+                    List<String> logs = new ArrayList<>();
+                    for (long block = to; block >= from; block--) {
+                        for (int logIndex = 1; logIndex >= 0; logIndex--) {
+                            logs.add(
+                                    "{\"blockNumber\":\"0x"
+                                            + Long.toHexString(block)
+                                            + "\",\"logIndex\":\"0x"
+                                            + logIndex
+                                            + "\"}");
+                        }
+                    }
+                    return objectMapper.readValue(
+                            "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":["
+                                    + String.join(",", logs)
+                                    + "]}",
+                            EthLog.class);
+                };
+        when(web3jService.send(any(Request.class), eq(EthLog.class))).thenAnswer(answer);
+        return web3jService;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogPollingHubTest {
+
+    private static final String ADDRESS_A = "0x2a98c5f40bfa3dee83431103c535f6fae9a8ad38";
+    private static final String ADDRESS_B = "0x3f37a1c95bbc0aa6bf62e99b30b147e68dee7b43";
+    private static final String TOPIC_X =
+            "0x5a690ecd0cb15c1c1fd6b6f8a32df0d4f56cb41a54fea7e94020f013595de796";
+    private static final String TOPIC_Y =
+            "0xa9c6cbc4bd352a6940479f6d802a1001550581858b310d7f68f7bea51218cda6";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+    private final ScheduledExecutorService scheduledExecutorService =
+            Executors.newSingleThreadScheduledExecutor();
+
+    private Web3jService web3jService;
+    private LogPollingHub logPollingHub;
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        Web3j web3j = Web3j.build(web3jService, 1000, scheduledExecutorService);
+        logPollingHub = new LogPollingHub(web3j, scheduledExecutorService, 50);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduledExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void testSubscriptionsShareSinglePoll() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x10"))
+                .thenReturn(blockNumber("0x11"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(
+                        ethLog(
+                                log(ADDRESS_A, TOPIC_X, "0x0"),
+                                log(ADDRESS_B, TOPIC_Y, "0x1"),
+                                log(ADDRESS_A.toUpperCase().replace("0X", "0x"), TOPIC_Y, "0x2"),
+                                log(ADDRESS_B, TOPIC_X, "0x3")));
+
+        EthFilter first = new EthFilter(null, null, ADDRESS_A);
+        first.addOptionalTopics(TOPIC_X, TOPIC_Y);
+        EthFilter second = new EthFilter(null, null, ADDRESS_B);
+        second.addSingleTopic(TOPIC_Y);
+
+        TestSubscriber<Log> firstSubscriber = logPollingHub.logFlowable(first).test();
+        TestSubscriber<Log> secondSubscriber = logPollingHub.logFlowable(second).test();
+        assertEquals(logPollingHub.getSubscriptionCount(), 2);
+
+        firstSubscriber.awaitCount(2);
+        secondSubscriber.awaitCount(1);
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertEquals(logIndexes(firstSubscriber.values()), "0x0,0x2");
+        assertEquals(logIndexes(secondSubscriber.values()), "0x1");
+
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+        verify(web3jService, times(1)).send(request.capture(), eq(EthLog.class));
+        EthFilter unionFilter = (EthFilter) request.getValue().getParams().get(0);
+        assertEquals(unionFilter.getAddress().size(), 2);
+        assertEquals(unionFilter.getTopics().size(), 1);
+        assertEquals(
+                ((DefaultBlockParameterNumber) unionFilter.getFromBlock()).getBlockNumber(),
+                ((DefaultBlockParameterNumber) unionFilter.getToBlock()).getBlockNumber());
+
+        firstSubscriber.dispose();
+        secondSubscriber.dispose();
+        assertEquals(logPollingHub.getSubscriptionCount(), 0);
+    }
+
+    @Test
+    public void testHistoricalSubscriptionIsBackfilledAndCompleted() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x10"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(ethLog(log(ADDRESS_A, TOPIC_X, "0x0")));
+
+        EthFilter ethFilter =
+                new EthFilter(
+                        DefaultBlockParameterName.EARLIEST,
+                        new DefaultBlockParameterNumber(0x10),
+                        ADDRESS_A);
+
+        TestSubscriber<Log> subscriber = logPollingHub.logFlowable(ethFilter).test();
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+
+        subscriber.assertComplete();
+        assertEquals(logIndexes(subscriber.values()), "0x0");
+        assertEquals(logPollingHub.getSubscriptionCount(), 0);
+    }
+
+    @Test
+    public void testLogWithoutAddressIsDeliveredOnce() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthBlockNumber.class)))
+                .thenReturn(blockNumber("0x10"))
+                .thenReturn(blockNumber("0x11"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(
+                        ethLog(
+                                "{\"blockNumber\":\"0x11\",\"logIndex\":\"0x0\",\"data\":\"0x\","
+                                        + "\"topics\":[]}",
+                                log(ADDRESS_A, TOPIC_X, "0x1")));
+
+        TestSubscriber<Log> subscriber = logPollingHub.logFlowable(new EthFilter()).test();
+
+        subscriber.awaitCount(2);
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertEquals(logIndexes(subscriber.values()), "0x0,0x1");
+        subscriber.dispose();
+    }
+
+    private EthBlockNumber blockNumber(String number) throws Exception {
+        return objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"" + number + "\"}",
+                EthBlockNumber.class);
+    }
+
+    private EthLog ethLog(String... logs) throws Exception {
+        return objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[" + String.join(",", logs) + "]}",
+                EthLog.class);
+    }
+
+    private static String log(String address, String topic, String logIndex) {
+        return "{\"address\":\""
+                + address
+                + "\",\"blockNumber\":\"0x11\",\"logIndex\":\""
+                + logIndex
+                + "\",\"data\":\"0x\",\"topics\":[\""
+                + topic
+                + "\"]}";
+    }
+
+    private static String logIndexes(List<Log> logs) {
+        StringBuilder result = new StringBuilder();
+        for (Log log : logs) {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(log.getLogIndexRaw());
+        }
+        return result.toString();
+    }
+}
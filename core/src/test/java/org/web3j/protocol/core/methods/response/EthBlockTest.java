@@ -12,15 +12,26 @@
  */
 package org.web3j.protocol.core.methods.response;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
 import org.web3j.crypto.Credentials;
+import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.deserializer.HexStringPool;
 import org.web3j.protocol.http.HttpService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EthBlockTest {
 
@@ -62,4 +73,76 @@ public class EthBlockTest {
         System.out.println(transaction.getTransaction().get().getChainId());
         System.out.println(transaction.getTransaction().get().getAccessList().size());
     }
+
+    @Test
+    public void testLazyBlockTransactions() throws Exception {
+        ObjectMapper eagerMapper = ObjectMapperFactory.getObjectMapper();
+        ObjectMapper lazyMapper = ObjectMapperFactory.withLazyBlockTransactions(eagerMapper, true);
+
+        EthBlock.Block eagerBlock = readBlock(eagerMapper);
+        assertEquals(readBlock(lazyMapper).getTransactionCount(), 3);
+        assertEquals(readBlock(lazyMapper).getTransaction(1), eagerBlock.getTransactions().get(1));
+        assertEquals(readBlock(lazyMapper).getTransactions(), eagerBlock.getTransactions());
+        assertEquals(readBlock(lazyMapper), eagerBlock);
+
+        String to = "0xdAC17F958D2ee523a2206206994597C13D831ec7";
+        List<EthBlock.TransactionResult> lazyMatches = readBlock(lazyMapper).findTransactionsTo(to);
+        assertEquals(lazyMatches, eagerBlock.findTransactionsTo(to));
+        assertEquals(lazyMatches, Collections.singletonList(eagerBlock.getTransactions().get(1)));
+        assertEquals(
+                readBlock(lazyMapper).findTransactionsTo(null),
+                Collections.singletonList(eagerBlock.getTransactions().get(2)));
+
+        String from = "0xae2fc483527b8ef99eb5d9b44875f005ba1fae13";
+        assertEquals(
+                readBlock(lazyMapper).findTransactions("from", from::equals),
+                Collections.singletonList(eagerBlock.getTransactions().get(0)));
+        assertEquals(
+                eagerBlock.findTransactions("from", from::equals),
+                Collections.singletonList(eagerBlock.getTransactions().get(0)));
+    }
+
+    @Test
+    public void testLazyBlockTransactionsDoNotChangeSharedMapper() throws Exception {
+        ObjectMapperFactory.withLazyBlockTransactions(ObjectMapperFactory.getObjectMapper(), true);
+
+        EthBlock.Block block = readBlock(ObjectMapperFactory.getObjectMapper());
+        assertFalse(block.getTransactions() instanceof RawBlockTransactions);
+    }
+
+    @Test
+    public void testTransactionCountWithoutTransactions() {
+        assertEquals(new EthBlock.Block().getTransactionCount(), 0);
+    }
+
+    @Test
+    public void testLazyBlockTransactionsUseConfiguredMapper() throws Exception {
+        HexStringPool pool = new HexStringPool();
+        ObjectMapper objectMapper =
+                ObjectMapperFactory.withHexStringPool(
+                        ObjectMapperFactory.withLazyBlockTransactions(
+                                ObjectMapperFactory.getObjectMapper(), true),
+                        pool);
+
+        EthBlock.Block block = readBlock(objectMapper);
+        long lookups = pool.getHits() + pool.getMisses();
+        EthBlock.TransactionObject transaction =
+                (EthBlock.TransactionObject) block.getTransaction(0);
+
+        assertTrue(pool.getHits() + pool.getMisses() > lookups);
+        assertSame(pool.intern(transaction.getFrom()), transaction.getFrom());
+    }
+
+    @Test
+    public void testGetTransactionWithoutTransactions() {
+        assertThrows(
+                IndexOutOfBoundsException.class, () -> new EthBlock.Block().getTransaction(0));
+    }
+
+    private EthBlock.Block readBlock(ObjectMapper objectMapper) throws IOException {
+        try (InputStream inputStream =
+                getClass().getResourceAsStream("/fixtures/block-full-transactions.json")) {
+            return objectMapper.readValue(inputStream, EthBlock.class).getBlock();
+        }
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.methods.response.compact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthCompactLog;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactModelTest {
+
+    private static final String TRANSFER_TOPIC =
+            "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testCompactTransactionReceipt() throws Exception {
+        JsonNode fixture = readFixture("transaction-receipt.json");
+        TransactionReceipt receipt =
+                objectMapper
+                        .treeToValue(fixture, EthGetTransactionReceipt.class)
+                        .getTransactionReceipt()
+                        .get();
+
+        CompactTransactionReceipt compactReceipt =
+                objectMapper.treeToValue(fixture.get("result"), CompactTransactionReceipt.class);
+
+        assertEquals(compactReceipt, CompactTransactionReceipt.of(receipt));
+        assertEquals(compactReceipt.hashCode(), CompactTransactionReceipt.of(receipt).hashCode());
+        assertEquals(compactReceipt.toTransactionReceipt(), receipt);
+        assertEquals(compactReceipt.getBlockNumber(), receipt.getBlockNumber().longValue());
+        assertEquals(compactReceipt.getGasUsed(), receipt.getGasUsed().longValue());
+        assertEquals(
+                compactReceipt.getTransactionHash(), Hash32.parse(receipt.getTransactionHash()));
+        assertNull(compactReceipt.getContractAddress());
+        assertTrue(compactReceipt.isStatusOK());
+
+        CompactLog log = compactReceipt.getLogs().get(0);
+        assertEquals(log.getTopicCount(), 3);
+        assertTrue(log.isTopic(0, Hash32.parse(TRANSFER_TOPIC)));
+        assertFalse(log.isTopic(1, Hash32.parse(TRANSFER_TOPIC)));
+        assertFalse(log.isTopic(3, Hash32.parse(TRANSFER_TOPIC)));
+        assertTrue(log.isAddress(Address20.parse(receipt.getLogs().get(0).getAddress())));
+        assertEquals(log.getAddress().toString(), receipt.getLogs().get(0).getAddress());
+    }
+
+    @Test
+    public void testCompactTransactions() throws Exception {
+        JsonNode fixture = readFixture("block-full-transactions.json");
+        EthBlock.Block block = objectMapper.treeToValue(fixture, EthBlock.class).getBlock();
+
+        for (int i = 0; i < block.getTransactions().size(); i++) {
+            Transaction transaction = (Transaction) block.getTransactions().get(i).get();
+            CompactTransaction compactTransaction =
+                    objectMapper.treeToValue(
+                            fixture.get("result").get("transactions").get(i),
+                            CompactTransaction.class);
+
+            assertEquals(compactTransaction, CompactTransaction.of(transaction));
+            assertEquals(compactTransaction.toTransaction(), transaction);
+            assertEquals(compactTransaction.getValue(), transaction.getValue());
+            assertEquals(compactTransaction.getGas(), transaction.getGas().longValue());
+            assertEquals(compactTransaction.getNonce(), transaction.getNonce().longValue());
+            assertTrue(compactTransaction.isFrom(Address20.parse(transaction.getFrom())));
+        }
+
+        CompactTransaction creation =
+                CompactTransaction.of((Transaction) block.getTransactions().get(2).get());
+        assertNull(creation.getTo());
+        assertFalse(creation.isTo(creation.getFrom()));
+    }
+
+    @Test
+    public void testValuesAreNormalised() {
+        Log log = new Log();
+        log.setLogIndex("0x01");
+        log.setAddress("0x52908400098527886E0F7030069857D2E4169EE7");
+        log.setTopics(Arrays.asList(TRANSFER_TOPIC.toUpperCase().replace("0X", "0x")));
+        log.setData("0x");
+
+        CompactLog compactLog = CompactLog.of(log);
+
+        assertEquals(compactLog.getLogIndex(), 1);
+        assertEquals(compactLog.getBlockNumber(), -1);
+        assertNull(compactLog.getBlockHash());
+        assertEquals(compactLog.getData().length, 0);
+        assertTrue(compactLog.isTopic(0, Hash32.parse(TRANSFER_TOPIC)));
+
+        Log canonical = compactLog.toLog();
+        assertEquals(canonical.getLogIndexRaw(), "0x1");
+        assertEquals(canonical.getAddress(), "0x52908400098527886e0f7030069857d2e4169ee7");
+        assertEquals(canonical.getTopics(), Arrays.asList(TRANSFER_TOPIC));
+    }
+
+    @Test
+    public void testInvalidValues() throws Exception {
+        Log log = new Log();
+        log.setTopics(Arrays.asList("0x01"));
+        assertThrows(IllegalArgumentException.class, () -> CompactLog.of(log));
+
+        Log largeLog = new Log();
+        largeLog.setBlockNumber("0xffffffffffffffffff");
+        assertThrows(IllegalArgumentException.class, () -> CompactLog.of(largeLog));
+
+        ObjectNode logNode =
+                (ObjectNode)
+                        readFixture("transaction-receipt.json").get("result").get("logs").get(0);
+        logNode.put("blockHash", "0x1234");
+        assertThrows(
+                JsonMappingException.class,
+                () -> objectMapper.treeToValue(logNode, CompactLog.class));
+    }
+
+    @Test
+    public void testEthCompactLog() throws Exception {
+        JsonNode logNode = readFixture("transaction-receipt.json").get("result").get("logs");
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("jsonrpc", "2.0");
+        response.put("id", 1);
+        response.set("result", logNode);
+
+        EthCompactLog ethCompactLog =
+                objectMapper.readValue(
+                        objectMapper.writeValueAsString(response), EthCompactLog.class);
+
+        assertEquals(ethCompactLog.getLogs().size(), 1);
+        assertEquals(
+                ethCompactLog.getLogs().get(0),
+                CompactLog.of(objectMapper.treeToValue(logNode.get(0), Log.class)));
+        assertEquals(ethCompactLog.getLogs().get(0).getLogIndex(), 3);
+    }
+
+    @Test
+    public void testHashAndAddress() {
+        Hash32 hash = Hash32.parse(TRANSFER_TOPIC);
+        assertEquals(hash.toString(), TRANSFER_TOPIC);
+        assertEquals(Hash32.wrap(hash.toByteArray()), hash);
+        assertEquals(Hash32.wrap(hash.toByteArray()).hashCode(), hash.hashCode());
+
+        Address20 address = Address20.parse("0xdac17f958d2ee523a2206206994597c13d831ec7");
+        assertEquals(address.toString(), "0xdac17f958d2ee523a2206206994597c13d831ec7");
+        assertArrayEquals(
+                Address20.wrap(address.toByteArray()).toByteArray(), address.toByteArray());
+        assertEquals(Address20.wrap(address.toByteArray()), address);
+        assertNull(Address20.parse(null));
+    }
+
+    private JsonNode readFixture(String name) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/fixtures/" + name)) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.websocket.events.LogNotification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HexStringPoolTest {
+
+    private static final String ADDRESS = "0xdac17f958d2ee523a2206206994597c13d831ec7";
+    private static final String TOPIC =
+            "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String LOG =
+            "{\"address\":\""
+                    + ADDRESS
+                    + "\",\"blockNumber\":\"0x1\",\"data\":\"0x\",\"topics\":[\""
+                    + TOPIC
+                    + "\"]}";
+
+    @Test
+    public void testIntern() {
+        HexStringPool pool = new HexStringPool(16);
+
+        String first = pool.intern(new String(ADDRESS));
+        String second = pool.intern(new String(ADDRESS));
+        char[] chars = ("\"" + ADDRESS + "\"").toCharArray();
+        String third = pool.intern(chars, 1, ADDRESS.length());
+
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(pool.getMisses(), 1);
+        assertEquals(pool.getHits(), 2);
+        assertEquals(pool.getHitRate(), 2.0 / 3.0);
+        assertEquals(pool.getCapacity(), 16);
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        HexStringPool pool = new HexStringPool(2);
+
+        String first = pool.intern(new String(ADDRESS));
+        pool.intern("0x01");
+        pool.intern("0x02");
+
+        assertNotSame(pool.intern(new String(ADDRESS)), first);
+        assertEquals(pool.getHits(), 0);
+    }
+
+    @Test
+    public void testDeserializersUsePool() throws Exception {
+        HexStringPool pool = new HexStringPool();
+        ObjectMapper objectMapper =
+                ObjectMapperFactory.withHexStringPool(ObjectMapperFactory.getObjectMapper(), pool);
+
+        EthLog ethLog =
+                objectMapper.readValue("{\"result\":[" + LOG + "," + LOG + "]}", EthLog.class);
+        Log first = (Log) ethLog.getLogs().get(0).get();
+        Log second = (Log) ethLog.getLogs().get(1).get();
+        assertSame(first.getAddress(), second.getAddress());
+        assertSame(first.getTopics().get(0), second.getTopics().get(0));
+
+        Log log = objectMapper.readValue(LOG, Log.class);
+        assertSame(log.getAddress(), first.getAddress());
+
+        LogNotification notification =
+                objectMapper.readValue(
+                        "{\"params\":{\"subscription\":\"0x1\",\"result\":" + LOG + "}}",
+                        LogNotification.class);
+        assertSame(notification.getParams().getResult().getAddress(), first.getAddress());
+        assertSame(notification.getParams().getResult().getTopics().get(0), log.getTopics().get(0));
+
+        Transaction transaction =
+                objectMapper.readValue("{\"to\":\"" + ADDRESS + "\"}", Transaction.class);
+        assertSame(transaction.getTo(), first.getAddress());
+        assertEquals(pool.getMisses(), 2);
+    }
+
+    @Test
+    public void testDefaultMapperDoesNotPool() throws Exception {
+        ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+        Log first = objectMapper.readValue(LOG, Log.class);
+        Log second = objectMapper.readValue(LOG, Log.class);
+
+        assertEquals(first.getAddress(), second.getAddress());
+        assertNotSame(first.getAddress(), second.getAddress());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class StreamingDeserializerTest {
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testBlockMatchesBeanDeserialization() throws Exception {
+        JsonNode response = readFixture("block-full-transactions.json");
+
+        EthBlock.Block block = objectMapper.treeToValue(response, EthBlock.class).getBlock();
+        EthBlock.Block expected =
+                objectMapper.treeToValue(response.get("result"), EthBlock.Block.class);
+
+        assertEquals(block, expected);
+        assertEquals(block.getNumber(), BigInteger.valueOf(17649517));
+        assertEquals(block.getTransactions().size(), 3);
+
+        JsonNode transactions = response.get("result").get("transactions");
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = (Transaction) block.getTransactions().get(i).get();
+            assertEquals(
+                    transaction, objectMapper.treeToValue(transactions.get(i), Transaction.class));
+        }
+
+        Transaction eip1559 = (Transaction) block.getTransactions().get(1).get();
+        assertEquals(eip1559.getAccessList().get(0).getStorageKeys().size(), 2);
+        assertEquals(eip1559.getV(), 1);
+        Transaction creation = (Transaction) block.getTransactions().get(2).get();
+        assertNull(creation.getTo());
+        assertEquals(creation.getV(), 0);
+    }
+
+    @Test
+    public void testBlockWithTransactionHashes() throws Exception {
+        EthBlock ethBlock =
+                objectMapper.readValue(
+                        "{\"result\":{\"number\":\"0x1\",\"transactions\":[\"0x01\",\"0x02\"],"
+                                + "\"unknown\":{\"nested\":[1,2,{\"a\":null}]}}}",
+                        EthBlock.class);
+
+        List<EthBlock.TransactionResult> transactions = ethBlock.getBlock().getTransactions();
+        assertEquals(transactions.get(0), new EthBlock.TransactionHash("0x01"));
+        assertEquals(transactions.get(1), new EthBlock.TransactionHash("0x02"));
+        assertEquals(ethBlock.getBlock().getNumber(), BigInteger.ONE);
+    }
+
+    @Test
+    public void testTransactionReceiptMatchesBeanDeserialization() throws Exception {
+        JsonNode response = readFixture("transaction-receipt.json");
+
+        TransactionReceipt receipt =
+                objectMapper
+                        .treeToValue(response, EthGetTransactionReceipt.class)
+                        .getTransactionReceipt()
+                        .get();
+
+        assertEquals(
+                receipt,
+                objectMapper.treeToValue(response.get("result"), TransactionReceipt.class));
+        assertEquals(receipt.getLogs().get(0).getTopics().size(), 3);
+        assertEquals(receipt.getLogs().get(0).getLogIndex(), BigInteger.valueOf(3));
+    }
+
+    @Test
+    public void testLogsMatchBeanDeserialization() throws Exception {
+        JsonNode log = readFixture("transaction-receipt.json").get("result").get("logs").get(0);
+        JsonNode response =
+                objectMapper
+                        .createObjectNode()
+                        .set("result", objectMapper.createArrayNode().add(log));
+
+        EthLog ethLog = objectMapper.treeToValue(response, EthLog.class);
+
+        assertEquals(ethLog.getLogs().size(), 1);
+        Log expected = objectMapper.treeToValue(log, EthLog.LogObject.class);
+        assertEquals(ethLog.getLogs().get(0), expected);
+    }
+
+    private JsonNode readFixture(String name) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/fixtures/" + name)) {
+            return objectMapper.readTree(inputStream);
+        }
+    }
+}
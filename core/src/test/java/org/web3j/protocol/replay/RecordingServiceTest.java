@@ -0,0 +1,187 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.replay;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.NetVersion;
+import org.web3j.protocol.websocket.events.NewHeadsNotification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RecordingServiceTest extends TempFileProvider {
+
+    private static final String BLOCK_NUMBER =
+            "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x4b7\"}";
+    private static final String NET_VERSION = "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"59\"}";
+    private static final String BLOCK =
+            "{\"jsonrpc\":\"2.0\",\"id\":3,\"result\":{"
+                    + "\"number\":\"0x1b4\",\"hash\":\"0xdc0818cf\",\"parentHash\":\"0xe99e022\","
+                    + "\"transactions\":[{\"hash\":\"0xc6ef2fc5\",\"nonce\":\"0x1\","
+                    + "\"from\":\"0x407d73d8\",\"to\":\"0x85h43d8a\",\"value\":\"0x7f110\","
+                    + "\"gas\":\"0x7f110\",\"gasPrice\":\"0x9184e72a000\",\"input\":\"0x\","
+                    + "\"v\":\"0x25\"}],\"uncles\":[]}}";
+    private static final String NEW_HEAD =
+            "{\"jsonrpc\":\"2.0\",\"method\":\"eth_subscription\",\"params\":{"
+                    + "\"subscription\":\"0xcd0c3e8af590364c09d0fa6a1210faf5\","
+                    + "\"result\":{\"number\":\"0x1b4\",\"hash\":\"0xdc0818cf\"}}}";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private Web3jService node;
+    private Path recording;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        node = mock(Web3jService.class);
+        recording = Paths.get(tempDirPath, "session.jsonl.gz");
+    }
+
+    @Test
+    public void testReplaysRecordedResponses() throws Exception {
+        when(node.send(any(Request.class), eq(JsonNodeResponse.class)))
+                .thenReturn(response(BLOCK_NUMBER))
+                .thenReturn(response(BLOCK));
+
+        RecordingService recordingService = new RecordingService(node, recording);
+        Web3j web3j = Web3j.build(recordingService);
+        assertEquals(web3j.ethBlockNumber().send().getBlockNumber(), BigInteger.valueOf(1207));
+        EthBlock ethBlock =
+                web3j.ethGetBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.ONE), true)
+                        .send();
+        assertEquals(ethBlock.getBlock().getNumber(), BigInteger.valueOf(436));
+        recordingService.close();
+
+        ReplayService replayService = new ReplayService(recording, ReplayService.MAX_SPEED);
+        Web3j replayWeb3j = Web3j.build(replayService);
+        // requests are matched on their contents rather than their order
+        EthBlock replayedBlock =
+                replayWeb3j
+                        .ethGetBlockByNumber(DefaultBlockParameter.valueOf(BigInteger.ONE), true)
+                        .send();
+        assertEquals(replayedBlock.getBlock().getNumber(), BigInteger.valueOf(436));
+        assertEquals(replayedBlock.getBlock().getTransactions().size(), 1);
+        assertEquals(
+                ((EthBlock.TransactionObject) replayedBlock.getBlock().getTransactions().get(0))
+                        .getFrom(),
+                "0x407d73d8");
+        assertEquals(
+                replayWeb3j.ethBlockNumber().send().getBlockNumber(), BigInteger.valueOf(1207));
+
+        assertThrows(IOException.class, () -> replayWeb3j.ethBlockNumber().send());
+        replayService.close();
+    }
+
+    @Test
+    public void testReplaysRecordedBatches() throws Exception {
+        when(node.sendBatch(any()))
+                .thenAnswer(
+                        invocation ->
+                                new BatchResponse(
+                                        null,
+                                        Arrays.asList(
+                                                response(BLOCK_NUMBER), response(NET_VERSION))));
+
+        RecordingService recordingService = new RecordingService(node, recording);
+        Web3j web3j = Web3j.build(recordingService);
+        web3j.newBatch().add(web3j.ethBlockNumber()).add(web3j.netVersion()).send();
+        recordingService.close();
+
+        ReplayService replayService = new ReplayService(recording, ReplayService.MAX_SPEED);
+        Web3j replayWeb3j = Web3j.build(replayService);
+        BatchResponse batchResponse =
+                replayWeb3j
+                        .newBatch()
+                        .add(replayWeb3j.ethBlockNumber())
+                        .add(replayWeb3j.netVersion())
+                        .send();
+
+        assertEquals(
+                ((EthBlockNumber) batchResponse.getResponses().get(0)).getBlockNumber(),
+                BigInteger.valueOf(1207));
+        assertEquals(((NetVersion) batchResponse.getResponses().get(1)).getNetVersion(), "59");
+        replayService.close();
+    }
+
+    @Test
+    public void testReplaysRecordedSubscriptions() throws Exception {
+        when(node.subscribe(any(Request.class), any(), eq(JsonNodeNotification.class)))
+                .thenReturn(
+                        Flowable.just(
+                                objectMapper.readValue(NEW_HEAD, JsonNodeNotification.class),
+                                objectMapper.readValue(NEW_HEAD, JsonNodeNotification.class)));
+
+        RecordingService recordingService = new RecordingService(node, recording);
+        Web3j web3j = Web3j.build(recordingService);
+        assertEquals(web3j.newHeadsNotifications().toList().blockingGet().size(), 2);
+        recordingService.close();
+
+        ReplayService replayService = new ReplayService(recording, ReplayService.MAX_SPEED);
+        Web3j replayWeb3j = Web3j.build(replayService);
+        List<NewHeadsNotification> notifications =
+                replayWeb3j
+                        .newHeadsNotifications()
+                        .toList()
+                        .timeout(5, TimeUnit.SECONDS)
+                        .blockingGet();
+
+        assertEquals(notifications.size(), 2);
+        assertTrue(
+                notifications.stream()
+                        .allMatch(n -> n.getParams().getResult().getHash().equals("0xdc0818cf")));
+        replayService.close();
+    }
+
+    @Test
+    public void testRecordedNotificationsKeepSubscriptionId() throws Exception {
+        JsonNode tree =
+                objectMapper.readValue(NEW_HEAD, JsonNodeNotification.class).toTree(objectMapper);
+
+        assertEquals(
+                tree.get("params").get("subscription").asText(),
+                "0xcd0c3e8af590364c09d0fa6a1210faf5");
+        assertEquals(tree.get("params").get("result").get("hash").asText(), "0xdc0818cf");
+    }
+
+    private JsonNodeResponse response(String json) throws IOException {
+        return objectMapper.readValue(json, JsonNodeResponse.class);
+    }
+}
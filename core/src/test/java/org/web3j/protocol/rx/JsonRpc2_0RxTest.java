@@ -17,6 +17,7 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -32,14 +33,20 @@ import org.mockito.stubbing.OngoingStubbing;
 import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterNumber;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.EthFilter;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.EthUninstallFilter;
 import org.web3j.protocol.core.methods.response.Transaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.utils.Numeric;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -51,6 +58,9 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class JsonRpc2_0RxTest {
@@ -106,6 +116,159 @@ public class JsonRpc2_0RxTest {
         assertTrue(subscription.isDisposed());
     }
 
+    @Test
+    public void testReplayBlocksFlowableInBatches() throws Exception {
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                String number = (String) request.getParams().get(0);
+                                EthBlock ethBlock =
+                                        createBlock(Numeric.decodeQuantity(number).intValue());
+                                ethBlock.setId(request.getId());
+                                // responses may arrive in any order
+                                responses.add(0, ethBlock);
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+
+        JsonRpc2_0Rx rpc = new JsonRpc2_0Rx(web3j, Executors.newScheduledThreadPool(4), 3, 2);
+        List<EthBlock> results =
+                rpc.replayBlocksFlowable(
+                                new DefaultBlockParameterNumber(BigInteger.ZERO),
+                                new DefaultBlockParameterNumber(BigInteger.valueOf(9)),
+                                false,
+                                true)
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(results.size(), 10);
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.get(i).getBlock().getNumber(), BigInteger.valueOf(i));
+        }
+        verify(web3jService, times(4)).sendBatch(any(BatchRequest.class));
+        verify(web3jService, never()).send(any(Request.class), eq(EthBlock.class));
+    }
+
+    @Test
+    public void testReplayBlocksWithReceiptsFlowable() throws Exception {
+        stubBlocksWithTransactions();
+        when(web3jService.send(any(Request.class), eq(EthGetBlockReceipts.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            int number =
+                                    Numeric.decodeQuantity((String) request.getParams().get(0))
+                                            .intValue();
+                            return objectMapper.readValue(
+                                    "{\"result\":["
+                                            + transactionHashes(number).stream()
+                                                    .map(hash -> receiptJson(hash))
+                                                    .collect(Collectors.joining(","))
+                                            + "]}",
+                                    EthGetBlockReceipts.class);
+                        });
+
+        List<BlockWithReceipts> results =
+                web3j.replayBlocksWithReceiptsFlowable(
+                                new DefaultBlockParameterNumber(0),
+                                new DefaultBlockParameterNumber(3))
+                        .toList()
+                        .blockingGet();
+
+        assertBlocksWithReceipts(results);
+        // the block without transactions needs no receipt request
+        verify(web3jService, times(3)).send(any(Request.class), eq(EthGetBlockReceipts.class));
+        verify(web3jService, never()).sendBatchAsync(any(BatchRequest.class));
+    }
+
+    @Test
+    public void testReplayBlocksWithReceiptsFallsBackToBatches() throws Exception {
+        stubBlocksWithTransactions();
+        when(web3jService.send(any(Request.class), eq(EthGetBlockReceipts.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"error\":{\"code\":-32601,"
+                                        + "\"message\":\"the method eth_getBlockReceipts does not "
+                                        + "exist/is not available\"}}",
+                                EthGetBlockReceipts.class));
+        when(web3jService.sendBatchAsync(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                EthGetTransactionReceipt receipt =
+                                        objectMapper.readValue(
+                                                "{\"result\":"
+                                                        + receiptJson(
+                                                                (String) request.getParams().get(0))
+                                                        + "}",
+                                                EthGetTransactionReceipt.class);
+                                receipt.setId(request.getId());
+                                // responses may arrive in any order
+                                responses.add(0, receipt);
+                            }
+                            return CompletableFuture.completedFuture(
+                                    new BatchResponse(batchRequest.getRequests(), responses));
+                        });
+
+        List<BlockWithReceipts> results =
+                web3j.replayBlocksWithReceiptsFlowable(
+                                new DefaultBlockParameterNumber(0),
+                                new DefaultBlockParameterNumber(3))
+                        .toList()
+                        .blockingGet();
+
+        assertBlocksWithReceipts(results);
+        // once rejected, eth_getBlockReceipts is not requested again
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthGetBlockReceipts.class));
+        verify(web3jService, times(3)).sendBatchAsync(any(BatchRequest.class));
+    }
+
+    private void stubBlocksWithTransactions() throws IOException {
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            int number =
+                                    Numeric.decodeQuantity((String) request.getParams().get(0))
+                                            .intValue();
+                            return createBlockWithTransactions(
+                                    number,
+                                    transactionHashes(number).stream()
+                                            .map(this::createTransaction)
+                                            .collect(Collectors.toList()));
+                        });
+    }
+
+    private void assertBlocksWithReceipts(List<BlockWithReceipts> results) {
+        assertEquals(results.size(), 4);
+        for (int i = 0; i < results.size(); i++) {
+            BlockWithReceipts blockWithReceipts = results.get(i);
+            assertEquals(blockWithReceipts.getBlock().getNumber(), BigInteger.valueOf(i));
+            assertEquals(
+                    blockWithReceipts.getReceipts().stream()
+                            .map(TransactionReceipt::getTransactionHash)
+                            .collect(Collectors.toList()),
+                    transactionHashes(i));
+        }
+    }
+
+    private static List<String> transactionHashes(int blockNumber) {
+        List<String> hashes = new ArrayList<>();
+        for (int i = 0; i < blockNumber; i++) {
+            hashes.add("0x" + blockNumber + "0" + i);
+        }
+        return hashes;
+    }
+
+    private static String receiptJson(String transactionHash) {
+        return "{\"transactionHash\":\"" + transactionHash + "\",\"logs\":[]}";
+    }
+
     @Test
     public void testReplayBlocksDescendingFlowable() throws Exception {
 
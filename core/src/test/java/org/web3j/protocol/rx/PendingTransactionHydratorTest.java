@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthTransaction;
+import org.web3j.protocol.core.methods.response.Transaction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PendingTransactionHydratorTest {
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testBatchesDistinctPendingTransactions() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            batchSizes.add(batchRequest.getRequests().size());
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                EthTransaction ethTransaction =
+                                        transaction((String) request.getParams().get(0));
+                                ethTransaction.setId(request.getId());
+                                // responses may arrive in any order
+                                responses.add(0, ethTransaction);
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+
+        PendingTransactionHydrator hydrator =
+                new PendingTransactionHydrator(
+                        Web3j.build(web3jService), Schedulers.io(), 50, 10, 2, 100, 60_000);
+        List<Transaction> transactions =
+                hydrator.hydrate(Flowable.just("0x01", "0x02", "0x01", "0x03", "0x02"))
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(transactions.size(), 1);
+        assertEquals(transactions.get(0).getHash(), "0x01");
+        assertEquals(batchSizes.size(), 1);
+        assertEquals(batchSizes.get(0), 3);
+        verify(web3jService, times(1)).sendBatch(any(BatchRequest.class));
+        verify(web3jService, never()).send(any(Request.class), eq(EthTransaction.class));
+    }
+
+    @Test
+    public void testSlowBatchesDoNotOverflow() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        AtomicInteger batches = new AtomicInteger();
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            batches.incrementAndGet();
+                            Thread.sleep(20);
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                responses.add(transaction("0x03"));
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+
+        PendingTransactionHydrator hydrator =
+                new PendingTransactionHydrator(
+                        Web3j.build(web3jService), Schedulers.io(), 1000, 2, 1, 10_000, 60_000);
+        // batches are filled far faster than a single slow request can drain them
+        hydrator.hydrate(Flowable.range(0, 2000).map(i -> "0x" + Integer.toHexString(i + 16)))
+                .test()
+                .awaitDone(10, TimeUnit.SECONDS)
+                .assertNoErrors()
+                .assertComplete();
+
+        assertTrue(batches.get() <= PendingTransactionHydrator.MAX_QUEUED_BATCHES + 2);
+    }
+
+    @Test
+    public void testSeenSetIsBoundedAndExpires() {
+        AtomicLong clock = new AtomicLong();
+        PendingTransactionHydrator.SeenSet seen =
+                new PendingTransactionHydrator.SeenSet(2, 1000, clock::get);
+
+        assertTrue(seen.add("0x01"));
+        assertFalse(seen.add("0x01"));
+        assertTrue(seen.add("0x02"));
+        // the oldest hash is evicted once the set is full
+        assertTrue(seen.add("0x03"));
+        assertEquals(seen.size(), 2);
+        assertTrue(seen.add("0x01"));
+
+        clock.set(1000);
+        assertTrue(seen.add("0x03"));
+        assertEquals(seen.size(), 1);
+    }
+
+    private EthTransaction transaction(String hash) throws Exception {
+        switch (hash) {
+            case "0x01":
+                return objectMapper.readValue(
+                        "{\"result\":{\"hash\":\"0x01\",\"blockNumber\":null}}",
+                        EthTransaction.class);
+            case "0x02":
+                // mined before it was requested
+                return objectMapper.readValue(
+                        "{\"result\":{\"hash\":\"0x02\",\"blockNumber\":\"0x5\"}}",
+                        EthTransaction.class);
+            default:
+                // dropped from the pool
+                return objectMapper.readValue("{\"result\":null}", EthTransaction.class);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpillingBufferTest extends TempFileProvider {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        directory = Paths.get(tempDirPath, "buffer");
+    }
+
+    @Test
+    public void testLogCodecRoundTrip() throws IOException {
+        Log log =
+                new Log(
+                        true,
+                        "0x0",
+                        "0x1f",
+                        "0xdf829c5a142f1fccd7d8216c5785ac562ff41e2dcfdf5785ac562ff41e2dcf",
+                        "0x8216c5785ac562ff41e2dcfdf5785ac562ff41e2dcfdf829c5a142f1fccd7d",
+                        "0x01b4",
+                        "0x16C5785AC562FF41E2DCFDF829C5A142F1FCCD7D",
+                        "0x",
+                        "mined",
+                        Arrays.asList(
+                                "0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5",
+                                null));
+
+        assertEquals(roundTrip(SpillCodec.LOG, log), log);
+        assertEquals(roundTrip(SpillCodec.LOG, new Log()), new Log());
+        assertEquals(roundTrip(SpillCodec.HASH, "0x1b4"), "0x1b4");
+    }
+
+    @Test
+    public void testSpillsToDiskAndDrainsInOrder() throws IOException {
+        List<String> hashes = hashes(100);
+        SpillingBuffer<String> buffer = new SpillingBuffer<>(directory, 10, 5, SpillCodec.HASH);
+
+        TestSubscriber<String> subscriber = Flowable.fromIterable(hashes).compose(buffer).test(0);
+        assertEquals(buffer.getSize(), 100);
+        assertEquals(buffer.getSpilledSize(), 90);
+        assertEquals(buffer.getMaxSize(), 100);
+        assertEquals(buffer.getSpillCount(), 1);
+
+        subscriber.request(15);
+        subscriber.assertValueCount(15);
+        assertEquals(buffer.getSize(), 85);
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValueSequence(hashes);
+        subscriber.assertComplete();
+        assertEquals(buffer.getSpilledCount(), 90);
+        assertEquals(buffer.getSize(), 0);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(files.count(), 0);
+        }
+    }
+
+    @Test
+    public void testCompactsSpillFileWhileConsumerIsBehind() throws IOException {
+        List<String> hashes = hashes(1100);
+        PublishProcessor<String> events = PublishProcessor.create();
+        SpillingBuffer<String> buffer =
+                new SpillingBuffer<>(directory, 10, 5, SpillCodec.HASH, 1024);
+
+        TestSubscriber<String> subscriber = events.compose(buffer).test(0);
+        hashes.subList(0, 100).forEach(events::onNext);
+        long recordSize = buffer.getSpillFileSize() / buffer.getSpilledSize();
+
+        // the consumer stays 100 events behind, so the spill file is never read back completely
+        for (int i = 100; i < hashes.size(); i += 20) {
+            hashes.subList(i, i + 20).forEach(events::onNext);
+            subscriber.request(20);
+            assertTrue(buffer.getSpilledSize() > 0);
+        }
+        assertTrue(buffer.getSpillFileSize() < 200 * recordSize);
+
+        events.onComplete();
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValueSequence(hashes);
+        subscriber.assertComplete();
+    }
+
+    @Test
+    public void testDeliversErrorAfterBufferedEvents() {
+        List<String> hashes = hashes(20);
+        SpillingBuffer<String> buffer = new SpillingBuffer<>(directory, 4, SpillCodec.HASH);
+
+        TestSubscriber<String> subscriber =
+                Flowable.fromIterable(hashes)
+                        .concatWith(Flowable.error(new IOException("failed")))
+                        .compose(buffer)
+                        .test(0);
+        subscriber.assertNoErrors();
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValueSequence(hashes);
+        subscriber.assertError(IOException.class);
+        assertTrue(buffer.getSpilledCount() > 0);
+    }
+
+    private static List<String> hashes(int count) {
+        List<String> hashes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            hashes.add(String.format("0x%064x", i * 7919));
+        }
+        return hashes;
+    }
+
+    private static <T> T roundTrip(SpillCodec<T> codec, T value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.encode(value, new DataOutputStream(bytes));
+        return codec.decode(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
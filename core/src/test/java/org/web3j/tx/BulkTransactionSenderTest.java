@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.exceptions.TxHashMismatchException;
+import org.web3j.tx.nonce.NonceAllocator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BulkTransactionSenderTest {
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private final List<List<BigInteger>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(
+                        invocation -> {
+                            EthGetTransactionCount ethGetTransactionCount =
+                                    new EthGetTransactionCount();
+                            ethGetTransactionCount.setResult("0xa");
+                            return ethGetTransactionCount;
+                        });
+    }
+
+    @Test
+    public void testSendsSignedTransactionsInBatches() throws Exception {
+        stubBatches(null, null);
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        BulkTransactionSender sender =
+                new BulkTransactionSender(transactionManager, web3j, 2, 1, Runnable::run);
+
+        List<CompletableFuture<EthSendTransaction>> results = sender.send(transactions(5));
+
+        assertEquals(results.size(), 5);
+        for (int i = 0; i < results.size(); i++) {
+            EthSendTransaction ethSendTransaction = results.get(i).get(5, TimeUnit.SECONDS);
+            assertTrue(ethSendTransaction.getTransactionHash().startsWith("0x"));
+        }
+        assertEquals(batches.size(), 3);
+        assertEquals(batches.get(0), nonces(10, 11));
+        assertEquals(batches.get(1), nonces(12, 13));
+        assertEquals(batches.get(2), nonces(14));
+        assertEquals(maxInFlight.get(), 1);
+    }
+
+    @Test
+    public void testFailedTransactionsReleaseTheirNonces() throws Exception {
+        stubBatches(BigInteger.valueOf(11), BigInteger.valueOf(12));
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        transactionManager.setNonceAllocator(new NonceAllocator(web3j));
+
+        List<CompletableFuture<EthSendTransaction>> results =
+                transactionManager.sendBulk(transactions(3));
+
+        assertEquals(results.get(0).get(5, TimeUnit.SECONDS).hasError(), false);
+        assertEquals(
+                results.get(1).get(5, TimeUnit.SECONDS).getError().getMessage(),
+                "insufficient funds for gas * price + value");
+        ExecutionException e =
+                assertThrows(
+                        ExecutionException.class, () -> results.get(2).get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TxHashMismatchException);
+
+        NonceAllocator nonceAllocator = transactionManager.getNonceAllocator();
+        String address = transactionManager.getFromAddress();
+        assertEquals(nonceAllocator.getReleased(address), Collections.singleton(11L));
+        assertEquals(nonceAllocator.getReservedCount(address), 0);
+    }
+
+    @Test
+    public void testTransportFailureKeepsNonces() throws Exception {
+        CompletableFuture<BatchResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("connection reset"));
+        when(web3jService.sendBatchAsync(any(BatchRequest.class))).thenReturn(failed);
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        transactionManager.setNonceAllocator(new NonceAllocator(web3j));
+
+        List<CompletableFuture<EthSendTransaction>> results =
+                transactionManager.sendBulk(transactions(2));
+
+        for (CompletableFuture<EthSendTransaction> result : results) {
+            ExecutionException e =
+                    assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        // the node may have received the batch, so its nonces are not reused
+        NonceAllocator nonceAllocator = transactionManager.getNonceAllocator();
+        String address = transactionManager.getFromAddress();
+        assertEquals(nonceAllocator.getReleased(address), Collections.emptySet());
+        assertEquals(nonceAllocator.getCommitted(address).size(), 2);
+    }
+
+    private void stubBatches(BigInteger failingNonce, BigInteger mismatchedNonce) {
+        when(web3jService.sendBatchAsync(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            List<BigInteger> nonces = new ArrayList<>();
+                            List<Response<?>> responses = new ArrayList<>();
+                            // answer in reverse order, so responses must be matched by id
+                            for (Request<?, ? extends Response<?>> request :
+                                    batchRequest.getRequests()) {
+                                String signed = (String) request.getParams().get(0);
+                                BigInteger nonce = TransactionDecoder.decode(signed).getNonce();
+                                nonces.add(nonce);
+                                EthSendTransaction response = new EthSendTransaction();
+                                response.setId(request.getId());
+                                if (nonce.equals(failingNonce)) {
+                                    response.setError(
+                                            new Response.Error(
+                                                    -32000,
+                                                    "insufficient funds for gas * price + value"));
+                                } else if (nonce.equals(mismatchedNonce)) {
+                                    response.setResult(Hash.sha3("0x12"));
+                                } else {
+                                    response.setResult(Hash.sha3(signed));
+                                }
+                                responses.add(0, response);
+                            }
+                            batches.add(nonces);
+                            inFlight.decrementAndGet();
+                            return CompletableFuture.completedFuture(
+                                    new BatchResponse(batchRequest.getRequests(), responses));
+                        });
+    }
+
+    private static List<RawTransaction> transactions(int count) {
+        List<RawTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(
+                    RawTransaction.createEtherTransaction(
+                            BigInteger.ZERO,
+                            BigInteger.ONE,
+                            BigInteger.valueOf(21000),
+                            SampleKeys.ADDRESS,
+                            BigInteger.valueOf(i)));
+        }
+        return transactions;
+    }
+
+    private static List<BigInteger> nonces(long... values) {
+        List<BigInteger> nonces = new ArrayList<>();
+        for (long value : values) {
+            nonces.add(BigInteger.valueOf(value));
+        }
+        return nonces;
+    }
+}
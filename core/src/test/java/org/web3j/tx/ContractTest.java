@@ -46,6 +46,7 @@ import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.tx.exceptions.ContractCallException;
+import org.web3j.tx.gas.ContractEIP1559GasProvider;
 import org.web3j.tx.gas.ContractGasProvider;
 import org.web3j.tx.gas.DefaultGasProvider;
 import org.web3j.tx.gas.StaticGasProvider;
@@ -62,6 +63,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -291,6 +293,40 @@ public class ContractTest extends ManagedTransactionTester {
                         .send());
     }
 
+    @Test
+    public void testTransactionAsync() throws Exception {
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        transactionReceipt.setTransactionHash(TRANSACTION_HASH);
+        transactionReceipt.setStatus(TXN_SUCCESS_STATUS);
+
+        prepareTransaction(transactionReceipt);
+
+        assertEquals(
+                transactionReceipt,
+                contract.performTransaction(
+                                new Address(BigInteger.TEN), new Uint256(BigInteger.ONE))
+                        .sendAsync()
+                        .get());
+    }
+
+    @Test
+    public void testTransactionAsyncFailed() throws IOException {
+        TransactionReceipt transactionReceipt = createFailedTransactionReceipt();
+        prepareCall(null);
+        prepareTransaction(transactionReceipt);
+
+        ExecutionException thrown =
+                assertThrows(
+                        ExecutionException.class,
+                        () ->
+                                contract.performTransaction(
+                                                new Address(BigInteger.TEN),
+                                                new Uint256(BigInteger.ONE))
+                                        .sendAsync()
+                                        .get());
+        assertTrue(thrown.getCause() instanceof TransactionException);
+    }
+
     @Test
     public void testTransactionFailed() throws IOException {
         TransactionReceipt transactionReceipt = createFailedTransactionReceipt();
@@ -444,6 +480,48 @@ public class ContractTest extends ManagedTransactionTester {
                         anyBoolean());
     }
 
+    @Test
+    public void testEIP1559GasProvider() throws IOException, TransactionException {
+        ContractEIP1559GasProvider gasProvider = mock(ContractEIP1559GasProvider.class);
+        when(gasProvider.isEIP1559Enabled()).thenReturn(true);
+        when(gasProvider.getChainId()).thenReturn(1L);
+        when(gasProvider.getGasLimit(anyString())).thenReturn(BigInteger.ONE);
+        when(gasProvider.getMaxPriorityFeePerGas(anyString())).thenReturn(BigInteger.TEN);
+        when(gasProvider.getMaxFeePerGas(anyString())).thenReturn(BigInteger.valueOf(100));
+        TransactionManager txManager = mock(TransactionManager.class);
+
+        when(txManager.executeTransactionEIP1559(
+                        anyLong(),
+                        any(BigInteger.class),
+                        any(BigInteger.class),
+                        any(BigInteger.class),
+                        anyString(),
+                        anyString(),
+                        any(BigInteger.class),
+                        anyBoolean()))
+                .thenReturn(new TransactionReceipt());
+
+        contract = new TestContract(ADDRESS, web3j, txManager, gasProvider);
+
+        Function func =
+                new Function(
+                        "test",
+                        Collections.<Type>emptyList(),
+                        Collections.<TypeReference<?>>emptyList());
+        contract.executeTransaction(func);
+
+        verify(txManager)
+                .executeTransactionEIP1559(
+                        eq(1L),
+                        eq(BigInteger.TEN),
+                        eq(BigInteger.valueOf(100)),
+                        eq(BigInteger.ONE),
+                        anyString(),
+                        anyString(),
+                        any(BigInteger.class),
+                        anyBoolean());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testInvalidTransactionReceipt() throws Throwable {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class SigningPoolTest {
+
+    private final Web3j web3j = Web3j.build(mock(Web3jService.class));
+
+    @Test
+    public void testSignAllMatchesSequentialSigning() {
+        RawTransactionManager sequential =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS, 1337);
+        RawTransactionManager pooled =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS, 1337);
+        List<RawTransaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            transactions.add(
+                    RawTransaction.createEtherTransaction(
+                            BigInteger.valueOf(i),
+                            BigInteger.ONE,
+                            BigInteger.valueOf(21000),
+                            SampleKeys.ADDRESS,
+                            BigInteger.TEN));
+        }
+
+        try (SigningPool signingPool = new SigningPool(4)) {
+            pooled.setSigningPool(signingPool);
+            List<String> signed = pooled.signAll(transactions);
+
+            // signatures are deterministic, so the pool must produce the same output in order
+            assertEquals(signed, sequential.signAll(transactions));
+            for (int i = 0; i < signed.size(); i++) {
+                assertEquals(
+                        TransactionDecoder.decode(signed.get(i)).getNonce(), BigInteger.valueOf(i));
+            }
+            assertEquals(pooled.sign(transactions.get(3)), signed.get(3));
+        }
+    }
+
+    @Test
+    public void testSigningFromAWorkerDoesNotDeadlock() throws Exception {
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        RawTransaction transaction =
+                RawTransaction.createEtherTransaction(
+                        BigInteger.ZERO,
+                        BigInteger.ONE,
+                        BigInteger.valueOf(21000),
+                        SampleKeys.ADDRESS,
+                        BigInteger.TEN);
+
+        try (SigningPool signingPool = new SigningPool(1)) {
+            transactionManager.setSigningPool(signingPool);
+            String signed =
+                    signingPool
+                            .sign(transaction, transactionManager::sign)
+                            .get(5, TimeUnit.SECONDS);
+            transactionManager.setSigningPool(null);
+            assertEquals(signed, transactionManager.sign(transaction));
+        }
+    }
+}
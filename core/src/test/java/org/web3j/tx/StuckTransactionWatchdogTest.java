@@ -0,0 +1,267 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StuckTransactionWatchdogTest {
+
+    private final List<RawTransaction> sent = new CopyOnWriteArrayList<>();
+    private final Map<String, CompletableFuture<TransactionReceipt>> receipts =
+            new ConcurrentHashMap<>();
+    private final List<String> watchedHashes = new CopyOnWriteArrayList<>();
+    private final PublishProcessor<Object> blocks = PublishProcessor.create();
+    private volatile CountDownLatch sendLatch;
+
+    private Web3j web3j;
+    private RawTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(
+                        invocation -> {
+                            EthGetTransactionCount ethGetTransactionCount =
+                                    new EthGetTransactionCount();
+                            ethGetTransactionCount.setResult("0x5");
+                            return ethGetTransactionCount;
+                        });
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            String signedTransaction = (String) request.getParams().get(0);
+                            CountDownLatch latch = sendLatch;
+                            if (latch != null) {
+                                latch.await(5, TimeUnit.SECONDS);
+                            }
+                            sent.add(TransactionDecoder.decode(signedTransaction));
+                            EthSendTransaction ethSendTransaction = new EthSendTransaction();
+                            ethSendTransaction.setResult(Hash.sha3(signedTransaction));
+                            return ethSendTransaction;
+                        });
+
+        transactionManager =
+                new RawTransactionManager(
+                        web3j,
+                        SampleKeys.CREDENTIALS,
+                        1,
+                        new TransactionReceiptProcessor(web3j) {
+                            @Override
+                            public TransactionReceipt waitForTransactionReceipt(
+                                    String transactionHash) throws IOException {
+                                throw new IOException("Not expected");
+                            }
+
+                            @Override
+                            public CompletableFuture<TransactionReceipt>
+                                    waitForTransactionReceiptAsync(String transactionHash) {
+                                return receipt(transactionHash);
+                            }
+                        });
+    }
+
+    @Test
+    public void testReplacementResolvesOriginalFuture() throws Exception {
+        StuckTransactionWatchdog watchdog =
+                new StuckTransactionWatchdog(transactionManager, web3j, 2, 10, 3, null)
+                        .start(blocks);
+
+        CompletableFuture<TransactionReceipt> result =
+                watchdog.sendEIP1559Transaction(
+                        1,
+                        BigInteger.valueOf(15),
+                        BigInteger.valueOf(1000),
+                        BigInteger.valueOf(21000),
+                        SampleKeys.ADDRESS,
+                        "",
+                        BigInteger.ONE);
+        waitForWatched(1);
+        assertEquals(watchdog.getWatchedCount(), 1);
+
+        blocks.onNext(1);
+        assertEquals(sent.size(), 1);
+        blocks.onNext(2);
+        waitForWatched(2);
+        assertEquals(sent.size(), 2);
+
+        Transaction1559 replacement = (Transaction1559) sent.get(1).getTransaction();
+        assertEquals(replacement.getNonce(), BigInteger.valueOf(5));
+        // 16.5 is rounded up, so the fee is at least the minimum nodes accept
+        assertEquals(replacement.getMaxPriorityFeePerGas(), BigInteger.valueOf(17));
+        assertEquals(replacement.getMaxFeePerGas(), BigInteger.valueOf(1100));
+
+        // the original is mined rather than the replacement
+        assertEquals(watchedHashes.size(), 2);
+        complete(watchedHashes.get(0));
+        assertEquals(result.get().getTransactionHash(), watchedHashes.get(0));
+        assertEquals(watchdog.getWatchedCount(), 0);
+        watchdog.close();
+    }
+
+    @Test
+    public void testFailsWhenReplacementWouldExceedCap() throws Exception {
+        StuckTransactionWatchdog watchdog =
+                new StuckTransactionWatchdog(
+                                transactionManager, web3j, 1, 10, 3, BigInteger.valueOf(105))
+                        .start(blocks);
+
+        CompletableFuture<TransactionReceipt> result =
+                watchdog.watch(
+                        RawTransaction.createTransaction(
+                                BigInteger.valueOf(5),
+                                BigInteger.valueOf(100),
+                                BigInteger.valueOf(21000),
+                                SampleKeys.ADDRESS,
+                                BigInteger.ONE,
+                                ""),
+                        "0xabc");
+
+        blocks.onNext(1);
+        assertTrue(sent.isEmpty());
+        assertFalse(result.isDone());
+
+        receipts.get("0xabc")
+                .completeExceptionally(new TransactionException("Receipt not received"));
+        blocks.onNext(2);
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(StuckTransactionWatchdog.bump(BigInteger.ONE, 10), BigInteger.valueOf(2));
+        watchdog.close();
+    }
+
+    @Test
+    public void testReplacementIsSentOffTheBlockThread() throws Exception {
+        StuckTransactionWatchdog watchdog =
+                new StuckTransactionWatchdog(transactionManager, web3j, 1, 10, 3, null)
+                        .start(blocks);
+        watchdog.watch(
+                RawTransaction.createTransaction(
+                        BigInteger.valueOf(5),
+                        BigInteger.valueOf(100),
+                        BigInteger.valueOf(21000),
+                        SampleKeys.ADDRESS,
+                        BigInteger.ONE,
+                        ""),
+                "0xabc");
+
+        sendLatch = new CountDownLatch(1);
+        blocks.onNext(1);
+        // the block thread is not held up by the node, nor does it start a second replacement
+        blocks.onNext(2);
+        assertTrue(sent.isEmpty());
+
+        sendLatch.countDown();
+        waitForWatched(2);
+        assertEquals(sent.size(), 1);
+        assertEquals(sent.get(0).getGasPrice(), BigInteger.valueOf(110));
+        watchdog.close();
+    }
+
+    @Test
+    public void testResubscribesAfterError() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flowable<Object> failingOnce =
+                Flowable.defer(
+                        () ->
+                                subscriptions.incrementAndGet() == 1
+                                        ? Flowable.error(new IOException("connection lost"))
+                                        : blocks);
+        StuckTransactionWatchdog watchdog =
+                new StuckTransactionWatchdog(transactionManager, web3j, 1, 10, 3, null)
+                        .start(failingOnce);
+        watchdog.watch(
+                RawTransaction.createTransaction(
+                        BigInteger.valueOf(5),
+                        BigInteger.valueOf(100),
+                        BigInteger.valueOf(21000),
+                        SampleKeys.ADDRESS,
+                        BigInteger.ONE,
+                        ""),
+                "0xabc");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!blocks.hasSubscribers() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        blocks.onNext(1);
+        waitForWatched(2);
+        assertEquals(subscriptions.get(), 2);
+
+        watchdog.close();
+        assertFalse(blocks.hasSubscribers());
+    }
+
+    private CompletableFuture<TransactionReceipt> receipt(String transactionHash) {
+        return receipts.computeIfAbsent(
+                transactionHash,
+                hash -> {
+                    watchedHashes.add(hash);
+                    return new CompletableFuture<>();
+                });
+    }
+
+    private void complete(String transactionHash) {
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash(transactionHash);
+        receipts.get(transactionHash).complete(receipt);
+    }
+
+    private void waitForWatched(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (watchedHashes.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(watchedHashes.size(), count);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransactionDispatcherTest {
+
+    private static final Credentials OTHER_CREDENTIALS =
+            Credentials.create(
+                    "0x8b11dfe3ad0ac1b06c0ba0a0c0aa0b3c1bc6b4a3b63b1b47e0e6a4f9b19ac6f0");
+
+    private TransactionDispatcher dispatcher;
+
+    @BeforeEach
+    public void setUp() {
+        Web3j web3j = Web3j.build(mock(Web3jService.class));
+        dispatcher =
+                new TransactionDispatcher(
+                        web3j,
+                        Arrays.asList(SampleKeys.CREDENTIALS, OTHER_CREDENTIALS),
+                        1,
+                        new TransactionReceiptProcessor(web3j) {
+                            @Override
+                            public TransactionReceipt waitForTransactionReceipt(
+                                    String transactionHash) throws IOException {
+                                throw new IOException("Not expected");
+                            }
+                        });
+    }
+
+    @Test
+    public void testRoutesToLeastLoadedAccount() {
+        CompletableFuture<TransactionReceipt> first = new CompletableFuture<>();
+        CompletableFuture<TransactionReceipt> second = new CompletableFuture<>();
+        RawTransactionManager[] used = new RawTransactionManager[3];
+
+        dispatcher.submit(null, tm -> record(used, 0, tm, first));
+        dispatcher.submit(null, tm -> record(used, 1, tm, second));
+        assertNotSame(used[0], used[1]);
+
+        first.complete(new TransactionReceipt());
+        // the account of the first transaction now has the smaller backlog
+        dispatcher.submit(null, tm -> record(used, 2, tm, new CompletableFuture<>()));
+        assertSame(used[2], used[0]);
+
+        List<TransactionDispatcher.AccountMetrics> metrics = dispatcher.getMetrics();
+        assertEquals(metrics.size(), 2);
+        for (TransactionDispatcher.AccountMetrics accountMetrics : metrics) {
+            assertEquals(accountMetrics.getBacklog(), 1);
+        }
+        TransactionDispatcher.AccountMetrics firstAccount =
+                metrics.get(dispatcher.getTransactionManagers().indexOf(used[0]));
+        assertEquals(firstAccount.getSubmitted(), 2);
+        assertEquals(firstAccount.getConfirmed(), 1);
+        assertEquals(firstAccount.getAddress(), used[0].getFromAddress());
+    }
+
+    @Test
+    public void testKeepsAffinityWhileInFlight() {
+        CompletableFuture<TransactionReceipt> first = new CompletableFuture<>();
+        CompletableFuture<TransactionReceipt> second = new CompletableFuture<>();
+        RawTransactionManager[] used = new RawTransactionManager[3];
+
+        dispatcher.submit("order-1", tm -> record(used, 0, tm, first));
+        CompletableFuture<TransactionReceipt> secondResult =
+                dispatcher.submit("order-1", tm -> record(used, 1, tm, second));
+        assertSame(used[0], used[1]);
+
+        first.completeExceptionally(new IOException("Dropped"));
+        second.complete(new TransactionReceipt());
+        assertTrue(secondResult.isDone());
+
+        TransactionDispatcher.AccountMetrics metrics =
+                dispatcher.getMetrics().get(dispatcher.getTransactionManagers().indexOf(used[0]));
+        assertEquals(metrics.getBacklog(), 0);
+        assertEquals(metrics.getSubmitted(), 2);
+        assertEquals(metrics.getConfirmed(), 1);
+        assertEquals(metrics.getFailed(), 1);
+
+        // once nothing is in flight the key is routed afresh, and a task which throws fails
+        CompletableFuture<TransactionReceipt> failed =
+                dispatcher.submit(
+                        "order-1",
+                        tm -> {
+                            throw new IllegalStateException("Nonce unavailable");
+                        });
+        assertTrue(failed.isCompletedExceptionally());
+        for (TransactionDispatcher.AccountMetrics accountMetrics : dispatcher.getMetrics()) {
+            assertEquals(accountMetrics.getBacklog(), 0);
+        }
+    }
+
+    @Test
+    public void testSendsTransactionsWithTheSameKeyInOrder() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(
+                        invocation -> {
+                            EthGetTransactionCount ethGetTransactionCount =
+                                    new EthGetTransactionCount();
+                            ethGetTransactionCount.setResult("0x0");
+                            return ethGetTransactionCount;
+                        });
+        List<BigInteger> sentNonces = Collections.synchronizedList(new ArrayList<>());
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            String signed = (String) request.getParams().get(0);
+                            BigInteger nonce = TransactionDecoder.decode(signed).getNonce();
+                            if (nonce.signum() == 0) {
+                                // later transactions would overtake a slow first send
+                                Thread.sleep(100);
+                            }
+                            sentNonces.add(nonce);
+                            EthSendTransaction ethSendTransaction = new EthSendTransaction();
+                            ethSendTransaction.setResult(Hash.sha3(signed));
+                            return ethSendTransaction;
+                        });
+        Web3j web3j = Web3j.build(web3jService);
+        TransactionDispatcher dispatcher =
+                new TransactionDispatcher(
+                        web3j,
+                        Collections.singletonList(SampleKeys.CREDENTIALS),
+                        1,
+                        new TransactionReceiptProcessor(web3j) {
+                            @Override
+                            public TransactionReceipt waitForTransactionReceipt(
+                                    String transactionHash) {
+                                return new TransactionReceipt();
+                            }
+                        });
+
+        List<CompletableFuture<TransactionReceipt>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(
+                    dispatcher.sendTransaction(
+                            BigInteger.ONE,
+                            BigInteger.valueOf(21000),
+                            SampleKeys.ADDRESS,
+                            "",
+                            BigInteger.ONE,
+                            "order-1"));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(
+                sentNonces,
+                Arrays.asList(
+                        BigInteger.ZERO,
+                        BigInteger.ONE,
+                        BigInteger.valueOf(2),
+                        BigInteger.valueOf(3)));
+    }
+
+    private static CompletableFuture<TransactionReceipt> record(
+            RawTransactionManager[] used,
+            int index,
+            RawTransactionManager transactionManager,
+            CompletableFuture<TransactionReceipt> result) {
+        used[index] = transactionManager;
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.EthMaxPriorityFeePerGas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FeeHistoryGasProviderTest {
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private final AtomicInteger batches = new AtomicInteger();
+    private volatile List<List<String>> rewards;
+    private volatile List<Double> gasUsedRatios = Arrays.asList(0.5, 0.5, 0.5);
+    private volatile String baseFee = "0x64";
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            batches.incrementAndGet();
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            EthFeeHistory ethFeeHistory = new EthFeeHistory();
+                            ethFeeHistory.setResult(
+                                    new EthFeeHistory.FeeHistory(
+                                            "0xa",
+                                            rewards,
+                                            Arrays.asList("0x1", "0x1", "0x1", baseFee),
+                                            gasUsedRatios));
+                            EthMaxPriorityFeePerGas ethMaxPriorityFeePerGas =
+                                    new EthMaxPriorityFeePerGas();
+                            ethMaxPriorityFeePerGas.setResult("0x7");
+                            List<Response<?>> responses =
+                                    Arrays.asList(ethFeeHistory, ethMaxPriorityFeePerGas);
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+    }
+
+    @Test
+    public void testComputesFeesFromRecentBlocks() {
+        rewards =
+                Arrays.asList(
+                        Collections.singletonList("0x0"),
+                        Collections.singletonList("0x5"),
+                        Collections.singletonList("0x3"));
+        gasUsedRatios = Arrays.asList(0.0, 0.5, 0.5);
+        FeeHistoryGasProvider gasProvider =
+                new FeeHistoryGasProvider(web3j, 1, BigInteger.valueOf(21000));
+
+        // blocks without transactions are ignored when taking the median
+        assertEquals(gasProvider.getMaxPriorityFeePerGas("transfer"), BigInteger.valueOf(5));
+        assertEquals(gasProvider.getMaxFeePerGas("transfer"), BigInteger.valueOf(205));
+        assertEquals(gasProvider.getGasPrice("transfer"), BigInteger.valueOf(105));
+        assertEquals(gasProvider.getGasLimit("transfer"), BigInteger.valueOf(21000));
+        assertEquals(gasProvider.getFees().getBlockNumber(), 12);
+        assertEquals(batches.get(), 1);
+    }
+
+    @Test
+    public void testCountsBlocksPayingNoPriorityFee() {
+        rewards =
+                Arrays.asList(
+                        Collections.singletonList("0x0"),
+                        Collections.singletonList("0x0"),
+                        Collections.singletonList("0x3"));
+        FeeHistoryGasProvider gasProvider =
+                new FeeHistoryGasProvider(web3j, 1, BigInteger.valueOf(21000));
+
+        // full blocks whose transactions paid no priority fee are not mistaken for empty blocks
+        assertEquals(gasProvider.getMaxPriorityFeePerGas("transfer"), BigInteger.ZERO);
+        assertEquals(gasProvider.getMaxFeePerGas("transfer"), BigInteger.valueOf(200));
+    }
+
+    @Test
+    public void testRefreshesOnNewBlocks() {
+        rewards =
+                Arrays.asList(
+                        Collections.singletonList("0x0"),
+                        Collections.singletonList("0x0"),
+                        Collections.singletonList("0x0"));
+        gasUsedRatios = Arrays.asList(0.0, 0.0, 0.0);
+        PublishProcessor<String> newBlocks = PublishProcessor.create();
+        FeeHistoryGasProvider gasProvider =
+                new FeeHistoryGasProvider(web3j, 1, BigInteger.valueOf(21000)).start(newBlocks);
+
+        // without transactions in recent blocks the node's suggestion is used
+        assertEquals(gasProvider.getMaxPriorityFeePerGas("transfer"), BigInteger.valueOf(7));
+        assertEquals(batches.get(), 1);
+
+        baseFee = "0xc8";
+        newBlocks.onNext("0x1");
+        assertEquals(batches.get(), 2);
+        assertEquals(gasProvider.getMaxFeePerGas("transfer"), BigInteger.valueOf(407));
+
+        gasProvider.close();
+        newBlocks.onNext("0x2");
+        assertEquals(batches.get(), 2);
+    }
+
+    @Test
+    public void testResubscribesAfterError() throws Exception {
+        rewards = Collections.singletonList(Collections.singletonList("0x5"));
+        PublishProcessor<String> newBlocks = PublishProcessor.create();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flowable<String> failingOnce =
+                Flowable.defer(
+                        () ->
+                                subscriptions.incrementAndGet() == 1
+                                        ? Flowable.error(new IOException("connection lost"))
+                                        : newBlocks);
+        FeeHistoryGasProvider gasProvider =
+                new FeeHistoryGasProvider(web3j, 1, BigInteger.valueOf(21000)).start(failingOnce);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!newBlocks.hasSubscribers() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        newBlocks.onNext("0x1");
+        assertEquals(batches.get(), 1);
+        assertEquals(subscriptions.get(), 2);
+
+        gasProvider.close();
+        assertFalse(newBlocks.hasSubscribers());
+    }
+}
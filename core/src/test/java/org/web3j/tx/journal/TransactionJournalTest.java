@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.journal;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.tx.FastRawTransactionManager;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.tx.nonce.NonceAllocator;
+import org.web3j.tx.response.TransactionReceiptProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionJournalTest extends TempFileProvider {
+
+    private static final String ADDRESS = SampleKeys.ADDRESS;
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        directory = Paths.get(tempDirPath);
+    }
+
+    @Test
+    public void testReplaysPendingTransactions() throws Exception {
+        TransactionJournal journal = new TransactionJournal(directory);
+        journal.recordSigned(ADDRESS, 0, "0xa0", "0xf0");
+        journal.recordSigned(ADDRESS, 1, "0xb1", "0xf1");
+        // a replacement of the transaction at nonce 1
+        journal.recordSigned(ADDRESS, 1, "0xc1", "0xf2");
+        journal.recordSigned(ADDRESS, 2, "0xd2", "0xf3");
+        journal.recordConfirmed("0xC1");
+        journal.recordDropped("0xd2");
+        journal.close();
+
+        // a record torn by a crash is ignored
+        Files.write(
+                segments().get(0),
+                "0000abcd S 0x".getBytes(StandardCharsets.US_ASCII),
+                StandardOpenOption.APPEND);
+
+        TransactionJournal reopened = new TransactionJournal(directory);
+        List<JournalEntry> pending = reopened.getPending(ADDRESS.toUpperCase());
+        assertEquals(pending.size(), 1);
+        assertEquals(pending.get(0).getTransactionHash(), "0xa0");
+        assertEquals(pending.get(0).getSignedTransaction(), "0xf0");
+        assertEquals(reopened.getNextNonce(ADDRESS), 3);
+        assertEquals(reopened.getNextNonce("0x0"), -1);
+        assertEquals(segments().size(), 1);
+        reopened.close();
+    }
+
+    @Test
+    public void testStartsNewSegmentWhenFull() throws Exception {
+        TransactionJournal journal = new TransactionJournal(directory, 256);
+        for (int i = 0; i < 20; i++) {
+            journal.recordSigned(ADDRESS, i, "0x" + i, "0xf" + i);
+            if (i < 18) {
+                journal.recordConfirmed("0x" + i);
+            }
+        }
+        assertEquals(segments().size(), 1);
+        journal.close();
+
+        TransactionJournal reopened = new TransactionJournal(directory, 256);
+        assertEquals(
+                reopened.getPending().stream()
+                        .map(JournalEntry::getNonce)
+                        .collect(Collectors.toList()),
+                Arrays.asList(18L, 19L));
+        assertEquals(reopened.getNextNonce(ADDRESS), 20);
+        reopened.close();
+    }
+
+    @Test
+    public void testRecoversPendingTransactions() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        Web3j web3j = Web3j.build(web3jService);
+        String minedHash = Hash.sha3("0xf0");
+        String resentHash = Hash.sha3("0xf1");
+
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(invocation -> transactionCount("0x1"));
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionReceipt.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+                            if (request.getParams().get(0).equals(minedHash)) {
+                                response.setResult(receipt(minedHash));
+                            }
+                            return response;
+                        });
+        EthSendTransaction sent = new EthSendTransaction();
+        sent.setResult(resentHash);
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class))).thenReturn(sent);
+
+        TransactionJournal journal = new TransactionJournal(directory);
+        journal.recordSigned(ADDRESS, 0, minedHash, "0xf0");
+        journal.recordSigned(ADDRESS, 1, resentHash, "0xf1");
+
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(
+                        web3j,
+                        SampleKeys.CREDENTIALS,
+                        1,
+                        new TransactionReceiptProcessor(web3j) {
+                            @Override
+                            public TransactionReceipt waitForTransactionReceipt(
+                                    String transactionHash) {
+                                return receipt(transactionHash);
+                            }
+
+                            @Override
+                            public CompletableFuture<TransactionReceipt>
+                                    waitForTransactionReceiptAsync(String transactionHash) {
+                                return CompletableFuture.completedFuture(receipt(transactionHash));
+                            }
+                        });
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        transactionManager.setNonceAllocator(nonceAllocator);
+        transactionManager.setJournal(journal);
+
+        List<CompletableFuture<TransactionReceipt>> results =
+                transactionManager.recoverFromJournal();
+
+        assertEquals(results.size(), 2);
+        assertEquals(results.get(0).get().getTransactionHash(), minedHash);
+        assertEquals(results.get(1).get().getTransactionHash(), resentHash);
+        assertTrue(journal.getPending().isEmpty());
+        // the node's pending count does not yet include the resent transaction
+        assertEquals(nonceAllocator.getNextNonce(ADDRESS), 2);
+        verify(web3jService).send(any(Request.class), eq(EthSendTransaction.class));
+        journal.close();
+    }
+
+    @Test
+    public void testTransportErrorKeepsTransactionPending() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        Web3j web3j = Web3j.build(web3jService);
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(invocation -> transactionCount("0x0"));
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenThrow(new IOException("connection reset"));
+
+        TransactionJournal journal = new TransactionJournal(directory);
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        transactionManager.setJournal(journal);
+
+        assertThrows(
+                IOException.class,
+                () ->
+                        transactionManager.sendTransaction(
+                                BigInteger.ONE, BigInteger.TEN, ADDRESS, "", BigInteger.ONE));
+
+        // the node may have received the transaction, so it is checked again on recovery
+        assertEquals(journal.getPending(ADDRESS).size(), 1);
+        journal.close();
+    }
+
+    @Test
+    public void testRecoveryDoesNotReserveNonces() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        Web3j web3j = Web3j.build(web3jService);
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(invocation -> transactionCount("0x3"));
+
+        TransactionJournal journal = new TransactionJournal(directory);
+        FastRawTransactionManager transactionManager =
+                new FastRawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        transactionManager.setJournal(journal);
+
+        assertTrue(transactionManager.recoverFromJournal().isEmpty());
+        NonceAllocator nonceAllocator = transactionManager.getNonceAllocator();
+        assertEquals(nonceAllocator.getNextNonce(ADDRESS), 3);
+        assertTrue(nonceAllocator.getCommitted(ADDRESS).isEmpty());
+
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(
+                        invocation -> {
+                            EthGetTransactionCount ethGetTransactionCount =
+                                    new EthGetTransactionCount();
+                            ethGetTransactionCount.setError(
+                                    new Response.Error(-32000, "header not found"));
+                            return ethGetTransactionCount;
+                        });
+        assertThrows(IOException.class, transactionManager::recoverFromJournal);
+        journal.close();
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.collect(Collectors.toList());
+        }
+    }
+
+    private static EthGetTransactionCount transactionCount(String count) {
+        EthGetTransactionCount ethGetTransactionCount = new EthGetTransactionCount();
+        ethGetTransactionCount.setResult(count);
+        return ethGetTransactionCount;
+    }
+
+    private static TransactionReceipt receipt(String transactionHash) {
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash(transactionHash);
+        return receipt;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.nonce;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.RawTransactionManager;
+import org.web3j.utils.TxHashVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NonceAllocatorTest {
+
+    private static final String ADDRESS = SampleKeys.ADDRESS;
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private long latest = 5;
+    private long pending = 5;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            EthGetTransactionCount ethGetTransactionCount =
+                                    new EthGetTransactionCount();
+                            long count =
+                                    "latest".equals(request.getParams().get(1)) ? latest : pending;
+                            ethGetTransactionCount.setResult("0x" + Long.toHexString(count));
+                            return ethGetTransactionCount;
+                        });
+    }
+
+    @Test
+    public void testReleasedNoncesAreReused() throws Exception {
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+
+        NonceReservation first = nonceAllocator.reserve(ADDRESS);
+        NonceReservation second = nonceAllocator.reserve(ADDRESS);
+        NonceReservation third = nonceAllocator.reserve(ADDRESS);
+        assertEquals(first.getNonce(), BigInteger.valueOf(5));
+        assertEquals(third.getNonce(), BigInteger.valueOf(7));
+        assertEquals(nonceAllocator.getReservedCount(ADDRESS), 3);
+
+        // the last nonce goes back to the counter, an earlier one is reused first
+        third.release();
+        assertEquals(nonceAllocator.getNextNonce(ADDRESS), 7);
+        first.release();
+        first.commit();
+        second.commit();
+        assertEquals(nonceAllocator.getReleased(ADDRESS), Collections.singleton(5L));
+
+        assertEquals(nonceAllocator.reserve(ADDRESS).getNonce(), BigInteger.valueOf(5));
+        assertEquals(
+                nonceAllocator.reserve(ADDRESS.toUpperCase()).getNonce(), BigInteger.valueOf(7));
+        assertEquals(nonceAllocator.getAccounts().size(), 1);
+    }
+
+    @Test
+    public void testConcurrentReservationsAreUnique() throws Exception {
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        Set<BigInteger> nonces = ConcurrentHashMap.newKeySet();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(
+                    executorService.submit(
+                            () -> {
+                                for (int j = 0; j < 1000; j++) {
+                                    NonceReservation reservation = nonceAllocator.reserve(ADDRESS);
+                                    nonces.add(reservation.getNonce());
+                                    reservation.commit();
+                                }
+                                return null;
+                            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        assertEquals(nonces.size(), 8000);
+        assertEquals(nonceAllocator.getNextNonce(ADDRESS), 8005);
+    }
+
+    @Test
+    public void testReconcileFillsGaps() throws Exception {
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        List<BigInteger> filled = new ArrayList<>();
+        nonceAllocator.setGapFiller(ADDRESS, (address, nonce) -> filled.add(nonce));
+
+        List<NonceReservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reservations.add(nonceAllocator.reserve(ADDRESS));
+        }
+        // nonce 5 failed to send, and the node dropped nonce 7 from its pool
+        reservations.get(0).release();
+        for (int i = 1; i < 5; i++) {
+            reservations.get(i).commit();
+        }
+        latest = 5;
+        pending = 5;
+
+        assertEquals(nonceAllocator.reconcile(ADDRESS), Collections.singletonList(5L));
+        assertEquals(filled, Collections.singletonList(BigInteger.valueOf(5)));
+
+        latest = 6;
+        pending = 7;
+        assertEquals(nonceAllocator.reconcile(ADDRESS), Collections.singletonList(7L));
+        assertEquals(filled, Arrays.asList(BigInteger.valueOf(5), BigInteger.valueOf(7)));
+        assertEquals(nonceAllocator.getCommitted(ADDRESS).iterator().next(), 6L);
+
+        // transactions sent by other means move the counter forward
+        latest = 10;
+        pending = 12;
+        assertTrue(nonceAllocator.reconcile(ADDRESS).isEmpty());
+        assertTrue(nonceAllocator.getCommitted(ADDRESS).isEmpty());
+        assertEquals(nonceAllocator.getNextNonce(ADDRESS), 12);
+    }
+
+    @Test
+    public void testGapsAreReusedWithoutFiller() throws Exception {
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        NonceReservation first = nonceAllocator.reserve(ADDRESS);
+        nonceAllocator.reserve(ADDRESS).commit();
+        first.commit();
+        pending = 7;
+
+        assertEquals(nonceAllocator.reconcile(ADDRESS), Collections.emptyList());
+        nonceAllocator.reserve(ADDRESS).commit();
+        pending = 5;
+        // nonce 5 was dropped while 6 and 7 are still pending
+        assertEquals(nonceAllocator.reconcile(ADDRESS), Collections.singletonList(5L));
+        assertEquals(nonceAllocator.reserve(ADDRESS).getNonce(), BigInteger.valueOf(5));
+    }
+
+    @Test
+    public void testFailedSendReleasesNonce() throws Exception {
+        List<BigInteger> sentNonces = new ArrayList<>();
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            sentNonces.add(
+                                    TransactionDecoder.decode((String) request.getParams().get(0))
+                                            .getNonce());
+                            String response =
+                                    sentNonces.size() == 1
+                                            ? "{\"error\":{\"code\":-32000,"
+                                                    + "\"message\":\"insufficient funds\"}}"
+                                            : "{\"result\":\"0x01\"}";
+                            return ObjectMapperFactory.getObjectMapper()
+                                    .readValue(response, EthSendTransaction.class);
+                        });
+
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        TxHashVerifier txHashVerifier = mock(TxHashVerifier.class);
+        when(txHashVerifier.verify(any(), any())).thenReturn(true);
+        RawTransactionManager first = new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        RawTransactionManager second = new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        for (RawTransactionManager transactionManager : Arrays.asList(first, second)) {
+            transactionManager.setNonceAllocator(nonceAllocator);
+            transactionManager.setTxHashVerifier(txHashVerifier);
+        }
+
+        assertTrue(
+                first.sendTransaction(BigInteger.ONE, BigInteger.TEN, ADDRESS, "", BigInteger.ONE)
+                        .hasError());
+        second.sendTransaction(BigInteger.ONE, BigInteger.TEN, ADDRESS, "", BigInteger.ONE);
+        first.sendTransaction(BigInteger.ONE, BigInteger.TEN, ADDRESS, "", BigInteger.ONE);
+
+        assertEquals(
+                sentNonces,
+                Arrays.asList(BigInteger.valueOf(5), BigInteger.valueOf(5), BigInteger.valueOf(6)));
+        assertEquals(nonceAllocator.getCommitted(ADDRESS).size(), 2);
+    }
+
+    @Test
+    public void testTransportErrorKeepsNonce() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenThrow(new IOException("timeout"));
+
+        NonceAllocator nonceAllocator = new NonceAllocator(web3j);
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        transactionManager.setNonceAllocator(nonceAllocator);
+
+        assertThrows(
+                IOException.class,
+                () ->
+                        transactionManager.sendTransaction(
+                                BigInteger.ONE, BigInteger.TEN, ADDRESS, "", BigInteger.ONE));
+
+        // the transaction may have reached the node, so its nonce is not given out again
+        assertEquals(nonceAllocator.getCommitted(ADDRESS), Collections.singleton(5L));
+        assertEquals(nonceAllocator.reserve(ADDRESS).getNonce(), BigInteger.valueOf(6));
+    }
+}
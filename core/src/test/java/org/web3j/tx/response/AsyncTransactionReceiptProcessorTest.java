@@ -0,0 +1,197 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.chain.AdaptivePollingScheduler;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AsyncTransactionReceiptProcessorTest {
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private ScheduledExecutorService scheduledExecutorService;
+    private final Set<String> mined = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger failingBatches = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        when(web3jService.sendBatchAsync(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            batches.incrementAndGet();
+                            if (failingBatches.getAndDecrement() > 0) {
+                                CompletableFuture<BatchResponse> failed = new CompletableFuture<>();
+                                failed.completeExceptionally(new IOException("connection reset"));
+                                return failed;
+                            }
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request :
+                                    batchRequest.getRequests()) {
+                                String hash = (String) request.getParams().get(0);
+                                EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+                                response.setId(request.getId());
+                                if (mined.contains(hash)) {
+                                    TransactionReceipt receipt = new TransactionReceipt();
+                                    receipt.setTransactionHash(hash);
+                                    response.setResult(receipt);
+                                }
+                                responses.add(response);
+                            }
+                            return CompletableFuture.supplyAsync(
+                                    () -> new BatchResponse(batchRequest.getRequests(), responses));
+                        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        scheduledExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void testWaitsForManyReceiptsInSharedBatches() throws Exception {
+        AsyncTransactionReceiptProcessor processor =
+                new AsyncTransactionReceiptProcessor(web3j, 10, 100, 100, scheduledExecutorService);
+
+        List<CompletableFuture<TransactionReceipt>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String hash = "0x" + Integer.toHexString(i);
+            mined.add(hash);
+            futures.add(processor.waitForTransactionReceiptAsync(hash));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(futures.get(i).get().getTransactionHash(), "0x" + Integer.toHexString(i));
+        }
+        // a single timer thread served every wait, in batches of receipts
+        assertTrue(batches.get() >= 10 && batches.get() < 100);
+        assertEquals(processor.getPendingCount(), 0);
+    }
+
+    @Test
+    public void testFailsTransactionsWithoutReceipts() throws Exception {
+        AsyncTransactionReceiptProcessor processor =
+                new AsyncTransactionReceiptProcessor(web3j, 10, 3, 100, scheduledExecutorService);
+
+        CompletableFuture<TransactionReceipt> future =
+                processor.waitForTransactionReceiptAsync("0x1");
+
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(((TransactionException) e.getCause()).getTransactionHash().get(), "0x1");
+        assertEquals(batches.get(), 4);
+
+        mined.add("0x2");
+        assertEquals(processor.waitForTransactionReceipt("0x2").getTransactionHash(), "0x2");
+    }
+
+    @Test
+    public void testFailedPollsCountAsMissedAttempts() throws Exception {
+        AsyncTransactionReceiptProcessor processor =
+                new AsyncTransactionReceiptProcessor(web3j, 10, 3, 100, scheduledExecutorService);
+        failingBatches.set(2);
+        mined.add("0x1");
+
+        assertEquals(processor.waitForTransactionReceipt("0x1").getTransactionHash(), "0x1");
+        assertEquals(batches.get(), 3);
+
+        // a node which keeps failing still fails the transaction after its attempts
+        failingBatches.set(Integer.MAX_VALUE);
+        CompletableFuture<TransactionReceipt> future =
+                processor.waitForTransactionReceiptAsync("0x2");
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(batches.get(), 7);
+    }
+
+    @Test
+    public void testRequestErrorsCountAsMissedAttempts() throws Exception {
+        Web3j failingWeb3j = mock(Web3j.class);
+        when(failingWeb3j.newBatch()).thenThrow(new IllegalStateException("client closed"));
+        AsyncTransactionReceiptProcessor processor =
+                new AsyncTransactionReceiptProcessor(
+                        failingWeb3j, 10, 3, 100, scheduledExecutorService);
+
+        CompletableFuture<TransactionReceipt> future =
+                processor.waitForTransactionReceiptAsync("0x1");
+
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(processor.getPendingCount(), 0);
+    }
+
+    @Test
+    public void testAdaptiveDelayIsCalculatedOnTimer() throws Exception {
+        CountDownLatch refreshed = new CountDownLatch(1);
+        AtomicReference<Thread> refreshThread = new AtomicReference<>();
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenAnswer(
+                        invocation -> {
+                            refreshThread.set(Thread.currentThread());
+                            refreshed.countDown();
+                            return new EthBlock();
+                        });
+        AsyncTransactionReceiptProcessor processor =
+                new AsyncTransactionReceiptProcessor(
+                        web3j, AdaptivePollingScheduler.ADAPTIVE, 3, 100, scheduledExecutorService);
+
+        processor.waitForTransactionReceiptAsync("0x1");
+
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+        assertNotSame(refreshThread.get(), Thread.currentThread());
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BlockTransactionReceiptProcessorTest {
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private final PublishProcessor<EthBlock> blocks = PublishProcessor.create();
+    // the block hash each transaction's receipt is in
+    private final Map<String, String> receiptBlocks = new ConcurrentHashMap<>();
+    private final Map<String, EthBlock.Block> blocksByHash = new ConcurrentHashMap<>();
+    private final List<List<Object>> receiptRequests =
+            Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        when(web3jService.sendBatchAsync(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Object> hashes = new ArrayList<>();
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request :
+                                    batchRequest.getRequests()) {
+                                String hash = (String) request.getParams().get(0);
+                                hashes.add(hash);
+                                EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+                                response.setId(request.getId());
+                                String blockHash = receiptBlocks.get(hash.toLowerCase());
+                                if (blockHash != null) {
+                                    TransactionReceipt receipt = new TransactionReceipt();
+                                    receipt.setTransactionHash(hash);
+                                    receipt.setBlockHash(blockHash);
+                                    response.setResult(receipt);
+                                }
+                                responses.add(response);
+                            }
+                            receiptRequests.add(hashes);
+                            return CompletableFuture.completedFuture(
+                                    new BatchResponse(batchRequest.getRequests(), responses));
+                        });
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            EthBlock ethBlock = new EthBlock();
+                            ethBlock.setResult(blocksByHash.get(request.getParams().get(0)));
+                            return ethBlock;
+                        });
+    }
+
+    @Test
+    public void testRequestsReceiptsOnlyForTransactionsInNewBlocks() throws Exception {
+        BlockTransactionReceiptProcessor processor =
+                new BlockTransactionReceiptProcessor(web3j, blocks, 0, 2);
+        CompletableFuture<TransactionReceipt> mined = processor.watch("0xa");
+        CompletableFuture<TransactionReceipt> notMined = processor.watch("0xc");
+        receiptBlocks.put("0xa", "0x1");
+
+        publish(block(1, "0x1", "0x0", "0xa", "0xb"));
+
+        assertEquals(mined.get(5, TimeUnit.SECONDS).getBlockHash(), "0x1");
+        assertEquals(receiptRequests, Collections.singletonList(Collections.singletonList("0xa")));
+        assertFalse(notMined.isDone());
+
+        // transactions mined before they are waited for are found in the recent blocks
+        receiptBlocks.put("0xb", "0x1");
+        CompletableFuture<TransactionReceipt> minedEarlier = processor.watch("0xB");
+        publish(block(2, "0x2", "0x1"));
+        assertEquals(minedEarlier.get(5, TimeUnit.SECONDS).getTransactionHash(), "0xB");
+
+        publish(block(3, "0x3", "0x2"));
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> notMined.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(processor.getPendingCount(), 0);
+        processor.close();
+    }
+
+    @Test
+    public void testTransactionsInReplacedBlocksArePendingAgain() throws Exception {
+        BlockTransactionReceiptProcessor processor =
+                new BlockTransactionReceiptProcessor(web3j, blocks, 1, 10);
+        CompletableFuture<TransactionReceipt> future = processor.watch("0xa");
+
+        receiptBlocks.put("0xa", "0x1a");
+        publish(block(1, "0x1a", "0x0", "0xa"));
+        assertFalse(future.isDone());
+
+        // block 1 is replaced by a block without the transaction, found through the parent hash
+        receiptBlocks.remove("0xa");
+        blocksByHash.put("0x1b", block(1, "0x1b", "0x0"));
+        publish(block(2, "0x2b", "0x1b"));
+        assertFalse(future.isDone());
+
+        receiptBlocks.put("0xa", "0x3b");
+        publish(block(3, "0x3b", "0x2b", "0xa"));
+        assertFalse(future.isDone());
+        publish(block(4, "0x4b", "0x3b"));
+
+        assertEquals(future.get(5, TimeUnit.SECONDS).getBlockHash(), "0x3b");
+        processor.close();
+    }
+
+    @Test
+    public void testResubscribesAfterError() throws Exception {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flowable<EthBlock> failingOnce =
+                Flowable.defer(
+                        () ->
+                                subscriptions.incrementAndGet() == 1
+                                        ? Flowable.error(new IOException("connection lost"))
+                                        : blocks);
+        BlockTransactionReceiptProcessor processor =
+                new BlockTransactionReceiptProcessor(web3j, failingOnce, 0, 2);
+        CompletableFuture<TransactionReceipt> future = processor.watch("0xa");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!blocks.hasSubscribers() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        receiptBlocks.put("0xa", "0x1");
+        publish(block(1, "0x1", "0x0", "0xa"));
+
+        assertEquals(future.get(5, TimeUnit.SECONDS).getBlockHash(), "0x1");
+        assertEquals(subscriptions.get(), 2);
+        processor.close();
+        assertFalse(blocks.hasSubscribers());
+    }
+
+    private void publish(EthBlock.Block block) {
+        EthBlock ethBlock = new EthBlock();
+        ethBlock.setResult(block);
+        blocks.onNext(ethBlock);
+    }
+
+    private static EthBlock.Block block(
+            long number, String hash, String parentHash, String... transactionHashes) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber("0x" + Long.toHexString(number));
+        block.setHash(hash);
+        block.setParentHash(parentHash);
+        List<EthBlock.TransactionResult> transactions = new ArrayList<>();
+        for (String transactionHash : transactionHashes) {
+            transactions.add(new EthBlock.TransactionHash(transactionHash));
+        }
+        block.setTransactions(transactions);
+        return block;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class QueuingTransactionReceiptProcessorTest {
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final List<TransactionReceipt> receipts =
+            Collections.synchronizedList(new ArrayList<>());
+    private final List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+    private final Callback callback =
+            new Callback() {
+                @Override
+                public void accept(TransactionReceipt transactionReceipt) {
+                    receipts.add(transactionReceipt);
+                }
+
+                @Override
+                public void exception(Exception exception) {
+                    exceptions.add(exception);
+                }
+            };
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        // receipts are available for transactions with even hashes
+        when(web3jService.sendBatchAsync(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            batchSizes.add(batchRequest.getRequests().size());
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request :
+                                    batchRequest.getRequests()) {
+                                String hash = (String) request.getParams().get(0);
+                                EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+                                response.setId(request.getId());
+                                if (Integer.decode(hash) % 2 == 0) {
+                                    TransactionReceipt receipt = new TransactionReceipt();
+                                    receipt.setTransactionHash(hash);
+                                    response.setResult(receipt);
+                                }
+                                responses.add(0, response);
+                            }
+                            return CompletableFuture.completedFuture(
+                                    new BatchResponse(batchRequest.getRequests(), responses));
+                        });
+    }
+
+    @Test
+    public void testRequestsReceiptsInBatches() throws Exception {
+        QueuingTransactionReceiptProcessor processor =
+                new QueuingTransactionReceiptProcessor(
+                        web3j, callback, 2, TimeUnit.HOURS.toMillis(1), 100);
+        for (int i = 0; i < 250; i++) {
+            processor.waitForTransactionReceipt("0x" + Integer.toHexString(i));
+        }
+        processor.waitForTransactionReceipt("0x0");
+        assertEquals(processor.getPendingCount(), 250);
+
+        assertTrue(processor.sendTransactionReceiptRequests());
+
+        assertEquals(batchSizes.size(), 3);
+        assertEquals(batchSizes.stream().mapToInt(Integer::intValue).sum(), 250);
+        assertEquals(receipts.size(), 125);
+        assertTrue(
+                receipts.stream()
+                        .allMatch(
+                                receipt -> Integer.decode(receipt.getTransactionHash()) % 2 == 0));
+        assertEquals(processor.getPendingCount(), 125);
+        assertTrue(exceptions.isEmpty());
+    }
+
+    @Test
+    public void testLimitsConcurrentBatches() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(web3jService.sendBatchAsync(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            batchSizes.add(batchRequest.getRequests().size());
+                            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            return CompletableFuture.supplyAsync(
+                                    () -> {
+                                        try {
+                                            Thread.sleep(10);
+                                        } catch (InterruptedException e) {
+                                            Thread.currentThread().interrupt();
+                                        }
+                                        inFlight.decrementAndGet();
+                                        List<Response<?>> responses = new ArrayList<>();
+                                        for (Request<?, ? extends Response<?>> request :
+                                                batchRequest.getRequests()) {
+                                            EthGetTransactionReceipt response =
+                                                    new EthGetTransactionReceipt();
+                                            response.setId(request.getId());
+                                            responses.add(response);
+                                        }
+                                        return new BatchResponse(
+                                                batchRequest.getRequests(), responses);
+                                    });
+                        });
+
+        QueuingTransactionReceiptProcessor processor =
+                new QueuingTransactionReceiptProcessor(
+                        web3j, callback, 2, TimeUnit.HOURS.toMillis(1), 10, 2);
+        for (int i = 0; i < 100; i++) {
+            processor.waitForTransactionReceipt("0x" + Integer.toHexString(i));
+        }
+
+        assertFalse(processor.sendTransactionReceiptRequests());
+
+        assertEquals(batchSizes.size(), 10);
+        assertEquals(maxInFlight.get(), 2);
+        assertEquals(processor.getPendingCount(), 100);
+    }
+
+    @Test
+    public void testPollSurvivesCallbackErrors() throws Exception {
+        QueuingTransactionReceiptProcessor processor =
+                new QueuingTransactionReceiptProcessor(
+                        web3j,
+                        new Callback() {
+                            @Override
+                            public void accept(TransactionReceipt transactionReceipt) {
+                                throw new IllegalStateException("callback failed");
+                            }
+
+                            @Override
+                            public void exception(Exception exception) {}
+                        },
+                        2,
+                        TimeUnit.HOURS.toMillis(1),
+                        100);
+        processor.waitForTransactionReceipt("0x2");
+
+        assertFalse(processor.poll());
+        assertEquals(processor.getPendingCount(), 0);
+    }
+
+    @Test
+    public void testTransactionsWithoutReceiptsExpire() throws Exception {
+        QueuingTransactionReceiptProcessor processor =
+                new QueuingTransactionReceiptProcessor(
+                        web3j, callback, 1, TimeUnit.HOURS.toMillis(1), 100);
+        processor.waitForTransactionReceipt("0x1");
+
+        assertFalse(processor.sendTransactionReceiptRequests());
+        assertTrue(exceptions.isEmpty());
+        assertFalse(processor.sendTransactionReceiptRequests());
+
+        assertEquals(exceptions.size(), 1);
+        assertEquals(((TransactionException) exceptions.get(0)).getTransactionHash().get(), "0x1");
+        assertEquals(processor.getPendingCount(), 0);
+        assertTrue(processor.sendTransactionReceiptRequests());
+    }
+}
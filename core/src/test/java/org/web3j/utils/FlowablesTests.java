@@ -12,14 +12,17 @@
  */
 package org.web3j.utils;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Flowable;
 import io.reactivex.disposables.Disposable;
+import io.reactivex.subscribers.TestSubscriber;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -85,6 +88,58 @@ public class FlowablesTests {
         assertTrue(subscription.isDisposed());
     }
 
+    @Test
+    public void testLongRangeFlowableHonoursBackpressure() {
+        TestSubscriber<Long> subscriber = Flowables.range(5L, Long.MAX_VALUE, true).test(0);
+        subscriber.assertNoValues();
+
+        subscriber.request(3);
+        subscriber.assertValues(5L, 6L, 7L);
+        subscriber.assertNotComplete();
+        subscriber.cancel();
+
+        Flowables.range(0L, 3L, false).test().assertValues(3L, 2L, 1L, 0L).assertComplete();
+    }
+
+    @Test
+    public void testRetryWithDelayResubscribesAfterErrors() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        List<Throwable> errors = new ArrayList<>();
+        Flowable<Integer> flowable =
+                Flowable.defer(
+                        () ->
+                                subscriptions.incrementAndGet() < 3
+                                        ? Flowable.error(new IOException("failed"))
+                                        : Flowable.just(1, 2));
+
+        TestSubscriber<Integer> subscriber =
+                Flowables.retryWithDelay(flowable, 10, TimeUnit.MILLISECONDS, errors::add).test();
+
+        assertTrue(subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS));
+        subscriber.assertValues(1, 2);
+        subscriber.assertComplete();
+        assertEquals(errors.size(), 2);
+        assertEquals(subscriptions.get(), 3);
+    }
+
+    @Test
+    public void testRetryWithDelayIsCancelledWithSubscription() throws InterruptedException {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flowable<Integer> flowable =
+                Flowable.defer(
+                        () -> {
+                            subscriptions.incrementAndGet();
+                            return Flowable.error(new IOException("failed"));
+                        });
+
+        Disposable disposable =
+                Flowables.retryWithDelay(flowable, 50, TimeUnit.MILLISECONDS, e -> {}).subscribe();
+        disposable.dispose();
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertEquals(subscriptions.get(), 1);
+    }
+
     @Test
     public void testRangeFlowableIllegalLowerBound() {
 
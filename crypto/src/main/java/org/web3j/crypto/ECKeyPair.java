@@ -27,8 +27,14 @@ import org.web3j.utils.Numeric;
 
 /** Elliptic Curve SECP-256k1 generated key pair. */
 public class ECKeyPair {
+    // signers are reset for every signature, so each thread reuses its own
+    private static final ThreadLocal<ECDSASigner> SIGNER =
+            ThreadLocal.withInitial(
+                    () -> new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest())));
+
     private final BigInteger privateKey;
     private final BigInteger publicKey;
+    private volatile ECPrivateKeyParameters privateKeyParameters;
 
     public ECKeyPair(BigInteger privateKey, BigInteger publicKey) {
         this.privateKey = privateKey;
@@ -50,9 +56,13 @@ public class ECKeyPair {
      * @return An {@link ECDSASignature} of the hash
      */
     public ECDSASignature sign(byte[] transactionHash) {
-        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        ECPrivateKeyParameters privKey = privateKeyParameters;
+        if (privKey == null) {
+            privKey = new ECPrivateKeyParameters(privateKey, Sign.CURVE);
+            privateKeyParameters = privKey;
+        }
 
-        ECPrivateKeyParameters privKey = new ECPrivateKeyParameters(privateKey, Sign.CURVE);
+        ECDSASigner signer = SIGNER.get();
         signer.init(true, privKey);
         BigInteger[] components = signer.generateSignature(transactionHash);
 